@@ -16,6 +16,7 @@ if (db.users.count() === 0) {
       "userName": "employeeUser",
       "userType": "EMPLOYEE",
       "registrationDate": ISODate("2021-01-01T00:00:00Z"),
+      "loyaltyTier": "NONE",
       "password": "$2a$10$w7698TS6Mds7zFOGHWMiKus0gO/9RU3PIY88gQsHEWglbe51zDov." // hashed password 'password'
     },
     {
@@ -23,6 +24,7 @@ if (db.users.count() === 0) {
       "userName": "affiliateUser",
       "userType": "AFFILIATE",
       "registrationDate": ISODate("2021-01-01T00:00:00Z"),
+      "loyaltyTier": "NONE",
       "password": "$2a$10$w7698TS6Mds7zFOGHWMiKus0gO/9RU3PIY88gQsHEWglbe51zDov." // hashed password 'password'
     },
     {
@@ -30,6 +32,7 @@ if (db.users.count() === 0) {
       "userName": "loyalCustomer",
       "userType": "CUSTOMER",
       "registrationDate": ISODate("2019-01-01T00:00:00Z"),
+      "loyaltyTier": "LOYAL",
       "password": "$2a$10$w7698TS6Mds7zFOGHWMiKus0gO/9RU3PIY88gQsHEWglbe51zDov." // hashed password 'password'
     },
     {
@@ -37,6 +40,7 @@ if (db.users.count() === 0) {
       "userName": "newCustomer",
       "userType": "CUSTOMER",
       "registrationDate": ISODate("2022-01-01T00:00:00Z"),
+      "loyaltyTier": "NONE",
       "password": "$2a$10$w7698TS6Mds7zFOGHWMiKus0gO/9RU3PIY88gQsHEWglbe51zDov." // hashed password 'password'
     }
   ]);
@@ -44,6 +48,7 @@ if (db.users.count() === 0) {
 
 // Create a new "products" collection if it doesn't already exist
 db.createCollection('products');
+db.products.createIndex({ "version": 1 });
 
 if (db.products.count() === 0) {
 // Insert new product documents
@@ -110,6 +115,62 @@ if (db.products.count() === 0) {
     },
   ]);
 }
+// Create a new "discount_rules" collection if it doesn't already exist
+db.createCollection('discount_rules');
+
+if (db.discount_rules.count() === 0) {
+// Insert the standard discount rules, percentages are in basis points
+  db.discount_rules.insert([
+    {
+      "_id": ObjectId(),
+      "name": "EmployeeDiscountStrategy",
+      "type": "PERCENTAGE",
+      "userType": "EMPLOYEE",
+      "loyalCustomerOnly": false,
+      "order": 1,
+      "basisPoints": NumberLong(3000),
+      "excludedProductTypes": ["GROCERY"]
+    },
+    {
+      "_id": ObjectId(),
+      "name": "AffiliateDiscountStrategy",
+      "type": "PERCENTAGE",
+      "userType": "AFFILIATE",
+      "loyalCustomerOnly": false,
+      "order": 1,
+      "basisPoints": NumberLong(1000),
+      "excludedProductTypes": ["GROCERY"]
+    },
+    {
+      "_id": ObjectId(),
+      "name": "LoyalCustomerDiscountStrategy",
+      "type": "PERCENTAGE",
+      "userType": "CUSTOMER",
+      "loyalCustomerOnly": true,
+      "order": 1,
+      "basisPoints": NumberLong(500),
+      "excludedProductTypes": ["GROCERY"]
+    },
+    {
+      "_id": ObjectId(),
+      "name": "FixedAmountDiscountStrategy",
+      "type": "FIXED_AMOUNT",
+      "loyalCustomerOnly": false,
+      "order": 2,
+      "step": 100.0,
+      "amountPerStep": 5.0
+    }
+  ]);
+}
+// Create a new "promotions" collection, promotions are looked up by the end of their validity
+db.createCollection('promotions');
+db.promotions.createIndex({ "validUntil": 1 });
+// Create a new "coupons" collection, the coupon code is the _id and new codes are read by issuedAt
+db.createCollection('coupons');
+db.coupons.createIndex({ "issuedAt": 1 });
+// Create a new "user_spend" collection holding the spend of each user per day
+db.createCollection('user_spend');
+db.user_spend.createIndex({ "day": 1 });
 // Create a new user and give read/write permissions on the "retailStore" database
 db.createUser(
     {
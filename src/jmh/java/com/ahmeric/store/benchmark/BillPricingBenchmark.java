@@ -0,0 +1,167 @@
+package com.ahmeric.store.benchmark;
+
+import com.ahmeric.store.config.ApplicationConfig;
+import com.ahmeric.store.config.StoreUserDetails;
+import com.ahmeric.store.entity.Bill;
+import com.ahmeric.store.entity.Product;
+import com.ahmeric.store.entity.ProductType;
+import com.ahmeric.store.entity.User;
+import com.ahmeric.store.entity.UserType;
+import com.ahmeric.store.model.dto.BillDto;
+import com.ahmeric.store.model.dto.BillItemDto;
+import com.ahmeric.store.model.response.BillResponse;
+import com.ahmeric.store.service.BillQuoteCache;
+import com.ahmeric.store.service.BillService;
+import com.ahmeric.store.service.ProductCache;
+import com.ahmeric.store.service.ProductService;
+import com.ahmeric.store.service.SynchronousBillWriter;
+import com.ahmeric.store.service.UserService;
+import com.ahmeric.store.service.discount.DefaultDiscountRules;
+import com.ahmeric.store.service.discount.DiscountService;
+import com.ahmeric.store.service.discount.DiscountStrategy;
+import com.ahmeric.store.service.discount.DiscountStrategyFactory;
+import com.ahmeric.store.service.promotion.PromotionService;
+import com.ahmeric.store.utils.Mapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+/**
+ * Benchmarks of the bill pricing pipeline, wired by hand against in-memory repositories. Run with
+ * {@code mvn -P jmh test-compile exec:exec}, which reports throughput and, through the gc
+ * profiler, the allocation rate per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BillPricingBenchmark {
+
+  @Param({"1", "10", "100"})
+  private int basketSize;
+
+  @Param({"EMPLOYEE", "AFFILIATE", "CUSTOMER"})
+  private UserType userType;
+
+  private DiscountStrategyFactory discountStrategyFactory;
+  private DiscountService discountService;
+  private BillService billService;
+  private Mapper mapper;
+  private List<BillItemDto> requestedItems;
+  private BillDto pricedBill;
+  private Bill storedBill;
+
+  /**
+   * Wires the services, creates the catalog and the user, and prices one bill as input for the
+   * benchmarks of the single pipeline stages.
+   */
+  @Setup
+  public void setUp() {
+    mapper = new Mapper();
+    List<Product> products = new ArrayList<>();
+    requestedItems = new ArrayList<>();
+    ProductType[] types = ProductType.values();
+    for (int i = 0; i < basketSize; i++) {
+      products.add(Product.builder()
+          .id("product" + i)
+          .name("Product " + i)
+          .price(BigDecimal.valueOf(1000 + i * 37L, 2))
+          .type(types[i % types.length])
+          .build());
+      requestedItems.add(BillItemDto.builder().productId("product" + i).quantity(1 + i % 3)
+          .build());
+    }
+    var user = User.builder()
+        .id("user1")
+        .userName("benchmarkUser")
+        .userType(userType)
+        .registrationDate(LocalDate.now().minusYears(3))
+        .password("password")
+        .build();
+
+    var userService = new UserService(InMemoryRepositories.userRepository(List.of(user)), mapper);
+    var principal = (StoreUserDetails) new ApplicationConfig(userService)
+        .loadUserByUsername(user.getUserName());
+    SecurityContextHolder.setStrategyName(SecurityContextHolder.MODE_GLOBAL);
+    SecurityContextHolder.getContext().setAuthentication(
+        new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+
+    discountStrategyFactory = new DiscountStrategyFactory(
+        InMemoryRepositories.discountRuleRepository(DefaultDiscountRules.rules()), event -> {
+        });
+    discountStrategyFactory.reload();
+    var promotionService = new PromotionService(
+        InMemoryRepositories.promotionRepository(List.of()), mapper, event -> {
+        });
+    promotionService.reload();
+    discountService = new DiscountService(discountStrategyFactory, promotionService, 8);
+    var productService = new ProductService(InMemoryRepositories.productRepository(products),
+        mapper, event -> {
+        }, new ProductCache(10_000, Duration.ofMinutes(10), new SimpleMeterRegistry()), null);
+    var billRepository = InMemoryRepositories.billRepository();
+    billService = new BillService(billRepository, new SynchronousBillWriter(billRepository,
+        event -> {
+        }), discountService, productService, mapper,
+        new BillQuoteCache(promotionService, 1, Duration.ofSeconds(1)), null, null, event -> {
+        });
+
+    pricedBill = billService.generateBillByProductIds(newRequest());
+    pricedBill.setUser(principal.toUserDto());
+    storedBill = mapper.map(pricedBill, Bill.class);
+  }
+
+  @Benchmark
+  public List<DiscountStrategy> getApplicableDiscounts() {
+    return discountStrategyFactory.getApplicableDiscounts(pricedBill);
+  }
+
+  @Benchmark
+  public BillDto applyDiscount() {
+    return discountService.applyDiscount(unpriced(pricedBill));
+  }
+
+  @Benchmark
+  public BillResponse mapBillDtoToResponse() {
+    return mapper.map(pricedBill, BillResponse.class);
+  }
+
+  @Benchmark
+  public BillDto mapBillToDto() {
+    return mapper.map(storedBill, BillDto.class);
+  }
+
+  @Benchmark
+  public BillDto generateBillByProductIds() {
+    return billService.generateBillByProductIds(newRequest());
+  }
+
+  private BillDto newRequest() {
+    return BillDto.builder().items(requestedItems).build();
+  }
+
+  /**
+   * Copies a priced bill without its discounts, since applyDiscount adds to the bill it is given.
+   */
+  private static BillDto unpriced(BillDto billDto) {
+    return billDto.toBuilder().discount(null).discounts(null).build();
+  }
+}
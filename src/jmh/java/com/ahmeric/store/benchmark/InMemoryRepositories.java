@@ -0,0 +1,127 @@
+package com.ahmeric.store.benchmark;
+
+import com.ahmeric.store.entity.Bill;
+import com.ahmeric.store.entity.DiscountRule;
+import com.ahmeric.store.entity.Product;
+import com.ahmeric.store.entity.Promotion;
+import com.ahmeric.store.entity.User;
+import com.ahmeric.store.repository.BillRepository;
+import com.ahmeric.store.repository.DiscountRuleRepository;
+import com.ahmeric.store.repository.ProductRepository;
+import com.ahmeric.store.repository.PromotionRepository;
+import com.ahmeric.store.repository.UserRepository;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.bson.types.ObjectId;
+
+/**
+ * In-memory stand-ins for the Mongo repositories used by the pricing pipeline. Only the methods
+ * the pipeline calls are implemented, every other method throws UnsupportedOperationException.
+ */
+final class InMemoryRepositories {
+
+  private InMemoryRepositories() {
+  }
+
+  /**
+   * Creates a ProductRepository holding the given products.
+   *
+   * @param products The products.
+   * @return ProductRepository supporting findById, findAllById and findAll.
+   */
+  static ProductRepository productRepository(List<Product> products) {
+    Map<String, Product> productsById = products.stream()
+        .collect(Collectors.toMap(Product::getId, Function.identity()));
+    return proxy(ProductRepository.class, (proxy, method, args) -> switch (method.getName()) {
+      case "findById" -> Optional.ofNullable(productsById.get((String) args[0]));
+      case "findAllById" -> {
+        List<Product> found = new ArrayList<>();
+        for (Object id : (Iterable<?>) args[0]) {
+          var product = productsById.get((String) id);
+          if (product != null) {
+            found.add(product);
+          }
+        }
+        yield found;
+      }
+      case "findAll" -> new ArrayList<>(productsById.values());
+      default -> unsupported(method.getName());
+    });
+  }
+
+  /**
+   * Creates a UserRepository holding the given users.
+   *
+   * @param users The users.
+   * @return UserRepository supporting findByUserName.
+   */
+  static UserRepository userRepository(List<User> users) {
+    Map<String, User> usersByName = users.stream()
+        .collect(Collectors.toMap(User::getUserName, Function.identity()));
+    return proxy(UserRepository.class, (proxy, method, args) -> switch (method.getName()) {
+      case "findByUserName" -> Optional.ofNullable(usersByName.get((String) args[0]));
+      default -> unsupported(method.getName());
+    });
+  }
+
+  /**
+   * Creates a DiscountRuleRepository holding the given rules.
+   *
+   * @param rules The discount rules.
+   * @return DiscountRuleRepository supporting findAll.
+   */
+  static DiscountRuleRepository discountRuleRepository(List<DiscountRule> rules) {
+    return proxy(DiscountRuleRepository.class, (proxy, method, args) -> switch (method.getName()) {
+      case "findAll" -> new ArrayList<>(rules);
+      default -> unsupported(method.getName());
+    });
+  }
+
+  /**
+   * Creates a PromotionRepository holding the given promotions.
+   *
+   * @param promotions The promotions.
+   * @return PromotionRepository supporting findByValidUntilAfter.
+   */
+  static PromotionRepository promotionRepository(List<Promotion> promotions) {
+    return proxy(PromotionRepository.class, (proxy, method, args) -> switch (method.getName()) {
+      case "findByValidUntilAfter" -> promotions.stream()
+          .filter(promotion -> promotion.getValidUntil().isAfter((Instant) args[0]))
+          .collect(Collectors.toList());
+      default -> unsupported(method.getName());
+    });
+  }
+
+  /**
+   * Creates a BillRepository whose save assigns an id and returns the bill. Saved bills are not
+   * retained, so long benchmark runs do not grow the heap.
+   *
+   * @return BillRepository supporting save.
+   */
+  static BillRepository billRepository() {
+    return proxy(BillRepository.class, (proxy, method, args) -> switch (method.getName()) {
+      case "save" -> {
+        var bill = (Bill) args[0];
+        bill.setId(new ObjectId().toHexString());
+        yield bill;
+      }
+      default -> unsupported(method.getName());
+    });
+  }
+
+  private static <T> T proxy(Class<T> repositoryType, InvocationHandler handler) {
+    return repositoryType.cast(Proxy.newProxyInstance(repositoryType.getClassLoader(),
+        new Class<?>[]{repositoryType}, handler));
+  }
+
+  private static Object unsupported(String methodName) {
+    throw new UnsupportedOperationException(methodName + " is not supported in benchmarks");
+  }
+}
@@ -41,7 +41,8 @@ public class ApplicationConfig {
   }
 
   /**
-   * This method loads user details by username.
+   * This method loads user details by username. The returned StoreUserDetails also carries the
+   * id, user type and registration date of the user.
    *
    * @param username the username of the user
    * @return a UserDetails instance
@@ -50,8 +51,7 @@ public class ApplicationConfig {
     var user = userService.findByUserName(username);
     List<GrantedAuthority> authorities = List.of(
         new SimpleGrantedAuthority(user.getUserType().name()));
-    return new org.springframework.security.core.userdetails.User(user.getUserName(),
-        user.getPassword(), authorities);
+    return new StoreUserDetails(user, authorities);
   }
 
   /**
@@ -17,7 +17,8 @@ import org.springframework.web.filter.OncePerRequestFilter;
 
 /**
  * This class is a filter that intercepts each request only once to validate JWT tokens. It extends
- * OncePerRequestFilter provided by Spring framework. Annotated as a Spring component.
+ * OncePerRequestFilter provided by Spring framework. Annotated as a Spring component. Users whose
+ * loyalty tier is not stored yet get the tier carried in the token.
  */
 @Component
 @RequiredArgsConstructor
@@ -60,8 +61,15 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     userName = jwtService.extractUsername(jwt);
 
     if (userName != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-      final UserDetails userDetails = this.userDetailsService.loadUserByUsername(userName);
+      UserDetails userDetails = this.userDetailsService.loadUserByUsername(userName);
       if (jwtService.isTokenValid(jwt, userDetails)) {
+        if (userDetails instanceof StoreUserDetails storeUserDetails
+            && storeUserDetails.getLoyaltyTier() == null) {
+          var loyaltyTier = jwtService.extractLoyaltyTier(jwt);
+          if (loyaltyTier != null) {
+            userDetails = storeUserDetails.withLoyaltyTier(loyaltyTier);
+          }
+        }
         final UsernamePasswordAuthenticationToken authToken =
             new UsernamePasswordAuthenticationToken(
                 userDetails,
@@ -1,10 +1,12 @@
 package com.ahmeric.store.config;
 
+import com.ahmeric.store.entity.LoyaltyTier;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
 import java.security.Key;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
@@ -21,6 +23,11 @@ import org.springframework.stereotype.Service;
 @NoArgsConstructor
 public class JwtService {
 
+  /**
+   * Claim carrying the loyalty tier of the user.
+   */
+  public static final String LOYALTY_TIER_CLAIM = "loyaltyTier";
+
   @Value("${jwt.secret}")
   private String secret;
 
@@ -62,6 +69,21 @@ public class JwtService {
         .compact();
   }
 
+  /**
+   * Returns the loyalty tier carried in the token.
+   *
+   * @param token The JWT token.
+   * @return The loyalty tier, or null if the token has no known tier.
+   */
+  public LoyaltyTier extractLoyaltyTier(String token) {
+    String loyaltyTier = extractClaim(token,
+        claims -> claims.get(LOYALTY_TIER_CLAIM, String.class));
+    return loyaltyTier == null ? null : Arrays.stream(LoyaltyTier.values())
+        .filter(tier -> tier.name().equals(loyaltyTier))
+        .findFirst()
+        .orElse(null);
+  }
+
   public boolean isTokenValid(String token, UserDetails userDetails) {
     final String username = extractUsername(token);
     return username.equals(userDetails.getUsername()) && !isTokenExpired(token);
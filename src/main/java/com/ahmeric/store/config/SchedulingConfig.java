@@ -0,0 +1,16 @@
+package com.ahmeric.store.config;
+
+import lombok.NoArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * This class enables the scheduled tasks of the application, e.g. the periodic reload of the
+ * discount rules. Annotated as a Spring configuration class.
+ */
+@Configuration
+@EnableScheduling
+@NoArgsConstructor
+public class SchedulingConfig {
+
+}
@@ -1,10 +1,12 @@
 package com.ahmeric.store.config;
 
+import jakarta.servlet.DispatcherType;
 import jakarta.servlet.http.HttpServletRequest;
 import java.util.regex.Pattern;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
@@ -62,10 +64,18 @@ public class SecurityConfiguration {
         .requireCsrfProtectionMatcher(this::isNotLocalhost)
         .and()
         .authorizeHttpRequests()
+        .dispatcherTypeMatchers(DispatcherType.ASYNC)
+        .permitAll()
+        .requestMatchers("/actuator/metrics/**")
+        .hasAuthority("EMPLOYEE")
         .requestMatchers("/api/v1/auth/**", "/v3/api-docs/**",
             "/swagger-ui/**", "/actuator/**")
         .permitAll()
-        .requestMatchers("/api/v1/users/**").hasAuthority("EMPLOYEE")
+        .requestMatchers("/api/v1/users/**", "/api/v1/discount-rules/**", "/api/v1/coupons/**",
+            "/api/v1/exports/**")
+        .hasAuthority("EMPLOYEE")
+        .requestMatchers(HttpMethod.POST, "/api/v1/promotions/**").hasAuthority("EMPLOYEE")
+        .requestMatchers(HttpMethod.POST, "/api/v1/products/import").hasAuthority("EMPLOYEE")
         .anyRequest()
         .authenticated()
         .and()
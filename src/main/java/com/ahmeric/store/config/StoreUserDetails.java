@@ -0,0 +1,77 @@
+package com.ahmeric.store.config;
+
+import com.ahmeric.store.entity.LoyaltyTier;
+import com.ahmeric.store.entity.UserType;
+import com.ahmeric.store.model.dto.UserDto;
+import java.time.LocalDate;
+import java.util.Collection;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+/**
+ * Principal of an authenticated user. Besides the credentials and authorities it carries the user
+ * details needed to price a bill, including the loyalty tier, so services can read them without
+ * loading the user again.
+ */
+@Getter
+@EqualsAndHashCode(callSuper = true)
+public class StoreUserDetails extends User {
+
+  private final String id;
+  private final UserType userType;
+  private final LocalDate registrationDate;
+  private final LoyaltyTier loyaltyTier;
+  private final Long rollingSpend;
+
+  /**
+   * Creates the principal from a user.
+   *
+   * @param user        The user loaded from the store.
+   * @param authorities The authorities granted to the user.
+   */
+  public StoreUserDetails(UserDto user, Collection<? extends GrantedAuthority> authorities) {
+    super(user.getUserName(), user.getPassword(), authorities);
+    this.id = user.getId();
+    this.userType = user.getUserType();
+    this.registrationDate = user.getRegistrationDate();
+    this.loyaltyTier = user.getLoyaltyTier();
+    this.rollingSpend = user.getRollingSpend();
+  }
+
+  private StoreUserDetails(StoreUserDetails principal, LoyaltyTier loyaltyTier) {
+    super(principal.getUsername(), principal.getPassword(), principal.getAuthorities());
+    this.id = principal.id;
+    this.userType = principal.userType;
+    this.registrationDate = principal.registrationDate;
+    this.loyaltyTier = loyaltyTier;
+    this.rollingSpend = principal.rollingSpend;
+  }
+
+  /**
+   * Returns a copy of the principal with the given loyalty tier.
+   *
+   * @param loyaltyTier The loyalty tier of the copy.
+   * @return The copy.
+   */
+  public StoreUserDetails withLoyaltyTier(LoyaltyTier loyaltyTier) {
+    return new StoreUserDetails(this, loyaltyTier);
+  }
+
+  /**
+   * Converts the principal to a UserDto without the password.
+   *
+   * @return UserDto of the authenticated user.
+   */
+  public UserDto toUserDto() {
+    return UserDto.builder()
+        .id(id)
+        .userName(getUsername())
+        .userType(userType)
+        .registrationDate(registrationDate)
+        .loyaltyTier(loyaltyTier)
+        .rollingSpend(rollingSpend)
+        .build();
+  }
+}
@@ -1,14 +1,24 @@
 package com.ahmeric.store.controller;
 
 
+import com.ahmeric.store.model.dto.BillBatchResult;
 import com.ahmeric.store.model.dto.BillDto;
+import com.ahmeric.store.model.dto.BillItemDto;
+import com.ahmeric.store.model.dto.CursorPage;
+import com.ahmeric.store.model.request.BillBatchRequest;
 import com.ahmeric.store.model.request.BillRequest;
+import com.ahmeric.store.model.response.BillBatchItemResponse;
+import com.ahmeric.store.model.response.BillBatchResponse;
 import com.ahmeric.store.model.response.BillListResponse;
 import com.ahmeric.store.model.response.BillResponse;
 import com.ahmeric.store.service.BillService;
+import com.ahmeric.store.service.IdempotencyService;
+import com.ahmeric.store.service.discount.DiscountDescriptionRenderer;
 import com.ahmeric.store.utils.Mapper;
+import com.ahmeric.store.utils.MessageUtils;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import jakarta.validation.Valid;
+import java.util.ArrayList;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
@@ -17,12 +27,14 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 /**
- * This class manages bills-related operations. It provides REST endpoints for creating, retrieving
- * all bills and retrieving bill by id.
+ * This class manages bills-related operations. It provides REST endpoints for creating single bills
+ * or batches of bills, quoting, retrieving bills page by page and retrieving bill by id.
  */
 @RestController
 @RequestMapping("/api/v1/bills")
@@ -30,37 +42,104 @@ import org.springframework.web.bind.annotation.RestController;
 @SecurityRequirement(name = "Bearer Authentication")
 public class BillController {
 
+  private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+  private static final String DEFAULT_LIMIT = "50";
+
   /**
-   * The BillService to handle bills-related operations. The Mapper to convert between various model
-   * classes.
+   * The BillService to handle bills-related operations. The IdempotencyService to deduplicate
+   * retried bill creations. The Mapper to convert between various model classes. The MessageUtils
+   * to resolve error messages of rejected bills in a batch. The DiscountDescriptionRenderer to
+   * describe the applied discounts in the request locale.
    */
   private final BillService billService;
+  private final IdempotencyService idempotencyService;
   private final Mapper modelMapper;
+  private final MessageUtils messageUtils;
+  private final DiscountDescriptionRenderer discountDescriptionRenderer;
 
   /**
-   * Endpoint for creating a bill.
+   * Endpoint for creating a bill. When an Idempotency-Key header is sent, retries with the same key
+   * return the bill created by the first request instead of creating another one.
    *
-   * @param billRequest The request containing product ids for creating a bill.
+   * @param idempotencyKey Optional key identifying the bill across retries of the client.
+   * @param billRequest    The request containing line items or product ids for creating a bill.
    * @return A response entity containing the created bill.
    */
   @PostMapping
-  public ResponseEntity<BillResponse> createBill(@RequestBody @Valid BillRequest billRequest) {
-    var billDto = BillDto.builder().productIdList(billRequest.getProductIdLists()).build();
-    billDto = billService.generateBillByProductIds(billDto);
-    var billResponse = modelMapper.map(billDto, BillResponse.class);
+  public ResponseEntity<BillResponse> createBill(
+      @RequestHeader(name = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+      @RequestBody @Valid BillRequest billRequest) {
+    var billResponse = idempotencyKey == null
+        ? generateBill(billRequest)
+        : idempotencyService.execute(idempotencyKey, billRequest,
+            () -> generateBill(billRequest));
     return new ResponseEntity<>(billResponse, HttpStatus.CREATED);
   }
 
+  private BillResponse generateBill(BillRequest billRequest) {
+    var billDto = toBillDto(billRequest);
+    billDto = billService.generateBillByProductIds(billDto);
+    return toResponse(billDto);
+  }
+
   /**
-   * Endpoint for retrieving all bills.
+   * Endpoint for creating many bills at once, e.g. when replaying bills recorded offline. Each
+   * bill is created or rejected on its own.
    *
-   * @return A response entity containing a list of all bills.
+   * @param billBatchRequest The request containing one bill request per bill.
+   * @return A response entity containing the outcome of every bill in request order.
+   */
+  @PostMapping("/batch")
+  public ResponseEntity<BillBatchResponse> createBills(
+      @RequestBody @Valid BillBatchRequest billBatchRequest) {
+    List<BillDto> billDtos = billBatchRequest.getBills().stream()
+        .map(billRequest -> toBillDto(billRequest))
+        .toList();
+    List<BillBatchItemResponse> results = billService.generateBills(billDtos).stream()
+        .map(this::toBatchItemResponse)
+        .toList();
+    int created = (int) results.stream().filter(BillBatchItemResponse::isCreated).count();
+    return ResponseEntity.ok(BillBatchResponse.builder()
+        .created(created)
+        .failed(results.size() - created)
+        .results(results)
+        .build());
+  }
+
+  /**
+   * Endpoint for quoting a bill. Prices the basket like bill creation but does not store a bill.
+   *
+   * @param billRequest The request containing line items or product ids to be priced.
+   * @return A response entity containing the priced bill without an id.
+   */
+  @PostMapping("/quote")
+  public ResponseEntity<BillResponse> quoteBill(@RequestBody @Valid BillRequest billRequest) {
+    var billDto = toBillDto(billRequest);
+    billDto = billService.quoteBill(billDto);
+    return ResponseEntity.ok(toResponse(billDto));
+  }
+
+  /**
+   * Endpoint for retrieving bills page by page, in the order they were created.
+   *
+   * @param cursor The next cursor of the previous page, absent for the first page.
+   * @param limit  The maximum number of bills of the page.
+   * @return A response entity containing a page of bills and the cursor of the next page.
    */
   @GetMapping
-  public ResponseEntity<BillListResponse> getAllBills() {
-    List<BillResponse> billList = modelMapper.map(billService.getAllBills(),
-        Mapper.BILL_RESPONSE_LIST_TYPE);
-    return ResponseEntity.ok(BillListResponse.builder().bills(billList).build());
+  public ResponseEntity<BillListResponse> getAllBills(
+      @RequestParam(required = false) String cursor,
+      @RequestParam(defaultValue = DEFAULT_LIMIT) int limit) {
+    CursorPage<BillDto> page = billService.getBills(cursor, limit);
+    List<BillDto> billDtos = page.items();
+    List<BillResponse> billList = modelMapper.map(billDtos, Mapper.BILL_RESPONSE_LIST_TYPE);
+    for (int i = 0; i < billList.size(); i++) {
+      billList.get(i).setAppliedDiscounts(discountDescriptionRenderer.render(billDtos.get(i)));
+    }
+    return ResponseEntity.ok(BillListResponse.builder()
+        .bills(billList)
+        .nextCursor(page.nextCursor())
+        .build());
   }
 
   /**
@@ -72,8 +151,55 @@ public class BillController {
   @GetMapping("/{id}")
   public ResponseEntity<BillResponse> getBillById(@PathVariable String id) {
     var billDto = billService.getBillById(id);
-    return ResponseEntity.ok(modelMapper.map(billDto, BillResponse.class));
+    return ResponseEntity.ok(toResponse(billDto));
   }
 
-}
+  private BillResponse toResponse(BillDto billDto) {
+    var billResponse = modelMapper.map(billDto, BillResponse.class);
+    billResponse.setAppliedDiscounts(discountDescriptionRenderer.render(billDto));
+    return billResponse;
+  }
+
+  private BillBatchItemResponse toBatchItemResponse(BillBatchResult result) {
+    if (result.isSuccess()) {
+      return BillBatchItemResponse.builder()
+          .index(result.getIndex())
+          .created(true)
+          .bill(toResponse(result.getBill()))
+          .build();
+    }
+    return BillBatchItemResponse.builder()
+        .index(result.getIndex())
+        .message(messageUtils.getMessage(result.getError().getError().getMessageKey()))
+        .cause(result.getDetail())
+        .build();
+  }
+
+  private static BillDto toBillDto(BillRequest billRequest) {
+    return BillDto.builder()
+        .items(toRequestedItems(billRequest))
+        .couponCode(billRequest.getCouponCode())
+        .build();
+  }
 
+  /**
+   * Converts the line items and legacy product IDs of a bill request into requested items. Each
+   * legacy product ID counts as one unit.
+   *
+   * @param billRequest The bill request.
+   * @return List of BillItemDto holding product IDs and quantities.
+   */
+  private static List<BillItemDto> toRequestedItems(BillRequest billRequest) {
+    List<BillItemDto> items = new ArrayList<>();
+    if (billRequest.getItems() != null) {
+      billRequest.getItems().forEach(item -> items.add(BillItemDto.builder()
+          .productId(item.getProductId()).quantity(item.getQuantity()).build()));
+    }
+    if (billRequest.getProductIdLists() != null) {
+      billRequest.getProductIdLists().forEach(productId -> items.add(BillItemDto.builder()
+          .productId(productId).quantity(1).build()));
+    }
+    return items;
+  }
+
+}
@@ -0,0 +1,49 @@
+package com.ahmeric.store.controller;
+
+import com.ahmeric.store.model.dto.CouponDto;
+import com.ahmeric.store.model.request.CouponIssueRequest;
+import com.ahmeric.store.model.response.CouponIssueResponse;
+import com.ahmeric.store.service.coupon.CouponService;
+import com.ahmeric.store.utils.Mapper;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * This class manages coupons. It provides a REST endpoint for issuing single-use coupon codes.
+ */
+@RestController
+@RequestMapping("/api/v1/coupons")
+@SecurityRequirement(name = "Bearer Authentication")
+@RequiredArgsConstructor
+public class CouponController {
+
+  /**
+   * The CouponService to issue coupons. The Mapper to convert between various model classes.
+   */
+  private final CouponService couponService;
+  private final Mapper modelMapper;
+
+  /**
+   * Endpoint for issuing coupons.
+   *
+   * @param couponIssueRequest The request containing the number of coupons and their discount.
+   * @return A response entity containing the issued codes and the number of failed coupons.
+   */
+  @PostMapping
+  public ResponseEntity<CouponIssueResponse> issueCoupons(
+      @RequestBody @Valid CouponIssueRequest couponIssueRequest) {
+    var couponDto = modelMapper.map(couponIssueRequest, CouponDto.class);
+    var result = couponService.issueCoupons(couponDto, couponIssueRequest.getCount());
+    return new ResponseEntity<>(CouponIssueResponse.builder()
+        .codes(result.getCodes())
+        .failed(result.getFailed())
+        .build(), HttpStatus.CREATED);
+  }
+}
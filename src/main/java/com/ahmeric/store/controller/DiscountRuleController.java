@@ -0,0 +1,77 @@
+package com.ahmeric.store.controller;
+
+import com.ahmeric.store.model.request.DiscountSimulationRequest;
+import com.ahmeric.store.model.response.DiscountRuleSetResponse;
+import com.ahmeric.store.model.response.DiscountSimulationResponse;
+import com.ahmeric.store.service.DiscountSimulationService;
+import com.ahmeric.store.service.discount.DiscountRuleSet;
+import com.ahmeric.store.service.discount.DiscountStrategyFactory;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * This class manages the discount rules. It provides REST endpoints for retrieving the rule set in
+ * use, for reloading the rules from the database without a restart and for simulating candidate
+ * rules on past bills.
+ */
+@RestController
+@RequestMapping("/api/v1/discount-rules")
+@SecurityRequirement(name = "Bearer Authentication")
+@RequiredArgsConstructor
+public class DiscountRuleController {
+
+  /**
+   * The DiscountStrategyFactory holding the compiled discount rules. The DiscountSimulationService
+   * to re-price past bills with candidate rules.
+   */
+  private final DiscountStrategyFactory discountStrategyFactory;
+  private final DiscountSimulationService discountSimulationService;
+
+  /**
+   * Endpoint for retrieving the discount rule set in use.
+   *
+   * @return A response entity containing the version of the rule set.
+   */
+  @GetMapping
+  public ResponseEntity<DiscountRuleSetResponse> getRuleSet() {
+    return ResponseEntity.ok(toResponse(discountStrategyFactory.getRuleSet()));
+  }
+
+  /**
+   * Endpoint for reloading the discount rules. Bills already being priced keep the previous rules.
+   *
+   * @return A response entity containing the version of the reloaded rule set.
+   */
+  @PostMapping("/reload")
+  public ResponseEntity<DiscountRuleSetResponse> reload() {
+    return ResponseEntity.ok(toResponse(discountStrategyFactory.reload()));
+  }
+
+  /**
+   * Endpoint for simulating candidate discount rules on the bills created in a period. The rules in
+   * use are not changed.
+   *
+   * @param request The request containing the candidate rules and the period.
+   * @return A response entity containing the discount deltas per user type and strategy.
+   */
+  @PostMapping("/simulations")
+  public ResponseEntity<DiscountSimulationResponse> simulate(
+      @RequestBody @Valid DiscountSimulationRequest request) {
+    return ResponseEntity.ok(discountSimulationService.simulate(request.getRules(),
+        request.getFrom(), request.getTo()));
+  }
+
+  private static DiscountRuleSetResponse toResponse(DiscountRuleSet ruleSet) {
+    return DiscountRuleSetResponse.builder()
+        .version(ruleSet.getVersion())
+        .ruleCount(ruleSet.getRuleCount())
+        .build();
+  }
+}
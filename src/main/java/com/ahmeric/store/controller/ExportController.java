@@ -0,0 +1,61 @@
+package com.ahmeric.store.controller;
+
+import com.ahmeric.store.entity.UserType;
+import com.ahmeric.store.service.ExportService;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import java.time.LocalDate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.format.annotation.DateTimeFormat.ISO;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * This class manages exports. It provides REST endpoints streaming all bills or products as
+ * newline delimited JSON, e.g. for nightly ETL jobs.
+ */
+@RestController
+@RequestMapping("/api/v1/exports")
+@SecurityRequirement(name = "Bearer Authentication")
+@RequiredArgsConstructor
+public class ExportController {
+
+  private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+  /**
+   * The ExportService to stream the collections.
+   */
+  private final ExportService exportService;
+
+  /**
+   * Endpoint for exporting bills, optionally filtered by creation date and user type.
+   *
+   * @param from     First day of the period, inclusive, in UTC.
+   * @param to       Last day of the period, exclusive, in UTC.
+   * @param userType User type of the exported bills.
+   * @return A response entity streaming one bill per line.
+   */
+  @GetMapping("/bills")
+  public ResponseEntity<StreamingResponseBody> exportBills(
+      @RequestParam(required = false) @DateTimeFormat(iso = ISO.DATE) LocalDate from,
+      @RequestParam(required = false) @DateTimeFormat(iso = ISO.DATE) LocalDate to,
+      @RequestParam(required = false) UserType userType) {
+    return ResponseEntity.ok().contentType(NDJSON)
+        .body(exportService.exportBills(from, to, userType));
+  }
+
+  /**
+   * Endpoint for exporting all products.
+   *
+   * @return A response entity streaming one product per line.
+   */
+  @GetMapping("/products")
+  public ResponseEntity<StreamingResponseBody> exportProducts() {
+    return ResponseEntity.ok().contentType(NDJSON).body(exportService.exportProducts());
+  }
+}
@@ -1,15 +1,27 @@
 package com.ahmeric.store.controller;
 
+import com.ahmeric.store.entity.ProductType;
 import com.ahmeric.store.model.dto.ProductDto;
+import com.ahmeric.store.model.dto.ProductImportResult;
 import com.ahmeric.store.model.request.ProductRequest;
+import com.ahmeric.store.model.response.ProductChangesResponse;
+import com.ahmeric.store.model.response.ProductImportErrorResponse;
+import com.ahmeric.store.model.response.ProductImportResponse;
 import com.ahmeric.store.model.response.ProductListResponse;
 import com.ahmeric.store.model.response.ProductResponse;
 import com.ahmeric.store.service.ProductService;
+import com.ahmeric.store.service.importer.ImportFormat;
+import com.ahmeric.store.service.importer.ProductImportService;
+import com.ahmeric.store.service.search.ProductSearchService;
 import com.ahmeric.store.utils.Mapper;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import jakarta.validation.Valid;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -17,12 +29,16 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 /**
- * This class manages product-related operations. It provides REST endpoints for creating,
- * retrieving all products, retrieving product by id and updating a product.
+ * This class manages product-related operations. It provides REST endpoints for creating and
+ * importing products, retrieving products page by page or changed after a catalog version,
+ * searching products by name, retrieving product by id and updating a product.
  */
 @RestController
 @RequestMapping("/api/v1/products")
@@ -30,11 +46,17 @@ import org.springframework.web.bind.annotation.RestController;
 @RequiredArgsConstructor
 public class ProductController {
 
+  private static final String DEFAULT_LIMIT = "50";
+  private static final String SEARCH_LIMIT = "20";
+
   /**
-   * The ProductService to handle product-related operations. The Mapper to convert between various
-   * model classes.
+   * The ProductService to handle product-related operations. The ProductSearchService to search
+   * products by name. The ProductImportService to import products in bulk. The Mapper to convert
+   * between various model classes.
    */
   private final ProductService productService;
+  private final ProductSearchService productSearchService;
+  private final ProductImportService productImportService;
   private final Mapper modelMapper;
 
   /**
@@ -53,14 +75,116 @@ public class ProductController {
   }
 
   /**
-   * Endpoint for retrieving all products.
+   * Endpoint for importing products in bulk from a CSV or newline delimited JSON body, e.g. the
+   * catalog of a new supplier. The body is parsed as it is received and written in batches, so
+   * files of any size can be sent. Rejected rows do not stop the import and are reported with their
+   * line.
    *
-   * @return A response entity containing a list of all products.
+   * @param contentType The content type of the body, text/csv or application/x-ndjson.
+   * @param body        The body of the request.
+   * @return A response entity containing the numbers of imported and rejected rows.
+   * @throws IOException if the body cannot be read.
+   */
+  @PostMapping(path = "/import", consumes = {"text/csv", "application/x-ndjson"})
+  public ResponseEntity<ProductImportResponse> importProducts(
+      @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType, InputStream body)
+      throws IOException {
+    var result = productImportService.importProducts(body,
+        ImportFormat.fromContentType(contentType));
+    return ResponseEntity.ok(toImportResponse(result));
+  }
+
+  private static ProductImportResponse toImportResponse(ProductImportResult result) {
+    return ProductImportResponse.builder()
+        .rows(result.getRows())
+        .imported(result.getImported())
+        .failed(result.getFailed())
+        .errors(result.getErrors().stream()
+            .map(error -> ProductImportErrorResponse.builder()
+                .line(error.getLine())
+                .productId(error.getProductId())
+                .message(error.getMessage())
+                .build())
+            .toList())
+        .build();
+  }
+
+  /**
+   * Endpoint for retrieving products page by page. The ETag is the catalog version, so a client
+   * sending it back in If-None-Match gets a 304 without the products being read while the catalog
+   * is unchanged.
+   *
+   * @param cursor  The next cursor of the previous page, absent for the first page.
+   * @param limit   The maximum number of products of the page.
+   * @param request The request, checked for If-None-Match.
+   * @return A response entity containing a page of products and the cursor of the next page.
    */
   @GetMapping
-  public ResponseEntity<ProductListResponse> getAllProducts() {
+  public ResponseEntity<ProductListResponse> getAllProducts(
+      @RequestParam(required = false) String cursor,
+      @RequestParam(defaultValue = DEFAULT_LIMIT) int limit, WebRequest request) {
+    var etag = toETag(productService.getCatalogVersion());
+    if (request.checkNotModified(etag)) {
+      return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+    }
+    var page = productService.getProducts(cursor, limit);
+    List<ProductResponse> productList = modelMapper.map(page.items(),
+        Mapper.PRODUCT_RESPONSE_LIST_TYPE);
+    return ResponseEntity.ok().eTag(etag).body(ProductListResponse.builder()
+        .products(productList)
+        .nextCursor(page.nextCursor())
+        .build());
+  }
 
-    List<ProductResponse> productList = modelMapper.map(productService.getAllProducts(),
+  /**
+   * Endpoint for retrieving the products changed after a catalog version, e.g. to refresh the
+   * price list of a terminal. Returns 304 if no product write was committed since then. The ETag
+   * and the version returned are the committed catalog version, so a write still in flight is
+   * picked up by a later call.
+   *
+   * @param since   The catalog version the client holds, 0 for the whole catalog.
+   * @param request The request, checked for If-None-Match.
+   * @return A response entity containing the changed products and the version to send next time.
+   */
+  @GetMapping("/changes")
+  public ResponseEntity<ProductChangesResponse> getProductChanges(
+      @RequestParam(defaultValue = "0") long since, WebRequest request) {
+    long catalogVersion = productService.getCatalogVersion();
+    var etag = toETag(catalogVersion);
+    if (request.checkNotModified(etag) || (since > 0 && since >= catalogVersion)) {
+      return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+    }
+    var changes = productService.getProductsChangedSince(since);
+    List<ProductResponse> productList = modelMapper.map(changes.products(),
+        Mapper.PRODUCT_RESPONSE_LIST_TYPE);
+    return ResponseEntity.ok().eTag(toETag(changes.version())).body(ProductChangesResponse.builder()
+        .version(changes.version())
+        .products(productList)
+        .build());
+  }
+
+  private static String toETag(long catalogVersion) {
+    return "\"" + catalogVersion + "\"";
+  }
+
+  /**
+   * Endpoint for searching products by partial name, e.g. "cho mi" finds "Milk Chocolate".
+   *
+   * @param query    The search text.
+   * @param type     The product type of the products.
+   * @param minPrice The minimum price, inclusive.
+   * @param maxPrice The maximum price, inclusive.
+   * @param limit    The maximum number of products.
+   * @return A response entity containing the products found, sorted by name.
+   */
+  @GetMapping("/search")
+  public ResponseEntity<ProductListResponse> searchProducts(@RequestParam("q") String query,
+      @RequestParam(required = false) ProductType type,
+      @RequestParam(required = false) BigDecimal minPrice,
+      @RequestParam(required = false) BigDecimal maxPrice,
+      @RequestParam(defaultValue = SEARCH_LIMIT) int limit) {
+    List<ProductResponse> productList = modelMapper.map(
+        productSearchService.search(query, type, minPrice, maxPrice, limit),
         Mapper.PRODUCT_RESPONSE_LIST_TYPE);
     return ResponseEntity.ok(ProductListResponse.builder().products(productList).build());
   }
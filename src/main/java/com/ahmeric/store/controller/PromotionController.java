@@ -0,0 +1,65 @@
+package com.ahmeric.store.controller;
+
+import com.ahmeric.store.model.dto.PromotionDto;
+import com.ahmeric.store.model.request.PromotionRequest;
+import com.ahmeric.store.model.response.PromotionListResponse;
+import com.ahmeric.store.model.response.PromotionResponse;
+import com.ahmeric.store.service.promotion.PromotionService;
+import com.ahmeric.store.utils.Mapper;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import jakarta.validation.Valid;
+import java.time.Instant;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * This class manages promotions. It provides REST endpoints for creating a promotion and for
+ * retrieving the promotions active now.
+ */
+@RestController
+@RequestMapping("/api/v1/promotions")
+@SecurityRequirement(name = "Bearer Authentication")
+@RequiredArgsConstructor
+public class PromotionController {
+
+  /**
+   * The PromotionService to handle promotion-related operations. The Mapper to convert between
+   * various model classes.
+   */
+  private final PromotionService promotionService;
+  private final Mapper modelMapper;
+
+  /**
+   * Endpoint for creating a promotion.
+   *
+   * @param promotionRequest The request containing promotion details.
+   * @return A response entity containing the created promotion.
+   */
+  @PostMapping
+  public ResponseEntity<PromotionResponse> createPromotion(
+      @RequestBody @Valid PromotionRequest promotionRequest) {
+    var promotionDto = modelMapper.map(promotionRequest, PromotionDto.class);
+    promotionDto = promotionService.createPromotion(promotionDto);
+    return new ResponseEntity<>(modelMapper.map(promotionDto, PromotionResponse.class),
+        HttpStatus.CREATED);
+  }
+
+  /**
+   * Endpoint for retrieving the promotions active now.
+   *
+   * @return A response entity containing a list of the active promotions.
+   */
+  @GetMapping
+  public ResponseEntity<PromotionListResponse> getActivePromotions() {
+    List<PromotionResponse> promotions = modelMapper.map(
+        promotionService.getActivePromotions(Instant.now()), Mapper.PROMOTION_RESPONSE_LIST_TYPE);
+    return ResponseEntity.ok(PromotionListResponse.builder().promotions(promotions).build());
+  }
+}
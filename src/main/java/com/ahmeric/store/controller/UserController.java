@@ -1,5 +1,6 @@
 package com.ahmeric.store.controller;
 
+import com.ahmeric.store.model.dto.CursorPage;
 import com.ahmeric.store.model.dto.UserDto;
 import com.ahmeric.store.model.response.UserListResponse;
 import com.ahmeric.store.model.response.UserResponse;
@@ -11,11 +12,12 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 /**
- * This class manages user-related operations. It provides a REST endpoint for retrieving all
- * users.
+ * This class manages user-related operations. It provides a REST endpoint for retrieving users
+ * page by page.
  */
 @RestController
 @RequestMapping("/api/v1/users")
@@ -23,6 +25,8 @@ import org.springframework.web.bind.annotation.RestController;
 @RequiredArgsConstructor
 public class UserController {
 
+  private static final String DEFAULT_LIMIT = "50";
+
   /**
    * The UserService to handle user-related operations. The Mapper to convert between various model
    * classes.
@@ -31,15 +35,22 @@ public class UserController {
   private final Mapper modelMapper;
 
   /**
-   * Endpoint for retrieving all users.
+   * Endpoint for retrieving users page by page.
    *
-   * @return A response entity containing a list of all users.
+   * @param cursor The next cursor of the previous page, absent for the first page.
+   * @param limit  The maximum number of users of the page.
+   * @return A response entity containing a page of users and the cursor of the next page.
    */
   @GetMapping
-  public ResponseEntity<UserListResponse> getAllUsers() {
-    List<UserDto> users = userService.getAllUsers();
-    List<UserResponse> userList = modelMapper.map(users, Mapper.USER_RESPONSE_LIST_TYPE);
-    return ResponseEntity.ok(UserListResponse.builder().users(userList).build());
+  public ResponseEntity<UserListResponse> getAllUsers(
+      @RequestParam(required = false) String cursor,
+      @RequestParam(defaultValue = DEFAULT_LIMIT) int limit) {
+    CursorPage<UserDto> page = userService.getUsers(cursor, limit);
+    List<UserResponse> userList = modelMapper.map(page.items(), Mapper.USER_RESPONSE_LIST_TYPE);
+    return ResponseEntity.ok(UserListResponse.builder()
+        .users(userList)
+        .nextCursor(page.nextCursor())
+        .build());
   }
 
 }
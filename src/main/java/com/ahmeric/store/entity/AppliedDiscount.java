@@ -0,0 +1,23 @@
+package com.ahmeric.store.entity;
+
+import java.math.BigDecimal;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * This class represents a discount applied to a Bill. It holds the discount code, the percentage in
+ * basis points for percentage discounts and the discount amount; the description is rendered from
+ * them when the bill is read.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class AppliedDiscount {
+
+  private String code;
+  private Long basisPoints;
+  private BigDecimal amount;
+}
@@ -10,8 +10,8 @@ import org.springframework.data.annotation.Id;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 /**
- * This class represents a Bill in the system. It is used to model a Bill that contains products and
- * user related information.
+ * This class represents a Bill in the system. It is used to model a Bill that contains line items
+ * and user related information.
  */
 @Document(collection = "bills")
 @Data
@@ -24,9 +24,27 @@ public class Bill {
   private String id;
   private String userId;
   private UserType userType;
+  private List<BillItem> items;
+  /**
+   * Legacy layout with one embedded product per scanned unit. Only read for bills created before
+   * line items were introduced, never written.
+   */
   private List<Product> products;
   private BigDecimal totalAmount;
   private BigDecimal discount;
   private BigDecimal netAmount;
+  private List<AppliedDiscount> discounts;
+  /**
+   * Legacy rendered descriptions of the applied discounts. Only read for bills created before
+   * discounts were stored as AppliedDiscount, never written.
+   */
   private List<String> appliedDiscounts;
+  /**
+   * Version of the discount rule set the bill was priced with.
+   */
+  private String ruleSetVersion;
+  /**
+   * Code of the coupon redeemed for the bill, if any.
+   */
+  private String couponCode;
 }
@@ -0,0 +1,24 @@
+package com.ahmeric.store.entity;
+
+import java.math.BigDecimal;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * This class represents a line item of a Bill. It holds the product reference together with a
+ * snapshot of the product's name, type and unit price at billing time, and the purchased quantity.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class BillItem {
+
+  private String productId;
+  private String name;
+  private ProductType type;
+  private BigDecimal unitPrice;
+  private int quantity;
+}
@@ -0,0 +1,27 @@
+package com.ahmeric.store.entity;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * This class represents a named counter, e.g. the version of the product catalog. Counters are
+ * only increased, atomically, by findAndModify, which also records the new value as pending until
+ * the write it was taken for is done.
+ */
+@Document(collection = "counters")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class Counter {
+
+  @Id
+  private String id;
+  private long value;
+  private List<PendingVersion> pending;
+}
@@ -0,0 +1,40 @@
+package com.ahmeric.store.entity;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * This class represents a single-use Coupon in the system. The coupon code is the document id. A
+ * coupon gives either a percentage or a fixed amount off a bill and can be redeemed once before it
+ * expires.
+ */
+@Document(collection = "coupons")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class Coupon {
+
+  @Id
+  private String code;
+  /**
+   * Percentage off in basis points, null for fixed amount coupons.
+   */
+  private Long basisPoints;
+  /**
+   * Amount off, null for percentage coupons.
+   */
+  private BigDecimal amount;
+  @Indexed
+  private Instant issuedAt;
+  private Instant expiresAt;
+  private String redeemedBy;
+  private Instant redeemedAt;
+}
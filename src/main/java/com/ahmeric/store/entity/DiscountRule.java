@@ -0,0 +1,48 @@
+package com.ahmeric.store.entity;
+
+import java.math.BigDecimal;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * This class represents a Discount Rule in the system. Rules are compiled into the discount
+ * strategies applied to bills. A rule without a user type applies to every user type. Rules with
+ * the same order cannot apply to the same bill.
+ */
+@Document(collection = "discount_rules")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class DiscountRule {
+
+  @Id
+  private String id;
+  private String name;
+  private DiscountRuleType type;
+  private UserType userType;
+  private boolean loyalCustomerOnly;
+  private int order;
+  /**
+   * Percentage of a PERCENTAGE rule in basis points, e.g. 500 for 5%.
+   */
+  private long basisPoints;
+  /**
+   * Product types a PERCENTAGE or SPEND_TIER rule does not discount.
+   */
+  private List<ProductType> excludedProductTypes;
+  /**
+   * Net amount of a FIXED_AMOUNT rule for which amountPerStep is given once.
+   */
+  private BigDecimal step;
+  private BigDecimal amountPerStep;
+  /**
+   * Tiers of a SPEND_TIER rule by the rolling spend of the user.
+   */
+  private List<SpendTier> spendTiers;
+}
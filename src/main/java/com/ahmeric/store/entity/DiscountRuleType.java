@@ -0,0 +1,11 @@
+package com.ahmeric.store.entity;
+
+/**
+ * This is an enumeration of discount rule types. A PERCENTAGE rule gives a percentage of the
+ * discountable total, a FIXED_AMOUNT rule gives an amount for every full step of the net amount.
+ */
+public enum DiscountRuleType {
+  PERCENTAGE,
+  FIXED_AMOUNT,
+  SPEND_TIER
+}
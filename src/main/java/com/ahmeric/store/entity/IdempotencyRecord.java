@@ -0,0 +1,32 @@
+package com.ahmeric.store.entity;
+
+import com.ahmeric.store.model.response.BillResponse;
+import java.time.Instant;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * This class represents an Idempotency Key used to create a bill. The id combines the user name
+ * and the key, so the unique _id index allows one record per key and user. A record is created
+ * before the bill is generated and completed with the response once the bill is created. Until
+ * then the instance creating the bill holds the key until leaseExpiresAt.
+ */
+@Document(collection = "idempotency_keys")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class IdempotencyRecord {
+
+  @Id
+  private String id;
+  private String requestHash;
+  private boolean completed;
+  private BillResponse response;
+  private Instant createdAt;
+  private Instant leaseExpiresAt;
+}
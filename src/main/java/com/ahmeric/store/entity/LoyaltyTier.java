@@ -0,0 +1,55 @@
+package com.ahmeric.store.entity;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * This is an enumeration of customer loyalty tiers, from the lowest to the highest. A customer
+ * reaches a tier after being registered for its minimum number of full years. Users who are not
+ * customers stay in the NONE tier.
+ */
+@AllArgsConstructor
+@Getter
+public enum LoyaltyTier {
+  NONE(0),
+  LOYAL(3);
+
+  /**
+   * Number of full years a customer has to be registered for to reach the tier.
+   */
+  private final int minimumMembershipYears;
+
+  /**
+   * Checks whether the tier is the given tier or a higher one.
+   *
+   * @param tier The tier to compare with.
+   * @return true if this tier is at least the given tier.
+   */
+  public boolean isAtLeast(LoyaltyTier tier) {
+    return compareTo(tier) >= 0;
+  }
+
+  /**
+   * Returns the tier of a user on the given day.
+   *
+   * @param userType         The type of the user.
+   * @param registrationDate The registration date of the user.
+   * @param today            The day to compute the tier for.
+   * @return The highest tier the user has reached.
+   */
+  public static LoyaltyTier of(UserType userType, LocalDate registrationDate, LocalDate today) {
+    if (userType != UserType.CUSTOMER || registrationDate == null) {
+      return NONE;
+    }
+    long years = ChronoUnit.YEARS.between(registrationDate, today);
+    LoyaltyTier[] tiers = values();
+    for (int i = tiers.length - 1; i > 0; i--) {
+      if (years >= tiers[i].minimumMembershipYears) {
+        return tiers[i];
+      }
+    }
+    return NONE;
+  }
+}
@@ -0,0 +1,21 @@
+package com.ahmeric.store.entity;
+
+import java.time.Instant;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * This class represents a value taken from a Counter whose write is still in flight, with the
+ * time it was taken. It is removed from the counter once the write is done.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class PendingVersion {
+
+  private long version;
+  private Instant at;
+}
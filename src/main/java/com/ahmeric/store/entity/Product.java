@@ -7,11 +7,12 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 /**
  * This class represents a Product in the system. It is used to model a Product that has an id,
- * name, price, and type.
+ * name, price, type and the catalog version it was last written with.
  */
 @Document(collection = "products")
 @Data
@@ -28,6 +29,12 @@ public class Product {
   private BigDecimal price;
   @NotNull
   private ProductType type;
+  /**
+   * Catalog version of the last write of the product, null for products not written since
+   * versioning started.
+   */
+  @Indexed
+  private Long version;
 
 }
 
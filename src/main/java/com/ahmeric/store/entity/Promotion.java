@@ -0,0 +1,40 @@
+package com.ahmeric.store.entity;
+
+import java.time.Instant;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * This class represents a Promotion in the system. A promotion gives a percentage off either one
+ * product or every product of a product type while it is valid. The validity window starts at
+ * validFrom and ends right before validUntil.
+ */
+@Document(collection = "promotions")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class Promotion {
+
+  @Id
+  private String id;
+  private String name;
+  private String productId;
+  private ProductType productType;
+  /**
+   * Percentage off in basis points, e.g. 2000 for 20%.
+   */
+  private long basisPoints;
+  /**
+   * Position of the promotion among the discount strategies applied to a bill.
+   */
+  private int order;
+  private Instant validFrom;
+  @Indexed
+  private Instant validUntil;
+}
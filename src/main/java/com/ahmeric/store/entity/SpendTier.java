@@ -0,0 +1,24 @@
+package com.ahmeric.store.entity;
+
+import java.math.BigDecimal;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One tier of a SPEND_TIER discount rule: users whose rolling spend is at least the minimum spend
+ * get the percentage of the tier.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class SpendTier {
+
+  private BigDecimal minimumSpend;
+  /**
+   * Percentage of the tier in basis points.
+   */
+  private long basisPoints;
+}
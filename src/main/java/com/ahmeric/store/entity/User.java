@@ -32,4 +32,12 @@ public class User {
   private LocalDate registrationDate;
   @NotNull
   private String password;
+  /**
+   * Loyalty tier of the user, promoted daily by the LoyaltyTierService.
+   */
+  private LoyaltyTier loyaltyTier;
+  /**
+   * Spend of the user over the rolling window in minor units, maintained by the SpendService.
+   */
+  private Long rollingSpend;
 }
@@ -0,0 +1,43 @@
+package com.ahmeric.store.entity;
+
+import java.time.LocalDate;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * This class represents the spend of a user on one day, i.e. the sum of the net amounts of the
+ * bills stored for the user that day. Buckets are removed once they leave the rolling spend window.
+ */
+@Document(collection = "user_spend")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class UserSpend {
+
+  @Id
+  private String id;
+  private String userId;
+  @Indexed
+  private LocalDate day;
+  /**
+   * Spend in minor units.
+   */
+  private long amount;
+
+  /**
+   * Returns the id of the bucket of the user on the day.
+   *
+   * @param userId The ID of the user.
+   * @param day    The day.
+   * @return The bucket id.
+   */
+  public static String id(String userId, LocalDate day) {
+    return userId + ":" + day;
+  }
+}
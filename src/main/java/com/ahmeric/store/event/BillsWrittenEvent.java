@@ -0,0 +1,13 @@
+package com.ahmeric.store.event;
+
+import com.ahmeric.store.entity.Bill;
+import java.util.List;
+
+/**
+ * Event published after bills are stored in the bills collection.
+ *
+ * @param bills the bills that were stored.
+ */
+public record BillsWrittenEvent(List<Bill> bills) {
+
+}
@@ -0,0 +1,10 @@
+package com.ahmeric.store.event;
+
+/**
+ * Event published when a discount rule set with a different version replaces the current one.
+ *
+ * @param version the version of the new rule set.
+ */
+public record DiscountRulesReloadedEvent(String version) {
+
+}
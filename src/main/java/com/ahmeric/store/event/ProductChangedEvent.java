@@ -0,0 +1,12 @@
+package com.ahmeric.store.event;
+
+import com.ahmeric.store.model.dto.ProductDto;
+
+/**
+ * Application event published when a product is created or updated.
+ *
+ * @param product the product after the change.
+ */
+public record ProductChangedEvent(ProductDto product) {
+
+}
@@ -0,0 +1,11 @@
+package com.ahmeric.store.event;
+
+/**
+ * Application event published after a batch of imported products is written to the products
+ * collection.
+ *
+ * @param count the number of products written by the batch.
+ */
+public record ProductsImportedEvent(int count) {
+
+}
@@ -0,0 +1,10 @@
+package com.ahmeric.store.event;
+
+/**
+ * Event published when the promotions in the promotion index change.
+ *
+ * @param promotionCount the number of current and upcoming promotions in the new index.
+ */
+public record PromotionsReloadedEvent(int promotionCount) {
+
+}
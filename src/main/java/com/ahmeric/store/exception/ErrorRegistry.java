@@ -31,7 +31,55 @@ public enum ErrorRegistry {
       "api.error.user.already.exist",
       HttpStatus.BAD_REQUEST),
   SAME_ORDER_MULTIPLE_STRATEGIES(2007, "api.error.multiple.discount.strategies.have.same.order",
-      HttpStatus.INTERNAL_SERVER_ERROR);
+      HttpStatus.INTERNAL_SERVER_ERROR),
+  BILL_NOT_SAVED(2008,
+      "api.error.bill.not.saved",
+      HttpStatus.INTERNAL_SERVER_ERROR),
+  BILL_QUEUE_FULL(2009,
+      "api.error.bill.queue.full",
+      HttpStatus.SERVICE_UNAVAILABLE),
+  IDEMPOTENCY_KEY_IN_PROGRESS(2010,
+      "api.error.idempotency.key.in.progress",
+      HttpStatus.CONFLICT),
+  IDEMPOTENCY_KEY_REUSED(2011,
+      "api.error.idempotency.key.reused",
+      HttpStatus.UNPROCESSABLE_ENTITY),
+  INVALID_DISCOUNT_RULE(2012,
+      "api.error.invalid.discount.rule",
+      HttpStatus.UNPROCESSABLE_ENTITY),
+  INVALID_SIMULATION_PERIOD(2013,
+      "api.error.invalid.simulation.period",
+      HttpStatus.BAD_REQUEST),
+  INVALID_PROMOTION(2014,
+      "api.error.invalid.promotion",
+      HttpStatus.UNPROCESSABLE_ENTITY),
+  COUPON_NOT_VALID(2015,
+      "api.error.coupon.not.valid",
+      HttpStatus.UNPROCESSABLE_ENTITY),
+  INVALID_COUPON(2016,
+      "api.error.invalid.coupon",
+      HttpStatus.UNPROCESSABLE_ENTITY),
+  INVALID_PAGE_LIMIT(2017,
+      "api.error.invalid.page.limit",
+      HttpStatus.BAD_REQUEST),
+  INVALID_EXPORT_PERIOD(2018,
+      "api.error.invalid.export.period",
+      HttpStatus.BAD_REQUEST),
+  INVALID_IMPORT_FILE(2019,
+      "api.error.invalid.import.file",
+      HttpStatus.BAD_REQUEST),
+  UNSUPPORTED_IMPORT_CHARSET(2020,
+      "api.error.unsupported.import.charset",
+      HttpStatus.UNSUPPORTED_MEDIA_TYPE),
+  SPEND_TIER_NOT_SIMULATED(2021,
+      "api.error.spend.tier.not.simulated",
+      HttpStatus.UNPROCESSABLE_ENTITY),
+  INVALID_PAGE_CURSOR(2022,
+      "api.error.invalid.page.cursor",
+      HttpStatus.BAD_REQUEST),
+  INVALID_BILL_QUANTITY(2023,
+      "api.error.invalid.bill.quantity",
+      HttpStatus.BAD_REQUEST);
 
   /**
    * The error associated with the registry entry.
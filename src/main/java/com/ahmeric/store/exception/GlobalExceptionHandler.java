@@ -54,7 +54,7 @@ public class GlobalExceptionHandler {
 
   /**
    * Handles custom RetailStoreExceptions. The message key for the error is fetched from the
-   * MessageUtils.
+   * MessageUtils. The exception detail, when present, is returned as the cause.
    *
    * @param exception The thrown RetailStoreException.
    * @return A ResponseEntity containing an ErrorResponse and HTTP status code.
@@ -68,7 +68,8 @@ public class GlobalExceptionHandler {
     ErrorResponse errorResponse = ErrorResponse.builder()
         .timestamp(new Date())
         .message(errorMessageText)
-        .cause(getExceptionMessage(exception))
+        .cause(exception.getDetail() != null ? exception.getDetail()
+            : getExceptionMessage(exception))
         .build();
     return new ResponseEntity<>(errorResponse, exception.getErrorRegistry().getStatus());
   }
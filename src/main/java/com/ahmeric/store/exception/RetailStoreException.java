@@ -13,9 +13,25 @@ public class RetailStoreException extends RuntimeException {
    */
   private final ErrorRegistry errorRegistry;
 
+  /**
+   * Optional detail about the error, e.g. the identifiers that caused it.
+   */
+  private final String detail;
+
   public RetailStoreException(ErrorRegistry errorRegistry) {
+    this(errorRegistry, null);
+  }
+
+  /**
+   * Creates an exception for the given registry entry with an additional detail message.
+   *
+   * @param errorRegistry The error registry entry.
+   * @param detail        Detail about the error, returned to the client as the cause.
+   */
+  public RetailStoreException(ErrorRegistry errorRegistry, String detail) {
     super(errorRegistry.getError().getMessageKey());
     this.errorRegistry = errorRegistry;
+    this.detail = detail;
   }
 
 }
@@ -0,0 +1,66 @@
+package com.ahmeric.store.model;
+
+import com.ahmeric.store.entity.ProductType;
+import com.ahmeric.store.model.dto.BillItemDto;
+import java.util.List;
+
+/**
+ * Immutable per ProductType subtotals and grand total of a bill, built with a single pass over the
+ * line items. Discount strategies read the amounts they need from here instead of iterating the
+ * items again.
+ */
+public final class BillTotals {
+
+  public static final BillTotals EMPTY = new BillTotals(new long[ProductType.values().length], 0);
+
+  private final long[] subtotals;
+  private final long total;
+
+  private BillTotals(long[] subtotals, long total) {
+    this.subtotals = subtotals;
+    this.total = total;
+  }
+
+  /**
+   * Sums the line totals of the items per product type.
+   *
+   * @param items The line items of the bill, may be null.
+   * @return The totals of the items.
+   */
+  public static BillTotals of(List<BillItemDto> items) {
+    if (items == null || items.isEmpty()) {
+      return EMPTY;
+    }
+    long[] subtotals = new long[ProductType.values().length];
+    long total = 0;
+    for (BillItemDto item : items) {
+      long lineTotal = Math.multiplyExact(item.getUnitPrice().getMinorUnits(), item.getQuantity());
+      subtotals[item.getType().ordinal()] = Math.addExact(subtotals[item.getType().ordinal()],
+          lineTotal);
+      total = Math.addExact(total, lineTotal);
+    }
+    return new BillTotals(subtotals, total);
+  }
+
+  public Money total() {
+    return Money.ofMinor(total);
+  }
+
+  public Money subtotal(ProductType type) {
+    return Money.ofMinor(subtotals[type.ordinal()]);
+  }
+
+  /**
+   * Returns the sum of the subtotals of the given product types.
+   *
+   * @param types Distinct product types.
+   * @return The sum of their subtotals.
+   */
+  public Money sumOf(ProductType[] types) {
+    long sum = 0;
+    for (ProductType type : types) {
+      sum = Math.addExact(sum, subtotals[type.ordinal()]);
+    }
+    return Money.ofMinor(sum);
+  }
+}
@@ -0,0 +1,148 @@
+package com.ahmeric.store.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Immutable amount of money held as a long number of minor units, i.e. cents. Used on the pricing
+ * and discount path instead of BigDecimal, which is only used at the API and persistence edges.
+ * Every operation that can lose precision takes an explicit RoundingMode.
+ */
+public final class Money implements Comparable<Money> {
+
+  /**
+   * Number of decimal places of an amount.
+   */
+  public static final int SCALE = 2;
+  public static final Money ZERO = new Money(0);
+
+  private static final long MINOR_UNITS_PER_MAJOR = 100;
+  private static final long BASIS_POINTS_PER_UNIT = 10_000;
+
+  private final long minorUnits;
+
+  private Money(long minorUnits) {
+    this.minorUnits = minorUnits;
+  }
+
+  /**
+   * Creates an amount from minor units.
+   *
+   * @param minorUnits The amount in minor units, e.g. 1050 for 10.50.
+   * @return The amount.
+   */
+  public static Money ofMinor(long minorUnits) {
+    return minorUnits == 0 ? ZERO : new Money(minorUnits);
+  }
+
+  /**
+   * Creates an amount from whole major units.
+   *
+   * @param majorUnits The amount in major units, e.g. 10 for 10.00.
+   * @return The amount.
+   */
+  public static Money ofMajor(long majorUnits) {
+    return ofMinor(Math.multiplyExact(majorUnits, MINOR_UNITS_PER_MAJOR));
+  }
+
+  /**
+   * Creates an amount from a BigDecimal, rounding it to two decimal places.
+   *
+   * @param amount       The amount.
+   * @param roundingMode The rounding mode used when the amount has more than two decimal places.
+   * @return The amount.
+   */
+  public static Money of(BigDecimal amount, RoundingMode roundingMode) {
+    return ofMinor(amount.setScale(SCALE, roundingMode).unscaledValue().longValueExact());
+  }
+
+  public long getMinorUnits() {
+    return minorUnits;
+  }
+
+  public Money plus(Money other) {
+    return ofMinor(Math.addExact(minorUnits, other.minorUnits));
+  }
+
+  public Money minus(Money other) {
+    return ofMinor(Math.subtractExact(minorUnits, other.minorUnits));
+  }
+
+  public Money times(long multiplier) {
+    return ofMinor(Math.multiplyExact(minorUnits, multiplier));
+  }
+
+  /**
+   * Returns the given percentage of the amount.
+   *
+   * @param basisPoints  The percentage in basis points, e.g. 500 for 5%.
+   * @param roundingMode The rounding mode used when the result has a fraction of a minor unit.
+   * @return The percentage of the amount.
+   */
+  public Money percent(long basisPoints, RoundingMode roundingMode) {
+    return ofMinor(divide(Math.multiplyExact(minorUnits, basisPoints), BASIS_POINTS_PER_UNIT,
+        roundingMode));
+  }
+
+  /**
+   * Returns how many whole times the divisor fits into the amount.
+   *
+   * @param divisor A positive amount.
+   * @return The quotient rounded towards zero.
+   */
+  public long divideToIntegral(Money divisor) {
+    return minorUnits / divisor.minorUnits;
+  }
+
+  public boolean isPositive() {
+    return minorUnits > 0;
+  }
+
+  public BigDecimal toBigDecimal() {
+    return BigDecimal.valueOf(minorUnits, SCALE);
+  }
+
+  @Override
+  public int compareTo(Money other) {
+    return Long.compare(minorUnits, other.minorUnits);
+  }
+
+  @Override
+  public boolean equals(Object other) {
+    return other instanceof Money money && money.minorUnits == minorUnits;
+  }
+
+  @Override
+  public int hashCode() {
+    return Long.hashCode(minorUnits);
+  }
+
+  @Override
+  public String toString() {
+    return toBigDecimal().toPlainString();
+  }
+
+  /**
+   * Divides two longs and rounds the quotient with the rounding mode, without allocating.
+   */
+  private static long divide(long dividend, long divisor, RoundingMode roundingMode) {
+    long quotient = Math.floorDiv(dividend, divisor);
+    long remainder = Math.floorMod(dividend, divisor);
+    if (remainder == 0) {
+      return quotient;
+    }
+    boolean negative = dividend < 0;
+    int half = Long.compare(remainder * 2, divisor);
+    boolean roundUp = switch (roundingMode) {
+      case FLOOR -> false;
+      case CEILING -> true;
+      case DOWN -> negative;
+      case UP -> !negative;
+      case HALF_UP -> half > 0 || (half == 0 && !negative);
+      case HALF_DOWN -> half > 0 || (half == 0 && negative);
+      case HALF_EVEN -> half > 0 || (half == 0 && (quotient & 1) == 1);
+      case UNNECESSARY -> throw new ArithmeticException("Rounding necessary");
+    };
+    return roundUp ? quotient + 1 : quotient;
+  }
+}
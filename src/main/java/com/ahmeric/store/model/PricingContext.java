@@ -0,0 +1,76 @@
+package com.ahmeric.store.model;
+
+import com.ahmeric.store.model.dto.BillDto;
+import com.ahmeric.store.model.dto.BillItemDto;
+import com.ahmeric.store.model.dto.UserDto;
+import java.util.List;
+
+/**
+ * Immutable view of a bill for discount strategies. Unlike BillDto it has no lazily initialised
+ * state, so one context can be read by strategies on several threads at once. The net amount is
+ * the amount left after the discounts applied before the strategy reading it.
+ */
+public final class PricingContext {
+
+  private final UserDto user;
+  private final List<BillItemDto> items;
+  private final BillTotals totals;
+  private final Money totalAmount;
+  private final Money netAmount;
+
+  private PricingContext(UserDto user, List<BillItemDto> items, BillTotals totals,
+      Money totalAmount, Money netAmount) {
+    this.user = user;
+    this.items = items;
+    this.totals = totals;
+    this.totalAmount = totalAmount;
+    this.netAmount = netAmount;
+  }
+
+  /**
+   * Creates the context of a bill before the discounts are applied. The user and the items are
+   * shared with the bill and must not be modified while the bill is priced.
+   *
+   * @param billDto The bill to be priced.
+   * @return The pricing context of the bill.
+   */
+  public static PricingContext of(BillDto billDto) {
+    var items = billDto.getItems() == null ? List.<BillItemDto>of()
+        : List.copyOf(billDto.getItems());
+    var totalAmount = billDto.getTotalAmount() == null ? Money.ZERO : billDto.getTotalAmount();
+    var discount = billDto.getDiscount();
+    return new PricingContext(billDto.getUser(), items, billDto.getTotals(), totalAmount,
+        totalAmount.minus(discount));
+  }
+
+  /**
+   * Returns a context with the given net amount, e.g. after some of the discounts are applied.
+   *
+   * @param netAmount The net amount.
+   * @return A new context, or this one if the net amount is unchanged.
+   */
+  public PricingContext withNetAmount(Money netAmount) {
+    return netAmount.equals(this.netAmount) ? this
+        : new PricingContext(user, items, totals, totalAmount, netAmount);
+  }
+
+  public UserDto getUser() {
+    return user;
+  }
+
+  public List<BillItemDto> getItems() {
+    return items;
+  }
+
+  public BillTotals getTotals() {
+    return totals;
+  }
+
+  public Money getTotalAmount() {
+    return totalAmount;
+  }
+
+  public Money getNetAmount() {
+    return netAmount;
+  }
+}
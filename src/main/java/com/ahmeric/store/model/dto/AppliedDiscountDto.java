@@ -0,0 +1,22 @@
+package com.ahmeric.store.model.dto;
+
+import com.ahmeric.store.model.Money;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object (DTO) for a discount applied to a bill. Contains the discount code, the
+ * percentage in basis points for percentage discounts and the discount amount.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class AppliedDiscountDto {
+
+  private String code;
+  private Long basisPoints;
+  private Money amount;
+}
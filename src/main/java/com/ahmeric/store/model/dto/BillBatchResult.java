@@ -0,0 +1,27 @@
+package com.ahmeric.store.model.dto;
+
+import com.ahmeric.store.exception.ErrorRegistry;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object (DTO) for the outcome of one bill in a batch. Contains either the created
+ * bill or the error that prevented its creation.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class BillBatchResult {
+
+  private int index;
+  private BillDto bill;
+  private ErrorRegistry error;
+  private String detail;
+
+  public boolean isSuccess() {
+    return error == null;
+  }
+}
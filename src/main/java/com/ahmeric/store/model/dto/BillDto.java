@@ -1,14 +1,14 @@
 package com.ahmeric.store.model.dto;
 
 
-import java.math.BigDecimal;
+import com.ahmeric.store.model.BillTotals;
+import com.ahmeric.store.model.Money;
 import java.util.ArrayList;
 import java.util.List;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
-import org.springframework.data.annotation.Transient;
 
 /**
  * Data Transfer Object (DTO) for a bill in the store application. Contains information about the
@@ -16,29 +16,54 @@ import org.springframework.data.annotation.Transient;
  */
 @AllArgsConstructor
 @NoArgsConstructor
-@Builder
+@Builder(toBuilder = true)
 @Data
 public class BillDto {
 
   private String id;
   private UserDto user;
-  private List<ProductDto> products;
-  private BigDecimal totalAmount;
-  private BigDecimal discount;
-  private BigDecimal netAmount;
+  private List<BillItemDto> items;
+  private Money totalAmount;
+  private Money discount;
+  private Money netAmount;
+  private List<AppliedDiscountDto> discounts;
+  /**
+   * Legacy rendered descriptions of the applied discounts, only set for bills read from the legacy
+   * layout.
+   */
   private List<String> appliedDiscounts;
+  private String ruleSetVersion;
+  private String couponCode;
+  private BillTotals totals;
+
+  public void addDiscount(Money discount) {
+    this.discount = getDiscount().plus(discount);
+  }
+
   /**
-   * Transient list of product IDs, used for operational convenience but not persisted.
+   * Sets the line items and drops the totals computed from the previous items.
+   *
+   * @param items The line items.
    */
-  @Transient
-  private List<String> productIdList;
+  public void setItems(List<BillItemDto> items) {
+    this.items = items;
+    this.totals = null;
+  }
 
-  public void addDiscount(BigDecimal discount) {
-    this.discount = getDiscount().add(discount);
+  /**
+   * Returns the per product type subtotals of the items. They are computed on first access.
+   *
+   * @return Totals of the items.
+   */
+  public BillTotals getTotals() {
+    if (this.totals == null) {
+      this.totals = BillTotals.of(this.items);
+    }
+    return this.totals;
   }
 
-  public BigDecimal getNetAmount() {
-    return getTotalAmount().subtract(getDiscount());
+  public Money getNetAmount() {
+    return getTotalAmount().minus(getDiscount());
   }
 
   /**
@@ -46,11 +71,11 @@ public class BillDto {
    *
    * @return List of applied discounts.
    */
-  public List<String> getAppliedDiscounts() {
-    if (this.appliedDiscounts == null) {
-      this.appliedDiscounts = new ArrayList<>();
+  public List<AppliedDiscountDto> getDiscounts() {
+    if (this.discounts == null) {
+      this.discounts = new ArrayList<>();
     }
-    return this.appliedDiscounts;
+    return this.discounts;
   }
 
   /**
@@ -58,9 +83,9 @@ public class BillDto {
    *
    * @return Discount value.
    */
-  public BigDecimal getDiscount() {
+  public Money getDiscount() {
     if (this.discount == null) {
-      this.discount = BigDecimal.ZERO;
+      this.discount = Money.ZERO;
     }
     return this.discount;
   }
@@ -0,0 +1,34 @@
+package com.ahmeric.store.model.dto;
+
+import com.ahmeric.store.entity.ProductType;
+import com.ahmeric.store.model.Money;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object (DTO) for a bill line item. Contains the product reference, the snapshot of
+ * the product's name, type and unit price, and the purchased quantity.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class BillItemDto {
+
+  private String productId;
+  private String name;
+  private ProductType type;
+  private Money unitPrice;
+  private int quantity;
+
+  /**
+   * Returns the total of the line, i.e. the unit price multiplied by the quantity.
+   *
+   * @return Line total.
+   */
+  public Money getLineTotal() {
+    return unitPrice.times(quantity);
+  }
+}
@@ -0,0 +1,14 @@
+package com.ahmeric.store.model.dto;
+
+import java.util.List;
+
+/**
+ * Record representing the products changed after a catalog version.
+ *
+ * @param version  the catalog version the caller holds once it applied the products, i.e. the
+ *                 highest version among them.
+ * @param products the changed products, in ascending version order.
+ */
+public record CatalogChanges(long version, List<ProductDto> products) {
+
+}
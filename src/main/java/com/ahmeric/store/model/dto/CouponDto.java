@@ -0,0 +1,23 @@
+package com.ahmeric.store.model.dto;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object (DTO) for the coupons to be issued. Contains either the percentage off in
+ * basis points or the amount off, and the expiry of the coupons.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class CouponDto {
+
+  private Long basisPoints;
+  private BigDecimal amount;
+  private Instant expiresAt;
+}
@@ -0,0 +1,21 @@
+package com.ahmeric.store.model.dto;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object (DTO) for the outcome of issuing coupons. Contains the codes of the issued
+ * coupons and the number of coupons that could not be stored.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class CouponIssueResult {
+
+  private List<String> codes;
+  private int failed;
+}
@@ -0,0 +1,81 @@
+package com.ahmeric.store.model.dto;
+
+import com.ahmeric.store.exception.ErrorRegistry;
+import com.ahmeric.store.exception.RetailStoreException;
+import java.util.List;
+import java.util.function.Function;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Record representing one page of a listing paged by _id. The next page holds the items with IDs
+ * greater than the cursor, so pages are read through the _id index without skipping documents.
+ *
+ * @param items      the items of the page, in ascending ID order.
+ * @param nextCursor the cursor of the next page, null on the last page.
+ * @param <T>        the type of the items.
+ */
+public record CursorPage<T>(List<T> items, String nextCursor) {
+
+  public static final int MAX_LIMIT = 500;
+
+  /**
+   * Returns the Pageable reading one page of the given limit in ascending ID order. One item more
+   * than the limit is read to find out whether a next page exists. Throws an exception if the limit
+   * is not between 1 and MAX_LIMIT.
+   *
+   * @param limit The maximum number of items of the page.
+   * @return The Pageable to pass to the repository.
+   */
+  public static Pageable pageRequest(int limit) {
+    if (limit < 1 || limit > MAX_LIMIT) {
+      throw new RetailStoreException(ErrorRegistry.INVALID_PAGE_LIMIT);
+    }
+    return PageRequest.of(0, limit + 1, Sort.by("id"));
+  }
+
+  /**
+   * Checks the cursor of a page request. Cursors are ObjectId strings, and any other value would be
+   * compared as a string and silently end the listing. Throws an exception if the cursor is not an
+   * ObjectId.
+   *
+   * @param cursor The next cursor of the previous page.
+   * @return The cursor.
+   */
+  public static String checkCursor(String cursor) {
+    if (!ObjectId.isValid(cursor)) {
+      throw new RetailStoreException(ErrorRegistry.INVALID_PAGE_CURSOR);
+    }
+    return cursor;
+  }
+
+  /**
+   * Creates the page from the items read with {@link #pageRequest(int)}.
+   *
+   * @param items The items read, at most one more than the limit.
+   * @param limit The maximum number of items of the page.
+   * @param idOf  Function returning the ID of an item.
+   * @param <T>   The type of the items.
+   * @return The page, with a next cursor if more items were read than the limit.
+   */
+  public static <T> CursorPage<T> of(List<T> items, int limit, Function<T, String> idOf) {
+    if (items.size() <= limit) {
+      return new CursorPage<>(items, null);
+    }
+    var page = items.subList(0, limit);
+    return new CursorPage<>(page, idOf.apply(page.get(limit - 1)));
+  }
+
+  /**
+   * Returns the page with its items converted, keeping the cursor.
+   *
+   * @param mapper Function converting all items of the page at once.
+   * @param <R>    The type of the converted items.
+   * @return The converted page.
+   */
+  public <R> CursorPage<R> map(Function<List<T>, List<R>> mapper) {
+    return new CursorPage<>(mapper.apply(items), nextCursor);
+  }
+}
@@ -1,13 +1,15 @@
 package com.ahmeric.store.model.dto;
 
-import java.math.BigDecimal;
+import com.ahmeric.store.model.Money;
 
 /**
- * Record representing a discount result.
+ * Record representing a discount result. The description of the discount is not part of the result,
+ * it is rendered from these fields when a response is built.
  *
- * @param discountAmount      the amount of the discount.
- * @param discountDescription a description of the discount.
+ * @param discountAmount the amount of the discount.
+ * @param code           the code of the discount, i.e. the name of the discount rule.
+ * @param basisPoints    the percentage of a percentage discount in basis points, null otherwise.
  */
-public record DiscountResult(BigDecimal discountAmount, String discountDescription) {
+public record DiscountResult(Money discountAmount, String code, Long basisPoints) {
 
 }
@@ -21,4 +21,5 @@ public class ProductDto {
   private String name;
   private BigDecimal price;
   private ProductType type;
+  private Long version;
 }
@@ -0,0 +1,21 @@
+package com.ahmeric.store.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object (DTO) for a row of an import file that was not imported. Contains the line
+ * the row starts on, the product ID of the row if it has one, and why it was rejected.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ProductImportError {
+
+  private long line;
+  private String productId;
+  private String message;
+}
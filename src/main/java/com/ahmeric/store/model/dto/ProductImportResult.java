@@ -0,0 +1,25 @@
+package com.ahmeric.store.model.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object (DTO) for the outcome of a product import. Contains the number of rows read,
+ * imported and rejected, and the rejected rows up to a maximum count.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ProductImportResult {
+
+  private long rows;
+  private long imported;
+  private long failed;
+  @Builder.Default
+  private List<ProductImportError> errors = new ArrayList<>();
+}
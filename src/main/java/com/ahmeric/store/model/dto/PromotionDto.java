@@ -0,0 +1,28 @@
+package com.ahmeric.store.model.dto;
+
+import com.ahmeric.store.entity.ProductType;
+import java.time.Instant;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object (DTO) for a promotion in the store application. Contains the promoted
+ * product or product type, the percentage off in basis points and the validity window.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class PromotionDto {
+
+  private String id;
+  private String name;
+  private String productId;
+  private ProductType productType;
+  private Long basisPoints;
+  private int order;
+  private Instant validFrom;
+  private Instant validUntil;
+}
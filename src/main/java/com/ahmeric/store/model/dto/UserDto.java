@@ -1,5 +1,6 @@
 package com.ahmeric.store.model.dto;
 
+import com.ahmeric.store.entity.LoyaltyTier;
 import com.ahmeric.store.entity.UserType;
 import java.time.LocalDate;
 import lombok.AllArgsConstructor;
@@ -22,4 +23,6 @@ public class UserDto {
   private LocalDate registrationDate;
   private String userName;
   private String password;
+  private LoyaltyTier loyaltyTier;
+  private Long rollingSpend;
 }
@@ -0,0 +1,19 @@
+package com.ahmeric.store.model.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+import lombok.Data;
+
+/**
+ * Request object for creating many bills at once. Contains one BillRequest per bill.
+ */
+@Data
+public class BillBatchRequest {
+
+  @NotEmpty(message = "{api.validation.size.bill.batch}")
+  @Size(max = 1000, message = "{api.validation.size.bill.batch}")
+  @Valid
+  private List<BillRequest> bills;
+}
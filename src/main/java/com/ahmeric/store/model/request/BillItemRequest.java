@@ -0,0 +1,26 @@
+package com.ahmeric.store.model.request;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Request object for a bill line item. Contains the product ID and the purchased quantity.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BillItemRequest {
+
+  @NotNull(message = "{api.validation.not.null.bill.item.product}")
+  private String productId;
+  @NotNull(message = "{api.validation.positive.bill.item.quantity}")
+  @Min(value = 1, message = "{api.validation.positive.bill.item.quantity}")
+  @Max(value = 10_000, message = "{api.validation.max.bill.item.quantity}")
+  private Integer quantity;
+}
@@ -1,16 +1,37 @@
 package com.ahmeric.store.model.request;
 
-import jakarta.validation.constraints.NotEmpty;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.Size;
 import java.util.List;
 import lombok.Data;
 
 /**
- * Request object for a bill in the store application. Contains information about the product IDs
- * included in the bill.
+ * Request object for a bill in the store application. Contains the line items included in the
+ * bill. The legacy list of product IDs, one entry per scanned unit, is still accepted.
  */
 @Data
 public class BillRequest {
 
-  @NotEmpty(message = "{api.validation.not.null.bill.products}")
+  @Size(max = 1000, message = "{api.validation.size.bill.items}")
   private List<String> productIdLists;
+  @Valid
+  @Size(max = 1000, message = "{api.validation.size.bill.items}")
+  private List<BillItemRequest> items;
+  @Size(max = 64, message = "{api.validation.size.coupon.code}")
+  private String couponCode;
+
+  /**
+   * Checks that the request contains at least one product, either as a line item or as a product
+   * ID.
+   *
+   * @return true if the bill has at least one product.
+   */
+  @JsonIgnore
+  @AssertTrue(message = "{api.validation.not.null.bill.products}")
+  public boolean isProductsPresent() {
+    return (productIdLists != null && !productIdLists.isEmpty())
+        || (items != null && !items.isEmpty());
+  }
 }
@@ -0,0 +1,29 @@
+package com.ahmeric.store.model.request;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import java.math.BigDecimal;
+import java.time.Instant;
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * Request object for issuing single-use coupons. Either basisPoints or amount is to be given.
+ */
+@Data
+@Builder
+public class CouponIssueRequest {
+
+  @Min(value = 1, message = "{api.validation.size.coupon.count}")
+  @Max(value = 10_000, message = "{api.validation.size.coupon.count}")
+  private int count;
+  @Positive(message = "{api.validation.coupon.basis.points}")
+  @Max(value = 10_000, message = "{api.validation.coupon.basis.points}")
+  private Long basisPoints;
+  @Positive(message = "{api.validation.positive.coupon.amount}")
+  private BigDecimal amount;
+  @NotNull(message = "{api.validation.not.null.coupon.expiry}")
+  private Instant expiresAt;
+}
@@ -0,0 +1,23 @@
+package com.ahmeric.store.model.request;
+
+import com.ahmeric.store.entity.DiscountRule;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import java.time.LocalDate;
+import java.util.List;
+import lombok.Data;
+
+/**
+ * Request object for simulating candidate discount rules on the bills created in a period. The
+ * period starts at the beginning of the from date and ends at the beginning of the to date.
+ */
+@Data
+public class DiscountSimulationRequest {
+
+  @NotEmpty(message = "{api.validation.not.empty.simulation.rules}")
+  private List<DiscountRule> rules;
+  @NotNull(message = "{api.validation.not.null.simulation.period}")
+  private LocalDate from;
+  @NotNull(message = "{api.validation.not.null.simulation.period}")
+  private LocalDate to;
+}
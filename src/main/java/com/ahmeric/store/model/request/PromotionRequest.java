@@ -0,0 +1,32 @@
+package com.ahmeric.store.model.request;
+
+import com.ahmeric.store.entity.ProductType;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import java.time.Instant;
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * Request object for creating a promotion. Either a product id or a product type is to be given.
+ * The promotion is valid from validFrom until right before validUntil.
+ */
+@Data
+@Builder
+public class PromotionRequest {
+
+  @NotNull(message = "{api.validation.not.null.promotion.name}")
+  private String name;
+  private String productId;
+  private ProductType productType;
+  @NotNull(message = "{api.validation.promotion.basis.points}")
+  @Positive(message = "{api.validation.promotion.basis.points}")
+  @Max(value = 10_000, message = "{api.validation.promotion.basis.points}")
+  private Long basisPoints;
+  private int order;
+  @NotNull(message = "{api.validation.not.null.promotion.validity}")
+  private Instant validFrom;
+  @NotNull(message = "{api.validation.not.null.promotion.validity}")
+  private Instant validUntil;
+}
@@ -0,0 +1,23 @@
+package com.ahmeric.store.model.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Response object for one bill of a batch. Contains the position of the bill in the request and
+ * either the created bill or the error message and cause.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BillBatchItemResponse {
+
+  private int index;
+  private boolean created;
+  private BillResponse bill;
+  private String message;
+  private String cause;
+}
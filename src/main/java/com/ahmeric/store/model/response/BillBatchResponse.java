@@ -0,0 +1,22 @@
+package com.ahmeric.store.model.response;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * The response object for a batch of bills. Contains the number of created and failed bills and
+ * one BillBatchItemResponse per requested bill, in request order.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BillBatchResponse {
+
+  private int created;
+  private int failed;
+  private List<BillBatchItemResponse> results;
+}
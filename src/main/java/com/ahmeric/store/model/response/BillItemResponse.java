@@ -0,0 +1,26 @@
+package com.ahmeric.store.model.response;
+
+import com.ahmeric.store.entity.ProductType;
+import java.math.BigDecimal;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Response object for a bill line item. Contains the product reference, its name, type, unit
+ * price, quantity and the line total.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class BillItemResponse {
+
+  private String productId;
+  private String name;
+  private ProductType type;
+  private BigDecimal unitPrice;
+  private int quantity;
+  private BigDecimal lineTotal;
+}
@@ -7,7 +7,8 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 /**
- * The response object for a list of bills. Contains a list of BillResponse objects.
+ * The response object for a page of bills. Contains a list of BillResponse objects and the cursor
+ * of the next page, if any.
  */
 @Data
 @Builder
@@ -16,4 +17,5 @@ import lombok.NoArgsConstructor;
 public class BillListResponse {
 
   private List<BillResponse> bills;
+  private String nextCursor;
 }
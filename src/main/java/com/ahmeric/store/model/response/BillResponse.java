@@ -9,8 +9,8 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 /**
- * Response object for a bill. Contains details about the bill including id, user, products, amount,
- * discount and net amount.
+ * Response object for a bill. Contains details about the bill including id, user, line items,
+ * amount, discount, net amount and the version of the discount rules applied.
  */
 @Data
 @NoArgsConstructor
@@ -21,9 +21,11 @@ public class BillResponse {
   private String id;
   private String userId;
   private UserType userType;
-  private List<ProductResponse> products;
+  private List<BillItemResponse> items;
   private BigDecimal totalAmount;
   private BigDecimal discount;
   private BigDecimal netAmount;
   private List<String> appliedDiscounts;
+  private String ruleSetVersion;
+  private String couponCode;
 }
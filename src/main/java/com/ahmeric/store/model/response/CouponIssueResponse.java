@@ -0,0 +1,22 @@
+package com.ahmeric.store.model.response;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Response object for issued coupons. Contains the codes of the coupons and the number of
+ * requested coupons that could not be issued.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CouponIssueResponse {
+
+  private List<String> codes;
+  private int failed;
+
+}
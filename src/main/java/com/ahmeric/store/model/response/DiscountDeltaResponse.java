@@ -0,0 +1,24 @@
+package com.ahmeric.store.model.response;
+
+import java.math.BigDecimal;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Response object for the discount of a group of bills under the current and the candidate discount
+ * rules. The delta is the simulated minus the current discount, so a positive delta means revenue
+ * lost.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DiscountDeltaResponse {
+
+  private long billCount;
+  private BigDecimal currentDiscount;
+  private BigDecimal simulatedDiscount;
+  private BigDecimal delta;
+}
@@ -0,0 +1,19 @@
+package com.ahmeric.store.model.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Response object for the discount rule set in use. Contains its version and number of rules.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DiscountRuleSetResponse {
+
+  private String version;
+  private int ruleCount;
+}
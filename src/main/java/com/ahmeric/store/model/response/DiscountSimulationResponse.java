@@ -0,0 +1,26 @@
+package com.ahmeric.store.model.response;
+
+import com.ahmeric.store.entity.UserType;
+import java.util.Map;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Response object for a discount simulation. Contains the version of the candidate rules, the
+ * totals of all simulated bills, the number of bills skipped because their user no longer exists
+ * and the totals per user type and per discount strategy.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DiscountSimulationResponse {
+
+  private String candidateVersion;
+  private DiscountDeltaResponse total;
+  private long skippedBillCount;
+  private Map<UserType, DiscountDeltaResponse> byUserType;
+  private Map<String, DiscountDeltaResponse> byStrategy;
+}
@@ -0,0 +1,21 @@
+package com.ahmeric.store.model.response;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Response object for the products changed after a catalog version. Contains the changed products
+ * and the version to ask for changes after next time.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductChangesResponse {
+
+  private long version;
+  private List<ProductResponse> products;
+}
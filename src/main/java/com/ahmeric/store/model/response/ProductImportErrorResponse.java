@@ -0,0 +1,21 @@
+package com.ahmeric.store.model.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Response object for a row of an import file that was not imported. Contains the line the row
+ * starts on, the product ID of the row if it has one, and the error message.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductImportErrorResponse {
+
+  private long line;
+  private String productId;
+  private String message;
+}
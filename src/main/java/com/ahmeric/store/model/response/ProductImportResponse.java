@@ -0,0 +1,23 @@
+package com.ahmeric.store.model.response;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * The response object for a product import. Contains the number of rows read, imported and
+ * rejected, and one ProductImportErrorResponse per reported rejected row, in file order.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductImportResponse {
+
+  private long rows;
+  private long imported;
+  private long failed;
+  private List<ProductImportErrorResponse> errors;
+}
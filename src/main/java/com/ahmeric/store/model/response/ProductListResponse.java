@@ -7,7 +7,8 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 /**
- * Response object for a list of products. Contains a list of ProductResponse objects.
+ * Response object for a page of products. Contains a list of ProductResponse objects and the cursor
+ * of the next page, if any.
  */
 @Data
 @Builder
@@ -16,5 +17,6 @@ import lombok.NoArgsConstructor;
 public class ProductListResponse {
 
   private List<ProductResponse> products;
+  private String nextCursor;
 
 }
@@ -8,8 +8,8 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 /**
- * Response object for a product. Contains details about the product including id, name, price, and
- * type.
+ * Response object for a product. Contains details about the product including id, name, price,
+ * type and catalog version.
  */
 @Data
 @AllArgsConstructor
@@ -21,4 +21,5 @@ public class ProductResponse {
   private String name;
   private BigDecimal price;
   private ProductType type;
+  private Long version;
 }
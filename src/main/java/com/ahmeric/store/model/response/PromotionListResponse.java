@@ -0,0 +1,20 @@
+package com.ahmeric.store.model.response;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Response object for a list of promotions. Contains a list of PromotionResponse objects.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PromotionListResponse {
+
+  private List<PromotionResponse> promotions;
+
+}
@@ -0,0 +1,28 @@
+package com.ahmeric.store.model.response;
+
+import com.ahmeric.store.entity.ProductType;
+import java.time.Instant;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Response object for a promotion. Contains the promoted product or product type, the percentage
+ * off in basis points and the validity window.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PromotionResponse {
+
+  private String id;
+  private String name;
+  private String productId;
+  private ProductType productType;
+  private Long basisPoints;
+  private int order;
+  private Instant validFrom;
+  private Instant validUntil;
+}
@@ -7,7 +7,8 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 /**
- * Response object for a list of users. Contains a list of UserResponse objects.
+ * Response object for a page of users. Contains a list of UserResponse objects and the cursor of
+ * the next page, if any.
  */
 @Data
 @Builder
@@ -16,4 +17,5 @@ import lombok.NoArgsConstructor;
 public class UserListResponse {
 
   private List<UserResponse> users;
+  private String nextCursor;
 }
@@ -1,15 +1,32 @@
 package com.ahmeric.store.repository;
 
 import com.ahmeric.store.entity.Bill;
+import java.util.List;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
 
 /**
  * Repository interface for Bills. Extends MongoRepository and works with Bill objects and their
- * String ids.
+ * String ids. Includes additional methods to read bills page by page.
  */
 @Repository
 public interface BillRepository extends MongoRepository<Bill, String> {
 
-}
+  /**
+   * Finds the first bills in ascending ID order.
+   *
+   * @param pageable The page size and ID order.
+   * @return List of bills.
+   */
+  List<Bill> findAllBy(Pageable pageable);
 
+  /**
+   * Finds the bills with IDs greater than the given ID in ascending ID order.
+   *
+   * @param id       The ID of the last bill of the previous page.
+   * @param pageable The page size and ID order.
+   * @return List of bills.
+   */
+  List<Bill> findByIdGreaterThan(String id, Pageable pageable);
+}
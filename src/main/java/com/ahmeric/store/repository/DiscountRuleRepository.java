@@ -0,0 +1,14 @@
+package com.ahmeric.store.repository;
+
+import com.ahmeric.store.entity.DiscountRule;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository interface for Discount Rules. Extends MongoRepository and works with DiscountRule
+ * objects and their String ids.
+ */
+@Repository
+public interface DiscountRuleRepository extends MongoRepository<DiscountRule, String> {
+
+}
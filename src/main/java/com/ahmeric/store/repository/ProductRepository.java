@@ -1,15 +1,49 @@
 package com.ahmeric.store.repository;
 
 import com.ahmeric.store.entity.Product;
+import java.util.List;
+import java.util.stream.Stream;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
 
 /**
  * Repository interface for Products. Extends MongoRepository and works with Product objects and
- * their String ids.
+ * their String ids. Includes additional methods to read products page by page or with a cursor and
+ * to find the products changed after a catalog version.
  */
 @Repository
 public interface ProductRepository extends MongoRepository<Product, String> {
 
-}
+  /**
+   * Finds the first products in ascending ID order.
+   *
+   * @param pageable The page size and ID order.
+   * @return List of products.
+   */
+  List<Product> findAllBy(Pageable pageable);
+
+  /**
+   * Finds the products with IDs greater than the given ID in ascending ID order.
+   *
+   * @param id       The ID of the last product of the previous page.
+   * @param pageable The page size and ID order.
+   * @return List of products.
+   */
+  List<Product> findByIdGreaterThan(String id, Pageable pageable);
 
+  /**
+   * Finds the products written with a catalog version greater than the given version.
+   *
+   * @param version The catalog version.
+   * @return List of products in ascending version order.
+   */
+  List<Product> findByVersionGreaterThanOrderByVersionAsc(long version);
+
+  /**
+   * Streams all products with a cursor. The stream must be closed.
+   *
+   * @return Stream of all products.
+   */
+  Stream<Product> streamAllBy();
+}
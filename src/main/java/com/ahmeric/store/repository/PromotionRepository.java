@@ -0,0 +1,23 @@
+package com.ahmeric.store.repository;
+
+import com.ahmeric.store.entity.Promotion;
+import java.time.Instant;
+import java.util.List;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository interface for Promotions. Extends MongoRepository and works with Promotion objects and
+ * their String ids. Includes additional method to find the promotions that have not ended yet.
+ */
+@Repository
+public interface PromotionRepository extends MongoRepository<Promotion, String> {
+
+  /**
+   * Finds the promotions whose validity window ends after the given instant.
+   *
+   * @param instant The instant.
+   * @return List of current and upcoming promotions.
+   */
+  List<Promotion> findByValidUntilAfter(Instant instant);
+}
@@ -1,13 +1,17 @@
 package com.ahmeric.store.repository;
 
 import com.ahmeric.store.entity.User;
+import java.util.List;
 import java.util.Optional;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
 /**
  * Repository interface for Users. Extends MongoRepository and works with User objects and their
- * String ids. Includes additional method to find User by username.
+ * String ids. Includes additional methods to find User by username and to read users page by
+ * page without their passwords.
  */
 @Repository
 public interface UserRepository extends MongoRepository<User, String> {
@@ -19,5 +23,24 @@ public interface UserRepository extends MongoRepository<User, String> {
    * @return An Optional User which may contain the User entity.
    */
   Optional<User> findByUserName(String username);
+
+  /**
+   * Finds the first users in ascending ID order.
+   *
+   * @param pageable The page size and ID order.
+   * @return List of users.
+   */
+  @Query(fields = "{ 'password' : 0 }")
+  List<User> findAllBy(Pageable pageable);
+
+  /**
+   * Finds the users with IDs greater than the given ID in ascending ID order.
+   *
+   * @param id       The ID of the last user of the previous page.
+   * @param pageable The page size and ID order.
+   * @return List of users.
+   */
+  @Query(fields = "{ 'password' : 0 }")
+  List<User> findByIdGreaterThan(String id, Pageable pageable);
 }
 
@@ -1,6 +1,7 @@
 package com.ahmeric.store.service;
 
 import com.ahmeric.store.config.JwtService;
+import com.ahmeric.store.entity.LoyaltyTier;
 import com.ahmeric.store.entity.User;
 import com.ahmeric.store.exception.ErrorRegistry;
 import com.ahmeric.store.exception.RetailStoreException;
@@ -8,6 +9,7 @@ import com.ahmeric.store.model.dto.UserDto;
 import com.ahmeric.store.repository.UserRepository;
 import com.ahmeric.store.utils.Mapper;
 import java.time.LocalDate;
+import java.util.Map;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -39,12 +41,14 @@ public class AuthenticationService {
     var user = modelMapper.map(userDto, User.class);
     user.setPassword(passwordEncoder.encode(userDto.getPassword()));
     user.setRegistrationDate(LocalDate.now());
+    user.setLoyaltyTier(LoyaltyTier.of(user.getUserType(), user.getRegistrationDate(),
+        LocalDate.now()));
     userRepository.save(user);
   }
 
   /**
    * Authenticates a user. Throws an exception if the user doesn't exist or if the password is
-   * incorrect.
+   * incorrect. The loyalty tier of the user is carried in the token as a claim.
    *
    * @param userName The username of the user.
    * @param password The password of the user.
@@ -61,7 +65,10 @@ public class AuthenticationService {
         )
     );
 
-    return jwtService.generateToken(userName);
+    var loyaltyTier = user.getLoyaltyTier() != null ? user.getLoyaltyTier()
+        : LoyaltyTier.of(user.getUserType(), user.getRegistrationDate(), LocalDate.now());
+    return jwtService.generateToken(Map.of(JwtService.LOYALTY_TIER_CLAIM, loyaltyTier.name()),
+        userName);
   }
 
 
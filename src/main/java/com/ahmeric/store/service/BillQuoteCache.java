@@ -0,0 +1,100 @@
+package com.ahmeric.store.service;
+
+import com.ahmeric.store.event.DiscountRulesReloadedEvent;
+import com.ahmeric.store.event.ProductChangedEvent;
+import com.ahmeric.store.event.ProductsImportedEvent;
+import com.ahmeric.store.event.PromotionsReloadedEvent;
+import com.ahmeric.store.model.dto.BillDto;
+import com.ahmeric.store.service.promotion.PromotionService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.function.Function;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bounded cache of priced bill quotes, keyed by the user discount class and the product multiset.
+ * The whole cache is invalidated when a product, the discount rules or the loaded promotions
+ * change, since cached quotes carry product prices and discounts. A quote also expires when a
+ * loaded promotion starts or ends, so it never outlives the promotions it was priced with.
+ */
+@Component
+public class BillQuoteCache {
+
+  private final PromotionService promotionService;
+  private final Duration timeToLive;
+  private final Cache<BillQuoteKey, BillDto> quotes;
+
+  /**
+   * Creates the cache.
+   *
+   * @param promotionService The service telling when the active promotions change next.
+   * @param maximumSize      Maximum number of cached quotes.
+   * @param timeToLive       Time after which a cached quote expires at the latest.
+   */
+  public BillQuoteCache(PromotionService promotionService,
+      @Value("${bill.quote.cache.maximum-size:10000}") long maximumSize,
+      @Value("${bill.quote.cache.time-to-live:30s}") Duration timeToLive) {
+    this.promotionService = promotionService;
+    this.timeToLive = timeToLive;
+    this.quotes = Caffeine.newBuilder()
+        .maximumSize(maximumSize)
+        .expireAfter(new Expiry<BillQuoteKey, BillDto>() {
+          @Override
+          public long expireAfterCreate(BillQuoteKey key, BillDto quote, long currentTime) {
+            return getTimeToLive().toNanos();
+          }
+
+          @Override
+          public long expireAfterUpdate(BillQuoteKey key, BillDto quote, long currentTime,
+              long currentDuration) {
+            return currentDuration;
+          }
+
+          @Override
+          public long expireAfterRead(BillQuoteKey key, BillDto quote, long currentTime,
+              long currentDuration) {
+            return currentDuration;
+          }
+        })
+        .build();
+  }
+
+  /**
+   * Returns the cached quote for the key, computing and caching it if absent.
+   *
+   * @param key    The quote key.
+   * @param pricer Function pricing the basket when no quote is cached.
+   * @return The cached or newly computed quote.
+   */
+  BillDto get(BillQuoteKey key, Function<BillQuoteKey, BillDto> pricer) {
+    return quotes.get(key, pricer);
+  }
+
+  /**
+   * Returns the time to live of a quote priced now: the configured time to live, capped at the
+   * next start or end of a loaded promotion.
+   */
+  private Duration getTimeToLive() {
+    var now = Instant.now();
+    var nextChange = promotionService.getNextChange(now);
+    if (nextChange == null) {
+      return timeToLive;
+    }
+    var untilChange = Duration.between(now, nextChange);
+    return untilChange.compareTo(timeToLive) < 0 ? untilChange : timeToLive;
+  }
+
+  /**
+   * Invalidates all cached quotes.
+   */
+  @EventListener({ProductChangedEvent.class, ProductsImportedEvent.class,
+      DiscountRulesReloadedEvent.class, PromotionsReloadedEvent.class})
+  public void invalidateAll() {
+    quotes.invalidateAll();
+  }
+}
@@ -0,0 +1,19 @@
+package com.ahmeric.store.service;
+
+import com.ahmeric.store.entity.LoyaltyTier;
+import com.ahmeric.store.entity.UserType;
+import java.util.SortedMap;
+
+/**
+ * Cache key of a bill quote. Two baskets with the same products and quantities, priced for users
+ * of the same discount class, always get the same quote.
+ *
+ * @param userType      the user type of the buyer.
+ * @param loyaltyTier   the loyalty tier of the buyer.
+ * @param spendBand     the spend band of the buyer, deciding the tier of SPEND_TIER rules.
+ * @param basket        the quantity per product ID, sorted so that item order does not matter.
+ */
+record BillQuoteKey(UserType userType, LoyaltyTier loyaltyTier, int spendBand,
+    SortedMap<String, Integer> basket) {
+
+}
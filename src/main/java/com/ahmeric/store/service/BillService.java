@@ -1,92 +1,367 @@
 package com.ahmeric.store.service;
 
+import com.ahmeric.store.config.StoreUserDetails;
 import com.ahmeric.store.entity.Bill;
+import com.ahmeric.store.entity.BillItem;
+import com.ahmeric.store.entity.Coupon;
+import com.ahmeric.store.entity.Product;
+import com.ahmeric.store.event.BillsWrittenEvent;
 import com.ahmeric.store.exception.ErrorRegistry;
 import com.ahmeric.store.exception.RetailStoreException;
+import com.ahmeric.store.model.Money;
+import com.ahmeric.store.model.dto.BillBatchResult;
 import com.ahmeric.store.model.dto.BillDto;
+import com.ahmeric.store.model.dto.BillItemDto;
+import com.ahmeric.store.model.dto.CursorPage;
 import com.ahmeric.store.model.dto.ProductDto;
+import com.ahmeric.store.model.dto.UserDto;
 import com.ahmeric.store.repository.BillRepository;
+import com.ahmeric.store.service.coupon.CouponService;
+import com.ahmeric.store.service.discount.CouponDiscountStrategy;
 import com.ahmeric.store.service.discount.DiscountService;
+import com.ahmeric.store.service.discount.DiscountStrategyFactory;
 import com.ahmeric.store.utils.Mapper;
-import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
+import org.bson.types.ObjectId;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.User;
 import org.springframework.stereotype.Service;
 
 /**
- * Service class for Bill operations. Handles bill generation, and retrieving bills.
+ * Service class for Bill operations. Handles single and batch bill generation, quoting, and
+ * retrieving bills.
  */
 @Service
 @RequiredArgsConstructor
 public class BillService {
 
   private final BillRepository billRepository;
+  private final BillWriter billWriter;
   private final DiscountService discountService;
   private final ProductService productService;
-  private final UserService userService;
   private final Mapper modelMapper;
+  private final BillQuoteCache billQuoteCache;
+  private final MongoTemplate mongoTemplate;
+  private final CouponService couponService;
+  private final ApplicationEventPublisher eventPublisher;
 
   /**
-   * Generates a bill based on provided Product IDs. Throws an exception if the bill cannot be
-   * generated.
+   * Generates a bill based on the requested line items and hands it to the BillWriter. Items
+   * referring to the same product are merged into a single line. A coupon code on the bill is
+   * redeemed, and released again if the bill cannot be handed over. Throws an exception if the bill
+   * cannot be generated.
    *
-   * @param billDto DTO of the bill to be generated.
+   * @param billDto DTO of the bill to be generated, holding the requested product IDs and
+   *                quantities as items.
    * @return Generated BillDto.
    */
   public BillDto generateBillByProductIds(BillDto billDto) {
-    gatherBillDto(billDto);
-    discountService.applyDiscount(billDto);
+    var userDto = getCurrentUser();
+    gatherBillDto(billDto, userDto);
+    if (billDto.getCouponCode() == null) {
+      discountService.applyDiscount(billDto);
+      return modelMapper.map(billWriter.write(toBill(billDto)), BillDto.class);
+    }
+    var coupon = couponService.redeem(billDto.getCouponCode(), userDto.getId());
+    try {
+      discountService.applyDiscount(billDto, List.of(new CouponDiscountStrategy(coupon)));
+      return modelMapper.map(billWriter.write(toBill(billDto)), BillDto.class);
+    } catch (RuntimeException e) {
+      couponService.release(coupon.getCode(), userDto.getId());
+      throw e;
+    }
+  }
+
+  /**
+   * Generates many bills at once for the current user. The user is resolved once, the products of
+   * all bills are fetched with a single query and the bills are stored with one unordered bulk
+   * insert. A bill that cannot be priced or stored does not affect the others. The coupons of bills
+   * that are not stored are released, and so are all coupons redeemed by the batch if it fails as
+   * a whole.
+   *
+   * @param billDtos DTOs holding the requested product IDs and quantities of each bill as items.
+   * @return One BillBatchResult per requested bill, in request order.
+   */
+  public List<BillBatchResult> generateBills(List<BillDto> billDtos) {
+    var userDto = getCurrentUser();
+    List<Map<String, Integer>> quantitiesPerBill = new ArrayList<>(billDtos.size());
+    for (BillDto billDto : billDtos) {
+      try {
+        quantitiesPerBill.add(getRequestedQuantities(billDto));
+      } catch (RetailStoreException e) {
+        quantitiesPerBill.add(null);
+      }
+    }
+    Map<String, ProductDto> productsById = productService.findProductsByIds(
+        quantitiesPerBill.stream()
+            .filter(Objects::nonNull)
+            .flatMap(quantities -> quantities.keySet().stream())
+            .collect(Collectors.toSet()));
+
+    List<BillBatchResult> results = new ArrayList<>(billDtos.size());
+    List<Bill> bills = new ArrayList<>();
+    List<BillBatchResult> pending = new ArrayList<>();
+    List<String> redeemedCodes = new ArrayList<>();
+    try {
+      for (int index = 0; index < billDtos.size(); index++) {
+        var quantities = quantitiesPerBill.get(index);
+        var result = BillBatchResult.builder().index(index).build();
+        results.add(result);
+        if (quantities == null) {
+          result.setError(ErrorRegistry.INVALID_BILL_QUANTITY);
+          continue;
+        }
+
+        List<String> missingIds = quantities.keySet().stream()
+            .filter(productId -> !productsById.containsKey(productId))
+            .toList();
+        if (!missingIds.isEmpty()) {
+          result.setError(ErrorRegistry.PRODUCT_NOT_FOUND);
+          result.setDetail(String.join(", ", missingIds));
+          continue;
+        }
+        var billDto = billDtos.get(index);
+        billDto.setItems(quantities.entrySet().stream()
+            .map(entry -> toItem(productsById.get(entry.getKey()), entry.getValue()))
+            .toList());
+        fillTotals(billDto, userDto);
+        if (billDto.getCouponCode() == null) {
+          discountService.applyDiscount(billDto);
+        } else {
+          Coupon coupon;
+          try {
+            coupon = couponService.redeem(billDto.getCouponCode(), userDto.getId());
+          } catch (RetailStoreException e) {
+            result.setError(e.getErrorRegistry());
+            continue;
+          }
+          redeemedCodes.add(coupon.getCode());
+          try {
+            discountService.applyDiscount(billDto, List.of(new CouponDiscountStrategy(coupon)));
+          } catch (RetailStoreException e) {
+            redeemedCodes.remove(redeemedCodes.size() - 1);
+            couponService.release(coupon.getCode(), userDto.getId());
+            result.setError(e.getErrorRegistry());
+            continue;
+          }
+        }
+
+        var bill = toBill(billDto);
+        bill.setId(new ObjectId().toHexString());
+        bills.add(bill);
+        pending.add(result);
+      }
+      insertUnordered(bills, pending);
+    } catch (RuntimeException e) {
+      redeemedCodes.forEach(code -> couponService.release(code, userDto.getId()));
+      throw e;
+    }
+    List<Bill> written = new ArrayList<>(bills.size());
+    for (int i = 0; i < bills.size(); i++) {
+      if (pending.get(i).isSuccess()) {
+        pending.get(i).setBill(modelMapper.map(bills.get(i), BillDto.class));
+        written.add(bills.get(i));
+      } else {
+        releaseCoupon(bills.get(i));
+      }
+    }
+    if (!written.isEmpty()) {
+      eventPublisher.publishEvent(new BillsWrittenEvent(written));
+    }
+    return results;
+  }
+
+  private void insertUnordered(List<Bill> bills, List<BillBatchResult> results) {
+    if (bills.isEmpty()) {
+      return;
+    }
+    try {
+      mongoTemplate.bulkOps(BulkMode.UNORDERED, Bill.class).insert(bills).execute();
+    } catch (BulkOperationException exception) {
+      exception.getErrors().forEach(error -> {
+        var result = results.get(error.getIndex());
+        result.setError(ErrorRegistry.BILL_NOT_SAVED);
+        result.setDetail(error.getMessage());
+      });
+    }
+  }
+
+  private void releaseCoupon(Bill bill) {
+    if (bill.getCouponCode() != null) {
+      couponService.release(bill.getCouponCode(), bill.getUserId());
+    }
+  }
+
+  private Bill toBill(BillDto billDto) {
     var bill = modelMapper.map(billDto, Bill.class);
     bill.setUserId(billDto.getUser().getId());
     bill.setUserType(billDto.getUser().getUserType());
-    bill = billRepository.save(bill);
-    return modelMapper.map(bill, BillDto.class);
+    bill.setCouponCode(billDto.getCouponCode());
+    return bill;
   }
 
-  private void checkAndFillProducts(BillDto billDto) {
-    List<ProductDto> products = billDto.getProductIdList().stream()
-        .map(productService::getProductById)
-        .toList();
-    billDto.setProducts(products);
+  /**
+   * Prices the requested line items with the same pipeline as bill generation, without persisting
+   * anything. Quotes are cached per user discount class and product multiset, so repeated quotes
+   * of the same basket skip the product lookup and the discount calculation. A coupon code is
+   * checked but not redeemed, and such quotes are not cached.
+   *
+   * @param billDto DTO holding the requested product IDs and quantities as items.
+   * @return Priced BillDto without an ID.
+   */
+  public BillDto quoteBill(BillDto billDto) {
+    var userDto = getCurrentUser();
+    if (billDto.getCouponCode() != null) {
+      var coupon = couponService.getRedeemableCoupon(billDto.getCouponCode());
+      gatherBillDto(billDto, userDto);
+      return discountService.applyDiscount(billDto, List.of(new CouponDiscountStrategy(coupon)));
+    }
+    var key = new BillQuoteKey(userDto.getUserType(),
+        DiscountStrategyFactory.getLoyaltyTier(userDto), discountService.getSpendBand(userDto),
+        new TreeMap<>(getRequestedQuantities(billDto)));
+    var quote = billQuoteCache.get(key, quoteKey -> {
+      var priced = priceBill(billDto, userDto);
+      return priced.toBuilder()
+          .user(null)
+          .items(List.copyOf(priced.getItems()))
+          .discounts(List.copyOf(priced.getDiscounts()))
+          .build();
+    });
+    return quote.toBuilder().user(userDto).build();
+  }
+
+  private BillDto priceBill(BillDto billDto, UserDto userDto) {
+    gatherBillDto(billDto, userDto);
+    discountService.applyDiscount(billDto);
+    return billDto;
+  }
+
+  private void checkAndFillItems(BillDto billDto) {
+    Map<String, Integer> quantities = getRequestedQuantities(billDto);
+
+    List<ProductDto> products = productService.getProductsByIds(
+        new ArrayList<>(quantities.keySet()));
+    billDto.setItems(products.stream()
+        .map(product -> toItem(product, quantities.get(product.getId())))
+        .toList());
+  }
+
+  private static BillItemDto toItem(ProductDto product, int quantity) {
+    return BillItemDto.builder()
+        .productId(product.getId())
+        .name(product.getName())
+        .type(product.getType())
+        .unitPrice(Money.of(product.getPrice(), RoundingMode.HALF_UP))
+        .quantity(quantity)
+        .build();
   }
 
   /**
-   * Returns a list of all bills.
+   * Returns the requested quantity of each product, adding up the lines of the same product.
+   * Throws an exception if the quantity of a product does not fit an int.
+   */
+  private static Map<String, Integer> getRequestedQuantities(BillDto billDto) {
+    Map<String, Integer> quantities = new LinkedHashMap<>();
+    for (BillItemDto item : billDto.getItems()) {
+      try {
+        quantities.merge(item.getProductId(), item.getQuantity(), Math::addExact);
+      } catch (ArithmeticException e) {
+        throw new RetailStoreException(ErrorRegistry.INVALID_BILL_QUANTITY, item.getProductId());
+      }
+    }
+    return quantities;
+  }
+
+  /**
+   * Returns one page of bills in ascending ID order, i.e. in the order they were created. Throws an
+   * exception if the cursor is not an ObjectId.
    *
-   * @return List of BillDto.
+   * @param cursor The next cursor of the previous page, null for the first page.
+   * @param limit  The maximum number of bills of the page.
+   * @return CursorPage of BillDto.
    */
-  public List<BillDto> getAllBills() {
-    return modelMapper.map(billRepository.findAll(), Mapper.BILL_DTO_LIST_TYPE);
+  public CursorPage<BillDto> getBills(String cursor, int limit) {
+    var pageable = CursorPage.pageRequest(limit);
+    List<Bill> bills = cursor == null ? billRepository.findAllBy(pageable)
+        : billRepository.findByIdGreaterThan(CursorPage.checkCursor(cursor),
+            pageable);
+    return CursorPage.of(bills, limit, Bill::getId).map(page -> {
+      page.forEach(BillService::upgradeLegacyLayout);
+      return modelMapper.map(page, Mapper.BILL_DTO_LIST_TYPE);
+    });
   }
 
   /**
-   * Returns a bill by its ID. Throws an exception if the bill with the provided ID cannot be
-   * found.
+   * Returns a bill by its ID, including bills accepted but not yet written by the BillWriter.
+   * Throws an exception if the bill with the provided ID cannot be found.
    *
    * @param id The ID of the bill.
    * @return BillDto for the requested bill.
    */
   public BillDto getBillById(String id) {
-    var bill = billRepository.findById(id).orElseThrow(() -> new RetailStoreException(
-        ErrorRegistry.BILL_NOT_FOUND));
+    var bill = billRepository.findById(id)
+        .or(() -> billWriter.findPending(id))
+        .orElseThrow(() -> new RetailStoreException(ErrorRegistry.BILL_NOT_FOUND));
+    upgradeLegacyLayout(bill);
     return modelMapper.map(bill, BillDto.class);
   }
 
-  private void gatherBillDto(BillDto billDto) {
-    var auth = (User) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
-    var userDto = userService.findByUserName(auth.getUsername());
-    checkAndFillProducts(billDto);
-    billDto.setUser(userDto);
-    billDto.setTotalAmount(getTotalAmount(billDto));
-    billDto.setDiscount(BigDecimal.ZERO);
-    billDto.setNetAmount(billDto.getTotalAmount());
+  /**
+   * Converts a bill stored with the legacy layout, one embedded product per scanned unit, into
+   * line items so that old and new bills are read the same way.
+   *
+   * @param bill The bill read from the repository.
+   */
+  static void upgradeLegacyLayout(Bill bill) {
+    if ((bill.getItems() != null && !bill.getItems().isEmpty()) || bill.getProducts() == null) {
+      return;
+    }
+    Map<String, BillItem> items = new LinkedHashMap<>();
+    for (Product product : bill.getProducts()) {
+      var item = items.computeIfAbsent(product.getId(), id -> BillItem.builder()
+          .productId(id)
+          .name(product.getName())
+          .type(product.getType())
+          .unitPrice(product.getPrice())
+          .build());
+      item.setQuantity(item.getQuantity() + 1);
+    }
+    bill.setItems(new ArrayList<>(items.values()));
+    bill.setProducts(null);
   }
 
-  private BigDecimal getTotalAmount(BillDto billDto) {
-    return billDto.getProducts().stream()
-        .map(ProductDto::getPrice)
-        .reduce(BigDecimal.ZERO, BigDecimal::add);
+  /**
+   * Returns the current user from the principal populated by the JwtAuthenticationFilter, without
+   * querying the users collection again.
+   *
+   * @return UserDto of the authenticated user.
+   */
+  private UserDto getCurrentUser() {
+    var principal = (StoreUserDetails) SecurityContextHolder.getContext().getAuthentication()
+        .getPrincipal();
+    return principal.toUserDto();
+  }
+
+  private void gatherBillDto(BillDto billDto, UserDto userDto) {
+    checkAndFillItems(billDto);
+    fillTotals(billDto, userDto);
+  }
+
+  private void fillTotals(BillDto billDto, UserDto userDto) {
+    billDto.setUser(userDto);
+    billDto.setTotalAmount(billDto.getTotals().total());
+    billDto.setDiscount(Money.ZERO);
+    billDto.setNetAmount(billDto.getTotalAmount());
   }
 }
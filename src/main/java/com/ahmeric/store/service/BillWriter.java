@@ -0,0 +1,29 @@
+package com.ahmeric.store.service;
+
+import com.ahmeric.store.entity.Bill;
+import java.util.Optional;
+
+/**
+ * Persists generated bills. The implementation is selected with the bill.persistence.mode
+ * property.
+ */
+public interface BillWriter {
+
+  /**
+   * Persists a bill.
+   *
+   * @param bill The bill to persist.
+   * @return The bill with its ID assigned.
+   */
+  Bill write(Bill bill);
+
+  /**
+   * Returns a bill that was accepted but is not yet stored in the repository.
+   *
+   * @param id The ID of the bill.
+   * @return An Optional which contains the bill if it is still pending.
+   */
+  default Optional<Bill> findPending(String id) {
+    return Optional.empty();
+  }
+}
@@ -0,0 +1,111 @@
+package com.ahmeric.store.service;
+
+import com.ahmeric.store.entity.Counter;
+import com.ahmeric.store.entity.PendingVersion;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service class for the version of the product catalog. The version is a counter in the counters
+ * collection, shared by all instances, that increases with every product write. Each written
+ * product records the version of its write, so clients can ask for the products changed after the
+ * version they hold.
+ *
+ * <p>A version is taken before its products are stored, so writes can land out of version order.
+ * Every version taken is kept pending on the counter until its write completes, and only the
+ * committed version, below which no write is pending, is safe to hand out to readers. A pending
+ * version whose writer died is ignored once its lease expires.</p>
+ */
+@Service
+public class CatalogVersionService {
+
+  static final String CATALOG = "catalog";
+
+  private final MongoTemplate mongoTemplate;
+  private final Duration writeLease;
+
+  /**
+   * Creates the service.
+   *
+   * @param mongoTemplate The template of the counters collection.
+   * @param writeLease    Time after which a pending version no longer holds back the committed
+   *                      version.
+   */
+  public CatalogVersionService(MongoTemplate mongoTemplate,
+      @Value("${product.catalog.write-lease:PT1M}") Duration writeLease) {
+    this.mongoTemplate = mongoTemplate;
+    this.writeLease = writeLease;
+  }
+
+  /**
+   * Increases the catalog version and records the new version as pending, in one atomic update.
+   * The caller must call complete with the version once its write is done, failed or not.
+   *
+   * @return The new version.
+   */
+  public long next() {
+    var now = Instant.now();
+    var increment = new Document("value", new Document("$add",
+        List.of(new Document("$ifNull", List.of("$value", 0L)), 1L)));
+    var pending = new Document("pending", new Document("$concatArrays", List.of(
+        new Document("$filter", new Document("input",
+            new Document("$ifNull", List.of("$pending", List.of())))
+            .append("cond", new Document("$gt",
+                List.of("$$this.at", Date.from(now.minus(writeLease)))))),
+        List.of(new Document("version", "$value").append("at", Date.from(now))))));
+    var counter = mongoTemplate.findAndModify(
+        new Query(Criteria.where("_id").is(CATALOG)),
+        AggregationUpdate.from(List.of(set(increment), set(pending))),
+        FindAndModifyOptions.options().upsert(true).returnNew(true),
+        Counter.class);
+    return counter.getValue();
+  }
+
+  /**
+   * Marks the write of a version as done.
+   *
+   * @param version The version returned by next.
+   */
+  public void complete(long version) {
+    mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(CATALOG)),
+        new Update().pull("pending", new Document("version", version)), Counter.class);
+  }
+
+  /**
+   * Returns the committed catalog version: every product write with this version or lower is
+   * stored, unless its lease expired.
+   *
+   * @return The version, 0 if no product was written since versioning started.
+   */
+  public long committed() {
+    var counter = mongoTemplate.findById(CATALOG, Counter.class);
+    if (counter == null) {
+      return 0;
+    }
+    if (counter.getPending() == null) {
+      return counter.getValue();
+    }
+    var expired = Instant.now().minus(writeLease);
+    return counter.getPending().stream()
+        .filter(pending -> pending.getAt().isAfter(expired))
+        .mapToLong(PendingVersion::getVersion)
+        .map(version -> version - 1)
+        .reduce(counter.getValue(), Math::min);
+  }
+
+  private static AggregationOperation set(Document fields) {
+    return context -> new Document("$set", fields);
+  }
+}
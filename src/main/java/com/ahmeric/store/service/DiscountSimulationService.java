@@ -0,0 +1,352 @@
+package com.ahmeric.store.service;
+
+import com.ahmeric.store.entity.AppliedDiscount;
+import com.ahmeric.store.entity.Bill;
+import com.ahmeric.store.entity.BillItem;
+import com.ahmeric.store.entity.DiscountRule;
+import com.ahmeric.store.entity.DiscountRuleType;
+import com.ahmeric.store.entity.LoyaltyTier;
+import com.ahmeric.store.entity.Promotion;
+import com.ahmeric.store.entity.User;
+import com.ahmeric.store.entity.UserType;
+import com.ahmeric.store.exception.ErrorRegistry;
+import com.ahmeric.store.exception.RetailStoreException;
+import com.ahmeric.store.model.Money;
+import com.ahmeric.store.model.dto.AppliedDiscountDto;
+import com.ahmeric.store.model.dto.BillDto;
+import com.ahmeric.store.model.dto.BillItemDto;
+import com.ahmeric.store.model.dto.UserDto;
+import com.ahmeric.store.model.response.DiscountDeltaResponse;
+import com.ahmeric.store.model.response.DiscountSimulationResponse;
+import com.ahmeric.store.service.discount.CouponDiscountStrategy;
+import com.ahmeric.store.service.discount.DiscountRuleSet;
+import com.ahmeric.store.service.discount.DiscountService;
+import com.ahmeric.store.service.discount.DiscountStrategy;
+import com.ahmeric.store.service.discount.RecordedDiscountStrategy;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service class for what-if discount simulations. Re-prices the bills created in a period with
+ * candidate discount rules and compares the result with the discounts the bills were created with.
+ * The rules in use are not changed. Each bill is priced with the loyalty tier its user had on the
+ * day of the bill, taken from the timestamp of its ObjectId. The rolling spend of a user at the
+ * time of a bill is not kept, so SPEND_TIER rules cannot be simulated.
+ *
+ * <p>Promotions and coupons are not re-evaluated: the amounts they had on a bill are applied again
+ * among the candidate rule discounts by the order of the promotion or coupon, so they take the same
+ * share of the net amount on both sides and only the rules make the difference.</p>
+ *
+ * <p>Bills are read with a cursor in chunks. Chunks are priced in parallel on a fork-join pool and
+ * only a bounded number of chunks is in memory at a time, however many bills the period holds.</p>
+ */
+@Service
+public class DiscountSimulationService {
+
+  private final MongoTemplate mongoTemplate;
+  private final DiscountService discountService;
+  private final int chunkSize;
+  private final int parallelism;
+
+  /**
+   * Creates the service.
+   *
+   * @param mongoTemplate   The MongoTemplate used to read the bills and their users.
+   * @param discountService The DiscountService used to price the bills with the candidate rules.
+   * @param chunkSize       Number of bills priced by one task.
+   * @param parallelism     Number of threads pricing bills of one simulation.
+   */
+  public DiscountSimulationService(MongoTemplate mongoTemplate, DiscountService discountService,
+      @Value("${discount.simulation.chunk-size:1000}") int chunkSize,
+      @Value("${discount.simulation.parallelism:4}") int parallelism) {
+    this.mongoTemplate = mongoTemplate;
+    this.discountService = discountService;
+    this.chunkSize = chunkSize;
+    this.parallelism = parallelism;
+  }
+
+  /**
+   * Simulates the candidate rules on the bills created in the period. Throws an exception if the
+   * period is empty, the rules are invalid or one of them is a SPEND_TIER rule.
+   *
+   * @param rules The candidate discount rules.
+   * @param from  First day of the period, inclusive, in UTC.
+   * @param to    Last day of the period, exclusive, in UTC.
+   * @return The current and simulated discounts in total, per user type and per strategy.
+   */
+  public DiscountSimulationResponse simulate(List<DiscountRule> rules, LocalDate from,
+      LocalDate to) {
+    if (!from.isBefore(to)) {
+      throw new RetailStoreException(ErrorRegistry.INVALID_SIMULATION_PERIOD);
+    }
+    if (rules.stream().anyMatch(rule -> rule.getType() == DiscountRuleType.SPEND_TIER)) {
+      throw new RetailStoreException(ErrorRegistry.SPEND_TIER_NOT_SIMULATED);
+    }
+    var candidate = DiscountRuleSet.compile(rules);
+    var promotionOrders = findPromotionOrders(from, to);
+    var totals = new SimulationTotals();
+    int maxChunksInFlight = parallelism * 2;
+    var permits = new Semaphore(maxChunksInFlight);
+    var failure = new AtomicReference<RuntimeException>();
+    var pool = new ForkJoinPool(parallelism);
+    try (Stream<Bill> bills = mongoTemplate.stream(getPeriodQuery(from, to), Bill.class)) {
+      Iterator<Bill> iterator = bills.iterator();
+      while (iterator.hasNext() && failure.get() == null) {
+        List<Bill> chunk = new ArrayList<>(chunkSize);
+        while (iterator.hasNext() && chunk.size() < chunkSize) {
+          chunk.add(iterator.next());
+        }
+        permits.acquireUninterruptibly();
+        pool.execute(() -> {
+          try {
+            totals.merge(simulateChunk(chunk, candidate, promotionOrders));
+          } catch (RuntimeException e) {
+            failure.compareAndSet(null, e);
+          } finally {
+            permits.release();
+          }
+        });
+      }
+      permits.acquireUninterruptibly(maxChunksInFlight);
+    } finally {
+      pool.shutdown();
+    }
+    if (failure.get() != null) {
+      throw failure.get();
+    }
+    return totals.toResponse(candidate.getVersion());
+  }
+
+  private Query getPeriodQuery(LocalDate from, LocalDate to) {
+    var query = new Query(Criteria.where("_id").gte(toObjectId(from)).lt(toObjectId(to)));
+    query.cursorBatchSize(chunkSize);
+    return query;
+  }
+
+  /**
+   * Returns the smallest ObjectId generated on the date, so the bills of a period can be found
+   * through the _id index.
+   */
+  static ObjectId toObjectId(LocalDate date) {
+    long seconds = toInstant(date).getEpochSecond();
+    return new ObjectId(String.format("%08x%016x", seconds, 0));
+  }
+
+  private static Instant toInstant(LocalDate date) {
+    return date.atStartOfDay(ZoneOffset.UTC).toInstant();
+  }
+
+  /**
+   * Returns the order of every promotion valid in the period by its name, the code of its
+   * discounts.
+   */
+  private Map<String, Integer> findPromotionOrders(LocalDate from, LocalDate to) {
+    var query = new Query(Criteria.where("validFrom").lt(toInstant(to))
+        .and("validUntil").gt(toInstant(from)));
+    query.fields().include("name", "order");
+    return mongoTemplate.find(query, Promotion.class).stream()
+        .collect(Collectors.toMap(Promotion::getName, Promotion::getOrder,
+            (first, second) -> first));
+  }
+
+  private SimulationTotals simulateChunk(List<Bill> bills, DiscountRuleSet candidate,
+      Map<String, Integer> promotionOrders) {
+    Map<String, User> users = findUsers(bills);
+    var totals = new SimulationTotals();
+    for (Bill bill : bills) {
+      var user = users.get(bill.getUserId());
+      if (user == null) {
+        totals.skippedBillCount++;
+        continue;
+      }
+      BillService.upgradeLegacyLayout(bill);
+      var billDto = toBillDto(bill, user);
+      discountService.applyDiscount(billDto, candidate,
+          getRecordedDiscounts(bill, promotionOrders));
+      totals.add(bill, billDto);
+    }
+    return totals;
+  }
+
+  /**
+   * Reads the users of the bills with one query, without their passwords.
+   */
+  private Map<String, User> findUsers(List<Bill> bills) {
+    var query = new Query(Criteria.where("_id").in(bills.stream()
+        .map(Bill::getUserId)
+        .filter(Objects::nonNull)
+        .collect(Collectors.toSet())));
+    query.fields().include("userType", "registrationDate");
+    return mongoTemplate.find(query, User.class).stream()
+        .collect(Collectors.toMap(User::getId, Function.identity()));
+  }
+
+  /**
+   * Returns the promotion and coupon discounts of the bill, in the order they were applied.
+   */
+  private static List<DiscountStrategy> getRecordedDiscounts(Bill bill,
+      Map<String, Integer> promotionOrders) {
+    if (bill.getDiscounts() == null) {
+      return List.of();
+    }
+    List<DiscountStrategy> discounts = new ArrayList<>();
+    for (AppliedDiscount discount : bill.getDiscounts()) {
+      Integer order = CouponDiscountStrategy.CODE.equals(discount.getCode())
+          ? Integer.valueOf(Ordered.LOWEST_PRECEDENCE) : promotionOrders.get(discount.getCode());
+      if (order != null) {
+        discounts.add(new RecordedDiscountStrategy(toMoney(discount.getAmount()),
+            discount.getCode(), discount.getBasisPoints(), order));
+      }
+    }
+    return discounts;
+  }
+
+  private static BillDto toBillDto(Bill bill, User user) {
+    var userType = bill.getUserType() != null ? bill.getUserType() : user.getUserType();
+    var billDto = BillDto.builder()
+        .user(UserDto.builder()
+            .id(user.getId())
+            .userType(userType)
+            .registrationDate(user.getRegistrationDate())
+            .loyaltyTier(LoyaltyTier.of(userType, user.getRegistrationDate(), getBillDate(bill)))
+            .build())
+        .items(Objects.requireNonNullElse(bill.getItems(), List.<BillItem>of()).stream()
+            .map(item -> BillItemDto.builder()
+                .productId(item.getProductId())
+                .type(item.getType())
+                .unitPrice(toMoney(item.getUnitPrice()))
+                .quantity(item.getQuantity())
+                .build())
+            .toList())
+        .discount(Money.ZERO)
+        .build();
+    billDto.setTotalAmount(billDto.getTotals().total());
+    return billDto;
+  }
+
+  /**
+   * Returns the day the bill was created in UTC, from the timestamp of its ObjectId, or today for
+   * a bill without one.
+   */
+  static LocalDate getBillDate(Bill bill) {
+    if (bill.getId() == null || !ObjectId.isValid(bill.getId())) {
+      return LocalDate.now(ZoneOffset.UTC);
+    }
+    return LocalDate.ofInstant(new ObjectId(bill.getId()).getDate().toInstant(), ZoneOffset.UTC);
+  }
+
+  private static Money toMoney(BigDecimal amount) {
+    return amount == null ? Money.ZERO : Money.of(amount, RoundingMode.HALF_UP);
+  }
+
+  /**
+   * Current and simulated discount of a group of bills, in minor units.
+   */
+  private static final class Delta {
+
+    private long billCount;
+    private long currentDiscount;
+    private long simulatedDiscount;
+
+    private void add(long current, long simulated) {
+      billCount++;
+      currentDiscount += current;
+      simulatedDiscount += simulated;
+    }
+
+    private void merge(Delta other) {
+      billCount += other.billCount;
+      currentDiscount += other.currentDiscount;
+      simulatedDiscount += other.simulatedDiscount;
+    }
+
+    private DiscountDeltaResponse toResponse() {
+      return DiscountDeltaResponse.builder()
+          .billCount(billCount)
+          .currentDiscount(Money.ofMinor(currentDiscount).toBigDecimal())
+          .simulatedDiscount(Money.ofMinor(simulatedDiscount).toBigDecimal())
+          .delta(Money.ofMinor(simulatedDiscount - currentDiscount).toBigDecimal())
+          .build();
+    }
+  }
+
+  /**
+   * Deltas of the bills priced by one chunk, or of the whole simulation once chunks are merged.
+   */
+  private static final class SimulationTotals {
+
+    private final Delta total = new Delta();
+    private final Map<UserType, Delta> byUserType = new EnumMap<>(UserType.class);
+    private final Map<String, Delta> byStrategy = new HashMap<>();
+    private long skippedBillCount;
+
+    private void add(Bill bill, BillDto simulated) {
+      long current = toMoney(bill.getDiscount()).getMinorUnits();
+      long simulatedDiscount = simulated.getDiscount().getMinorUnits();
+      total.add(current, simulatedDiscount);
+      byUserType.computeIfAbsent(simulated.getUser().getUserType(), type -> new Delta())
+          .add(current, simulatedDiscount);
+
+      Map<String, long[]> strategies = new HashMap<>();
+      if (bill.getDiscounts() != null) {
+        for (AppliedDiscount discount : bill.getDiscounts()) {
+          strategies.computeIfAbsent(discount.getCode(), code -> new long[2])[0] +=
+              toMoney(discount.getAmount()).getMinorUnits();
+        }
+      }
+      for (AppliedDiscountDto discount : simulated.getDiscounts()) {
+        strategies.computeIfAbsent(discount.getCode(), code -> new long[2])[1] +=
+            discount.getAmount().getMinorUnits();
+      }
+      strategies.forEach((code, amounts) -> byStrategy.computeIfAbsent(code, key -> new Delta())
+          .add(amounts[0], amounts[1]));
+    }
+
+    private synchronized void merge(SimulationTotals other) {
+      total.merge(other.total);
+      other.byUserType.forEach((userType, delta) ->
+          byUserType.computeIfAbsent(userType, type -> new Delta()).merge(delta));
+      other.byStrategy.forEach((code, delta) ->
+          byStrategy.computeIfAbsent(code, key -> new Delta()).merge(delta));
+      skippedBillCount += other.skippedBillCount;
+    }
+
+    private synchronized DiscountSimulationResponse toResponse(String candidateVersion) {
+      Map<UserType, DiscountDeltaResponse> userTypes = new EnumMap<>(UserType.class);
+      byUserType.forEach((userType, delta) -> userTypes.put(userType, delta.toResponse()));
+      Map<String, DiscountDeltaResponse> strategies = new TreeMap<>();
+      byStrategy.forEach((code, delta) -> strategies.put(code, delta.toResponse()));
+      return DiscountSimulationResponse.builder()
+          .candidateVersion(candidateVersion)
+          .total(total.toResponse())
+          .skippedBillCount(skippedBillCount)
+          .byUserType(userTypes)
+          .byStrategy(strategies)
+          .build();
+    }
+  }
+}
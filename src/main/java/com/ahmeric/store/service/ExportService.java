@@ -0,0 +1,135 @@
+package com.ahmeric.store.service;
+
+import com.ahmeric.store.entity.Bill;
+import com.ahmeric.store.entity.Product;
+import com.ahmeric.store.entity.UserType;
+import com.ahmeric.store.exception.ErrorRegistry;
+import com.ahmeric.store.exception.RetailStoreException;
+import com.ahmeric.store.model.dto.BillDto;
+import com.ahmeric.store.model.response.BillResponse;
+import com.ahmeric.store.model.response.ProductResponse;
+import com.ahmeric.store.service.discount.DiscountDescriptionRenderer;
+import com.ahmeric.store.utils.Mapper;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * Service class for exports of whole collections as newline delimited JSON, one response object per
+ * line. Documents are read with a cursor and written as they are read, so an export holds one
+ * cursor batch in memory however many documents it writes.
+ */
+@Service
+public class ExportService {
+
+  private static final byte NEWLINE = '\n';
+
+  private final MongoTemplate mongoTemplate;
+  private final ObjectMapper objectMapper;
+  private final Mapper modelMapper;
+  private final DiscountDescriptionRenderer discountDescriptionRenderer;
+  private final int batchSize;
+
+  /**
+   * Creates the service.
+   *
+   * @param mongoTemplate               The MongoTemplate used to read the collections.
+   * @param objectMapper                The ObjectMapper used to write the lines.
+   * @param modelMapper                 The Mapper converting documents into responses.
+   * @param discountDescriptionRenderer The renderer describing the discounts of exported bills.
+   * @param batchSize                   Number of documents per cursor batch, and of lines written
+   *                                    before the output is flushed.
+   */
+  public ExportService(MongoTemplate mongoTemplate, ObjectMapper objectMapper, Mapper modelMapper,
+      DiscountDescriptionRenderer discountDescriptionRenderer,
+      @Value("${export.batch-size:500}") int batchSize) {
+    this.mongoTemplate = mongoTemplate;
+    this.objectMapper = objectMapper;
+    this.modelMapper = modelMapper;
+    this.discountDescriptionRenderer = discountDescriptionRenderer;
+    this.batchSize = batchSize;
+  }
+
+  /**
+   * Returns the export of the bills created in the period, optionally of one user type only, in
+   * creation order. The filters are checked and the locale of the discount descriptions is taken
+   * before the export starts. Throws an exception if the period is empty.
+   *
+   * @param from     First day of the period, inclusive, in UTC, or null for no lower bound.
+   * @param to       Last day of the period, exclusive, in UTC, or null for no upper bound.
+   * @param userType User type of the exported bills, or null for all bills.
+   * @return Body writing one BillResponse per line.
+   */
+  public StreamingResponseBody exportBills(LocalDate from, LocalDate to, UserType userType) {
+    if (from != null && to != null && !from.isBefore(to)) {
+      throw new RetailStoreException(ErrorRegistry.INVALID_EXPORT_PERIOD);
+    }
+    var criteria = new Criteria();
+    if (from != null || to != null) {
+      criteria = Criteria.where("_id");
+      if (from != null) {
+        criteria = criteria.gte(DiscountSimulationService.toObjectId(from));
+      }
+      if (to != null) {
+        criteria = criteria.lt(DiscountSimulationService.toObjectId(to));
+      }
+    }
+    var query = new Query(criteria);
+    if (userType != null) {
+      query.addCriteria(Criteria.where("userType").is(userType));
+    }
+    var locale = LocaleContextHolder.getLocale();
+    return out -> export(query, Bill.class, bill -> toResponse(bill, locale), out);
+  }
+
+  /**
+   * Returns the export of all products in ID order.
+   *
+   * @return Body writing one ProductResponse per line.
+   */
+  public StreamingResponseBody exportProducts() {
+    return out -> export(new Query(), Product.class,
+        product -> modelMapper.map(product, ProductResponse.class), out);
+  }
+
+  private BillResponse toResponse(Bill bill, Locale locale) {
+    BillService.upgradeLegacyLayout(bill);
+    var billDto = modelMapper.map(bill, BillDto.class);
+    var billResponse = modelMapper.map(billDto, BillResponse.class);
+    billResponse.setAppliedDiscounts(discountDescriptionRenderer.render(billDto, locale));
+    return billResponse;
+  }
+
+  private <T> void export(Query query, Class<T> type, Function<T, Object> toResponse,
+      OutputStream out) throws IOException {
+    query.with(Sort.by("_id")).cursorBatchSize(batchSize);
+    try (Stream<T> documents = mongoTemplate.stream(query, type);
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+      generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+      Iterator<T> iterator = documents.iterator();
+      int written = 0;
+      while (iterator.hasNext()) {
+        generator.writeObject(toResponse.apply(iterator.next()));
+        generator.writeRaw((char) NEWLINE);
+        if (++written % batchSize == 0) {
+          generator.flush();
+        }
+      }
+      generator.flush();
+    }
+  }
+}
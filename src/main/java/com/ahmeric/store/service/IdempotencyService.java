@@ -0,0 +1,185 @@
+package com.ahmeric.store.service;
+
+import com.ahmeric.store.entity.IdempotencyRecord;
+import com.ahmeric.store.exception.ErrorRegistry;
+import com.ahmeric.store.exception.RetailStoreException;
+import com.ahmeric.store.model.response.BillResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.HexFormat;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service class for Idempotency Keys of bill creation. Completed responses are kept in a bounded
+ * local cache in front of the idempotency_keys collection, where a TTL index removes old keys.
+ *
+ * <p>A key being processed is leased to its instance. If the instance dies, a later request with
+ * the key takes it over once the lease expires instead of waiting for the TTL. The lease must be
+ * longer than bill creation takes, or a slow bill may be created twice.</p>
+ */
+@Service
+public class IdempotencyService {
+
+  private final MongoTemplate mongoTemplate;
+  private final ObjectMapper objectMapper;
+  private final Duration timeToLive;
+  private final Duration lease;
+  private final Cache<String, IdempotencyRecord> completedRecords;
+
+  private volatile boolean indexesEnsured;
+
+  /**
+   * Creates the service.
+   *
+   * @param mongoTemplate The MongoTemplate used to store the keys.
+   * @param objectMapper  The ObjectMapper used to fingerprint requests.
+   * @param maximumSize   Maximum number of completed keys kept in the local cache.
+   * @param timeToLive    Time after which a key expires and can be used for a new bill.
+   * @param lease         Time after which a key still being processed can be taken over.
+   */
+  public IdempotencyService(MongoTemplate mongoTemplate, ObjectMapper objectMapper,
+      @Value("${bill.idempotency.cache.maximum-size:10000}") long maximumSize,
+      @Value("${bill.idempotency.time-to-live:24h}") Duration timeToLive,
+      @Value("${bill.idempotency.lease:30s}") Duration lease) {
+    this.mongoTemplate = mongoTemplate;
+    this.objectMapper = objectMapper;
+    this.timeToLive = timeToLive;
+    this.lease = lease;
+    this.completedRecords = Caffeine.newBuilder()
+        .maximumSize(maximumSize)
+        .expireAfterWrite(timeToLive)
+        .build();
+  }
+
+  /**
+   * Creates a bill at most once per Idempotency Key of the current user. A repeated request returns
+   * the stored response without calling the creator. Throws an exception if the key is still being
+   * processed under an unexpired lease or was used for a different request.
+   *
+   * @param idempotencyKey The Idempotency Key sent by the client.
+   * @param request        The request, used to detect a key reused for another request.
+   * @param creator        Creates the bill when the key is seen for the first time.
+   * @return The response of the first request made with the key.
+   */
+  public BillResponse execute(String idempotencyKey, Object request,
+      Supplier<BillResponse> creator) {
+    var id = SecurityContextHolder.getContext().getAuthentication().getName() + ":"
+        + idempotencyKey;
+    var requestHash = hash(request);
+
+    var cached = completedRecords.getIfPresent(id);
+    if (cached != null) {
+      return replay(cached, requestHash);
+    }
+
+    ensureIndexes();
+    var now = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+    var idempotencyRecord = IdempotencyRecord.builder()
+        .id(id)
+        .requestHash(requestHash)
+        .createdAt(now)
+        .leaseExpiresAt(now.plus(lease))
+        .build();
+    try {
+      mongoTemplate.insert(idempotencyRecord);
+    } catch (DuplicateKeyException e) {
+      var existing = mongoTemplate.findById(id, IdempotencyRecord.class);
+      if (existing != null && existing.isCompleted()) {
+        completedRecords.put(id, existing);
+        return replay(existing, requestHash);
+      }
+      if (existing == null || !takeOver(existing, idempotencyRecord)) {
+        throw new RetailStoreException(ErrorRegistry.IDEMPOTENCY_KEY_IN_PROGRESS, idempotencyKey);
+      }
+    }
+
+    var leased = new Query(Criteria.where("_id").is(id)
+        .and("leaseExpiresAt").is(idempotencyRecord.getLeaseExpiresAt()));
+    BillResponse response;
+    try {
+      response = creator.get();
+    } catch (RuntimeException e) {
+      mongoTemplate.remove(leased, IdempotencyRecord.class);
+      throw e;
+    }
+    idempotencyRecord.setCompleted(true);
+    idempotencyRecord.setResponse(response);
+    mongoTemplate.updateFirst(leased, new Update().set("completed", true).set("response", response),
+        IdempotencyRecord.class);
+    completedRecords.put(id, idempotencyRecord);
+    return response;
+  }
+
+  /**
+   * Takes over a key whose lease expired, e.g. because the instance creating its bill died. The
+   * update only matches the lease that was read, so one request wins the takeover. Throws an
+   * exception if the key was used for a different request.
+   *
+   * @return true if the key is now leased to the given record.
+   */
+  private boolean takeOver(IdempotencyRecord existing, IdempotencyRecord idempotencyRecord) {
+    var leaseExpiresAt = existing.getLeaseExpiresAt() != null ? existing.getLeaseExpiresAt()
+        : existing.getCreatedAt().plus(lease);
+    if (leaseExpiresAt.isAfter(idempotencyRecord.getCreatedAt())) {
+      return false;
+    }
+    if (!existing.getRequestHash().equals(idempotencyRecord.getRequestHash())) {
+      throw new RetailStoreException(ErrorRegistry.IDEMPOTENCY_KEY_REUSED);
+    }
+    var result = mongoTemplate.updateFirst(
+        new Query(Criteria.where("_id").is(existing.getId())
+            .and("completed").is(false)
+            .and("leaseExpiresAt").is(existing.getLeaseExpiresAt())),
+        new Update()
+            .set("createdAt", idempotencyRecord.getCreatedAt())
+            .set("leaseExpiresAt", idempotencyRecord.getLeaseExpiresAt()),
+        IdempotencyRecord.class);
+    return result.getModifiedCount() == 1;
+  }
+
+  private static BillResponse replay(IdempotencyRecord idempotencyRecord, String requestHash) {
+    if (!idempotencyRecord.getRequestHash().equals(requestHash)) {
+      throw new RetailStoreException(ErrorRegistry.IDEMPOTENCY_KEY_REUSED);
+    }
+    return idempotencyRecord.getResponse();
+  }
+
+  /**
+   * Creates the TTL index on first use, so that the application can start without MongoDB.
+   */
+  private void ensureIndexes() {
+    if (!indexesEnsured) {
+      mongoTemplate.indexOps(IdempotencyRecord.class)
+          .ensureIndex(new Index().on("createdAt", Direction.ASC).expire(timeToLive));
+      indexesEnsured = true;
+    }
+  }
+
+  private String hash(Object request) {
+    try {
+      var digest = MessageDigest.getInstance("SHA-256");
+      return HexFormat.of().formatHex(digest.digest(
+          objectMapper.writeValueAsString(request).getBytes(StandardCharsets.UTF_8)));
+    } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+      throw new IllegalStateException("Request cannot be fingerprinted", e);
+    }
+  }
+}
@@ -0,0 +1,72 @@
+package com.ahmeric.store.service;
+
+import com.ahmeric.store.entity.LoyaltyTier;
+import com.ahmeric.store.entity.User;
+import com.ahmeric.store.entity.UserType;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service class keeping the loyalty tiers of the users up to date. Customers reaching the
+ * membership years of a tier are promoted by a daily job, so pricing a bill only reads the stored
+ * tier.
+ */
+@Service
+@RequiredArgsConstructor
+public class LoyaltyTierService {
+
+  private final Logger log = LoggerFactory.getLogger(this.getClass());
+
+  private final MongoTemplate mongoTemplate;
+
+  /**
+   * Promotes the customers who reached a higher loyalty tier since the last run.
+   */
+  @Scheduled(cron = "${user.loyalty.promotion-cron:0 0 2 * * *}")
+  public void promoteCustomers() {
+    long promoted = updateTiers(LocalDate.now());
+    log.info("Loyalty tier promotion updated {} users", promoted);
+  }
+
+  /**
+   * Sets the loyalty tier reached on the given day for every user whose stored tier is lower, with
+   * one bulk write holding one multi-document update per tier. Tiers are applied from the highest
+   * down and only ever raised, so each user ends up in the highest tier reached. Users without a
+   * tier, e.g. non-customers created before tiers were stored, get the NONE tier.
+   *
+   * @param today The day to compute the tiers for.
+   * @return Number of users updated.
+   */
+  public long updateTiers(LocalDate today) {
+    var bulkOperations = mongoTemplate.bulkOps(BulkMode.ORDERED, User.class);
+    LoyaltyTier[] tiers = LoyaltyTier.values();
+    for (int i = tiers.length - 1; i > 0; i--) {
+      var reachedBy = Criteria.where("userType").is(UserType.CUSTOMER)
+          .and("registrationDate").lte(today.minusYears(tiers[i].getMinimumMembershipYears()))
+          .and("loyaltyTier").nin(getNames(tiers, i));
+      bulkOperations.updateMulti(new Query(reachedBy),
+          Update.update("loyaltyTier", tiers[i].name()));
+    }
+    bulkOperations.updateMulti(new Query(Criteria.where("loyaltyTier").exists(false)),
+        Update.update("loyaltyTier", LoyaltyTier.NONE.name()));
+    return bulkOperations.execute().getModifiedCount();
+  }
+
+  /**
+   * Returns the names of the tier at the index and of all higher tiers.
+   */
+  private static List<String> getNames(LoyaltyTier[] tiers, int fromIndex) {
+    return Arrays.stream(tiers, fromIndex, tiers.length).map(LoyaltyTier::name).toList();
+  }
+}
@@ -0,0 +1,108 @@
+package com.ahmeric.store.service;
+
+import com.ahmeric.store.event.ProductsImportedEvent;
+import com.ahmeric.store.model.dto.ProductDto;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bounded near-cache of products in front of the products collection, with the product list held
+ * as a single entry. Entries expire after a fixed time, which also bounds how long a read racing
+ * with a product write can keep a stale product. Hit and miss statistics are published as the
+ * "products" and "productCatalog" cache metrics. Cached DTOs are shared and must not be modified.
+ */
+@Component
+public class ProductCache {
+
+  private static final String ALL_PRODUCTS = "all";
+
+  private final Cache<String, ProductDto> products;
+  private final Cache<String, List<ProductDto>> catalog;
+
+  /**
+   * Creates the cache.
+   *
+   * @param maximumSize   Maximum number of cached products.
+   * @param timeToLive    Time after which a cached product or product list expires.
+   * @param meterRegistry The registry the cache statistics are published to.
+   */
+  public ProductCache(@Value("${product.cache.maximum-size:10000}") long maximumSize,
+      @Value("${product.cache.time-to-live:10m}") Duration timeToLive,
+      MeterRegistry meterRegistry) {
+    this.products = CaffeineCacheMetrics.monitor(meterRegistry, Caffeine.newBuilder()
+        .maximumSize(maximumSize)
+        .expireAfterWrite(timeToLive)
+        .recordStats()
+        .<String, ProductDto>build(), "products");
+    this.catalog = CaffeineCacheMetrics.monitor(meterRegistry, Caffeine.newBuilder()
+        .maximumSize(1)
+        .expireAfterWrite(timeToLive)
+        .recordStats()
+        .<String, List<ProductDto>>build(), "productCatalog");
+  }
+
+  /**
+   * Returns the cached product, loading it if absent. Products that cannot be found are not
+   * cached.
+   *
+   * @param id     The ID of the product.
+   * @param loader Function loading the product, returning null if it cannot be found.
+   * @return The product, or null if it cannot be found.
+   */
+  ProductDto get(String id, Function<String, ProductDto> loader) {
+    return products.get(id, loader);
+  }
+
+  /**
+   * Returns the cached products for the IDs, loading the absent ones with a single call.
+   *
+   * @param ids    The IDs of the products.
+   * @param loader Function loading the products of the given IDs, keyed by ID.
+   * @return Map of the products found, keyed by ID.
+   */
+  Map<String, ProductDto> getAll(Collection<String> ids,
+      Function<Set<? extends String>, Map<String, ProductDto>> loader) {
+    return products.getAll(ids, loader);
+  }
+
+  /**
+   * Returns the cached list of all products, loading it if absent.
+   *
+   * @param loader Supplier loading all products.
+   * @return Unmodifiable list of all products.
+   */
+  List<ProductDto> getAllProducts(Supplier<List<ProductDto>> loader) {
+    return catalog.get(ALL_PRODUCTS, key -> List.copyOf(loader.get()));
+  }
+
+  /**
+   * Invalidates a product after it is written, together with the product list.
+   *
+   * @param id The ID of the written product.
+   */
+  void invalidate(String id) {
+    products.invalidate(id);
+    catalog.invalidateAll();
+  }
+
+  /**
+   * Invalidates all cached products and the product list after products are imported.
+   */
+  @EventListener(ProductsImportedEvent.class)
+  public void invalidateAll() {
+    products.invalidateAll();
+    catalog.invalidateAll();
+  }
+}
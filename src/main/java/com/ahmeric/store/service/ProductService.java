@@ -1,17 +1,28 @@
 package com.ahmeric.store.service;
 
 import com.ahmeric.store.entity.Product;
+import com.ahmeric.store.event.ProductChangedEvent;
 import com.ahmeric.store.exception.ErrorRegistry;
 import com.ahmeric.store.exception.RetailStoreException;
+import com.ahmeric.store.model.dto.CatalogChanges;
+import com.ahmeric.store.model.dto.CursorPage;
 import com.ahmeric.store.model.dto.ProductDto;
 import com.ahmeric.store.repository.ProductRepository;
 import com.ahmeric.store.utils.Mapper;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 /**
- * Service class for Product operations. Handles product creation, retrieval and update.
+ * Service class for Product operations. Handles product creation, retrieval and update. Every write
+ * stores the product with a new catalog version, completed once the product is stored. Reads go
+ * through the ProductCache, which is invalidated and a ProductChangedEvent published after every
+ * write.
  */
 @Service
 @RequiredArgsConstructor
@@ -19,6 +30,9 @@ public class ProductService {
 
   private final ProductRepository productRepository;
   private final Mapper modelMapper;
+  private final ApplicationEventPublisher eventPublisher;
+  private final ProductCache productCache;
+  private final CatalogVersionService catalogVersionService;
 
   /**
    * Creates a new product.
@@ -28,8 +42,16 @@ public class ProductService {
    */
   public ProductDto createProduct(ProductDto productDto) {
     var product = modelMapper.map(productDto, Product.class);
-    productRepository.save(product);
-    return modelMapper.map(product, ProductDto.class);
+    product.setVersion(catalogVersionService.next());
+    try {
+      productRepository.save(product);
+      productCache.invalidate(product.getId());
+    } finally {
+      catalogVersionService.complete(product.getVersion());
+    }
+    var createdProduct = modelMapper.map(product, ProductDto.class);
+    eventPublisher.publishEvent(new ProductChangedEvent(createdProduct));
+    return createdProduct;
   }
 
   /**
@@ -38,7 +60,53 @@ public class ProductService {
    * @return List of ProductDto.
    */
   public List<ProductDto> getAllProducts() {
-    return modelMapper.map(productRepository.findAll(), Mapper.PRODUCT_DTO_LIST_TYPE);
+    return productCache.getAllProducts(
+        () -> modelMapper.map(productRepository.findAll(), Mapper.PRODUCT_DTO_LIST_TYPE));
+  }
+
+  /**
+   * Returns the committed catalog version, below which no product write is in flight.
+   *
+   * @return The catalog version, 0 before the first versioned product write.
+   */
+  public long getCatalogVersion() {
+    return catalogVersionService.committed();
+  }
+
+  /**
+   * Returns the products written after the given catalog version. Products written before
+   * versioning started have no version, so a version of 0 or less returns the whole catalog.
+   *
+   * <p>The version returned is the committed catalog version read before the products, so a write
+   * still in flight at or below it cannot exist. Products above it that are already stored are
+   * returned as well and returned again by the next call.</p>
+   *
+   * @param since The catalog version the caller holds.
+   * @return CatalogChanges holding the products in ascending version order.
+   */
+  public CatalogChanges getProductsChangedSince(long since) {
+    long committed = catalogVersionService.committed();
+    List<ProductDto> products = since <= 0 ? getAllProducts()
+        : modelMapper.map(productRepository.findByVersionGreaterThanOrderByVersionAsc(since),
+            Mapper.PRODUCT_DTO_LIST_TYPE);
+    return new CatalogChanges(Math.max(since, committed), products);
+  }
+
+  /**
+   * Returns one page of products in ascending ID order, read from the products collection. Throws
+   * an exception if the cursor is not an ObjectId.
+   *
+   * @param cursor The next cursor of the previous page, null for the first page.
+   * @param limit  The maximum number of products of the page.
+   * @return CursorPage of ProductDto.
+   */
+  public CursorPage<ProductDto> getProducts(String cursor, int limit) {
+    var pageable = CursorPage.pageRequest(limit);
+    var products = cursor == null ? productRepository.findAllBy(pageable)
+        : productRepository.findByIdGreaterThan(CursorPage.checkCursor(cursor),
+            pageable);
+    return CursorPage.of(products, limit, Product::getId)
+        .map(page -> modelMapper.map(page, Mapper.PRODUCT_DTO_LIST_TYPE));
   }
 
   /**
@@ -49,9 +117,49 @@ public class ProductService {
    * @return ProductDto for the requested product.
    */
   public ProductDto getProductById(String id) {
-    var product = productRepository.findById(id).orElseThrow(() -> new RetailStoreException(
-        ErrorRegistry.PRODUCT_NOT_FOUND));
-    return modelMapper.map(product, ProductDto.class);
+    var product = productCache.get(id, key -> productRepository.findById(key)
+        .map(found -> modelMapper.map(found, ProductDto.class))
+        .orElse(null));
+    if (product == null) {
+      throw new RetailStoreException(ErrorRegistry.PRODUCT_NOT_FOUND);
+    }
+    return product;
+  }
+
+  /**
+   * Returns the products for the given IDs in request order. All IDs are resolved with a single
+   * query and duplicate IDs resolve to the same product. Throws an exception listing every ID that
+   * cannot be found.
+   *
+   * @param ids The IDs of the products, may contain duplicates.
+   * @return List of ProductDto in the same order as the given IDs.
+   */
+  public List<ProductDto> getProductsByIds(List<String> ids) {
+    Map<String, ProductDto> productsById = findProductsByIds(ids);
+    List<String> missingIds = ids.stream()
+        .distinct()
+        .filter(id -> !productsById.containsKey(id))
+        .toList();
+    if (!missingIds.isEmpty()) {
+      throw new RetailStoreException(ErrorRegistry.PRODUCT_NOT_FOUND,
+          String.join(", ", missingIds));
+    }
+    return ids.stream().map(productsById::get).toList();
+  }
+
+  /**
+   * Returns the products found for the given IDs, keyed by ID. IDs missing from the ProductCache
+   * are resolved with a single query; IDs without a product are absent from the result.
+   *
+   * @param ids The IDs of the products, may contain duplicates.
+   * @return Map of ProductDto by product ID.
+   */
+  public Map<String, ProductDto> findProductsByIds(Collection<String> ids) {
+    return productCache.getAll(new LinkedHashSet<>(ids),
+        missingIds -> productRepository.findAllById(new LinkedHashSet<>(missingIds))
+            .stream()
+            .collect(Collectors.toMap(Product::getId,
+                product -> modelMapper.map(product, ProductDto.class), (first, second) -> first)));
   }
 
   /**
@@ -66,9 +174,17 @@ public class ProductService {
     product.setName(productDto.getName());
     product.setPrice(productDto.getPrice());
     product.setType(productDto.getType());
-    productRepository.save(product);
+    product.setVersion(catalogVersionService.next());
+    try {
+      productRepository.save(product);
+      productCache.invalidate(product.getId());
+    } finally {
+      catalogVersionService.complete(product.getVersion());
+    }
 
-    return modelMapper.map(product, ProductDto.class);
+    var updatedProduct = modelMapper.map(product, ProductDto.class);
+    eventPublisher.publishEvent(new ProductChangedEvent(updatedProduct));
+    return updatedProduct;
   }
 
 }
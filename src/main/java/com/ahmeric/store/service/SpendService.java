@@ -0,0 +1,163 @@
+package com.ahmeric.store.service;
+
+import com.ahmeric.store.entity.Bill;
+import com.ahmeric.store.entity.User;
+import com.ahmeric.store.entity.UserSpend;
+import com.ahmeric.store.event.BillsWrittenEvent;
+import com.ahmeric.store.model.Money;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service class maintaining the rolling spend of the users. The net amounts of stored bills are
+ * added with $inc to a per user and day bucket in the user_spend collection and to the rolling
+ * spend cached on the user document, so pricing a bill reads a single field instead of aggregating
+ * bills. Buckets leaving the window are removed daily.
+ *
+ * <p>The buckets are the source of truth. The two collections are not written atomically, so the
+ * rolling spend of a user whose bucket has expired is recomputed from the buckets left in the
+ * window before the expired one is removed. A run that dies halfway is completed by the next one,
+ * and a rolling spend that missed an increment, e.g. when the user update of recordSpend failed
+ * after the bucket update, is corrected once the user's next bucket expires, at most a window
+ * later. An increment landing between the read of the buckets and the write of the recomputed sum
+ * is lost in the same way and corrected the same way.</p>
+ */
+@Service
+public class SpendService {
+
+  private static final int EXPIRY_BATCH_SIZE = 1000;
+
+  private final Logger log = LoggerFactory.getLogger(this.getClass());
+
+  private final MongoTemplate mongoTemplate;
+  private final int windowDays;
+
+  /**
+   * Creates the service.
+   *
+   * @param mongoTemplate The MongoTemplate used to update the buckets and the users.
+   * @param windowDays    Number of days, including today, the rolling spend covers.
+   */
+  public SpendService(MongoTemplate mongoTemplate,
+      @Value("${user.spend.window-days:30}") int windowDays) {
+    this.mongoTemplate = mongoTemplate;
+    this.windowDays = windowDays;
+  }
+
+  /**
+   * Adds the net amounts of the stored bills to the spend of their users. A failure is logged and
+   * does not affect the stored bills.
+   *
+   * @param event The event holding the stored bills.
+   */
+  @EventListener
+  public void onBillsWritten(BillsWrittenEvent event) {
+    try {
+      recordSpend(event.bills(), LocalDate.now(ZoneOffset.UTC));
+    } catch (RuntimeException e) {
+      log.error("Could not record the spend of {} bills", event.bills().size(), e);
+    }
+  }
+
+  /**
+   * Adds the net amounts of the bills to the bucket of the day and to the rolling spend of their
+   * users, with one bulk write per collection. The buckets are written first, so a failure in
+   * between leaves a rolling spend that is too low until it is recomputed on expiry.
+   *
+   * @param bills The stored bills.
+   * @param day   The day the bills were stored on.
+   */
+  public void recordSpend(List<Bill> bills, LocalDate day) {
+    Map<String, Long> spendByUser = new LinkedHashMap<>();
+    for (Bill bill : bills) {
+      if (bill.getUserId() != null && bill.getNetAmount() != null) {
+        spendByUser.merge(bill.getUserId(),
+            Money.of(bill.getNetAmount(), RoundingMode.HALF_UP).getMinorUnits(), Long::sum);
+      }
+    }
+    if (spendByUser.isEmpty()) {
+      return;
+    }
+    var buckets = mongoTemplate.bulkOps(BulkMode.UNORDERED, UserSpend.class);
+    var users = mongoTemplate.bulkOps(BulkMode.UNORDERED, User.class);
+    spendByUser.forEach((userId, amount) -> {
+      buckets.upsert(new Query(Criteria.where("_id").is(UserSpend.id(userId, day))),
+          new Update().inc("amount", amount).setOnInsert("userId", userId).setOnInsert("day", day));
+      users.updateOne(new Query(Criteria.where("_id").is(userId)),
+          new Update().inc("rollingSpend", amount));
+    });
+    buckets.execute();
+    users.execute();
+  }
+
+  /**
+   * Removes the buckets that left the rolling window.
+   */
+  @Scheduled(cron = "${user.spend.expiry-cron:0 5 0 * * *}")
+  public void expireSpend() {
+    long expired = expireSpend(LocalDate.now(ZoneOffset.UTC));
+    log.info("Rolling spend expiry removed {} buckets", expired);
+  }
+
+  /**
+   * Removes the buckets older than the window ending today, in batches. The rolling spend of the
+   * users of a batch is set to the sum of their buckets in the window before the batch is removed,
+   * so a rerun after a failure, or a concurrent run on another instance, gives the same result.
+   *
+   * @param today The last day of the window.
+   * @return Number of buckets removed.
+   */
+  public long expireSpend(LocalDate today) {
+    var firstDay = today.minusDays(windowDays - 1L);
+    long expired = 0;
+    List<UserSpend> batch;
+    do {
+      var expiredQuery = new Query(Criteria.where("day").lt(firstDay)).limit(EXPIRY_BATCH_SIZE);
+      expiredQuery.fields().include("userId");
+      batch = mongoTemplate.find(expiredQuery, UserSpend.class);
+      if (batch.isEmpty()) {
+        break;
+      }
+      recomputeRollingSpend(batch.stream().map(UserSpend::getUserId).collect(Collectors.toSet()),
+          firstDay);
+      expired += mongoTemplate.remove(new Query(Criteria.where("_id").in(
+          batch.stream().map(UserSpend::getId).toList())), UserSpend.class).getDeletedCount();
+    } while (batch.size() == EXPIRY_BATCH_SIZE);
+    return expired;
+  }
+
+  /**
+   * Sets the rolling spend of the users to the sum of their buckets from the first day of the
+   * window on.
+   */
+  private void recomputeRollingSpend(Set<String> userIds, LocalDate firstDay) {
+    var windowQuery = new Query(Criteria.where("userId").in(userIds).and("day").gte(firstDay));
+    windowQuery.fields().include("userId", "amount");
+    Map<String, Long> spendByUser = new HashMap<>();
+    userIds.forEach(userId -> spendByUser.put(userId, 0L));
+    mongoTemplate.find(windowQuery, UserSpend.class).forEach(bucket ->
+        spendByUser.merge(bucket.getUserId(), bucket.getAmount(), Long::sum));
+    var users = mongoTemplate.bulkOps(BulkMode.UNORDERED, User.class);
+    spendByUser.forEach((userId, amount) -> users.updateOne(
+        new Query(Criteria.where("_id").is(userId)), new Update().set("rollingSpend", amount)));
+    users.execute();
+  }
+}
@@ -0,0 +1,30 @@
+package com.ahmeric.store.service;
+
+import com.ahmeric.store.entity.Bill;
+import com.ahmeric.store.event.BillsWrittenEvent;
+import com.ahmeric.store.repository.BillRepository;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * Default BillWriter that stores each bill in the repository on the request thread and publishes a
+ * BillsWrittenEvent for it.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "bill.persistence.mode", havingValue = "sync", matchIfMissing = true)
+public class SynchronousBillWriter implements BillWriter {
+
+  private final BillRepository billRepository;
+  private final ApplicationEventPublisher eventPublisher;
+
+  @Override
+  public Bill write(Bill bill) {
+    var saved = billRepository.save(bill);
+    eventPublisher.publishEvent(new BillsWrittenEvent(List.of(saved)));
+    return saved;
+  }
+}
@@ -1,11 +1,12 @@
 package com.ahmeric.store.service;
 
+import com.ahmeric.store.entity.User;
 import com.ahmeric.store.exception.ErrorRegistry;
 import com.ahmeric.store.exception.RetailStoreException;
+import com.ahmeric.store.model.dto.CursorPage;
 import com.ahmeric.store.model.dto.UserDto;
 import com.ahmeric.store.repository.UserRepository;
 import com.ahmeric.store.utils.Mapper;
-import java.util.List;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
@@ -33,13 +34,20 @@ public class UserService {
   }
 
   /**
-   * Returns a list of all users.
+   * Returns one page of users in ascending ID order. Passwords are not read from the users
+   * collection. Throws an exception if the cursor is not an ObjectId.
    *
-   * @return List of UserDto.
+   * @param cursor The next cursor of the previous page, null for the first page.
+   * @param limit  The maximum number of users of the page.
+   * @return CursorPage of UserDto.
    */
-
-  public List<UserDto> getAllUsers() {
-    return modelMapper.map(userRepository.findAll(), Mapper.USER_DTO_LIST_TYPE);
+  public CursorPage<UserDto> getUsers(String cursor, int limit) {
+    var pageable = CursorPage.pageRequest(limit);
+    var users = cursor == null ? userRepository.findAllBy(pageable)
+        : userRepository.findByIdGreaterThan(CursorPage.checkCursor(cursor),
+            pageable);
+    return CursorPage.of(users, limit, User::getId)
+        .map(page -> modelMapper.map(page, Mapper.USER_DTO_LIST_TYPE));
   }
 
 }
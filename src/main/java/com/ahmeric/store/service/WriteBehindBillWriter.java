@@ -0,0 +1,314 @@
+package com.ahmeric.store.service;
+
+import com.ahmeric.store.entity.Bill;
+import com.ahmeric.store.event.BillsWrittenEvent;
+import com.ahmeric.store.exception.ErrorRegistry;
+import com.ahmeric.store.exception.RetailStoreException;
+import com.ahmeric.store.service.coupon.CouponService;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.MongoException;
+import com.mongodb.WriteConcern;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.client.model.InsertManyOptions;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * BillWriter that takes bill persistence off the request path. Bills get their ObjectId up front
+ * and are put on a bounded queue; a background thread drains the queue and group-commits the bills
+ * with unordered insertMany calls using the configured write concern.
+ *
+ * <p>When the queue stays full for longer than the offer timeout the bill is rejected, so callers
+ * feel backpressure instead of the queue growing without bound. A failed insert is retried after
+ * an exponential backoff capped at the maximum retry backoff. On shutdown the writer waits for the
+ * writes in progress, stops accepting bills and drains the queue before the application context
+ * closes.</p>
+ */
+@Component
+@ConditionalOnProperty(name = "bill.persistence.mode", havingValue = "write-behind")
+public class WriteBehindBillWriter implements BillWriter, SmartLifecycle {
+
+  private static final int DUPLICATE_KEY_ERROR = 11000;
+
+  private final Logger log = LoggerFactory.getLogger(this.getClass());
+
+  private final MongoTemplate mongoTemplate;
+  private final CouponService couponService;
+  private final ApplicationEventPublisher eventPublisher;
+  private final BlockingQueue<Bill> queue;
+  private final Map<String, Bill> pendingBills = new ConcurrentHashMap<>();
+  private final int batchSize;
+  private final Duration offerTimeout;
+  private final Duration shutdownTimeout;
+  private final int maxAttempts;
+  private final Duration retryBackoff;
+  private final Duration maxRetryBackoff;
+  private final WriteConcern writeConcern;
+  private final ReadWriteLock runningLock = new ReentrantReadWriteLock();
+
+  private volatile boolean running;
+  private Thread writerThread;
+
+  /**
+   * Creates the writer.
+   *
+   * @param mongoTemplate   The MongoTemplate used to insert the bills.
+   * @param couponService   The CouponService to release the coupons of dropped bills.
+   * @param eventPublisher  Publishes a BillsWrittenEvent for every written batch.
+   * @param queueCapacity   Maximum number of bills waiting to be written.
+   * @param batchSize       Maximum number of bills written with one insertMany.
+   * @param offerTimeout    Time to wait for queue space before a bill is rejected.
+   * @param shutdownTimeout Maximum time to wait for the queue to drain on shutdown.
+   * @param maxAttempts     Number of attempts to write a batch before its bills are dropped.
+   * @param retryBackoff    Time to wait before the first retry, doubled for every further one.
+   * @param maxRetryBackoff Maximum time to wait before a retry.
+   * @param writeConcern    Name of the write concern of the inserts, e.g. W1 or MAJORITY.
+   */
+  public WriteBehindBillWriter(MongoTemplate mongoTemplate, CouponService couponService,
+      ApplicationEventPublisher eventPublisher,
+      @Value("${bill.persistence.write-behind.queue-capacity:10000}") int queueCapacity,
+      @Value("${bill.persistence.write-behind.batch-size:500}") int batchSize,
+      @Value("${bill.persistence.write-behind.offer-timeout:100ms}") Duration offerTimeout,
+      @Value("${bill.persistence.write-behind.shutdown-timeout:30s}") Duration shutdownTimeout,
+      @Value("${bill.persistence.write-behind.max-attempts:3}") int maxAttempts,
+      @Value("${bill.persistence.write-behind.retry-backoff:100ms}") Duration retryBackoff,
+      @Value("${bill.persistence.write-behind.max-retry-backoff:2s}") Duration maxRetryBackoff,
+      @Value("${bill.persistence.write-behind.write-concern:MAJORITY}") String writeConcern) {
+    this.mongoTemplate = mongoTemplate;
+    this.couponService = couponService;
+    this.eventPublisher = eventPublisher;
+    this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    this.batchSize = batchSize;
+    this.offerTimeout = offerTimeout;
+    this.shutdownTimeout = shutdownTimeout;
+    this.maxAttempts = maxAttempts;
+    this.retryBackoff = retryBackoff;
+    this.maxRetryBackoff = maxRetryBackoff;
+    this.writeConcern = WriteConcern.valueOf(writeConcern);
+  }
+
+  /**
+   * Assigns an ID to the bill and queues it for writing. Throws an exception if the writer is not
+   * running or the queue stays full for longer than the offer timeout.
+   *
+   * @param bill The bill to persist.
+   * @return The bill with its ID assigned.
+   */
+  @Override
+  public Bill write(Bill bill) {
+    if (bill.getId() == null) {
+      bill.setId(new ObjectId().toHexString());
+    }
+    pendingBills.put(bill.getId(), bill);
+    boolean queued = false;
+    runningLock.readLock().lock();
+    try {
+      queued = running && queue.offer(bill, offerTimeout.toMillis(), TimeUnit.MILLISECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } finally {
+      runningLock.readLock().unlock();
+    }
+    if (!queued) {
+      pendingBills.remove(bill.getId());
+      throw new RetailStoreException(ErrorRegistry.BILL_QUEUE_FULL);
+    }
+    return bill;
+  }
+
+  @Override
+  public Optional<Bill> findPending(String id) {
+    return Optional.ofNullable(pendingBills.get(id));
+  }
+
+  @Override
+  public void start() {
+    running = true;
+    writerThread = new Thread(this::drainQueue, "bill-write-behind");
+    writerThread.start();
+  }
+
+  /**
+   * Stops accepting bills once the writes in progress are queued and waits for the queued bills
+   * to be written. Bills the writer thread left behind, e.g. because it was interrupted, are
+   * written by the calling thread.
+   */
+  @Override
+  public void stop() {
+    runningLock.writeLock().lock();
+    try {
+      running = false;
+    } finally {
+      runningLock.writeLock().unlock();
+    }
+    try {
+      writerThread.join(shutdownTimeout.toMillis());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    if (!writerThread.isAlive()) {
+      drainQueue();
+    }
+    if (!queue.isEmpty()) {
+      log.error("Write-behind shutdown timed out, {} bills were not written: {}", queue.size(),
+          queue.stream().map(Bill::getId).toList());
+    }
+  }
+
+  @Override
+  public boolean isRunning() {
+    return running;
+  }
+
+  /**
+   * Stops after the web server, so no new bills arrive while the queue drains.
+   *
+   * @return The lifecycle phase.
+   */
+  @Override
+  public int getPhase() {
+    return SmartLifecycle.DEFAULT_PHASE - 2048;
+  }
+
+  private void drainQueue() {
+    List<Bill> batch = new ArrayList<>(batchSize);
+    while (running || !queue.isEmpty()) {
+      try {
+        var bill = queue.poll(100, TimeUnit.MILLISECONDS);
+        if (bill == null) {
+          continue;
+        }
+        batch.add(bill);
+        queue.drainTo(batch, batchSize - 1);
+        insertBatch(batch);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      } finally {
+        batch.forEach(written -> pendingBills.remove(written.getId()));
+        batch.clear();
+      }
+    }
+  }
+
+  private void insertBatch(List<Bill> batch) {
+    var collection = mongoTemplate.getCollection(mongoTemplate.getCollectionName(Bill.class))
+        .withWriteConcern(writeConcern);
+    List<Document> documents = batch.stream().map(this::toDocument).toList();
+    for (int attempt = 1; attempt <= maxAttempts && !documents.isEmpty(); attempt++) {
+      if (attempt > 1) {
+        backOff(attempt - 1);
+      }
+      try {
+        collection.insertMany(documents, new InsertManyOptions().ordered(false));
+        documents = List.of();
+      } catch (MongoBulkWriteException e) {
+        documents = getRetryableDocuments(documents, e);
+      } catch (MongoException e) {
+        log.warn("Write-behind insert of {} bills failed on attempt {}", documents.size(),
+            attempt, e);
+      }
+    }
+    if (!documents.isEmpty()) {
+      log.error("Write-behind dropped {} bills after {} attempts: {}", documents.size(),
+          maxAttempts, documents.stream().map(document -> document.get("_id")).toList());
+      releaseCoupons(documents);
+    }
+    publishWritten(batch, documents);
+  }
+
+  /**
+   * Waits before the given retry, doubling the retry backoff for every earlier retry up to the
+   * maximum retry backoff. An interrupt ends the wait and is kept for the caller.
+   */
+  private void backOff(int retry) {
+    long delay = Math.min(maxRetryBackoff.toMillis(),
+        retryBackoff.toMillis() << Math.min(retry - 1, 20));
+    try {
+      Thread.sleep(delay);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Returns the documents of a partially failed insert that are worth retrying. Duplicate key
+   * errors mean the bill was already written by an earlier attempt.
+   */
+  private static List<Document> getRetryableDocuments(List<Document> documents,
+      MongoBulkWriteException exception) {
+    Set<Integer> retryableIndexes = exception.getWriteErrors().stream()
+        .filter(error -> error.getCode() != DUPLICATE_KEY_ERROR)
+        .map(BulkWriteError::getIndex)
+        .collect(Collectors.toSet());
+    List<Document> retryable = new ArrayList<>();
+    for (int i = 0; i < documents.size(); i++) {
+      if (retryableIndexes.contains(i)) {
+        retryable.add(documents.get(i));
+      }
+    }
+    return retryable;
+  }
+
+  /**
+   * Publishes a BillsWrittenEvent for the bills of the batch that were not dropped.
+   */
+  private void publishWritten(List<Bill> batch, List<Document> dropped) {
+    Set<String> droppedIds = dropped.stream()
+        .map(document -> document.get("_id"))
+        .map(String::valueOf)
+        .collect(Collectors.toSet());
+    List<Bill> written = batch.stream()
+        .filter(bill -> !droppedIds.contains(bill.getId()))
+        .toList();
+    if (!written.isEmpty()) {
+      eventPublisher.publishEvent(new BillsWrittenEvent(written));
+    }
+  }
+
+  /**
+   * Makes the coupons redeemed for dropped bills redeemable again. A failure is logged so that it
+   * does not stop the writer.
+   */
+  private void releaseCoupons(List<Document> documents) {
+    for (Document document : documents) {
+      var couponCode = document.getString("couponCode");
+      if (couponCode == null) {
+        continue;
+      }
+      try {
+        couponService.release(couponCode, document.getString("userId"));
+      } catch (MongoException e) {
+        log.error("Could not release coupon {} of dropped bill {}", couponCode,
+            document.get("_id"), e);
+      }
+    }
+  }
+
+  private Document toDocument(Bill bill) {
+    var document = new Document();
+    mongoTemplate.getConverter().write(bill, document);
+    return document;
+  }
+}
@@ -0,0 +1,91 @@
+package com.ahmeric.store.service.coupon;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter of coupon codes. A code that is not in the filter was never added, so it can be
+ * rejected without reading the database; a code in the filter may still be unknown with the
+ * configured false positive rate. Codes can be added while the filter is read from other threads.
+ */
+final class CouponFilter {
+
+  private static final long SEED = 0x9E3779B97F4A7C15L;
+
+  private final AtomicLongArray bits;
+  private final long bitCount;
+  private final int hashCount;
+
+  /**
+   * Creates an empty filter sized for the expected number of codes.
+   *
+   * @param expectedCodes     Number of codes the filter is sized for.
+   * @param falsePositiveRate Rate of unknown codes passing the filter once it holds the expected
+   *                          number of codes, e.g. 0.01.
+   */
+  CouponFilter(long expectedCodes, double falsePositiveRate) {
+    long codes = Math.max(1, expectedCodes);
+    long optimalBits = (long) Math.ceil(
+        -codes * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+    this.bits = new AtomicLongArray(Math.toIntExact(Math.max(1, (optimalBits + 63) / 64)));
+    this.bitCount = bits.length() * 64L;
+    this.hashCount = Math.max(1, (int) Math.round((double) bitCount / codes * Math.log(2)));
+  }
+
+  /**
+   * Adds a code to the filter.
+   *
+   * @param code The coupon code.
+   */
+  void add(String code) {
+    byte[] bytes = code.getBytes(StandardCharsets.UTF_8);
+    long hash1 = hash(bytes, 0);
+    long hash2 = hash(bytes, SEED) | 1;
+    for (int i = 0; i < hashCount; i++) {
+      long bit = Math.floorMod(hash1 + i * hash2, bitCount);
+      int word = (int) (bit >>> 6);
+      long mask = 1L << bit;
+      long current = bits.get(word);
+      while ((current & mask) == 0 && !bits.compareAndSet(word, current, current | mask)) {
+        current = bits.get(word);
+      }
+    }
+  }
+
+  /**
+   * Checks whether the code may have been added.
+   *
+   * @param code The coupon code.
+   * @return false if the code was never added.
+   */
+  boolean mightContain(String code) {
+    byte[] bytes = code.getBytes(StandardCharsets.UTF_8);
+    long hash1 = hash(bytes, 0);
+    long hash2 = hash(bytes, SEED) | 1;
+    for (int i = 0; i < hashCount; i++) {
+      long bit = Math.floorMod(hash1 + i * hash2, bitCount);
+      if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * FNV-1a over the bytes followed by the MurmurHash3 finalizer, so that the two hashes used for
+   * double hashing are well spread even for codes differing in one character.
+   */
+  private static long hash(byte[] bytes, long seed) {
+    long hash = 0xcbf29ce484222325L ^ seed;
+    for (byte b : bytes) {
+      hash ^= b & 0xff;
+      hash *= 0x100000001b3L;
+    }
+    hash ^= hash >>> 33;
+    hash *= 0xff51afd7ed558ccdL;
+    hash ^= hash >>> 33;
+    hash *= 0xc4ceb9fe1a85ec53L;
+    hash ^= hash >>> 33;
+    return hash;
+  }
+}
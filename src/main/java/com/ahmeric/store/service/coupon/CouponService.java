@@ -0,0 +1,268 @@
+package com.ahmeric.store.service.coupon;
+
+import com.ahmeric.store.entity.Coupon;
+import com.ahmeric.store.exception.ErrorRegistry;
+import com.ahmeric.store.exception.RetailStoreException;
+import com.ahmeric.store.model.dto.CouponDto;
+import com.ahmeric.store.model.dto.CouponIssueResult;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service class for single-use coupons. Codes are checked against an in-memory Bloom filter of the
+ * issued codes first. Coupons are redeemed atomically with findAndModify, so a code can only be
+ * redeemed once even by concurrent bills.
+ *
+ * <p>The filter is filled incrementally with the codes issued since the previous refresh, including
+ * codes issued by other instances, and rebuilt from scratch periodically to drop redeemed and
+ * expired codes. Codes issued by this instance are added as they are issued. A code issued by
+ * another instance is only added by the next refresh, so before a code the filter does not contain
+ * is rejected, it is looked up by its ID among the codes issued since shortly before the last
+ * refresh. A guessed code thus costs one lookup on the _id index.</p>
+ */
+@Service
+public class CouponService {
+
+  private static final char[] CODE_ALPHABET = "ABCDEFGHJKLMNPQRSTUVWXYZ23456789".toCharArray();
+  private static final int CODE_LENGTH = 12;
+  /**
+   * Codes issued this long before the last refresh are read again, so codes whose insert became
+   * visible only after that refresh are not missed.
+   */
+  private static final Duration REFRESH_OVERLAP = Duration.ofMinutes(1);
+
+  private final Logger log = LoggerFactory.getLogger(this.getClass());
+
+  private final MongoTemplate mongoTemplate;
+  private final long expectedCodes;
+  private final double falsePositiveRate;
+  private final SecureRandom random = new SecureRandom();
+  private volatile CouponFilter filter;
+  private volatile Instant refreshedAt;
+
+  /**
+   * Creates the service. Until the filter is built by the first refresh, codes are checked against
+   * the database only.
+   *
+   * @param mongoTemplate     The MongoTemplate used to store and redeem the coupons.
+   * @param expectedCodes     Number of unredeemed codes the filter is sized for.
+   * @param falsePositiveRate Rate of guessed codes passing the filter.
+   */
+  public CouponService(MongoTemplate mongoTemplate,
+      @Value("${coupon.filter.expected-codes:10000000}") long expectedCodes,
+      @Value("${coupon.filter.false-positive-rate:0.01}") double falsePositiveRate) {
+    this.mongoTemplate = mongoTemplate;
+    this.expectedCodes = expectedCodes;
+    this.falsePositiveRate = falsePositiveRate;
+  }
+
+  /**
+   * Issues coupons with random codes. Throws an exception if the coupon does not give exactly one
+   * of a percentage and an amount, or if it is already expired. Coupons that cannot be stored, e.g.
+   * because their random code collides with an existing one, are not issued and are counted as
+   * failed.
+   *
+   * @param couponDto The discount and expiry of the coupons.
+   * @param count     Number of coupons to issue.
+   * @return The codes of the issued coupons and the number of coupons that failed.
+   */
+  public CouponIssueResult issueCoupons(CouponDto couponDto, int count) {
+    if ((couponDto.getBasisPoints() == null) == (couponDto.getAmount() == null)
+        || !couponDto.getExpiresAt().isAfter(Instant.now())) {
+      throw new RetailStoreException(ErrorRegistry.INVALID_COUPON);
+    }
+    var issuedAt = Instant.now();
+    List<Coupon> coupons = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      coupons.add(Coupon.builder()
+          .code(generateCode())
+          .basisPoints(couponDto.getBasisPoints())
+          .amount(couponDto.getAmount())
+          .issuedAt(issuedAt)
+          .expiresAt(couponDto.getExpiresAt())
+          .build());
+    }
+    int failed = insertUnordered(coupons);
+    var current = filter;
+    List<String> codes = new ArrayList<>(coupons.size());
+    for (Coupon coupon : coupons) {
+      if (current != null) {
+        current.add(coupon.getCode());
+      }
+      codes.add(coupon.getCode());
+    }
+    return CouponIssueResult.builder().codes(codes).failed(failed).build();
+  }
+
+  /**
+   * Inserts the coupons and removes the ones that could not be inserted from the list.
+   *
+   * @return The number of coupons that could not be inserted.
+   */
+  private int insertUnordered(List<Coupon> coupons) {
+    try {
+      mongoTemplate.bulkOps(BulkMode.UNORDERED, Coupon.class).insert(coupons).execute();
+      return 0;
+    } catch (BulkOperationException exception) {
+      var failed = exception.getErrors().stream()
+          .map(error -> coupons.get(error.getIndex()))
+          .toList();
+      coupons.removeAll(failed);
+      log.warn("{} of {} coupons could not be issued: {}", failed.size(),
+          coupons.size() + failed.size(), exception.getErrors().get(0).getMessage());
+      return failed.size();
+    }
+  }
+
+  private String generateCode() {
+    char[] code = new char[CODE_LENGTH];
+    for (int i = 0; i < CODE_LENGTH; i++) {
+      code[i] = CODE_ALPHABET[random.nextInt(CODE_ALPHABET.length)];
+    }
+    return new String(code);
+  }
+
+  /**
+   * Redeems the coupon for the user. Throws an exception if the code is unknown, already redeemed
+   * or expired.
+   *
+   * @param code   The coupon code.
+   * @param userId The ID of the user redeeming the coupon.
+   * @return The redeemed coupon.
+   */
+  public Coupon redeem(String code, String userId) {
+    checkFilter(code);
+    var now = Instant.now();
+    var coupon = mongoTemplate.findAndModify(getRedeemableQuery(code, now),
+        new Update().set("redeemedBy", userId).set("redeemedAt", now),
+        FindAndModifyOptions.options().returnNew(true), Coupon.class);
+    if (coupon == null) {
+      throw new RetailStoreException(ErrorRegistry.COUPON_NOT_VALID);
+    }
+    return coupon;
+  }
+
+  /**
+   * Returns the coupon if it can be redeemed now, without redeeming it, e.g. to quote a bill.
+   * Throws an exception if the code is unknown, already redeemed or expired.
+   *
+   * @param code The coupon code.
+   * @return The redeemable coupon.
+   */
+  public Coupon getRedeemableCoupon(String code) {
+    checkFilter(code);
+    var coupon = mongoTemplate.findOne(getRedeemableQuery(code, Instant.now()), Coupon.class);
+    if (coupon == null) {
+      throw new RetailStoreException(ErrorRegistry.COUPON_NOT_VALID);
+    }
+    return coupon;
+  }
+
+  /**
+   * Makes a coupon redeemed by the user redeemable again, e.g. when the bill it was redeemed for
+   * could not be stored.
+   *
+   * @param code   The coupon code.
+   * @param userId The ID of the user who redeemed the coupon.
+   */
+  public void release(String code, String userId) {
+    mongoTemplate.updateFirst(
+        new Query(Criteria.where("_id").is(code).and("redeemedBy").is(userId)),
+        new Update().unset("redeemedBy").unset("redeemedAt"), Coupon.class);
+  }
+
+  /**
+   * Throws an exception if the code is neither in the filter nor issued since shortly before the
+   * last refresh. A code found by the lookup is added to the filter.
+   */
+  private void checkFilter(String code) {
+    var current = filter;
+    if (current == null || current.mightContain(code)) {
+      return;
+    }
+    var criteria = Criteria.where("_id").is(code);
+    var since = refreshedAt;
+    if (since != null) {
+      criteria.and("issuedAt").gte(since.minus(REFRESH_OVERLAP));
+    }
+    if (!mongoTemplate.exists(new Query(criteria), Coupon.class)) {
+      throw new RetailStoreException(ErrorRegistry.COUPON_NOT_VALID);
+    }
+    current.add(code);
+  }
+
+  private static Query getRedeemableQuery(String code, Instant now) {
+    return new Query(Criteria.where("_id").is(code)
+        .and("redeemedAt").is(null)
+        .and("expiresAt").gt(now));
+  }
+
+  /**
+   * Adds the codes issued since the previous refresh to the filter. The first refresh, at startup,
+   * builds the filter from all redeemable codes. A failed refresh keeps the current filter.
+   */
+  @Scheduled(fixedDelayString = "${coupon.filter.refresh-interval:PT1M}")
+  public void refreshFilter() {
+    try {
+      if (filter == null) {
+        rebuildFilter();
+        return;
+      }
+      var startedAt = Instant.now();
+      var current = filter;
+      var query = new Query(Criteria.where("issuedAt").gte(refreshedAt.minus(REFRESH_OVERLAP)));
+      int added = addCodes(query, current);
+      refreshedAt = startedAt;
+      log.debug("Added {} coupon codes to the filter", added);
+    } catch (RuntimeException e) {
+      log.error("Could not refresh the coupon filter, keeping the current one", e);
+    }
+  }
+
+  /**
+   * Builds a new filter from the redeemable codes and swaps it in, dropping the redeemed and
+   * expired codes from the filter. Codes issued while the filter was built are added once more
+   * after the swap.
+   */
+  @Scheduled(cron = "${coupon.filter.rebuild-cron:0 30 3 * * *}")
+  public void rebuildFilter() {
+    var startedAt = Instant.now();
+    var rebuilt = new CouponFilter(expectedCodes, falsePositiveRate);
+    int added = addCodes(new Query(Criteria.where("redeemedAt").is(null)
+        .and("expiresAt").gt(startedAt)), rebuilt);
+    filter = rebuilt;
+    added += addCodes(new Query(Criteria.where("issuedAt").gte(startedAt.minus(REFRESH_OVERLAP))),
+        rebuilt);
+    refreshedAt = startedAt;
+    log.info("Built the coupon filter with {} codes", added);
+  }
+
+  private int addCodes(Query query, CouponFilter target) {
+    query.fields().include("_id");
+    int added = 0;
+    try (Stream<Coupon> coupons = mongoTemplate.stream(query, Coupon.class)) {
+      var iterator = coupons.iterator();
+      while (iterator.hasNext()) {
+        target.add(iterator.next().getCode());
+        added++;
+      }
+    }
+    return added;
+  }
+}
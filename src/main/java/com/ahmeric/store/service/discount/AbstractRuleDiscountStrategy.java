@@ -0,0 +1,59 @@
+package com.ahmeric.store.service.discount;
+
+import com.ahmeric.store.entity.DiscountRule;
+import com.ahmeric.store.entity.LoyaltyTier;
+import com.ahmeric.store.entity.UserType;
+
+/**
+ * Discount strategy compiled from a discount rule. Holds the name, order and user matching of the
+ * rule.
+ */
+public abstract class AbstractRuleDiscountStrategy implements DiscountStrategy {
+
+  private final String name;
+  private final int order;
+  private final UserType userType;
+  private final boolean loyalCustomerOnly;
+
+  /**
+   * Creates the strategy from the common fields of the rule.
+   *
+   * @param rule The discount rule.
+   */
+  protected AbstractRuleDiscountStrategy(DiscountRule rule) {
+    this.name = rule.getName();
+    this.order = rule.getOrder();
+    this.userType = rule.getUserType();
+    this.loyalCustomerOnly = rule.isLoyalCustomerOnly();
+  }
+
+  /**
+   * Returns the name of the rule, used in the discount description.
+   *
+   * @return Name of the discount.
+   */
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * Checks whether the user of the profile is eligible for the rule.
+   *
+   * @param profile The discount profile of the bill.
+   * @return true if the user type and loyalty tier of the profile match the rule.
+   */
+  protected boolean matchesUser(DiscountProfile profile) {
+    return (userType == null || userType == profile.userType())
+        && (!loyalCustomerOnly || profile.loyaltyTier().isAtLeast(LoyaltyTier.LOYAL));
+  }
+
+  /**
+   * Returns the order of the discount strategy.
+   *
+   * @return Order of the discount strategy.
+   */
+  @Override
+  public int getOrder() {
+    return order;
+  }
+}
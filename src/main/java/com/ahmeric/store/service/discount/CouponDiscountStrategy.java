@@ -0,0 +1,61 @@
+package com.ahmeric.store.service.discount;
+
+import com.ahmeric.store.entity.Coupon;
+import com.ahmeric.store.model.Money;
+import com.ahmeric.store.model.PricingContext;
+import com.ahmeric.store.model.dto.DiscountResult;
+import java.math.RoundingMode;
+import org.springframework.core.Ordered;
+
+/**
+ * Coupon based discount strategy. Applied after every other discount, it gives the percentage of
+ * the coupon off the remaining net amount, or the fixed amount of the coupon up to the net amount.
+ */
+public class CouponDiscountStrategy implements DiscountStrategy {
+
+  public static final String CODE = "CouponDiscountStrategy";
+
+  private final Coupon coupon;
+
+  /**
+   * Creates the strategy from a redeemed or redeemable coupon.
+   *
+   * @param coupon The coupon.
+   */
+  public CouponDiscountStrategy(Coupon coupon) {
+    this.coupon = coupon;
+  }
+
+  /**
+   * Calculates the coupon discount on the net amount after the other discounts.
+   *
+   * @param context Immutable pricing context of the bill.
+   * @return DiscountResult object containing discount amount, code and percentage if any.
+   */
+  @Override
+  public DiscountResult calculateDiscount(PricingContext context) {
+    var netAmount = context.getNetAmount();
+    if (coupon.getBasisPoints() != null) {
+      return new DiscountResult(netAmount.percent(coupon.getBasisPoints(), RoundingMode.HALF_UP),
+          CODE, coupon.getBasisPoints());
+    }
+    var amount = Money.of(coupon.getAmount(), RoundingMode.HALF_UP);
+    return new DiscountResult(amount.compareTo(netAmount) > 0 ? netAmount : amount, CODE, null);
+  }
+
+  /**
+   * Coupons apply to whoever redeems them.
+   *
+   * @param profile The discount profile of the bill.
+   * @return Always true.
+   */
+  @Override
+  public boolean appliesTo(DiscountProfile profile) {
+    return true;
+  }
+
+  @Override
+  public int getOrder() {
+    return Ordered.LOWEST_PRECEDENCE;
+  }
+}
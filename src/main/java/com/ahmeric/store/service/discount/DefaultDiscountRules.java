@@ -0,0 +1,68 @@
+package com.ahmeric.store.service.discount;
+
+import com.ahmeric.store.entity.DiscountRule;
+import com.ahmeric.store.entity.DiscountRuleType;
+import com.ahmeric.store.entity.ProductType;
+import com.ahmeric.store.entity.UserType;
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * The store's standard discount rules, used while the discount_rules collection is empty. The
+ * names match the strategy classes the rules replaced, so applied discount descriptions stay the
+ * same.
+ */
+public final class DefaultDiscountRules {
+
+  private DefaultDiscountRules() {
+  }
+
+  /**
+   * Returns new instances of all default rules.
+   *
+   * @return List of the default discount rules.
+   */
+  public static List<DiscountRule> rules() {
+    return List.of(employee(), affiliate(), loyalCustomer(), fixedAmount());
+  }
+
+  public static DiscountRule employee() {
+    return percentage("EmployeeDiscountStrategy", UserType.EMPLOYEE, false, 3000);
+  }
+
+  public static DiscountRule affiliate() {
+    return percentage("AffiliateDiscountStrategy", UserType.AFFILIATE, false, 1000);
+  }
+
+  public static DiscountRule loyalCustomer() {
+    return percentage("LoyalCustomerDiscountStrategy", UserType.CUSTOMER, true, 500);
+  }
+
+  /**
+   * Returns the rule giving 5 for every 100 of the net amount.
+   *
+   * @return The fixed amount discount rule.
+   */
+  public static DiscountRule fixedAmount() {
+    return DiscountRule.builder()
+        .name("FixedAmountDiscountStrategy")
+        .type(DiscountRuleType.FIXED_AMOUNT)
+        .order(2)
+        .step(BigDecimal.valueOf(100))
+        .amountPerStep(BigDecimal.valueOf(5))
+        .build();
+  }
+
+  private static DiscountRule percentage(String name, UserType userType,
+      boolean loyalCustomerOnly, long basisPoints) {
+    return DiscountRule.builder()
+        .name(name)
+        .type(DiscountRuleType.PERCENTAGE)
+        .userType(userType)
+        .loyalCustomerOnly(loyalCustomerOnly)
+        .order(1)
+        .basisPoints(basisPoints)
+        .excludedProductTypes(List.of(ProductType.GROCERY))
+        .build();
+  }
+}
@@ -0,0 +1,11 @@
+package com.ahmeric.store.service.discount;
+
+/**
+ * What a discount strategy calculates its discount from. Strategies working off the SUBTOTAL do
+ * not depend on other discounts and may be evaluated concurrently; strategies working off the NET
+ * amount see the discounts of all strategies ordered before them.
+ */
+public enum DiscountBasis {
+  SUBTOTAL,
+  NET
+}
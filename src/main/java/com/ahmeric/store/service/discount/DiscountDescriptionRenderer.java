@@ -0,0 +1,68 @@
+package com.ahmeric.store.service.discount;
+
+import com.ahmeric.store.model.dto.AppliedDiscountDto;
+import com.ahmeric.store.model.dto.BillDto;
+import com.ahmeric.store.utils.MessageUtils;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Locale;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Renders the descriptions of the discounts applied to a bill in the locale of the current request.
+ * Bills store their discounts in structured form, so the text is only built for responses.
+ */
+@Component
+@RequiredArgsConstructor
+public class DiscountDescriptionRenderer {
+
+  private static final String PERCENTAGE_MESSAGE = "api.applied.percentage.discount.message";
+  private static final String FIXED_AMOUNT_MESSAGE = "api.applied.fixed.amount.discount.message";
+  private static final String PERCENTAGE_NAME = "api.discount.percentage.processor.name";
+  private static final String RULE_NAME_PREFIX = "api.discount.rule.";
+  private static final String RULE_NAME_SUFFIX = ".name";
+
+  private final MessageUtils messageUtils;
+
+  /**
+   * Returns the descriptions of the discounts applied to the bill. Bills of the legacy layout keep
+   * the descriptions they were stored with.
+   *
+   * @param billDto The bill.
+   * @return One description per applied discount.
+   */
+  public List<String> render(BillDto billDto) {
+    return render(billDto, LocaleContextHolder.getLocale());
+  }
+
+  /**
+   * Returns the descriptions of the discounts applied to the bill in the given locale, e.g. when
+   * rendering outside of the request thread.
+   *
+   * @param billDto The bill.
+   * @param locale  The locale of the descriptions.
+   * @return One description per applied discount.
+   */
+  public List<String> render(BillDto billDto, Locale locale) {
+    if (billDto.getDiscounts().isEmpty() && billDto.getAppliedDiscounts() != null) {
+      return billDto.getAppliedDiscounts();
+    }
+    return billDto.getDiscounts().stream()
+        .map(discount -> render(discount, locale))
+        .toList();
+  }
+
+  private String render(AppliedDiscountDto discount, Locale locale) {
+    var name = messageUtils.getMessage(RULE_NAME_PREFIX + discount.getCode() + RULE_NAME_SUFFIX,
+        discount.getCode(), locale);
+    var amount = discount.getAmount().toBigDecimal();
+    if (discount.getBasisPoints() == null) {
+      return messageUtils.format(FIXED_AMOUNT_MESSAGE, locale, name, amount);
+    }
+    return messageUtils.format(PERCENTAGE_MESSAGE, locale,
+        messageUtils.getMessage(PERCENTAGE_NAME, PERCENTAGE_NAME, locale), name,
+        BigDecimal.valueOf(discount.getBasisPoints(), 2), amount);
+  }
+}
@@ -0,0 +1,16 @@
+package com.ahmeric.store.service.discount;
+
+import com.ahmeric.store.entity.LoyaltyTier;
+import com.ahmeric.store.entity.UserType;
+
+/**
+ * Record representing the bill properties that decide which discount strategies apply.
+ *
+ * @param userType       the type of the user.
+ * @param loyaltyTier    the loyalty tier of the user.
+ * @param aboveThreshold whether the net amount reaches the fixed amount discount threshold.
+ */
+public record DiscountProfile(UserType userType, LoyaltyTier loyaltyTier,
+    boolean aboveThreshold) {
+
+}
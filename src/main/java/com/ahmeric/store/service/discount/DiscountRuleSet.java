@@ -0,0 +1,231 @@
+package com.ahmeric.store.service.discount;
+
+import com.ahmeric.store.entity.DiscountRule;
+import com.ahmeric.store.entity.DiscountRuleType;
+import com.ahmeric.store.entity.LoyaltyTier;
+import com.ahmeric.store.entity.SpendTier;
+import com.ahmeric.store.entity.UserType;
+import com.ahmeric.store.exception.ErrorRegistry;
+import com.ahmeric.store.exception.RetailStoreException;
+import com.ahmeric.store.model.Money;
+import com.ahmeric.store.model.dto.BillDto;
+import com.ahmeric.store.model.dto.UserDto;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.springframework.core.Ordered;
+
+/**
+ * Immutable set of discount strategies compiled from discount rules. The ordered list of
+ * strategies for every combination of user type, loyalty and fixed amount threshold is computed
+ * when the set is compiled, so choosing the discounts of a bill is an allocation free lookup.
+ *
+ * <p>The version is derived from the rule contents, so every node loading the same rules reports
+ * the same version.</p>
+ */
+public final class DiscountRuleSet {
+
+  private static final int VERSION_LENGTH = 16;
+
+  private final String version;
+  private final int ruleCount;
+  private final Money threshold;
+  private final long[] spendBounds;
+  private final List<DiscountStrategy>[][][] plans;
+
+  @SuppressWarnings("unchecked")
+  private DiscountRuleSet(String version, List<DiscountStrategy> strategies) {
+    this.version = version;
+    this.ruleCount = strategies.size();
+    this.threshold = strategies.stream()
+        .filter(FixedAmountDiscountStrategy.class::isInstance)
+        .map(strategy -> ((FixedAmountDiscountStrategy) strategy).getStep())
+        .min(Comparator.naturalOrder())
+        .orElse(null);
+    this.spendBounds = strategies.stream()
+        .filter(SpendTierDiscountStrategy.class::isInstance)
+        .flatMapToLong(strategy -> Arrays.stream(
+            ((SpendTierDiscountStrategy) strategy).getMinimumSpends()))
+        .distinct()
+        .sorted()
+        .toArray();
+    UserType[] userTypes = UserType.values();
+    LoyaltyTier[] loyaltyTiers = LoyaltyTier.values();
+    this.plans = new List[userTypes.length][loyaltyTiers.length][2];
+    for (UserType userType : userTypes) {
+      for (LoyaltyTier loyaltyTier : loyaltyTiers) {
+        for (int above = 0; above < 2; above++) {
+          var profile = new DiscountProfile(userType, loyaltyTier, above == 1);
+          plans[userType.ordinal()][loyaltyTier.ordinal()][above] = createPlan(strategies,
+              profile);
+        }
+      }
+    }
+  }
+
+  /**
+   * Compiles discount rules into a rule set. Throws an exception if a rule is incomplete or if two
+   * rules with the same order apply to the same bill.
+   *
+   * @param rules The discount rules.
+   * @return The compiled rule set.
+   */
+  public static DiscountRuleSet compile(List<DiscountRule> rules) {
+    List<DiscountRule> sortedRules = new ArrayList<>(rules);
+    sortedRules.sort(Comparator.comparingInt(DiscountRule::getOrder)
+        .thenComparing(DiscountRule::getName, Comparator.nullsFirst(Comparator.naturalOrder())));
+    List<DiscountStrategy> strategies = sortedRules.stream()
+        .map(DiscountRuleSet::toStrategy)
+        .toList();
+    return new DiscountRuleSet(getVersion(sortedRules), strategies);
+  }
+
+  public String getVersion() {
+    return version;
+  }
+
+  public int getRuleCount() {
+    return ruleCount;
+  }
+
+  /**
+   * Returns applicable discounts for the bill based on the user type, loyalty and bill amount.
+   *
+   * @param billDto Bill details for which discount is to be calculated.
+   * @return Immutable list of applicable DiscountStrategy objects in order.
+   */
+  public List<DiscountStrategy> getApplicableDiscounts(BillDto billDto) {
+    var user = billDto.getUser();
+    int loyaltyTier = DiscountStrategyFactory.getLoyaltyTier(user).ordinal();
+    int above = threshold != null && billDto.getNetAmount().compareTo(threshold) >= 0 ? 1 : 0;
+    return plans[user.getUserType().ordinal()][loyaltyTier][above];
+  }
+
+  /**
+   * Returns the spend band of the user: the number of SPEND_TIER minimum spends of the rule set
+   * reached by the rolling spend of the user. Users in the same band get the same tier of every
+   * SPEND_TIER rule, so bills priced for them only differ by the other properties of the user.
+   *
+   * @param user The user to check.
+   * @return The spend band, always 0 if the rule set has no SPEND_TIER rule.
+   */
+  public int getSpendBand(UserDto user) {
+    if (spendBounds.length == 0) {
+      return 0;
+    }
+    long spend = DiscountStrategyFactory.getRollingSpend(user).getMinorUnits();
+    int index = Arrays.binarySearch(spendBounds, spend);
+    return index >= 0 ? index + 1 : -index - 1;
+  }
+
+  private static DiscountStrategy toStrategy(DiscountRule rule) {
+    if (rule.getName() == null || rule.getType() == null) {
+      throw invalidRule(rule, "name and type are required");
+    }
+    if (rule.getType() == DiscountRuleType.PERCENTAGE) {
+      if (rule.getBasisPoints() <= 0 || rule.getBasisPoints() > 10_000) {
+        throw invalidRule(rule, "basisPoints must be between 1 and 10000");
+      }
+      return new PercentageDiscountStrategy(rule);
+    }
+    if (rule.getType() == DiscountRuleType.SPEND_TIER) {
+      validateSpendTiers(rule);
+      return new SpendTierDiscountStrategy(rule);
+    }
+    if (rule.getStep() == null || rule.getStep().signum() <= 0
+        || rule.getAmountPerStep() == null || rule.getAmountPerStep().signum() < 0) {
+      throw invalidRule(rule, "a positive step and amountPerStep are required");
+    }
+    return new FixedAmountDiscountStrategy(rule);
+  }
+
+  private static void validateSpendTiers(DiscountRule rule) {
+    if (rule.getSpendTiers() == null || rule.getSpendTiers().isEmpty()) {
+      throw invalidRule(rule, "at least one spend tier is required");
+    }
+    Set<BigDecimal> minimumSpends = new HashSet<>();
+    for (SpendTier tier : rule.getSpendTiers()) {
+      if (tier.getMinimumSpend() == null || tier.getMinimumSpend().signum() < 0
+          || !minimumSpends.add(tier.getMinimumSpend().stripTrailingZeros())) {
+        throw invalidRule(rule, "spend tiers need distinct non-negative minimumSpend values");
+      }
+      if (tier.getBasisPoints() <= 0 || tier.getBasisPoints() > 10_000) {
+        throw invalidRule(rule, "spend tier basisPoints must be between 1 and 10000");
+      }
+    }
+  }
+
+  private static RetailStoreException invalidRule(DiscountRule rule, String reason) {
+    return new RetailStoreException(ErrorRegistry.INVALID_DISCOUNT_RULE,
+        rule.getName() + ": " + reason);
+  }
+
+  /**
+   * Returns the strategies applying to the profile in order. Throws an exception if two of them
+   * have the same order, since a user can get only one of the percentage based discounts on a
+   * bill.
+   */
+  private static List<DiscountStrategy> createPlan(List<DiscountStrategy> strategies,
+      DiscountProfile profile) {
+    List<DiscountStrategy> plan = strategies.stream()
+        .filter(strategy -> strategy.appliesTo(profile))
+        .sorted(Comparator.comparingInt(Ordered::getOrder))
+        .toList();
+    Set<Integer> orders = new HashSet<>();
+    for (DiscountStrategy strategy : plan) {
+      if (!orders.add(strategy.getOrder())) {
+        throw new RetailStoreException(ErrorRegistry.SAME_ORDER_MULTIPLE_STRATEGIES,
+            profile.toString());
+      }
+    }
+    return plan;
+  }
+
+  private static String getVersion(List<DiscountRule> rules) {
+    try {
+      var digest = MessageDigest.getInstance("SHA-256");
+      rules.forEach(rule -> digest.update(canonical(rule).getBytes(StandardCharsets.UTF_8)));
+      return HexFormat.of().formatHex(digest.digest()).substring(0, VERSION_LENGTH);
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
+    }
+  }
+
+  /**
+   * Returns the rule without its id, with amounts stripped of trailing zeros, so equal rules give
+   * equal versions.
+   */
+  private static String canonical(DiscountRule rule) {
+    return String.join("|", rule.getName(), String.valueOf(rule.getType()),
+        String.valueOf(rule.getUserType()), String.valueOf(rule.isLoyalCustomerOnly()),
+        String.valueOf(rule.getOrder()), String.valueOf(rule.getBasisPoints()),
+        String.valueOf(rule.getExcludedProductTypes()), plain(rule.getStep()),
+        plain(rule.getAmountPerStep())) + spendTiers(rule) + "\n";
+  }
+
+  /**
+   * Returns the spend tiers of the rule, or nothing for rules without tiers so that their versions
+   * stay the same as before tiers were introduced.
+   */
+  private static String spendTiers(DiscountRule rule) {
+    if (rule.getSpendTiers() == null) {
+      return "";
+    }
+    return rule.getSpendTiers().stream()
+        .map(tier -> plain(tier.getMinimumSpend()) + ":" + tier.getBasisPoints())
+        .collect(Collectors.joining(",", "|", ""));
+  }
+
+  private static String plain(BigDecimal amount) {
+    return amount == null ? "null" : amount.stripTrailingZeros().toPlainString();
+  }
+}
@@ -1,41 +1,185 @@
 package com.ahmeric.store.service.discount;
 
+import com.ahmeric.store.model.PricingContext;
+import com.ahmeric.store.model.dto.AppliedDiscountDto;
 import com.ahmeric.store.model.dto.BillDto;
-import java.math.BigDecimal;
+import com.ahmeric.store.model.dto.DiscountResult;
+import com.ahmeric.store.model.dto.UserDto;
+import com.ahmeric.store.service.promotion.PromotionService;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
-import lombok.RequiredArgsConstructor;
+import java.util.stream.IntStream;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 /**
  * Service class to handle discount related operations.
+ *
+ * <p>Strategies read an immutable PricingContext of the bill. Strategies calculating from the
+ * subtotals do not depend on each other and are evaluated concurrently once a bill has enough of
+ * them; strategies calculating from the net amount are evaluated in order, each seeing the
+ * discounts ordered before it. The results are applied to the bill in order either way, so the
+ * outcome does not depend on which strategy finishes first. Each discount is capped at the net
+ * amount left by the discounts ordered before it, so stacked discounts, e.g. a promotion on the
+ * items of the employee discount, never take the net amount below zero.</p>
  */
 @Service
-@RequiredArgsConstructor
 public class DiscountService {
 
   private final DiscountStrategyFactory discountStrategyFactory;
+  private final PromotionService promotionService;
+  private final int parallelThreshold;
 
   /**
-   * Applies applicable discounts to the bill.
+   * Creates the service.
+   *
+   * @param discountStrategyFactory The factory holding the discount rules in use.
+   * @param promotionService        The service holding the active promotions.
+   * @param parallelThreshold       Minimum number of subtotal based strategies of a bill to
+   *                                evaluate them concurrently.
+   */
+  public DiscountService(DiscountStrategyFactory discountStrategyFactory,
+      PromotionService promotionService,
+      @Value("${discount.parallel-threshold:8}") int parallelThreshold) {
+    this.discountStrategyFactory = discountStrategyFactory;
+    this.promotionService = promotionService;
+    this.parallelThreshold = parallelThreshold;
+  }
+
+  /**
+   * Applies applicable discounts and active promotions to the bill. The whole bill is priced with
+   * the rule set current at the start, whose version is recorded on the bill. Promotions are
+   * placed among the rule discounts by their order, before rule discounts of the same order.
    *
    * @param billDto Bill details for which discount is to be calculated.
    * @return Updated BillDto object after applying the discounts.
    */
   public BillDto applyDiscount(BillDto billDto) {
+    return applyDiscount(billDto, List.of());
+  }
+
+  /**
+   * Applies applicable discounts, active promotions and the given bill specific discounts, e.g. of
+   * a redeemed coupon, to the bill. All of them are applied by their order.
+   *
+   * @param billDto             Bill details for which discount is to be calculated.
+   * @param additionalDiscounts Discounts to apply on top of the rule discounts and promotions.
+   * @return Updated BillDto object after applying the discounts.
+   */
+  public BillDto applyDiscount(BillDto billDto, List<DiscountStrategy> additionalDiscounts) {
+    var ruleSet = discountStrategyFactory.getRuleSet();
+    billDto.setRuleSetVersion(ruleSet.getVersion());
+    List<DiscountStrategy> ruleDiscounts = ruleSet.getApplicableDiscounts(billDto);
+    List<DiscountStrategy> promotions = promotionService.getApplicableDiscounts(billDto,
+        Instant.now());
+    if (promotions.isEmpty() && additionalDiscounts.isEmpty()) {
+      return applyDiscounts(billDto, ruleDiscounts);
+    }
+    List<DiscountStrategy> discounts = new ArrayList<>(
+        promotions.size() + ruleDiscounts.size() + additionalDiscounts.size());
+    discounts.addAll(promotions);
+    discounts.addAll(ruleDiscounts);
+    discounts.addAll(additionalDiscounts);
+    discounts.sort(Comparator.comparingInt(DiscountStrategy::getOrder));
+    return applyDiscounts(billDto, discounts);
+  }
+
+  /**
+   * Applies the discounts of the given rule set to the bill, e.g. to price a bill with candidate
+   * rules that are not in use. Promotions are not applied.
+   *
+   * @param billDto Bill details for which discount is to be calculated.
+   * @param ruleSet The rule set to price the bill with.
+   * @return Updated BillDto object after applying the discounts.
+   */
+  public BillDto applyDiscount(BillDto billDto, DiscountRuleSet ruleSet) {
+    return applyDiscount(billDto, ruleSet, List.of());
+  }
 
-    List<DiscountStrategy> applicableDiscounts
-        = discountStrategyFactory.getApplicableDiscounts(billDto);
+  /**
+   * Applies the discounts of the given rule set and the given bill specific discounts to the bill,
+   * e.g. the recorded promotions and coupon of a stored bill re-priced with candidate rules. All of
+   * them are applied by their order. Promotions are not looked up.
+   *
+   * @param billDto             Bill details for which discount is to be calculated.
+   * @param ruleSet             The rule set to price the bill with.
+   * @param additionalDiscounts Discounts to apply among the rule discounts, before rule discounts
+   *                            of the same order.
+   * @return Updated BillDto object after applying the discounts.
+   */
+  public BillDto applyDiscount(BillDto billDto, DiscountRuleSet ruleSet,
+      List<DiscountStrategy> additionalDiscounts) {
+    billDto.setRuleSetVersion(ruleSet.getVersion());
+    List<DiscountStrategy> ruleDiscounts = ruleSet.getApplicableDiscounts(billDto);
+    if (additionalDiscounts.isEmpty()) {
+      return applyDiscounts(billDto, ruleDiscounts);
+    }
+    List<DiscountStrategy> discounts = new ArrayList<>(
+        additionalDiscounts.size() + ruleDiscounts.size());
+    discounts.addAll(additionalDiscounts);
+    discounts.addAll(ruleDiscounts);
+    discounts.sort(Comparator.comparingInt(DiscountStrategy::getOrder));
+    return applyDiscounts(billDto, discounts);
+  }
 
-    applicableDiscounts.stream()
-        .map(discountStrategy -> discountStrategy.calculateDiscount(billDto))
-        .forEach(discountResult -> {
-          if (discountResult.discountAmount().compareTo(BigDecimal.ZERO) > 0) {
-            billDto.addDiscount(discountResult.discountAmount());
-            billDto.getAppliedDiscounts().add(discountResult.discountDescription());
-          }
-        });
+  /**
+   * Returns the spend band of the user in the rule set in use, see DiscountRuleSet.getSpendBand.
+   *
+   * @param user The user to check.
+   * @return The spend band of the user.
+   */
+  public int getSpendBand(UserDto user) {
+    return discountStrategyFactory.getRuleSet().getSpendBand(user);
+  }
+
+  private BillDto applyDiscounts(BillDto billDto, List<DiscountStrategy> applicableDiscounts) {
+    var context = PricingContext.of(billDto);
+    var results = new DiscountResult[applicableDiscounts.size()];
+    evaluateSubtotalDiscounts(context, applicableDiscounts, results);
+
+    var netAmount = context.getNetAmount();
+    for (int i = 0; i < results.length; i++) {
+      if (results[i] == null) {
+        results[i] = applicableDiscounts.get(i)
+            .calculateDiscount(context.withNetAmount(netAmount));
+      }
+      if (results[i].discountAmount().compareTo(netAmount) > 0) {
+        results[i] = new DiscountResult(netAmount, results[i].code(), results[i].basisPoints());
+      }
+      if (results[i].discountAmount().isPositive()) {
+        netAmount = netAmount.minus(results[i].discountAmount());
+      }
+    }
 
+    for (DiscountResult discountResult : results) {
+      if (discountResult.discountAmount().isPositive()) {
+        billDto.addDiscount(discountResult.discountAmount());
+        billDto.getDiscounts().add(AppliedDiscountDto.builder()
+            .code(discountResult.code())
+            .basisPoints(discountResult.basisPoints())
+            .amount(discountResult.discountAmount())
+            .build());
+      }
+    }
     return billDto;
   }
 
+  /**
+   * Evaluates the subtotal based strategies into their slots of the results, concurrently if there
+   * are enough of them. Net based strategies are left for the sequential pass.
+   */
+  private void evaluateSubtotalDiscounts(PricingContext context,
+      List<DiscountStrategy> discounts, DiscountResult[] results) {
+    int[] indexes = IntStream.range(0, discounts.size())
+        .filter(i -> discounts.get(i).getBasis() == DiscountBasis.SUBTOTAL)
+        .toArray();
+    var stream = IntStream.of(indexes);
+    if (indexes.length >= parallelThreshold) {
+      stream = stream.parallel();
+    }
+    stream.forEach(i -> results[i] = discounts.get(i).calculateDiscount(context));
+  }
+
 }
@@ -1,19 +1,49 @@
 package com.ahmeric.store.service.discount;
 
+import com.ahmeric.store.model.PricingContext;
 import com.ahmeric.store.model.dto.BillDto;
 import com.ahmeric.store.model.dto.DiscountResult;
 import org.springframework.core.Ordered;
 
 /**
- * Interface for all discount strategies.
+ * Interface for all discount strategies. Strategies must not modify the context they read, so that
+ * independent strategies can be evaluated concurrently.
  */
 public interface DiscountStrategy extends Ordered {
 
   /**
    * Calculate discount based on the strategy.
    *
+   * @param context Immutable pricing context of the bill.
+   * @return DiscountResult object containing discount amount and what it was calculated from.
+   */
+  DiscountResult calculateDiscount(PricingContext context);
+
+  /**
+   * Calculate discount based on the strategy for a bill without other discounts applied.
+   *
    * @param billDto Bill details for which discount is to be calculated.
-   * @return DiscountResult object containing discount amount and its description.
+   * @return DiscountResult object containing discount amount and what it was calculated from.
+   */
+  default DiscountResult calculateDiscount(BillDto billDto) {
+    return calculateDiscount(PricingContext.of(billDto));
+  }
+
+  /**
+   * Returns what the discount is calculated from. Strategies are NET based unless they declare
+   * that they only read the subtotals.
+   *
+   * @return The basis of the discount.
+   */
+  default DiscountBasis getBasis() {
+    return DiscountBasis.NET;
+  }
+
+  /**
+   * Checks whether the strategy applies to bills with the given profile.
+   *
+   * @param profile The discount profile of the bill.
+   * @return true if the discount is to be calculated for such bills.
    */
-  DiscountResult calculateDiscount(BillDto billDto);
+  boolean appliesTo(DiscountProfile profile);
 }
@@ -1,73 +1,124 @@
 package com.ahmeric.store.service.discount;
 
-import com.ahmeric.store.entity.UserType;
-import com.ahmeric.store.exception.ErrorRegistry;
-import com.ahmeric.store.exception.RetailStoreException;
+import com.ahmeric.store.entity.DiscountRule;
+import com.ahmeric.store.entity.LoyaltyTier;
+import com.ahmeric.store.event.DiscountRulesReloadedEvent;
+import com.ahmeric.store.model.Money;
 import com.ahmeric.store.model.dto.BillDto;
-import java.math.BigDecimal;
+import com.ahmeric.store.model.dto.UserDto;
+import com.ahmeric.store.repository.DiscountRuleRepository;
 import java.time.LocalDate;
-import java.time.temporal.ChronoUnit;
-import java.util.ArrayList;
-import java.util.Comparator;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
-import lombok.NoArgsConstructor;
-import org.springframework.core.Ordered;
+import java.util.concurrent.atomic.AtomicReference;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
 
 /**
- * Factory class for getting applicable discounts.
+ * Factory class for getting applicable discounts. Holds the discount rule set compiled from the
+ * discount_rules collection and swaps it atomically when the rules are reloaded, so a bill priced
+ * with one rule set is never mixed with another. The default rules are used while the collection
+ * is empty or has not been loaded yet.
  */
-@NoArgsConstructor
 @Component
 public class DiscountStrategyFactory {
 
+  private final Logger log = LoggerFactory.getLogger(this.getClass());
+
+  private final DiscountRuleRepository discountRuleRepository;
+  private final ApplicationEventPublisher eventPublisher;
+  private final AtomicReference<DiscountRuleSet> ruleSet;
+
+  /**
+   * Creates the factory with the default rule set.
+   *
+   * @param discountRuleRepository The repository of the discount rules.
+   * @param eventPublisher         The publisher of DiscountRulesReloadedEvent.
+   */
+  public DiscountStrategyFactory(DiscountRuleRepository discountRuleRepository,
+      ApplicationEventPublisher eventPublisher) {
+    this.discountRuleRepository = discountRuleRepository;
+    this.eventPublisher = eventPublisher;
+    this.ruleSet = new AtomicReference<>(DiscountRuleSet.compile(DefaultDiscountRules.rules()));
+  }
+
   /**
-   * Returns applicable discounts for the bill based on the user type and bill amount.
+   * Returns the current rule set. Callers pricing a bill should read it once and use it for the
+   * whole bill.
+   *
+   * @return The current DiscountRuleSet.
+   */
+  public DiscountRuleSet getRuleSet() {
+    return ruleSet.get();
+  }
+
+  /**
+   * Returns applicable discounts for the bill from the current rule set.
    *
    * @param billDto Bill details for which discount is to be calculated.
-   * @return List of applicable DiscountStrategy objects.
+   * @return Immutable list of applicable DiscountStrategy objects in order.
    */
   public List<DiscountStrategy> getApplicableDiscounts(BillDto billDto) {
-    List<DiscountStrategy> applicableDiscounts = new ArrayList<>();
-    Set<Integer> orders = new HashSet<>();
-    UserType userType = billDto.getUser().getUserType();
-    LocalDate registrationDate = billDto.getUser().getRegistrationDate();
+    return getRuleSet().getApplicableDiscounts(billDto);
+  }
 
-    // A user can get only one of the percentage based discounts on a bill.
-    if (userType == UserType.EMPLOYEE) {
-      addStrategy(applicableDiscounts, orders, new EmployeeDiscountStrategy());
-    } else if (userType == UserType.AFFILIATE) {
-      addStrategy(applicableDiscounts, orders, new AffiliateDiscountStrategy());
-    } else if (userType == UserType.CUSTOMER
-        && ChronoUnit.YEARS.between(registrationDate, LocalDate.now()) > 2) {
-      addStrategy(applicableDiscounts, orders, new LoyalCustomerDiscountStrategy());
+  /**
+   * Loads and compiles the discount rules and replaces the current rule set. Throws an exception
+   * and keeps the current rule set if the rules are invalid.
+   *
+   * @return The rule set in use after the reload.
+   */
+  public DiscountRuleSet reload() {
+    List<DiscountRule> rules = discountRuleRepository.findAll();
+    var compiled = DiscountRuleSet.compile(rules.isEmpty() ? DefaultDiscountRules.rules() : rules);
+    var previous = ruleSet.getAndSet(compiled);
+    if (!previous.getVersion().equals(compiled.getVersion())) {
+      log.info("Discount rules reloaded, version {} replaced {}", compiled.getVersion(),
+          previous.getVersion());
+      eventPublisher.publishEvent(new DiscountRulesReloadedEvent(compiled.getVersion()));
     }
+    return compiled;
+  }
 
-    // Add fixed amount discount if applicable initially
-    if (billDto.getNetAmount().compareTo(BigDecimal.valueOf(100)) >= 0) {
-      applicableDiscounts.add(new FixedAmountDiscountStrategy());
+  /**
+   * Reloads the discount rules periodically, starting at startup. A failed reload is logged and the
+   * current rule set stays in use.
+   */
+  @Scheduled(fixedDelayString = "${discount.rules.reload-interval:PT1M}")
+  public void reloadPeriodically() {
+    try {
+      reload();
+    } catch (RuntimeException e) {
+      log.error("Discount rules could not be reloaded, keeping version {}",
+          getRuleSet().getVersion(), e);
     }
-
-    applicableDiscounts.sort(Comparator.comparingInt(Ordered::getOrder));
-    return applicableDiscounts;
   }
 
   /**
-   * Adds a discount strategy to the list of applicable discounts if it does not exist already.
+   * Returns the loyalty tier stored for the user. Users not yet visited by the daily tier
+   * promotion get their tier computed from the registration date.
    *
-   * @param applicableDiscounts List of applicable discounts.
-   * @param orders              Set of existing discount orders.
-   * @param strategy            Discount strategy to be added.
+   * @param user The user to check.
+   * @return The loyalty tier of the user.
    */
-  private void addStrategy(List<DiscountStrategy> applicableDiscounts,
-      Set<Integer> orders, DiscountStrategy strategy) {
-    if (!orders.add(strategy.getOrder())) {
-      throw new RetailStoreException(ErrorRegistry.SAME_ORDER_MULTIPLE_STRATEGIES);
+  public static LoyaltyTier getLoyaltyTier(UserDto user) {
+    if (user.getLoyaltyTier() != null) {
+      return user.getLoyaltyTier();
     }
-    applicableDiscounts.add(strategy);
+    return LoyaltyTier.of(user.getUserType(), user.getRegistrationDate(), LocalDate.now());
   }
-}
 
+  /**
+   * Returns the spend of the user over the rolling window, as stored on the user document by the
+   * SpendService.
+   *
+   * @param user The user to check.
+   * @return The rolling spend, zero for users without bills in the window.
+   */
+  public static Money getRollingSpend(UserDto user) {
+    return user.getRollingSpend() == null ? Money.ZERO : Money.ofMinor(user.getRollingSpend());
+  }
+}
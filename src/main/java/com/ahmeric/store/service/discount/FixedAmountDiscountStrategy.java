@@ -1,49 +1,55 @@
 package com.ahmeric.store.service.discount;
 
-import com.ahmeric.store.model.dto.BillDto;
+import com.ahmeric.store.entity.DiscountRule;
+import com.ahmeric.store.model.Money;
+import com.ahmeric.store.model.PricingContext;
 import com.ahmeric.store.model.dto.DiscountResult;
-import java.math.BigDecimal;
+import java.math.RoundingMode;
 
 /**
- * Fixed amount discount strategy.
+ * Fixed amount discount strategy. Gives a fixed amount for every full step of the net amount.
  */
-public class FixedAmountDiscountStrategy implements DiscountStrategy {
+public class FixedAmountDiscountStrategy extends AbstractRuleDiscountStrategy {
 
-  private static final BigDecimal HUNDRED = BigDecimal.valueOf(100);
-  private static final BigDecimal FIVE = BigDecimal.valueOf(5);
+  private final Money step;
+  private final Money amountPerStep;
 
   /**
-   * Calculate discount based on the fixed amount strategy.
+   * Creates the strategy from a FIXED_AMOUNT rule.
    *
-   * @param billDto Bill details for which discount is to be calculated.
-   * @return DiscountResult object containing discount amount and its description.
+   * @param rule The discount rule.
    */
-  @Override
-  public DiscountResult calculateDiscount(BillDto billDto) {
-    var discount = billDto.getNetAmount().divideToIntegralValue(HUNDRED).multiply(FIVE);
-    return new DiscountResult(discount, getDescription(discount));
+  public FixedAmountDiscountStrategy(DiscountRule rule) {
+    super(rule);
+    this.step = Money.of(rule.getStep(), RoundingMode.HALF_UP);
+    this.amountPerStep = Money.of(rule.getAmountPerStep(), RoundingMode.HALF_UP);
   }
 
   /**
-   * Returns the order of the discount strategy.
+   * Returns the net amount for which the discount is given once. Bills below the step get no
+   * discount.
    *
-   * @return Order of the discount strategy.
+   * @return The step amount.
    */
-  @Override
-  public int getOrder() {
-    return 2;
+  public Money getStep() {
+    return step;
   }
 
   /**
-   * Gets description of the discount.
+   * Calculate discount based on the fixed amount strategy.
    *
-   * @param discount Discount amount.
-   * @return Description of the discount.
+   * @param context Immutable pricing context of the bill.
+   * @return DiscountResult object containing discount amount and code.
    */
-  private String getDescription(BigDecimal discount) {
-    return String.format("%s -  amount: %s",
-        getClass().getSimpleName(),
-        discount.toPlainString());
+  @Override
+  public DiscountResult calculateDiscount(PricingContext context) {
+    var discount = amountPerStep.times(context.getNetAmount().divideToIntegral(step));
+    return new DiscountResult(discount, getName(), null);
+  }
+
+  @Override
+  public boolean appliesTo(DiscountProfile profile) {
+    return profile.aboveThreshold() && matchesUser(profile);
   }
 
 }
@@ -0,0 +1,72 @@
+package com.ahmeric.store.service.discount;
+
+import com.ahmeric.store.entity.DiscountRule;
+import com.ahmeric.store.entity.ProductType;
+import com.ahmeric.store.model.Money;
+import com.ahmeric.store.model.PricingContext;
+import com.ahmeric.store.model.dto.DiscountResult;
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Percentage based discount strategy. Gives a percentage of the total of the items whose product
+ * type is not excluded by the rule.
+ */
+public class PercentageDiscountStrategy extends AbstractRuleDiscountStrategy {
+
+  /**
+   * Rounding of the discount amount to a whole minor unit.
+   */
+  protected static final RoundingMode ROUNDING_MODE = RoundingMode.HALF_UP;
+
+  private final long basisPoints;
+  private final ProductType[] discountableProductTypes;
+
+  /**
+   * Creates the strategy from a PERCENTAGE rule.
+   *
+   * @param rule The discount rule.
+   */
+  public PercentageDiscountStrategy(DiscountRule rule) {
+    super(rule);
+    this.basisPoints = rule.getBasisPoints();
+    List<ProductType> excluded = rule.getExcludedProductTypes() == null ? List.of()
+        : rule.getExcludedProductTypes();
+    this.discountableProductTypes = Arrays.stream(ProductType.values())
+        .filter(type -> !excluded.contains(type))
+        .toArray(ProductType[]::new);
+  }
+
+  /**
+   * Calculates the percentage of the discountable total amount.
+   *
+   * @param context Immutable pricing context of the bill.
+   * @return DiscountResult object containing discount amount, code and percentage.
+   */
+  @Override
+  public DiscountResult calculateDiscount(PricingContext context) {
+    var discount = getDiscountableTotalAmount(context).percent(basisPoints, ROUNDING_MODE);
+    return new DiscountResult(discount, getName(), basisPoints);
+  }
+
+  @Override
+  public DiscountBasis getBasis() {
+    return DiscountBasis.SUBTOTAL;
+  }
+
+  @Override
+  public boolean appliesTo(DiscountProfile profile) {
+    return matchesUser(profile);
+  }
+
+  /**
+   * Calculates the total amount that is eligible for discount from the subtotals of the bill.
+   *
+   * @param context The pricing context to calculate the discountable amount from.
+   * @return The discountable amount.
+   */
+  protected Money getDiscountableTotalAmount(PricingContext context) {
+    return context.getTotals().sumOf(discountableProductTypes);
+  }
+}
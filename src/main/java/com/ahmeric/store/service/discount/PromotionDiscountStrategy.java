@@ -0,0 +1,78 @@
+package com.ahmeric.store.service.discount;
+
+import com.ahmeric.store.entity.Promotion;
+import com.ahmeric.store.model.Money;
+import com.ahmeric.store.model.PricingContext;
+import com.ahmeric.store.model.dto.BillItemDto;
+import com.ahmeric.store.model.dto.DiscountResult;
+import java.math.RoundingMode;
+
+/**
+ * Promotion based discount strategy. Gives the percentage of the promotion off the items of the
+ * promoted product or product type. Whether the promotion is valid is decided by the promotion
+ * index, not by the strategy.
+ */
+public class PromotionDiscountStrategy implements DiscountStrategy {
+
+  private final Promotion promotion;
+
+  /**
+   * Creates the strategy from a promotion.
+   *
+   * @param promotion The promotion.
+   */
+  public PromotionDiscountStrategy(Promotion promotion) {
+    this.promotion = promotion;
+  }
+
+  public Promotion getPromotion() {
+    return promotion;
+  }
+
+  /**
+   * Calculates the percentage of the total of the promoted items.
+   *
+   * @param context Immutable pricing context of the bill.
+   * @return DiscountResult object containing discount amount, code and percentage.
+   */
+  @Override
+  public DiscountResult calculateDiscount(PricingContext context) {
+    var discount = getPromotedTotalAmount(context)
+        .percent(promotion.getBasisPoints(), RoundingMode.HALF_UP);
+    return new DiscountResult(discount, promotion.getName(), promotion.getBasisPoints());
+  }
+
+  /**
+   * Promotions apply to every user; the index only returns them for baskets holding their target.
+   *
+   * @param profile The discount profile of the bill.
+   * @return Always true.
+   */
+  @Override
+  public boolean appliesTo(DiscountProfile profile) {
+    return true;
+  }
+
+  @Override
+  public int getOrder() {
+    return promotion.getOrder();
+  }
+
+  @Override
+  public DiscountBasis getBasis() {
+    return DiscountBasis.SUBTOTAL;
+  }
+
+  private Money getPromotedTotalAmount(PricingContext context) {
+    if (promotion.getProductType() != null) {
+      return context.getTotals().subtotal(promotion.getProductType());
+    }
+    var total = Money.ZERO;
+    for (BillItemDto item : context.getItems()) {
+      if (promotion.getProductId().equals(item.getProductId())) {
+        total = total.plus(item.getLineTotal());
+      }
+    }
+    return total;
+  }
+}
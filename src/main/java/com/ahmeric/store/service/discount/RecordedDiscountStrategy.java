@@ -0,0 +1,61 @@
+package com.ahmeric.store.service.discount;
+
+import com.ahmeric.store.model.Money;
+import com.ahmeric.store.model.PricingContext;
+import com.ahmeric.store.model.dto.DiscountResult;
+
+/**
+ * Discount strategy giving the amount a discount had on a stored bill, e.g. of a promotion or a
+ * coupon, so the bill can be re-priced with other rules without evaluating the promotion or coupon
+ * again. The amount is still capped at the net amount left by the discounts ordered before it.
+ */
+public class RecordedDiscountStrategy implements DiscountStrategy {
+
+  private final DiscountResult result;
+  private final int order;
+
+  /**
+   * Creates the strategy from a discount of a stored bill.
+   *
+   * @param amount      The amount of the discount.
+   * @param code        The code of the discount.
+   * @param basisPoints The percentage of the discount in basis points, null if it had none.
+   * @param order       The order of the promotion or coupon the discount was calculated by.
+   */
+  public RecordedDiscountStrategy(Money amount, String code, Long basisPoints, int order) {
+    this.result = new DiscountResult(amount, code, basisPoints);
+    this.order = order;
+  }
+
+  /**
+   * Returns the recorded discount.
+   *
+   * @param context Immutable pricing context of the bill.
+   * @return DiscountResult object as recorded on the bill.
+   */
+  @Override
+  public DiscountResult calculateDiscount(PricingContext context) {
+    return result;
+  }
+
+  /**
+   * Recorded discounts apply to the bill they were recorded on.
+   *
+   * @param profile The discount profile of the bill.
+   * @return Always true.
+   */
+  @Override
+  public boolean appliesTo(DiscountProfile profile) {
+    return true;
+  }
+
+  @Override
+  public int getOrder() {
+    return order;
+  }
+
+  @Override
+  public DiscountBasis getBasis() {
+    return DiscountBasis.SUBTOTAL;
+  }
+}
@@ -0,0 +1,65 @@
+package com.ahmeric.store.service.discount;
+
+import com.ahmeric.store.entity.DiscountRule;
+import com.ahmeric.store.entity.SpendTier;
+import com.ahmeric.store.model.Money;
+import com.ahmeric.store.model.PricingContext;
+import com.ahmeric.store.model.dto.DiscountResult;
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Rolling spend based discount strategy. Gives the percentage of the highest tier reached by the
+ * spend of the user over the rolling window, on the items whose product type is not excluded by the
+ * rule. Users below the lowest tier get no discount.
+ */
+public class SpendTierDiscountStrategy extends PercentageDiscountStrategy {
+
+  private final long[] minimumSpends;
+  private final long[] basisPoints;
+
+  /**
+   * Creates the strategy from a SPEND_TIER rule.
+   *
+   * @param rule The discount rule.
+   */
+  public SpendTierDiscountStrategy(DiscountRule rule) {
+    super(rule);
+    List<SpendTier> tiers = rule.getSpendTiers().stream()
+        .sorted(Comparator.comparing(SpendTier::getMinimumSpend))
+        .toList();
+    this.minimumSpends = tiers.stream()
+        .mapToLong(tier -> Money.of(tier.getMinimumSpend(), RoundingMode.HALF_UP).getMinorUnits())
+        .toArray();
+    this.basisPoints = tiers.stream().mapToLong(SpendTier::getBasisPoints).toArray();
+  }
+
+  /**
+   * Returns the minimum spends of the tiers in minor units, in ascending order.
+   *
+   * @return A copy of the minimum spends.
+   */
+  long[] getMinimumSpends() {
+    return minimumSpends.clone();
+  }
+
+  /**
+   * Calculates the percentage of the tier reached by the user on the discountable total amount.
+   *
+   * @param context Immutable pricing context of the bill.
+   * @return DiscountResult object containing discount amount, code and percentage.
+   */
+  @Override
+  public DiscountResult calculateDiscount(PricingContext context) {
+    long spend = DiscountStrategyFactory.getRollingSpend(context.getUser()).getMinorUnits();
+    int index = Arrays.binarySearch(minimumSpends, spend);
+    int tier = index >= 0 ? index : -index - 2;
+    if (tier < 0) {
+      return new DiscountResult(Money.ZERO, getName(), null);
+    }
+    var discount = getDiscountableTotalAmount(context).percent(basisPoints[tier], ROUNDING_MODE);
+    return new DiscountResult(discount, getName(), basisPoints[tier]);
+  }
+}
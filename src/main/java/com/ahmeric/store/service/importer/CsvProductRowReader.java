@@ -0,0 +1,187 @@
+package com.ahmeric.store.service.importer;
+
+import com.ahmeric.store.exception.ErrorRegistry;
+import com.ahmeric.store.exception.RetailStoreException;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Reads products from comma separated values. The header row is read when the reader is created
+ * and maps the id, name, price and type columns by name. Fields are parsed from a fixed character
+ * buffer and a record may not exceed MAX_RECORD_LENGTH characters, so an unterminated quote cannot
+ * pull the rest of the file into memory.
+ *
+ * <p>A record with an unterminated quote or of more than MAX_RECORD_LENGTH characters is returned
+ * as an unreadable row, and reading resumes on the line after the one the record starts on.</p>
+ */
+final class CsvProductRowReader implements ProductRowReader {
+
+  static final int MAX_RECORD_LENGTH = 1 << 16;
+  static final String MALFORMED_ROW = "api.error.import.malformed.csv.row";
+
+  private static final int END = -1;
+  private static final char BYTE_ORDER_MARK = '\uFEFF';
+
+  private final Reader reader;
+  private final char[] buffer = new char[8192];
+  private int position;
+  private int limit;
+  private long line = 1;
+  private String replay = "";
+  private int replayPosition;
+
+  private final List<String> fields = new ArrayList<>();
+  private final StringBuilder field = new StringBuilder();
+  private final StringBuilder record = new StringBuilder();
+  private boolean malformed;
+
+  private final int idColumn;
+  private final int nameColumn;
+  private final int priceColumn;
+  private final int typeColumn;
+
+  /**
+   * Creates the reader and reads the header row. Throws an exception if the header does not name
+   * the name, price and type columns.
+   *
+   * @param reader The characters of the file, read from the start.
+   * @throws IOException if the file cannot be read.
+   */
+  CsvProductRowReader(Reader reader) throws IOException {
+    this.reader = reader;
+    if (!readRecord() || malformed) {
+      throw new RetailStoreException(ErrorRegistry.INVALID_IMPORT_FILE);
+    }
+    List<String> header = new ArrayList<>(fields.size());
+    for (String name : fields) {
+      header.add(name.replace(String.valueOf(BYTE_ORDER_MARK), "").trim()
+          .toLowerCase(Locale.ROOT));
+    }
+    idColumn = header.indexOf("id");
+    nameColumn = header.indexOf("name");
+    priceColumn = header.indexOf("price");
+    typeColumn = header.indexOf("type");
+    if (nameColumn < 0 || priceColumn < 0 || typeColumn < 0) {
+      throw new RetailStoreException(ErrorRegistry.INVALID_IMPORT_FILE);
+    }
+  }
+
+  @Override
+  public ProductRow next() throws IOException {
+    long start;
+    do {
+      start = line;
+      if (!readRecord()) {
+        return null;
+      }
+      if (malformed) {
+        return ProductRow.unreadable(start, MALFORMED_ROW);
+      }
+    } while (fields.size() == 1 && fields.get(0).isBlank());
+    return new ProductRow(start, field(idColumn), field(nameColumn), field(priceColumn),
+        field(typeColumn), null);
+  }
+
+  private String field(int column) {
+    return column >= 0 && column < fields.size() ? fields.get(column) : null;
+  }
+
+  /**
+   * Reads the fields of the next record. Quoted fields may contain commas, line breaks and
+   * doubled quotes. A malformed record sets malformed instead of the fields.
+   *
+   * @return false at the end of the file.
+   */
+  private boolean readRecord() throws IOException {
+    fields.clear();
+    field.setLength(0);
+    record.setLength(0);
+    malformed = false;
+    long start = line;
+    int c = read();
+    if (c == END) {
+      return false;
+    }
+    boolean quoted = false;
+    while (true) {
+      if (record.length() == MAX_RECORD_LENGTH || (quoted && c == END)) {
+        skipRecord(start, c);
+        return true;
+      }
+      if (c != END) {
+        record.append((char) c);
+      }
+      if (quoted) {
+        if (c == '"') {
+          c = read();
+          if (c != '"') {
+            quoted = false;
+            continue;
+          }
+          record.append((char) c);
+        } else if (c == '\n') {
+          line++;
+        }
+        field.append((char) c);
+      } else if (c == END || c == '\n') {
+        fields.add(field.toString());
+        if (c == '\n') {
+          line++;
+        }
+        return true;
+      } else if (c == ',') {
+        fields.add(field.toString());
+        field.setLength(0);
+      } else if (c == '"' && field.isEmpty()) {
+        quoted = true;
+      } else if (c != '\r') {
+        field.append((char) c);
+      }
+      c = read();
+    }
+  }
+
+  /**
+   * Marks the record as malformed and moves to the line after the one it starts on. Characters
+   * read after the first line break of the record, including the unconsumed character c, are read
+   * again.
+   */
+  private void skipRecord(long start, int c) throws IOException {
+    malformed = true;
+    fields.clear();
+    line = start + 1;
+    int lineBreak = record.indexOf("\n");
+    if (lineBreak >= 0) {
+      replay = record.substring(lineBreak + 1) + (c == END ? "" : String.valueOf((char) c))
+          + replay.substring(replayPosition);
+      replayPosition = 0;
+      return;
+    }
+    while (c != END && c != '\n') {
+      c = read();
+    }
+  }
+
+  private int read() throws IOException {
+    if (replayPosition < replay.length()) {
+      return replay.charAt(replayPosition++);
+    }
+    if (position == limit) {
+      limit = reader.read(buffer, 0, buffer.length);
+      position = 0;
+      if (limit <= 0) {
+        limit = 0;
+        return END;
+      }
+    }
+    return buffer[position++];
+  }
+
+  @Override
+  public void close() throws IOException {
+    reader.close();
+  }
+}
@@ -0,0 +1,105 @@
+package com.ahmeric.store.service.importer;
+
+import com.ahmeric.store.exception.ErrorRegistry;
+import com.ahmeric.store.exception.RetailStoreException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+
+/**
+ * Formats of product import files.
+ */
+public enum ImportFormat {
+
+  /**
+   * Comma separated values with a header row naming the id, name, price and type columns. The id
+   * column is optional, other columns are ignored. Fields may be quoted as in RFC 4180.
+   */
+  CSV("text/csv", ".csv") {
+    @Override
+    ProductRowReader open(InputStream in, ObjectMapper objectMapper) throws IOException {
+      return new CsvProductRowReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+    }
+  },
+  /**
+   * Newline delimited JSON, one object with id, name, price and type fields per line.
+   */
+  NDJSON("application/x-ndjson", ".ndjson", ".jsonl") {
+    @Override
+    ProductRowReader open(InputStream in, ObjectMapper objectMapper) {
+      return new NdjsonProductRowReader(new InputStreamReader(in, StandardCharsets.UTF_8),
+          objectMapper);
+    }
+  };
+
+  private final MediaType mediaType;
+  private final String[] extensions;
+
+  ImportFormat(String mediaType, String... extensions) {
+    this.mediaType = MediaType.parseMediaType(mediaType);
+    this.extensions = extensions;
+  }
+
+  abstract ProductRowReader open(InputStream in, ObjectMapper objectMapper) throws IOException;
+
+  /**
+   * Returns the format of a request body. Throws an exception if the content type is not one of
+   * the formats, or names a charset other than UTF-8 or its subset US-ASCII, since files are read
+   * as UTF-8.
+   *
+   * @param contentType The Content-Type header of the request.
+   * @return The format.
+   */
+  public static ImportFormat fromContentType(String contentType) {
+    try {
+      var requested = MediaType.parseMediaType(contentType);
+      for (ImportFormat format : values()) {
+        if (format.mediaType.includes(requested)) {
+          checkCharset(requested);
+          return format;
+        }
+      }
+    } catch (InvalidMediaTypeException e) {
+      // rejected below like any other unsupported content type
+    }
+    throw new RetailStoreException(ErrorRegistry.INVALID_IMPORT_FILE);
+  }
+
+  private static void checkCharset(MediaType requested) {
+    Charset charset;
+    try {
+      charset = requested.getCharset();
+    } catch (IllegalArgumentException e) {
+      throw new RetailStoreException(ErrorRegistry.UNSUPPORTED_IMPORT_CHARSET);
+    }
+    if (charset != null && !charset.equals(StandardCharsets.UTF_8)
+        && !charset.equals(StandardCharsets.US_ASCII)) {
+      throw new RetailStoreException(ErrorRegistry.UNSUPPORTED_IMPORT_CHARSET);
+    }
+  }
+
+  /**
+   * Returns the format of a file by its extension. Throws an exception if the extension is not one
+   * of the formats.
+   *
+   * @param fileName The name of the file.
+   * @return The format.
+   */
+  public static ImportFormat fromFileName(String fileName) {
+    var name = fileName.toLowerCase(Locale.ROOT);
+    for (ImportFormat format : values()) {
+      for (String extension : format.extensions) {
+        if (name.endsWith(extension)) {
+          return format;
+        }
+      }
+    }
+    throw new RetailStoreException(ErrorRegistry.INVALID_IMPORT_FILE);
+  }
+}
@@ -0,0 +1,86 @@
+package com.ahmeric.store.service.importer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+
+/**
+ * Reads a local file through memory-mapped windows of at most windowSize bytes, mapped one after
+ * the other. Pages are read by the operating system as the windows are consumed instead of being
+ * copied through a heap buffer, and files larger than 2 GB can be read although a single mapping is
+ * limited to that size. Windows are unmapped once they are garbage collected.
+ */
+final class MappedFileInputStream extends InputStream {
+
+  static final int DEFAULT_WINDOW_SIZE = 64 << 20;
+
+  private final FileChannel channel;
+  private final long size;
+  private final int windowSize;
+  private long mapped;
+  private MappedByteBuffer window;
+
+  MappedFileInputStream(Path file) throws IOException {
+    this(file, DEFAULT_WINDOW_SIZE);
+  }
+
+  MappedFileInputStream(Path file, int windowSize) throws IOException {
+    this.channel = FileChannel.open(file, StandardOpenOption.READ);
+    this.size = channel.size();
+    this.windowSize = windowSize;
+  }
+
+  @Override
+  public int read() throws IOException {
+    return nextWindow() ? window.get() & 0xff : -1;
+  }
+
+  @Override
+  public int read(byte[] bytes, int offset, int length) throws IOException {
+    Objects.checkFromIndexSize(offset, length, bytes.length);
+    if (length == 0) {
+      return 0;
+    }
+    if (!nextWindow()) {
+      return -1;
+    }
+    int count = Math.min(length, window.remaining());
+    window.get(bytes, offset, count);
+    return count;
+  }
+
+  @Override
+  public int available() {
+    long remaining = size - mapped + (window == null ? 0 : window.remaining());
+    return (int) Math.min(remaining, Integer.MAX_VALUE);
+  }
+
+  /**
+   * Maps the next window once the current one is consumed.
+   *
+   * @return false at the end of the file.
+   */
+  private boolean nextWindow() throws IOException {
+    if (window != null && window.hasRemaining()) {
+      return true;
+    }
+    if (mapped >= size) {
+      return false;
+    }
+    long length = Math.min(windowSize, size - mapped);
+    window = channel.map(MapMode.READ_ONLY, mapped, length);
+    mapped += length;
+    return true;
+  }
+
+  @Override
+  public void close() throws IOException {
+    window = null;
+    channel.close();
+  }
+}
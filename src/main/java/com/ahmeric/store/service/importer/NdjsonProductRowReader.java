@@ -0,0 +1,63 @@
+package com.ahmeric.store.service.importer;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Reads products from newline delimited JSON, one object per line. Blank lines are skipped and a
+ * line that is not a JSON object is returned as an unreadable row, so the rows after it are still
+ * imported.
+ */
+final class NdjsonProductRowReader implements ProductRowReader {
+
+  static final String MALFORMED_ROW = "api.error.import.malformed.row";
+
+  private final BufferedReader reader;
+  private final ObjectMapper objectMapper;
+  private long line;
+
+  NdjsonProductRowReader(Reader reader, ObjectMapper objectMapper) {
+    this.reader = new BufferedReader(reader);
+    this.objectMapper = objectMapper;
+  }
+
+  @Override
+  public ProductRow next() throws IOException {
+    String text;
+    do {
+      text = reader.readLine();
+      if (text == null) {
+        return null;
+      }
+      line++;
+    } while (text.isBlank());
+    JsonNode node;
+    try {
+      node = objectMapper.readTree(text);
+    } catch (JsonProcessingException e) {
+      return ProductRow.unreadable(line, MALFORMED_ROW);
+    }
+    if (!node.isObject()) {
+      return ProductRow.unreadable(line, MALFORMED_ROW);
+    }
+    return new ProductRow(line, text(node, "id"), text(node, "name"), text(node, "price"),
+        text(node, "type"), null);
+  }
+
+  private static String text(JsonNode node, String field) {
+    var value = node.get(field);
+    if (value == null || value.isNull()) {
+      return null;
+    }
+    return value.isNumber() ? value.decimalValue().toPlainString() : value.asText();
+  }
+
+  @Override
+  public void close() throws IOException {
+    reader.close();
+  }
+}
@@ -0,0 +1,49 @@
+package com.ahmeric.store.service.importer;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+/**
+ * Command line job importing the products of a local file at startup, then exiting, e.g.
+ * {@code java -jar retail-store.jar --product.import.file=products.csv
+ * --spring.main.web-application-type=none}. The exit code is 0 if every row was imported and 2 if
+ * some rows were rejected. The rejected rows are logged.
+ */
+@Component
+@ConditionalOnProperty("product.import.file")
+@RequiredArgsConstructor
+public class ProductImportRunner implements ApplicationRunner {
+
+  private static final int ROWS_REJECTED = 2;
+
+  private final Logger log = LoggerFactory.getLogger(this.getClass());
+
+  private final ProductImportService productImportService;
+  private final ConfigurableApplicationContext applicationContext;
+
+  @Value("${product.import.file}")
+  private String file;
+
+  @Override
+  public void run(ApplicationArguments args) throws IOException {
+    var result = productImportService.importFile(Path.of(file));
+    result.getErrors().forEach(error -> log.warn("Line {} of {} was not imported: {}",
+        error.getLine(), file, error.getMessage()));
+    if (result.getFailed() > result.getErrors().size()) {
+      log.warn("{} more rejected rows were not reported",
+          result.getFailed() - result.getErrors().size());
+    }
+    int exitCode = result.getFailed() == 0 ? 0 : ROWS_REJECTED;
+    System.exit(SpringApplication.exit(applicationContext, () -> exitCode));
+  }
+}
@@ -0,0 +1,239 @@
+package com.ahmeric.store.service.importer;
+
+import com.ahmeric.store.entity.Product;
+import com.ahmeric.store.entity.ProductType;
+import com.ahmeric.store.event.ProductsImportedEvent;
+import com.ahmeric.store.model.dto.ProductImportError;
+import com.ahmeric.store.model.dto.ProductImportResult;
+import com.ahmeric.store.model.request.ProductRequest;
+import com.ahmeric.store.service.CatalogVersionService;
+import com.ahmeric.store.utils.MessageUtils;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service class for bulk imports of products from CSV or newline delimited JSON, e.g. the catalog
+ * of a new supplier. Rows are parsed one at a time, validated with the rules of ProductRequest and
+ * written in unordered bulk upserts of batchSize products, so an import holds one batch in memory
+ * however large the file is. Rows with an ID replace the product with that ID or create it, rows
+ * without one create a new product. Each batch is written with its own catalog version, completed
+ * once the bulk write returns.
+ *
+ * <p>A rejected row does not stop the import. The result counts all of them and reports the first
+ * maxErrors with their line and message.</p>
+ */
+@Service
+public class ProductImportService {
+
+  static final String INVALID_ID = "api.error.import.invalid.id";
+  static final String INVALID_PRICE = "api.error.import.invalid.price";
+  static final String INVALID_TYPE = "api.error.import.invalid.type";
+  static final String NOT_SAVED = "api.error.import.not.saved";
+
+  private final Logger log = LoggerFactory.getLogger(this.getClass());
+
+  private final MongoTemplate mongoTemplate;
+  private final ObjectMapper objectMapper;
+  private final Validator validator;
+  private final CatalogVersionService catalogVersionService;
+  private final ApplicationEventPublisher eventPublisher;
+  private final MessageUtils messageUtils;
+  private final int batchSize;
+  private final int maxErrors;
+
+  /**
+   * Creates the service.
+   *
+   * @param mongoTemplate         The MongoTemplate used to write the products.
+   * @param objectMapper          The ObjectMapper used to parse JSON rows.
+   * @param validator             The Validator checking the rows against ProductRequest.
+   * @param catalogVersionService The CatalogVersionService versioning each written batch.
+   * @param eventPublisher        The publisher of a ProductsImportedEvent per written batch.
+   * @param messageUtils          The MessageUtils resolving the messages of rejected rows.
+   * @param batchSize             Number of products written by one bulk write.
+   * @param maxErrors             Maximum number of rejected rows reported in the result.
+   */
+  public ProductImportService(MongoTemplate mongoTemplate, ObjectMapper objectMapper,
+      Validator validator, CatalogVersionService catalogVersionService,
+      ApplicationEventPublisher eventPublisher, MessageUtils messageUtils,
+      @Value("${product.import.batch-size:1000}") int batchSize,
+      @Value("${product.import.max-errors:1000}") int maxErrors) {
+    this.mongoTemplate = mongoTemplate;
+    this.objectMapper = objectMapper;
+    this.validator = validator;
+    this.catalogVersionService = catalogVersionService;
+    this.eventPublisher = eventPublisher;
+    this.messageUtils = messageUtils;
+    this.batchSize = batchSize;
+    this.maxErrors = maxErrors;
+  }
+
+  /**
+   * Imports the products of a local file through memory-mapped I/O. The format is taken from the
+   * file extension, .csv for CSV and .ndjson or .jsonl for newline delimited JSON.
+   *
+   * @param file The file to import.
+   * @return The numbers of rows read, imported and rejected, and the rejected rows.
+   * @throws IOException if the file cannot be read.
+   */
+  public ProductImportResult importFile(Path file) throws IOException {
+    var format = ImportFormat.fromFileName(file.getFileName().toString());
+    try (InputStream in = new MappedFileInputStream(file)) {
+      return importProducts(in, format);
+    }
+  }
+
+  /**
+   * Imports the products read from the stream. Throws an exception if the stream is not in the
+   * format, e.g. a CSV header without the name, price or type column.
+   *
+   * @param in     The stream to import, closed once it is read.
+   * @param format The format of the stream.
+   * @return The numbers of rows read, imported and rejected, and the rejected rows.
+   * @throws IOException if the stream cannot be read.
+   */
+  public ProductImportResult importProducts(InputStream in, ImportFormat format)
+      throws IOException {
+    var result = new ProductImportResult();
+    List<Product> products = new ArrayList<>(batchSize);
+    List<ProductRow> rows = new ArrayList<>(batchSize);
+    try (ProductRowReader reader = format.open(in, objectMapper)) {
+      ProductRow row;
+      while ((row = reader.next()) != null) {
+        result.setRows(result.getRows() + 1);
+        var product = toProduct(row, result);
+        if (product != null) {
+          products.add(product);
+          rows.add(row);
+          if (products.size() == batchSize) {
+            write(products, rows, result);
+          }
+        }
+      }
+    }
+    write(products, rows, result);
+    log.info("Product import finished: {} rows read, {} imported, {} rejected",
+        result.getRows(), result.getImported(), result.getFailed());
+    return result;
+  }
+
+  /**
+   * Parses and validates a row.
+   *
+   * @return The product to write, or null if the row is rejected.
+   */
+  private Product toProduct(ProductRow row, ProductImportResult result) {
+    if (row.error() != null) {
+      return reject(result, row, messageUtils.getMessage(row.error()));
+    }
+    var id = trimToNull(row.id());
+    if (id != null && !ObjectId.isValid(id)) {
+      return reject(result, row, messageUtils.getMessage(INVALID_ID));
+    }
+    var request = ProductRequest.builder().name(trimToNull(row.name()));
+    var price = trimToNull(row.price());
+    if (price != null) {
+      try {
+        request.price(new BigDecimal(price));
+      } catch (NumberFormatException e) {
+        return reject(result, row, messageUtils.getMessage(INVALID_PRICE));
+      }
+    }
+    var type = trimToNull(row.type());
+    if (type != null) {
+      try {
+        request.type(ProductType.valueOf(type.toUpperCase(Locale.ROOT)));
+      } catch (IllegalArgumentException e) {
+        return reject(result, row, messageUtils.getMessage(INVALID_TYPE));
+      }
+    }
+    var productRequest = request.build();
+    var violations = validator.validate(productRequest);
+    if (!violations.isEmpty()) {
+      return reject(result, row, violations.stream()
+          .map(ConstraintViolation::getMessage)
+          .sorted()
+          .collect(Collectors.joining(" ")));
+    }
+    return Product.builder()
+        .id(id != null ? id : new ObjectId().toHexString())
+        .name(productRequest.getName())
+        .price(productRequest.getPrice())
+        .type(productRequest.getType())
+        .build();
+  }
+
+  private static String trimToNull(String value) {
+    if (value == null) {
+      return null;
+    }
+    var trimmed = value.trim();
+    return trimmed.isEmpty() ? null : trimmed;
+  }
+
+  private Product reject(ProductImportResult result, ProductRow row, String message) {
+    result.setFailed(result.getFailed() + 1);
+    if (result.getErrors().size() < maxErrors) {
+      result.getErrors().add(new ProductImportError(row.line(), trimToNull(row.id()), message));
+    }
+    return null;
+  }
+
+  /**
+   * Upserts a batch with one unordered bulk write. The products of failed writes are rejected,
+   * the others are written.
+   */
+  private void write(List<Product> products, List<ProductRow> rows, ProductImportResult result) {
+    if (products.isEmpty()) {
+      return;
+    }
+    long version = catalogVersionService.next();
+    var bulk = mongoTemplate.bulkOps(BulkMode.UNORDERED, Product.class);
+    for (Product product : products) {
+      product.setVersion(version);
+      bulk.replaceOne(new Query(Criteria.where("_id").is(product.getId())), product,
+          FindAndReplaceOptions.options().upsert());
+    }
+    int written = products.size();
+    try {
+      bulk.execute();
+    } catch (BulkOperationException exception) {
+      for (var error : exception.getErrors()) {
+        reject(result, rows.get(error.getIndex()),
+            messageUtils.getMessage(NOT_SAVED) + " " + error.getMessage());
+        written--;
+      }
+    } finally {
+      catalogVersionService.complete(version);
+    }
+    result.setImported(result.getImported() + written);
+    products.clear();
+    rows.clear();
+    if (written > 0) {
+      eventPublisher.publishEvent(new ProductsImportedEvent(written));
+    }
+    log.info("Product import in progress: {} rows read, {} imported, {} rejected",
+        result.getRows(), result.getImported(), result.getFailed());
+  }
+}
@@ -0,0 +1,18 @@
+package com.ahmeric.store.service.importer;
+
+/**
+ * Raw values of one row of an import file, before they are parsed and validated.
+ *
+ * @param line  the line of the file the row starts on.
+ * @param id    the product ID, or null.
+ * @param name  the product name, or null.
+ * @param price the product price, or null.
+ * @param type  the product type, or null.
+ * @param error the message key of the error if the row could not be read, otherwise null.
+ */
+record ProductRow(long line, String id, String name, String price, String type, String error) {
+
+  static ProductRow unreadable(long line, String error) {
+    return new ProductRow(line, null, null, null, null, error);
+  }
+}
@@ -0,0 +1,18 @@
+package com.ahmeric.store.service.importer;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Reads the rows of an import file one at a time, so only the current row is held in memory.
+ */
+interface ProductRowReader extends Closeable {
+
+  /**
+   * Reads the next row.
+   *
+   * @return The row, or null at the end of the file.
+   * @throws IOException if the file cannot be read.
+   */
+  ProductRow next() throws IOException;
+}
@@ -0,0 +1,86 @@
+package com.ahmeric.store.service.promotion;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+/**
+ * Immutable interval tree over half-open intervals [start, end). The intervals are sorted by start
+ * and the sorted array is used as an implicit balanced binary search tree, where every node also
+ * holds the largest end of its subtree. Finding the intervals containing a point takes
+ * O(log n + k) for k matches.
+ *
+ * @param <T> the type of the values the intervals belong to.
+ */
+final class IntervalTree<T> {
+
+  private final long[] starts;
+  private final long[] ends;
+  private final long[] maxEnds;
+  private final List<T> values;
+
+  /**
+   * Builds the tree.
+   *
+   * @param values The values to index.
+   * @param start  Returns the inclusive start of the interval of a value.
+   * @param end    Returns the exclusive end of the interval of a value.
+   */
+  IntervalTree(List<T> values, ToLongFunction<T> start, ToLongFunction<T> end) {
+    List<T> sorted = new ArrayList<>(values);
+    sorted.sort(Comparator.comparingLong(start));
+    int size = sorted.size();
+    this.values = List.copyOf(sorted);
+    this.starts = new long[size];
+    this.ends = new long[size];
+    this.maxEnds = new long[size];
+    for (int i = 0; i < size; i++) {
+      starts[i] = start.applyAsLong(sorted.get(i));
+      ends[i] = end.applyAsLong(sorted.get(i));
+    }
+    computeMaxEnds(0, size - 1);
+  }
+
+  int size() {
+    return values.size();
+  }
+
+  /**
+   * Adds the values whose interval contains the point to the result.
+   *
+   * @param point  The point.
+   * @param result The list to add the values to.
+   */
+  void collect(long point, List<? super T> result) {
+    collect(0, values.size() - 1, point, result);
+  }
+
+  private long computeMaxEnds(int low, int high) {
+    if (low > high) {
+      return Long.MIN_VALUE;
+    }
+    int mid = (low + high) >>> 1;
+    long maxEnd = Math.max(ends[mid],
+        Math.max(computeMaxEnds(low, mid - 1), computeMaxEnds(mid + 1, high)));
+    maxEnds[mid] = maxEnd;
+    return maxEnd;
+  }
+
+  private void collect(int low, int high, long point, List<? super T> result) {
+    if (low > high) {
+      return;
+    }
+    int mid = (low + high) >>> 1;
+    if (maxEnds[mid] <= point) {
+      return;
+    }
+    collect(low, mid - 1, point, result);
+    if (starts[mid] <= point) {
+      if (point < ends[mid]) {
+        result.add(values.get(mid));
+      }
+      collect(mid + 1, high, point, result);
+    }
+  }
+}
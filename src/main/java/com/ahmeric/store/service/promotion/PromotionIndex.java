@@ -0,0 +1,125 @@
+package com.ahmeric.store.service.promotion;
+
+import com.ahmeric.store.entity.ProductType;
+import com.ahmeric.store.entity.Promotion;
+import com.ahmeric.store.model.dto.BillDto;
+import com.ahmeric.store.model.dto.BillItemDto;
+import com.ahmeric.store.service.discount.DiscountStrategy;
+import com.ahmeric.store.service.discount.PromotionDiscountStrategy;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Immutable index of promotions by target. Holds one interval tree over the validity windows per
+ * promoted product and per promoted product type, so the promotions active for a basket are found
+ * with one logarithmic lookup per distinct product and product type of the basket.
+ */
+final class PromotionIndex {
+
+  static final PromotionIndex EMPTY = of(List.of());
+
+  private final List<Promotion> promotions;
+  private final long[] changes;
+  private final Map<String, IntervalTree<PromotionDiscountStrategy>> byProductId;
+  private final IntervalTree<PromotionDiscountStrategy>[] byProductType;
+
+  @SuppressWarnings("unchecked")
+  private PromotionIndex(List<Promotion> promotions) {
+    this.promotions = List.copyOf(promotions);
+    this.changes = promotions.stream()
+        .flatMap(promotion -> Stream.of(promotion.getValidFrom(), promotion.getValidUntil()))
+        .mapToLong(Instant::toEpochMilli)
+        .distinct()
+        .sorted()
+        .toArray();
+    List<PromotionDiscountStrategy> strategies = promotions.stream()
+        .map(PromotionDiscountStrategy::new)
+        .toList();
+    this.byProductId = strategies.stream()
+        .filter(strategy -> strategy.getPromotion().getProductId() != null)
+        .collect(Collectors.groupingBy(strategy -> strategy.getPromotion().getProductId(),
+            Collectors.collectingAndThen(Collectors.toList(), PromotionIndex::toTree)));
+    Map<ProductType, List<PromotionDiscountStrategy>> typeStrategies = strategies.stream()
+        .filter(strategy -> strategy.getPromotion().getProductType() != null)
+        .collect(Collectors.groupingBy(strategy -> strategy.getPromotion().getProductType()));
+    ProductType[] productTypes = ProductType.values();
+    this.byProductType = new IntervalTree[productTypes.length];
+    for (ProductType productType : productTypes) {
+      byProductType[productType.ordinal()] = toTree(
+          typeStrategies.getOrDefault(productType, List.of()));
+    }
+  }
+
+  /**
+   * Builds the index of the promotions.
+   *
+   * @param promotions Promotions targeting either a product or a product type.
+   * @return The index.
+   */
+  static PromotionIndex of(List<Promotion> promotions) {
+    return new PromotionIndex(promotions);
+  }
+
+  List<Promotion> getPromotions() {
+    return promotions;
+  }
+
+  /**
+   * Returns the promotions active at the instant for the products of the bill, as discount
+   * strategies sorted by order.
+   *
+   * @param billDto The bill holding the items.
+   * @param now     The instant to check the validity windows at.
+   * @return The active promotions in order.
+   */
+  List<DiscountStrategy> findActive(BillDto billDto, Instant now) {
+    if (promotions.isEmpty()) {
+      return List.of();
+    }
+    long point = now.toEpochMilli();
+    List<DiscountStrategy> active = new ArrayList<>();
+    Set<String> productIds = new HashSet<>();
+    boolean[] productTypes = new boolean[byProductType.length];
+    for (BillItemDto item : billDto.getItems()) {
+      var tree = byProductId.get(item.getProductId());
+      if (tree != null && productIds.add(item.getProductId())) {
+        tree.collect(point, active);
+      }
+      int type = item.getType().ordinal();
+      if (!productTypes[type]) {
+        productTypes[type] = true;
+        byProductType[type].collect(point, active);
+      }
+    }
+    active.sort(Comparator.comparingInt(DiscountStrategy::getOrder));
+    return active;
+  }
+
+  /**
+   * Returns the first instant after the given one at which a promotion starts or ends, i.e. until
+   * which the active promotions of every basket stay the same.
+   *
+   * @param now The instant.
+   * @return The instant of the next change, null if no promotion starts or ends after now.
+   */
+  Instant nextChange(Instant now) {
+    int index = Arrays.binarySearch(changes, now.toEpochMilli());
+    index = index >= 0 ? index + 1 : -index - 1;
+    return index < changes.length ? Instant.ofEpochMilli(changes[index]) : null;
+  }
+
+  private static IntervalTree<PromotionDiscountStrategy> toTree(
+      List<PromotionDiscountStrategy> strategies) {
+    return new IntervalTree<>(strategies,
+        strategy -> strategy.getPromotion().getValidFrom().toEpochMilli(),
+        strategy -> strategy.getPromotion().getValidUntil().toEpochMilli());
+  }
+}
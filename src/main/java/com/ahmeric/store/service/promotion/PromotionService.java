@@ -0,0 +1,137 @@
+package com.ahmeric.store.service.promotion;
+
+import com.ahmeric.store.entity.Promotion;
+import com.ahmeric.store.event.PromotionsReloadedEvent;
+import com.ahmeric.store.exception.ErrorRegistry;
+import com.ahmeric.store.exception.RetailStoreException;
+import com.ahmeric.store.model.dto.BillDto;
+import com.ahmeric.store.model.dto.PromotionDto;
+import com.ahmeric.store.repository.PromotionRepository;
+import com.ahmeric.store.service.discount.DiscountStrategy;
+import com.ahmeric.store.utils.Mapper;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service class for time-windowed promotions. Keeps the current and upcoming promotions in an
+ * immutable index that is swapped atomically when the promotions are reloaded, so pricing a bill
+ * never waits for the database. Expired promotions are dropped from the index on reload.
+ */
+@Service
+public class PromotionService {
+
+  private final Logger log = LoggerFactory.getLogger(this.getClass());
+
+  private final PromotionRepository promotionRepository;
+  private final Mapper modelMapper;
+  private final ApplicationEventPublisher eventPublisher;
+  private final AtomicReference<PromotionIndex> index = new AtomicReference<>(
+      PromotionIndex.EMPTY);
+
+  /**
+   * Creates the service. The promotions are loaded by the first periodic reload at startup.
+   *
+   * @param promotionRepository The repository the promotions are stored in.
+   * @param modelMapper         The Mapper to convert between promotion models.
+   * @param eventPublisher      Publishes a PromotionsReloadedEvent when the promotions change.
+   */
+  public PromotionService(PromotionRepository promotionRepository, Mapper modelMapper,
+      ApplicationEventPublisher eventPublisher) {
+    this.promotionRepository = promotionRepository;
+    this.modelMapper = modelMapper;
+    this.eventPublisher = eventPublisher;
+  }
+
+  /**
+   * Creates a promotion and makes it available for pricing. Throws an exception if the promotion
+   * does not target exactly one of a product and a product type, or if its validity window is
+   * empty.
+   *
+   * @param promotionDto The promotion to be created.
+   * @return Created PromotionDto.
+   */
+  public PromotionDto createPromotion(PromotionDto promotionDto) {
+    validate(promotionDto);
+    var promotion = promotionRepository.save(modelMapper.map(promotionDto, Promotion.class));
+    reload();
+    return modelMapper.map(promotion, PromotionDto.class);
+  }
+
+  /**
+   * Returns the promotions that are valid at the given instant.
+   *
+   * @param now The instant.
+   * @return List of active PromotionDto.
+   */
+  public List<PromotionDto> getActivePromotions(Instant now) {
+    return index.get().getPromotions().stream()
+        .filter(promotion -> !promotion.getValidFrom().isAfter(now)
+            && promotion.getValidUntil().isAfter(now))
+        .map(promotion -> modelMapper.map(promotion, PromotionDto.class))
+        .toList();
+  }
+
+  /**
+   * Returns the first instant after the given one at which a loaded promotion starts or ends, so
+   * that what was priced with the promotions active now can expire when they change.
+   *
+   * @param now The instant.
+   * @return The instant of the next change, null if no loaded promotion starts or ends after now.
+   */
+  public Instant getNextChange(Instant now) {
+    return index.get().nextChange(now);
+  }
+
+  /**
+   * Returns the promotions active at the given instant for the products of the bill, as discount
+   * strategies sorted by order.
+   *
+   * @param billDto Bill details for which discount is to be calculated.
+   * @param now     The instant the bill is priced at.
+   * @return List of applicable promotion discount strategies.
+   */
+  public List<DiscountStrategy> getApplicableDiscounts(BillDto billDto, Instant now) {
+    return index.get().findActive(billDto, now);
+  }
+
+  /**
+   * Loads the current and upcoming promotions and swaps the index. Publishes a
+   * PromotionsReloadedEvent when the promotions differ from the previous index.
+   */
+  public void reload() {
+    var promotions = promotionRepository.findByValidUntilAfter(Instant.now());
+    var previous = index.getAndSet(PromotionIndex.of(promotions));
+    if (!previous.getPromotions().equals(promotions)) {
+      log.info("Loaded {} promotions", promotions.size());
+      eventPublisher.publishEvent(new PromotionsReloadedEvent(promotions.size()));
+    }
+  }
+
+  /**
+   * Reloads the promotions periodically so that promotions created by other instances are picked
+   * up and expired ones are dropped. A failed reload keeps the current index.
+   */
+  @Scheduled(fixedDelayString = "${promotion.reload-interval:PT1M}")
+  public void reloadPeriodically() {
+    try {
+      reload();
+    } catch (RuntimeException e) {
+      log.error("Could not reload the promotions, keeping the current ones", e);
+    }
+  }
+
+  private static void validate(PromotionDto promotionDto) {
+    boolean hasProductId = promotionDto.getProductId() != null;
+    boolean hasProductType = promotionDto.getProductType() != null;
+    if (hasProductId == hasProductType
+        || !promotionDto.getValidFrom().isBefore(promotionDto.getValidUntil())) {
+      throw new RetailStoreException(ErrorRegistry.INVALID_PROMOTION);
+    }
+  }
+}
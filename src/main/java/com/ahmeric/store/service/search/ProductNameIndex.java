@@ -0,0 +1,130 @@
+package com.ahmeric.store.service.search;
+
+import com.ahmeric.store.entity.ProductType;
+import com.ahmeric.store.model.dto.ProductDto;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Inverted index of product names. Names are split into lower case tokens, and the tokens are kept
+ * sorted so that all tokens starting with a prefix are one range of the map. Searches read the
+ * index without locking; writes are serialized and a product being replaced may briefly be found
+ * under its old or new name.
+ */
+class ProductNameIndex {
+
+  private static final Comparator<ProductDto> BY_NAME = Comparator.comparing(ProductDto::getName,
+      Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER)).thenComparing(ProductDto::getId);
+
+  private final Map<String, ProductDto> products = new ConcurrentHashMap<>();
+  private final NavigableMap<String, Set<String>> tokens = new ConcurrentSkipListMap<>();
+
+  /**
+   * Splits the text into lower case tokens of letters and digits.
+   *
+   * @param text The text, may be null.
+   * @return The distinct tokens, in order of appearance.
+   */
+  static List<String> tokenize(String text) {
+    if (text == null) {
+      return List.of();
+    }
+    return Arrays.stream(text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+"))
+        .filter(token -> !token.isEmpty())
+        .distinct()
+        .toList();
+  }
+
+  /**
+   * Adds the product, replacing the product with the same ID.
+   *
+   * @param product The product.
+   */
+  synchronized void put(ProductDto product) {
+    var previous = products.put(product.getId(), product);
+    if (previous != null) {
+      tokenize(previous.getName()).forEach(token -> tokens.computeIfPresent(token, (key, ids) -> {
+        ids.remove(product.getId());
+        return ids.isEmpty() ? null : ids;
+      }));
+    }
+    tokenize(product.getName()).forEach(token -> tokens.compute(token, (key, ids) -> {
+      var updated = ids == null ? ConcurrentHashMap.<String>newKeySet() : ids;
+      updated.add(product.getId());
+      return updated;
+    }));
+  }
+
+  /**
+   * Finds the products with a token starting with each token of the query, e.g. "cho mi" finds
+   * "Milk Chocolate".
+   *
+   * @param query    The search text.
+   * @param type     The product type of the products, or null for all types.
+   * @param minPrice The minimum price, inclusive, or null.
+   * @param maxPrice The maximum price, inclusive, or null.
+   * @param limit    The maximum number of products.
+   * @return The products found, sorted by name.
+   */
+  List<ProductDto> search(String query, ProductType type, BigDecimal minPrice,
+      BigDecimal maxPrice, int limit) {
+    var queryTokens = tokenize(query);
+    if (queryTokens.isEmpty()) {
+      return List.of();
+    }
+    Set<String> ids = null;
+    for (String token : queryTokens) {
+      var matches = idsWithPrefix(token);
+      if (ids == null) {
+        ids = matches;
+      } else {
+        ids.retainAll(matches);
+      }
+      if (ids.isEmpty()) {
+        return List.of();
+      }
+    }
+    List<ProductDto> found = new ArrayList<>();
+    for (String id : ids) {
+      var product = products.get(id);
+      if (product != null && matches(product, type, minPrice, maxPrice)) {
+        found.add(product);
+      }
+    }
+    found.sort(BY_NAME);
+    return found.size() > limit ? List.copyOf(found.subList(0, limit)) : found;
+  }
+
+  int size() {
+    return products.size();
+  }
+
+  private Set<String> idsWithPrefix(String prefix) {
+    Set<String> ids = new HashSet<>();
+    tokens.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values()
+        .forEach(ids::addAll);
+    return ids;
+  }
+
+  private static boolean matches(ProductDto product, ProductType type, BigDecimal minPrice,
+      BigDecimal maxPrice) {
+    if (type != null && type != product.getType()) {
+      return false;
+    }
+    var price = product.getPrice();
+    if (minPrice != null && (price == null || price.compareTo(minPrice) < 0)) {
+      return false;
+    }
+    return maxPrice == null || (price != null && price.compareTo(maxPrice) <= 0);
+  }
+}
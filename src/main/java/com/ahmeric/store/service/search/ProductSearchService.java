@@ -0,0 +1,139 @@
+package com.ahmeric.store.service.search;
+
+import com.ahmeric.store.entity.Product;
+import com.ahmeric.store.entity.ProductType;
+import com.ahmeric.store.event.ProductChangedEvent;
+import com.ahmeric.store.event.ProductsImportedEvent;
+import com.ahmeric.store.exception.ErrorRegistry;
+import com.ahmeric.store.exception.RetailStoreException;
+import com.ahmeric.store.model.dto.CursorPage;
+import com.ahmeric.store.model.dto.ProductDto;
+import com.ahmeric.store.repository.ProductRepository;
+import com.ahmeric.store.service.CatalogVersionService;
+import com.ahmeric.store.utils.Mapper;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.Stream;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service class for product search by partial name, e.g. for typeahead at the till. Searches are
+ * answered from an in-memory index of product names instead of a regex scan of the products
+ * collection. The index is built from the collection by the first periodic refresh at startup,
+ * updated with every ProductChangedEvent and ProductsImportedEvent of this instance, and picks up
+ * the products written by other instances through their catalog versions on later refreshes. The
+ * indexed version only advances to the committed catalog version, so a write stored after a later
+ * one is still picked up.
+ */
+@Service
+@RequiredArgsConstructor
+public class ProductSearchService {
+
+  private final Logger log = LoggerFactory.getLogger(this.getClass());
+
+  private final ProductRepository productRepository;
+  private final Mapper modelMapper;
+  private final CatalogVersionService catalogVersionService;
+
+  private volatile ProductNameIndex index;
+  private volatile long indexedVersion;
+
+  /**
+   * Finds the products whose name has a word starting with each word of the query. Throws an
+   * exception if the limit is not between 1 and CursorPage.MAX_LIMIT.
+   *
+   * @param query    The search text.
+   * @param type     The product type of the products, or null for all types.
+   * @param minPrice The minimum price, inclusive, or null.
+   * @param maxPrice The maximum price, inclusive, or null.
+   * @param limit    The maximum number of products.
+   * @return List of ProductDto sorted by name.
+   */
+  public List<ProductDto> search(String query, ProductType type, BigDecimal minPrice,
+      BigDecimal maxPrice, int limit) {
+    if (limit < 1 || limit > CursorPage.MAX_LIMIT) {
+      throw new RetailStoreException(ErrorRegistry.INVALID_PAGE_LIMIT);
+    }
+    if (index == null) {
+      refresh();
+    }
+    return index.search(query, type, minPrice, maxPrice, limit);
+  }
+
+  /**
+   * Updates the index with a product written by this instance. Products written before the index
+   * is built are read by the build.
+   *
+   * @param event The event holding the written product.
+   */
+  @EventListener
+  public synchronized void onProductChanged(ProductChangedEvent event) {
+    if (index != null) {
+      index.put(event.product());
+    }
+  }
+
+  /**
+   * Applies the products of an import batch to the index through their catalog version. Imports
+   * before the index is built are read by the build.
+   *
+   * @param event The event of the written batch.
+   */
+  @EventListener
+  public synchronized void onProductsImported(ProductsImportedEvent event) {
+    if (index != null) {
+      refresh();
+    }
+  }
+
+  /**
+   * Builds a new index from the products collection and swaps it in.
+   */
+  public synchronized void rebuild() {
+    var rebuilt = new ProductNameIndex();
+    long version = catalogVersionService.committed();
+    try (Stream<Product> products = productRepository.streamAllBy()) {
+      for (Product product : (Iterable<Product>) products::iterator) {
+        rebuilt.put(modelMapper.map(product, ProductDto.class));
+      }
+    }
+    index = rebuilt;
+    indexedVersion = version;
+    log.info("Indexed {} products for search", rebuilt.size());
+  }
+
+  /**
+   * Applies the products written after the last indexed catalog version, e.g. by other instances.
+   * Products above the committed version are applied again by the next refresh.
+   */
+  public synchronized void refresh() {
+    if (index == null) {
+      rebuild();
+      return;
+    }
+    long committed = catalogVersionService.committed();
+    for (Product product : productRepository.findByVersionGreaterThanOrderByVersionAsc(
+        indexedVersion)) {
+      index.put(modelMapper.map(product, ProductDto.class));
+    }
+    indexedVersion = Math.max(indexedVersion, committed);
+  }
+
+  /**
+   * Refreshes the index periodically, building it on the first run. A failed refresh keeps the
+   * current index.
+   */
+  @Scheduled(fixedDelayString = "${product.search.refresh-interval:PT1M}")
+  public void refreshPeriodically() {
+    try {
+      refresh();
+    } catch (RuntimeException e) {
+      log.error("Could not refresh the product search index, keeping the current one", e);
+    }
+  }
+}
@@ -1,12 +1,16 @@
 package com.ahmeric.store.utils;
 
+import com.ahmeric.store.model.Money;
 import com.ahmeric.store.model.dto.BillDto;
 import com.ahmeric.store.model.dto.ProductDto;
 import com.ahmeric.store.model.dto.UserDto;
 import com.ahmeric.store.model.response.BillResponse;
 import com.ahmeric.store.model.response.ProductResponse;
+import com.ahmeric.store.model.response.PromotionResponse;
 import com.ahmeric.store.model.response.UserResponse;
 import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.util.List;
 import org.modelmapper.ModelMapper;
 import org.modelmapper.TypeToken;
@@ -29,12 +33,23 @@ public class Mapper {
   }.getType();
   public static final Type USER_DTO_LIST_TYPE = new TypeToken<List<UserDto>>() {
   }.getType();
+  public static final Type PROMOTION_RESPONSE_LIST_TYPE =
+      new TypeToken<List<PromotionResponse>>() {
+      }.getType();
   public static final Type BILL_DTO_LIST_TYPE = new TypeToken<List<BillDto>>() {
   }.getType();
   private final ModelMapper modelMapper;
 
+  /**
+   * Creates the mapper. Money amounts used on the pricing path are converted to and from the
+   * BigDecimal amounts of the entities and responses.
+   */
   public Mapper() {
     this.modelMapper = new ModelMapper();
+    this.modelMapper.addConverter(context -> context.getSource() == null ? null
+        : context.getSource().toBigDecimal(), Money.class, BigDecimal.class);
+    this.modelMapper.addConverter(context -> context.getSource() == null ? null
+        : Money.of(context.getSource(), RoundingMode.HALF_UP), BigDecimal.class, Money.class);
   }
 
   /**
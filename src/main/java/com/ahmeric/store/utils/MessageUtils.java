@@ -1,5 +1,8 @@
 package com.ahmeric.store.utils;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.text.MessageFormat;
 import java.util.Locale;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.MessageSource;
@@ -12,8 +15,18 @@ import org.springframework.stereotype.Component;
 @RequiredArgsConstructor
 public class MessageUtils {
 
+  private static final int MAX_MESSAGE_FORMATS = 1000;
+
   private final MessageSource messageSource;
 
+  /**
+   * Compiled message patterns per locale and message key, so formatting a message on a hot path
+   * does not parse its pattern again. Locales come from requests, so the cache is bounded.
+   */
+  private final Cache<MessageFormatKey, MessageFormat> messageFormats = Caffeine.newBuilder()
+      .maximumSize(MAX_MESSAGE_FORMATS)
+      .build();
+
   /**
    * Retrieves a message by its key.
    *
@@ -34,5 +47,36 @@ public class MessageUtils {
   public String getMessage(String messageKey, Object[] args) {
     return messageSource.getMessage(messageKey, args, Locale.getDefault());
   }
-}
 
+  /**
+   * Retrieves a message by its key for the locale, or the default message if the key is missing.
+   *
+   * @param messageKey     The key of the message.
+   * @param defaultMessage The message returned if the key is missing.
+   * @param locale         The locale of the message.
+   * @return The message.
+   */
+  public String getMessage(String messageKey, String defaultMessage, Locale locale) {
+    return messageSource.getMessage(messageKey, null, defaultMessage, locale);
+  }
+
+  /**
+   * Formats the message of the key for the locale with the provided args. The pattern of the
+   * message is compiled once per locale and each call formats with its own copy, as MessageFormat
+   * is not thread safe.
+   *
+   * @param messageKey The key of the message.
+   * @param locale     The locale of the message.
+   * @param args       The arguments to fill in the message.
+   * @return The formatted message.
+   */
+  public String format(String messageKey, Locale locale, Object... args) {
+    var messageFormat = messageFormats.get(new MessageFormatKey(locale, messageKey),
+        key -> new MessageFormat(messageSource.getMessage(messageKey, null, locale), locale));
+    return ((MessageFormat) messageFormat.clone()).format(args);
+  }
+
+  private record MessageFormatKey(Locale locale, String messageKey) {
+
+  }
+}
@@ -2,27 +2,43 @@ package com.ahmeric.store.controller;
 
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.ahmeric.store.entity.ProductType;
 import com.ahmeric.store.entity.UserType;
+import com.ahmeric.store.exception.ErrorRegistry;
+import com.ahmeric.store.model.Money;
+import com.ahmeric.store.model.dto.AppliedDiscountDto;
+import com.ahmeric.store.model.dto.BillBatchResult;
 import com.ahmeric.store.model.dto.BillDto;
-import com.ahmeric.store.model.dto.ProductDto;
+import com.ahmeric.store.model.dto.BillItemDto;
+import com.ahmeric.store.model.dto.CursorPage;
 import com.ahmeric.store.model.dto.UserDto;
+import com.ahmeric.store.model.request.BillBatchRequest;
+import com.ahmeric.store.model.request.BillItemRequest;
 import com.ahmeric.store.model.request.BillRequest;
+import com.ahmeric.store.model.response.BillBatchResponse;
 import com.ahmeric.store.model.response.BillListResponse;
 import com.ahmeric.store.model.response.BillResponse;
 import com.ahmeric.store.service.BillService;
+import com.ahmeric.store.service.IdempotencyService;
+import com.ahmeric.store.service.discount.DiscountDescriptionRenderer;
 import com.ahmeric.store.utils.Mapper;
+import com.ahmeric.store.utils.MessageUtils;
 import java.math.BigDecimal;
 import java.util.Collections;
 import java.util.List;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -38,6 +54,15 @@ class BillControllerTest {
   @Mock
   private Mapper modelMapper;
 
+  @Mock
+  private MessageUtils messageUtils;
+
+  @Mock
+  private IdempotencyService idempotencyService;
+
+  @Mock
+  private DiscountDescriptionRenderer discountDescriptionRenderer;
+
   @InjectMocks
   private BillController controller;
 
@@ -57,22 +82,23 @@ class BillControllerTest {
         .password("password")
         .build();
 
-    ProductDto product = ProductDto.builder()
-        .id("1")
+    BillItemDto item = BillItemDto.builder()
+        .productId("1")
         .name("Product Name")
-        .price(new BigDecimal("100.00"))
+        .unitPrice(Money.ofMajor(100))
         .type(ProductType.GROCERY)
+        .quantity(1)
         .build();
 
     billDto = BillDto.builder()
         .id("1")
         .user(user)
-        .products(Collections.singletonList(product))
-        .totalAmount(new BigDecimal("100.00"))
-        .discount(new BigDecimal("10.00"))
-        .netAmount(new BigDecimal("90.00"))
-        .appliedDiscounts(Collections.singletonList("Discount 1"))
-        .productIdList(List.of("1", "2", "3"))
+        .items(Collections.singletonList(item))
+        .totalAmount(Money.ofMajor(100))
+        .discount(Money.ofMajor(10))
+        .netAmount(Money.ofMajor(90))
+        .discounts(Collections.singletonList(new AppliedDiscountDto("Discount1", null,
+            Money.ofMajor(10))))
         .build();
 
     billResponse = BillResponse.builder()
@@ -87,29 +113,96 @@ class BillControllerTest {
   void givenBillRequest_whenCreateBill_thenInvokeServiceAndReturnBillResponse() {
     when(billService.generateBillByProductIds(any(BillDto.class))).thenReturn(billDto);
     when(modelMapper.map(billDto, BillResponse.class)).thenReturn(billResponse);
+    when(discountDescriptionRenderer.render(billDto)).thenReturn(List.of("Discount 1"));
 
-    ResponseEntity<BillResponse> response = controller.createBill(billRequest);
+    ResponseEntity<BillResponse> response = controller.createBill(null, billRequest);
 
     verify(billService, times(1)).generateBillByProductIds(any(BillDto.class));
     verify(modelMapper, times(1)).map(billDto, BillResponse.class);
     assertEquals(HttpStatus.CREATED, response.getStatusCode());
     assertEquals(billResponse, response.getBody());
+    assertEquals(List.of("Discount 1"), response.getBody().getAppliedDiscounts());
+  }
+
+  @Test
+  void givenIdempotencyKey_whenCreateBill_thenReturnResponseOfIdempotencyService() {
+    when(idempotencyService.execute(eq("key"), eq(billRequest), any())).thenReturn(billResponse);
+
+    ResponseEntity<BillResponse> response = controller.createBill("key", billRequest);
+
+    verify(billService, never()).generateBillByProductIds(any(BillDto.class));
+    assertEquals(HttpStatus.CREATED, response.getStatusCode());
+    assertEquals(billResponse, response.getBody());
+  }
+
+  @Test
+  void givenBillRequestWithItems_whenCreateBill_thenPassItemsAndProductIdsToService() {
+    billRequest.setItems(List.of(new BillItemRequest("4", 3)));
+    billRequest.setProductIdLists(List.of("5"));
+    ArgumentCaptor<BillDto> captor = ArgumentCaptor.forClass(BillDto.class);
+    when(billService.generateBillByProductIds(captor.capture())).thenReturn(billDto);
+    when(modelMapper.map(billDto, BillResponse.class)).thenReturn(billResponse);
+
+    controller.createBill(null, billRequest);
+
+    List<BillItemDto> items = captor.getValue().getItems();
+    assertEquals(2, items.size());
+    assertEquals("4", items.get(0).getProductId());
+    assertEquals(3, items.get(0).getQuantity());
+    assertEquals("5", items.get(1).getProductId());
+    assertEquals(1, items.get(1).getQuantity());
+  }
+
+  @Test
+  void givenBillBatchRequest_whenCreateBills_thenReturnOutcomePerBill() {
+    var batchRequest = new BillBatchRequest();
+    batchRequest.setBills(List.of(billRequest, billRequest));
+    when(billService.generateBills(anyList())).thenReturn(List.of(
+        BillBatchResult.builder().index(0).bill(billDto).build(),
+        BillBatchResult.builder().index(1).error(ErrorRegistry.PRODUCT_NOT_FOUND).detail("3")
+            .build()));
+    when(modelMapper.map(billDto, BillResponse.class)).thenReturn(billResponse);
+    when(messageUtils.getMessage("api.error.product.not.found")).thenReturn("not found");
+
+    ResponseEntity<BillBatchResponse> response = controller.createBills(batchRequest);
+
+    BillBatchResponse body = response.getBody();
+    assertEquals(HttpStatus.OK, response.getStatusCode());
+    assertEquals(1, body.getCreated());
+    assertEquals(1, body.getFailed());
+    assertEquals(billResponse, body.getResults().get(0).getBill());
+    assertFalse(body.getResults().get(1).isCreated());
+    assertEquals("not found", body.getResults().get(1).getMessage());
+    assertEquals("3", body.getResults().get(1).getCause());
+  }
+
+  @Test
+  void givenBillRequest_whenQuoteBill_thenInvokeQuoteAndReturnOk() {
+    when(billService.quoteBill(any(BillDto.class))).thenReturn(billDto);
+    when(modelMapper.map(billDto, BillResponse.class)).thenReturn(billResponse);
+
+    ResponseEntity<BillResponse> response = controller.quoteBill(billRequest);
+
+    verify(billService, times(1)).quoteBill(any(BillDto.class));
+    verify(billService, never()).generateBillByProductIds(any(BillDto.class));
+    assertEquals(HttpStatus.OK, response.getStatusCode());
+    assertEquals(billResponse, response.getBody());
   }
 
   @Test
   void whenGetAllBills_thenInvokeServiceAndReturnListOfBillResponse() {
     List<BillDto> billDtoList = List.of(billDto);
-    when(billService.getAllBills()).thenReturn(billDtoList);
+    when(billService.getBills("bill0", 50)).thenReturn(new CursorPage<>(billDtoList, "bill1"));
     when(modelMapper.map(billDtoList, Mapper.BILL_RESPONSE_LIST_TYPE)).thenReturn(
         List.of(billResponse));
 
-    ResponseEntity<BillListResponse> response = controller.getAllBills();
+    ResponseEntity<BillListResponse> response = controller.getAllBills("bill0", 50);
 
-    verify(billService, times(1)).getAllBills();
+    verify(billService, times(1)).getBills("bill0", 50);
     verify(modelMapper, times(1)).map(billDtoList, Mapper.BILL_RESPONSE_LIST_TYPE);
     assertEquals(HttpStatus.OK, response.getStatusCode());
-    assertEquals(BillListResponse.builder().bills(List.of(billResponse)).build(),
-        response.getBody());
+    assertEquals(BillListResponse.builder().bills(List.of(billResponse)).nextCursor("bill1")
+        .build(), response.getBody());
   }
 
   @Test
@@ -1,18 +1,34 @@
 package com.ahmeric.store.controller;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.ahmeric.store.entity.ProductType;
+import com.ahmeric.store.model.dto.CatalogChanges;
+import com.ahmeric.store.model.dto.CursorPage;
+import com.ahmeric.store.model.dto.ProductImportError;
+import com.ahmeric.store.model.dto.ProductImportResult;
 import com.ahmeric.store.model.dto.ProductDto;
 import com.ahmeric.store.model.request.ProductRequest;
+import com.ahmeric.store.model.response.ProductChangesResponse;
+import com.ahmeric.store.model.response.ProductImportErrorResponse;
+import com.ahmeric.store.model.response.ProductImportResponse;
 import com.ahmeric.store.model.response.ProductListResponse;
 import com.ahmeric.store.model.response.ProductResponse;
 import com.ahmeric.store.service.ProductService;
+import com.ahmeric.store.service.importer.ImportFormat;
+import com.ahmeric.store.service.importer.ProductImportService;
+import com.ahmeric.store.service.search.ProductSearchService;
 import com.ahmeric.store.utils.Mapper;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.math.BigDecimal;
 import java.util.List;
 import org.junit.jupiter.api.BeforeEach;
@@ -21,8 +37,12 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
 
 @ExtendWith(MockitoExtension.class)
 class ProductControllerTest {
@@ -30,6 +50,12 @@ class ProductControllerTest {
   @Mock
   private ProductService productService;
 
+  @Mock
+  private ProductSearchService productSearchService;
+
+  @Mock
+  private ProductImportService productImportService;
+
   @Mock
   private Mapper modelMapper;
 
@@ -67,16 +93,76 @@ class ProductControllerTest {
   @Test
   void whenGetAllProducts_thenInvokeServiceAndReturnProductListResponse() {
     List<ProductDto> productDtoList = List.of(productDto);
-    when(productService.getAllProducts()).thenReturn(productDtoList);
+    when(productService.getProducts(null, 50)).thenReturn(new CursorPage<>(productDtoList, null));
     when(modelMapper.map(productDtoList, Mapper.PRODUCT_RESPONSE_LIST_TYPE)).thenReturn(
         List.of(productResponse));
 
-    ResponseEntity<ProductListResponse> response = controller.getAllProducts();
+    ResponseEntity<ProductListResponse> response = controller.getAllProducts(null, 50,
+        new ServletWebRequest(new MockHttpServletRequest()));
 
-    verify(productService, times(1)).getAllProducts();
+    verify(productService, times(1)).getProducts(null, 50);
     verify(modelMapper, times(1)).map(productDtoList, Mapper.PRODUCT_RESPONSE_LIST_TYPE);
     assertEquals(HttpStatus.OK, response.getStatusCode());
     assertEquals(List.of(productResponse), response.getBody().getProducts());
+    assertNull(response.getBody().getNextCursor());
+    assertEquals("\"0\"", response.getHeaders().getETag());
+  }
+
+  @Test
+  void givenCurrentETag_whenGetAllProducts_thenReturnNotModifiedWithoutReadingProducts() {
+    when(productService.getCatalogVersion()).thenReturn(7L);
+    var request = new MockHttpServletRequest("GET", "/api/v1/products");
+    request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"7\"");
+
+    ResponseEntity<ProductListResponse> response = controller.getAllProducts(null, 50,
+        new ServletWebRequest(request, new MockHttpServletResponse()));
+
+    assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+    verify(productService, never()).getProducts(any(), anyInt());
+  }
+
+  @Test
+  void givenOlderVersion_whenGetProductChanges_thenReturnChangedProducts() {
+    List<ProductDto> productDtoList = List.of(productDto);
+    when(productService.getCatalogVersion()).thenReturn(7L);
+    when(productService.getProductsChangedSince(5)).thenReturn(
+        new CatalogChanges(7, productDtoList));
+    when(modelMapper.map(productDtoList, Mapper.PRODUCT_RESPONSE_LIST_TYPE)).thenReturn(
+        List.of(productResponse));
+
+    ResponseEntity<ProductChangesResponse> response = controller.getProductChanges(5,
+        new ServletWebRequest(new MockHttpServletRequest()));
+
+    assertEquals(HttpStatus.OK, response.getStatusCode());
+    assertEquals(ProductChangesResponse.builder().version(7).products(List.of(productResponse))
+        .build(), response.getBody());
+    assertEquals("\"7\"", response.getHeaders().getETag());
+  }
+
+  @Test
+  void givenCurrentVersion_whenGetProductChanges_thenReturnNotModified() {
+    when(productService.getCatalogVersion()).thenReturn(7L);
+
+    ResponseEntity<ProductChangesResponse> response = controller.getProductChanges(7,
+        new ServletWebRequest(new MockHttpServletRequest()));
+
+    assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+    verify(productService, never()).getProductsChangedSince(anyLong());
+  }
+
+  @Test
+  void givenQuery_whenSearchProducts_thenReturnProductsFound() {
+    List<ProductDto> productDtoList = List.of(productDto);
+    when(productSearchService.search("prod", ProductType.ELECTRONICS, BigDecimal.ONE, null, 20))
+        .thenReturn(productDtoList);
+    when(modelMapper.map(productDtoList, Mapper.PRODUCT_RESPONSE_LIST_TYPE)).thenReturn(
+        List.of(productResponse));
+
+    ResponseEntity<ProductListResponse> response = controller.searchProducts("prod",
+        ProductType.ELECTRONICS, BigDecimal.ONE, null, 20);
+
+    assertEquals(HttpStatus.OK, response.getStatusCode());
+    assertEquals(List.of(productResponse), response.getBody().getProducts());
   }
 
   @Test
@@ -108,5 +194,21 @@ class ProductControllerTest {
     assertEquals(productResponse, response.getBody());
   }
 
+  @Test
+  void givenCsvBody_whenImportProducts_thenInvokeServiceAndReturnImportResponse()
+      throws IOException {
+    var body = new ByteArrayInputStream(new byte[0]);
+    when(productImportService.importProducts(body, ImportFormat.CSV)).thenReturn(
+        ProductImportResult.builder().rows(3).imported(2).failed(1)
+            .errors(List.of(new ProductImportError(4, "id", "invalid price"))).build());
+
+    ResponseEntity<ProductImportResponse> response = controller.importProducts("text/csv", body);
+
+    assertEquals(HttpStatus.OK, response.getStatusCode());
+    assertEquals(ProductImportResponse.builder().rows(3).imported(2).failed(1)
+        .errors(List.of(new ProductImportErrorResponse(4, "id", "invalid price"))).build(),
+        response.getBody());
+  }
+
 }
 
@@ -8,6 +8,7 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.ahmeric.store.entity.UserType;
+import com.ahmeric.store.model.dto.CursorPage;
 import com.ahmeric.store.model.dto.UserDto;
 import com.ahmeric.store.model.response.UserListResponse;
 import com.ahmeric.store.model.response.UserResponse;
@@ -55,27 +56,29 @@ class UserControllerTest {
   @Test
   void whenGetAllUsers_thenInvokeServiceAndReturnUserListResponse() {
     List<UserDto> userDtoList = List.of(userDto);
-    when(userService.getAllUsers()).thenReturn(userDtoList);
+    when(userService.getUsers(null, 50)).thenReturn(new CursorPage<>(userDtoList, "1"));
     when(modelMapper.map(userDtoList, Mapper.USER_RESPONSE_LIST_TYPE)).thenReturn(
         List.of(userResponse));
 
-    ResponseEntity<UserListResponse> response = controller.getAllUsers();
+    ResponseEntity<UserListResponse> response = controller.getAllUsers(null, 50);
 
-    verify(userService, times(1)).getAllUsers();
+    verify(userService, times(1)).getUsers(null, 50);
     verify(modelMapper, times(1)).map(userDtoList, Mapper.USER_RESPONSE_LIST_TYPE);
     assertEquals(HttpStatus.OK, response.getStatusCode());
     assertEquals(List.of(userResponse), Objects.requireNonNull(response.getBody()).getUsers());
+    assertEquals("1", response.getBody().getNextCursor());
   }
 
   @Test
   void whenGetAllUsers_thenReturnEmptyList() throws Exception {
-    when(userService.getAllUsers()).thenReturn(Collections.emptyList());
+    when(userService.getUsers("1", 50)).thenReturn(
+        new CursorPage<>(Collections.emptyList(), null));
     when(modelMapper.map(anyList(), eq(Mapper.USER_RESPONSE_LIST_TYPE))).thenReturn(
         Collections.emptyList());
 
-    ResponseEntity<UserListResponse> response = controller.getAllUsers();
+    ResponseEntity<UserListResponse> response = controller.getAllUsers("1", 50);
 
-    verify(userService, times(1)).getAllUsers();
+    verify(userService, times(1)).getUsers("1", 50);
     verify(modelMapper, times(1)).map(Collections.emptyList(), Mapper.USER_RESPONSE_LIST_TYPE);
     assertEquals(HttpStatus.OK, response.getStatusCode());
     assertEquals(Collections.emptyList(), Objects.requireNonNull(response.getBody()).getUsers());
@@ -2,6 +2,7 @@ package com.ahmeric.store.integration;
 
 import com.ahmeric.store.entity.UserType;
 import com.ahmeric.store.model.response.AuthenticationResponse;
+import com.ahmeric.store.model.response.BillBatchResponse;
 import com.ahmeric.store.model.response.BillListResponse;
 import com.ahmeric.store.model.response.BillResponse;
 import com.mongodb.client.MongoClient;
@@ -54,6 +55,7 @@ class BillControllerIntegrationTest {
   private MongoCollection<Document> userCollection;
   private MongoCollection<Document> productCollection;
   private MongoCollection<Document> billCollection;
+  private MongoCollection<Document> idempotencyCollection;
 
   private String token;
 
@@ -70,6 +72,7 @@ class BillControllerIntegrationTest {
     userCollection = database.getCollection("users");
     productCollection = database.getCollection("products");
     billCollection = database.getCollection("bills");
+    idempotencyCollection = database.getCollection("idempotency_keys");
 
     Document user = new Document("_id", new ObjectId())
         .append("userName", "customerUser")
@@ -108,6 +111,25 @@ class BillControllerIntegrationTest {
     userCollection.drop();
     productCollection.drop();
     billCollection.drop();
+    idempotencyCollection.drop();
+  }
+
+  @Test
+  void shouldReturnSameBill_whenRequestIsRetriedWithSameIdempotencyKey() {
+    HttpHeaders headers = getHeadersWithToken();
+    headers.set("Idempotency-Key", "retry-1");
+    HttpEntity<Map<String, Object>> entity = new HttpEntity<>(
+        Map.of("productIdLists", List.of("product1", "product2")), headers);
+
+    ResponseEntity<BillResponse> first = restTemplate.postForEntity(
+        createURLWithPort("/api/v1/bills"), entity, BillResponse.class);
+    ResponseEntity<BillResponse> retry = restTemplate.postForEntity(
+        createURLWithPort("/api/v1/bills"), entity, BillResponse.class);
+
+    Assertions.assertEquals(HttpStatus.CREATED, retry.getStatusCode());
+    Assertions.assertEquals(Objects.requireNonNull(first.getBody()).getId(),
+        Objects.requireNonNull(retry.getBody()).getId());
+    Assertions.assertEquals(1, billCollection.countDocuments());
   }
 
   @Test
@@ -118,12 +140,66 @@ class BillControllerIntegrationTest {
     Assertions.assertEquals(HttpStatus.CREATED, response.getStatusCode());
     Assertions.assertNotNull(Objects.requireNonNull(response.getBody()).getId());
     Assertions.assertEquals(UserType.CUSTOMER, response.getBody().getUserType());
-    Assertions.assertEquals(2, response.getBody().getProducts().size());
+    Assertions.assertEquals(2, response.getBody().getItems().size());
     Assertions.assertEquals(new BigDecimal("300.00"), response.getBody().getTotalAmount());
     Assertions.assertNotNull(response.getBody().getDiscount());
     Assertions.assertNotNull(response.getBody().getNetAmount());
   }
 
+  @Test
+  void shouldReturn201WithOneLinePerProduct_whenItemsWithQuantitiesAreGiven() {
+    Map<String, Object> billRequest = new HashMap<>();
+    billRequest.put("items", List.of(Map.of("productId", "product1", "quantity", 3)));
+    billRequest.put("productIdLists", List.of("product1", "product2"));
+    ResponseEntity<BillResponse> response = restTemplate.postForEntity(
+        createURLWithPort("/api/v1/bills"), new HttpEntity<>(billRequest, getHeadersWithToken()),
+        BillResponse.class);
+
+    Assertions.assertEquals(HttpStatus.CREATED, response.getStatusCode());
+    Assertions.assertEquals(2, Objects.requireNonNull(response.getBody()).getItems().size());
+    Assertions.assertEquals(4, response.getBody().getItems().get(0).getQuantity());
+    Assertions.assertEquals(new BigDecimal("600.00"), response.getBody().getTotalAmount());
+  }
+
+  @Test
+  void shouldReportOutcomePerBill_whenBatchIsGiven() {
+    Map<String, Object> batchRequest = Map.of("bills", List.of(
+        Map.of("productIdLists", List.of("product1")),
+        Map.of("productIdLists", List.of("missing")),
+        Map.of("items", List.of(Map.of("productId", "product2", "quantity", 2)))));
+    ResponseEntity<BillBatchResponse> response = restTemplate.postForEntity(
+        createURLWithPort("/api/v1/bills/batch"),
+        new HttpEntity<>(batchRequest, getHeadersWithToken()), BillBatchResponse.class);
+
+    Assertions.assertEquals(HttpStatus.OK, response.getStatusCode());
+    Assertions.assertEquals(2, Objects.requireNonNull(response.getBody()).getCreated());
+    Assertions.assertEquals(1, response.getBody().getFailed());
+    Assertions.assertFalse(response.getBody().getResults().get(1).isCreated());
+    Assertions.assertEquals("missing", response.getBody().getResults().get(1).getCause());
+    Assertions.assertEquals(2, billCollection.countDocuments());
+  }
+
+  @Test
+  void shouldReturnItems_whenLegacyBillWithRepeatedProductsIsRead() {
+    Document product = new Document("_id", "product1")
+        .append("name", "Product 1")
+        .append("price", new BigDecimal("100.00"))
+        .append("type", "CLOTHING");
+    ObjectId billId = new ObjectId();
+    billCollection.insertOne(new Document("_id", billId)
+        .append("userType", "CUSTOMER")
+        .append("products", List.of(product, product))
+        .append("totalAmount", new BigDecimal("200.00"))
+        .append("discount", BigDecimal.ZERO)
+        .append("netAmount", new BigDecimal("200.00")));
+
+    ResponseEntity<BillResponse> response = getBillById(billId.toHexString());
+
+    Assertions.assertEquals(HttpStatus.OK, response.getStatusCode());
+    Assertions.assertEquals(1, Objects.requireNonNull(response.getBody()).getItems().size());
+    Assertions.assertEquals(2, response.getBody().getItems().get(0).getQuantity());
+  }
+
   @Test
   void shouldReturn400_whenInvalidBillRequestIsGiven() {
     ResponseEntity<BillResponse> response = createBill(Collections.emptyList());
@@ -151,10 +227,10 @@ class BillControllerIntegrationTest {
         Objects.requireNonNull(createResponse.getBody()).getId());
 
     Assertions.assertEquals(HttpStatus.OK, response.getStatusCode());
-    Assertions.assertEquals(createResponse.getBody().getProducts().size(),
-        Objects.requireNonNull(response.getBody()).getProducts().size());
+    Assertions.assertEquals(createResponse.getBody().getItems().size(),
+        Objects.requireNonNull(response.getBody()).getItems().size());
     Assertions.assertEquals(UserType.CUSTOMER, response.getBody().getUserType());
-    Assertions.assertEquals(2, response.getBody().getProducts().size());
+    Assertions.assertEquals(2, response.getBody().getItems().size());
   }
 
   @Test
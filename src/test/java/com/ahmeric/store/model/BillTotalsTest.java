@@ -0,0 +1,51 @@
+package com.ahmeric.store.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import com.ahmeric.store.entity.ProductType;
+import com.ahmeric.store.model.dto.BillDto;
+import com.ahmeric.store.model.dto.BillItemDto;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class BillTotalsTest {
+
+  @Test
+  void givenItems_whenOf_thenSumLineTotalsPerProductType() {
+    var totals = BillTotals.of(List.of(
+        item(ProductType.GROCERY, 250, 4),
+        item(ProductType.ELECTRONICS, 10_000, 1),
+        item(ProductType.GROCERY, 99, 1)));
+
+    assertEquals(Money.ofMinor(11_099), totals.total());
+    assertEquals(Money.ofMinor(1_099), totals.subtotal(ProductType.GROCERY));
+    assertEquals(Money.ofMinor(10_000), totals.subtotal(ProductType.ELECTRONICS));
+    assertEquals(Money.ZERO, totals.subtotal(ProductType.CLOTHING));
+    assertEquals(Money.ofMinor(10_000),
+        totals.sumOf(new ProductType[]{ProductType.ELECTRONICS, ProductType.CLOTHING}));
+  }
+
+  @Test
+  void givenNoItems_whenOf_thenReturnEmptyTotals() {
+    assertSame(BillTotals.EMPTY, BillTotals.of(null));
+    assertSame(BillTotals.EMPTY, BillTotals.of(List.of()));
+    assertEquals(Money.ZERO, BillTotals.EMPTY.total());
+  }
+
+  @Test
+  void givenBillWithTotals_whenSetItems_thenRecomputeTotals() {
+    var billDto = new BillDto();
+    billDto.setItems(List.of(item(ProductType.CLOTHING, 500, 2)));
+    assertEquals(Money.ofMinor(1_000), billDto.getTotals().total());
+
+    billDto.setItems(List.of(item(ProductType.CLOTHING, 500, 3)));
+
+    assertEquals(Money.ofMinor(1_500), billDto.getTotals().subtotal(ProductType.CLOTHING));
+  }
+
+  private static BillItemDto item(ProductType type, long unitPrice, int quantity) {
+    return BillItemDto.builder().type(type).unitPrice(Money.ofMinor(unitPrice))
+        .quantity(quantity).build();
+  }
+}
@@ -0,0 +1,69 @@
+package com.ahmeric.store.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+class MoneyTest {
+
+  @ParameterizedTest
+  @CsvSource({
+      "33.33, 500, HALF_UP, 1.67",
+      "33.30, 500, HALF_UP, 1.67",
+      "33.30, 500, HALF_EVEN, 1.66",
+      "33.30, 500, HALF_DOWN, 1.66",
+      "33.33, 500, DOWN, 1.66",
+      "33.33, 500, UP, 1.67",
+      "-33.30, 500, HALF_UP, -1.67",
+      "-33.30, 500, HALF_DOWN, -1.66",
+      "-33.33, 500, FLOOR, -1.67",
+      "-33.33, 500, CEILING, -1.66",
+      "100.00, 3000, UNNECESSARY, 30.00"
+  })
+  void givenAmount_whenPercent_thenRoundWithRoundingMode(BigDecimal amount, long basisPoints,
+      RoundingMode roundingMode, BigDecimal expected) {
+    Money money = Money.of(amount, RoundingMode.UNNECESSARY);
+
+    Money result = money.percent(basisPoints, roundingMode);
+
+    assertEquals(expected, result.toBigDecimal());
+    assertEquals(expected.setScale(2, roundingMode),
+        amount.multiply(BigDecimal.valueOf(basisPoints, 4)).setScale(2, roundingMode));
+  }
+
+  @Test
+  void givenFractionOfMinorUnit_whenPercentWithUnnecessaryRounding_thenThrow() {
+    Money money = Money.ofMinor(3333);
+
+    assertThrows(ArithmeticException.class, () -> money.percent(500, RoundingMode.UNNECESSARY));
+  }
+
+  @Test
+  void givenBigDecimal_whenOf_thenRoundToTwoDecimals() {
+    assertEquals(Money.ofMinor(1050), Money.of(new BigDecimal("10.5"), RoundingMode.UNNECESSARY));
+    assertEquals(Money.ofMinor(1001), Money.of(new BigDecimal("10.005"), RoundingMode.HALF_UP));
+    assertEquals("10.50", Money.ofMinor(1050).toString());
+  }
+
+  @Test
+  void givenAmounts_whenCalculate_thenReturnExactResult() {
+    Money price = Money.ofMinor(250);
+
+    assertEquals(Money.ofMajor(10), price.times(4));
+    assertEquals(Money.ofMinor(375), price.plus(Money.ofMinor(125)));
+    assertEquals(Money.ofMinor(125), price.minus(Money.ofMinor(125)));
+    assertEquals(2, Money.ofMinor(29_999).divideToIntegral(Money.ofMajor(100)));
+  }
+
+  @Test
+  void givenOverflow_whenTimes_thenThrow() {
+    Money money = Money.ofMinor(Long.MAX_VALUE);
+
+    assertThrows(ArithmeticException.class, () -> money.times(2));
+  }
+}
@@ -8,6 +8,7 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.ahmeric.store.config.JwtService;
+import com.ahmeric.store.entity.LoyaltyTier;
 import com.ahmeric.store.entity.User;
 import com.ahmeric.store.entity.UserType;
 import com.ahmeric.store.exception.RetailStoreException;
@@ -15,6 +16,7 @@ import com.ahmeric.store.model.dto.UserDto;
 import com.ahmeric.store.repository.UserRepository;
 import com.ahmeric.store.utils.Mapper;
 import java.time.LocalDate;
+import java.util.Map;
 import java.util.Optional;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -81,7 +83,8 @@ class AuthenticationServiceTest {
   @Test
   void testAuthenticate_GivenValidUsernameAndPassword_ShouldReturnJwtToken() {
     when(userRepository.findByUserName("username1")).thenReturn(Optional.of(user1));
-    when(jwtService.generateToken("username1")).thenReturn("mockJwtToken");
+    when(jwtService.generateToken(Map.of(JwtService.LOYALTY_TIER_CLAIM, "NONE"), "username1"))
+        .thenReturn("mockJwtToken");
 
     String jwtToken = authenticationService.authenticate("username1", "password1");
 
@@ -90,6 +93,17 @@ class AuthenticationServiceTest {
         .authenticate(new UsernamePasswordAuthenticationToken("username1", "password1"));
   }
 
+  @Test
+  void testAuthenticate_GivenLoyalCustomer_ShouldCarryLoyaltyTierClaim() {
+    user1.setUserType(UserType.CUSTOMER);
+    user1.setLoyaltyTier(LoyaltyTier.LOYAL);
+    when(userRepository.findByUserName("username1")).thenReturn(Optional.of(user1));
+    when(jwtService.generateToken(Map.of(JwtService.LOYALTY_TIER_CLAIM, "LOYAL"), "username1"))
+        .thenReturn("mockJwtToken");
+
+    assertEquals("mockJwtToken", authenticationService.authenticate("username1", "password1"));
+  }
+
   @Test
   void testAuthenticate_GivenInvalidUsername_ShouldThrowRetailStoreException() {
     when(userRepository.findByUserName("unknown")).thenReturn(Optional.empty());
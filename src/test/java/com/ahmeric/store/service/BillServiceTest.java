@@ -2,39 +2,70 @@ package com.ahmeric.store.service;
 
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
+import com.ahmeric.store.config.StoreUserDetails;
 import com.ahmeric.store.entity.Bill;
+import com.ahmeric.store.entity.BillItem;
+import com.ahmeric.store.entity.Coupon;
 import com.ahmeric.store.entity.Product;
 import com.ahmeric.store.entity.ProductType;
 import com.ahmeric.store.entity.UserType;
+import com.ahmeric.store.event.BillsWrittenEvent;
+import com.ahmeric.store.exception.ErrorRegistry;
 import com.ahmeric.store.exception.RetailStoreException;
+import com.ahmeric.store.model.Money;
+import com.ahmeric.store.model.dto.BillBatchResult;
 import com.ahmeric.store.model.dto.BillDto;
+import com.ahmeric.store.model.dto.BillItemDto;
+import com.ahmeric.store.model.dto.CursorPage;
 import com.ahmeric.store.model.dto.ProductDto;
 import com.ahmeric.store.model.dto.UserDto;
 import com.ahmeric.store.repository.BillRepository;
+import com.ahmeric.store.service.coupon.CouponService;
+import com.ahmeric.store.service.discount.CouponDiscountStrategy;
 import com.ahmeric.store.service.discount.DiscountService;
+import com.ahmeric.store.service.discount.DiscountStrategy;
+import com.ahmeric.store.service.promotion.PromotionService;
 import com.ahmeric.store.utils.Mapper;
+import com.mongodb.bulk.BulkWriteError;
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import org.bson.BsonDocument;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.User;
 
 @ExtendWith(MockitoExtension.class)
 class BillServiceTest {
@@ -42,6 +73,9 @@ class BillServiceTest {
   @Mock
   private BillRepository billRepository;
 
+  @Mock
+  private BillWriter billWriter;
+
   @Mock
   private DiscountService discountService;
 
@@ -49,10 +83,25 @@ class BillServiceTest {
   private ProductService productService;
 
   @Mock
-  private UserService userService;
+  private Mapper modelMapper;
 
   @Mock
-  private Mapper modelMapper;
+  private MongoTemplate mongoTemplate;
+
+  @Mock
+  private CouponService couponService;
+
+  @Mock
+  private ApplicationEventPublisher eventPublisher;
+
+  @Mock
+  private BulkOperations bulkOperations;
+
+  private PromotionService promotionService = mock(PromotionService.class);
+
+  @Spy
+  private BillQuoteCache billQuoteCache = new BillQuoteCache(promotionService, 100,
+      Duration.ofMinutes(1));
 
   @InjectMocks
   private BillService billService;
@@ -60,8 +109,7 @@ class BillServiceTest {
   @Mock
   private Authentication authentication;
 
-  @Mock
-  private User user;
+  private StoreUserDetails user;
 
   private BillDto billDto;
   private Bill bill;
@@ -74,12 +122,15 @@ class BillServiceTest {
         .price(new BigDecimal("100.00")).type(ProductType.GROCERY).build();
     userDto = UserDto.builder().id("user1").userName("testUser").userType(UserType.EMPLOYEE)
         .build();
-    billDto = BillDto.builder().id("bill1").user(userDto).products(List.of(productDto))
-        .totalAmount(new BigDecimal("100.00")).discount(BigDecimal.ZERO)
-        .netAmount(new BigDecimal("100.00")).productIdList(List.of("productId")).build();
+    user = new StoreUserDetails(UserDto.builder().id("user1").userName("testUser")
+        .userType(UserType.EMPLOYEE).password("password").build(), List.of());
+    billDto = BillDto.builder().id("bill1").user(userDto)
+        .items(List.of(BillItemDto.builder().productId("product1").quantity(1).build()))
+        .totalAmount(Money.ofMajor(100)).discount(Money.ZERO)
+        .netAmount(Money.ofMajor(100)).build();
 
     bill = Bill.builder().id("bill1").userId("user1").userType(UserType.EMPLOYEE)
-        .products(List.of(new Product()))
+        .items(List.of(new BillItem()))
         .totalAmount(new BigDecimal("100.00")).discount(BigDecimal.ZERO)
         .netAmount(new BigDecimal("100.00")).build();
   }
@@ -92,11 +143,10 @@ class BillServiceTest {
     SecurityContextHolder.setContext(securityContext);
 
     Mockito.when(authentication.getPrincipal()).thenReturn(user);
-    Mockito.when(user.getUsername()).thenReturn("testUser");
 
-    when(productService.getProductById(anyString())).thenReturn(productDto);
-    when(userService.findByUserName(anyString())).thenReturn(userDto);
-    when(billRepository.save(any(Bill.class))).thenReturn(bill);
+    when(productService.getProductsByIds(List.of("product1")))
+        .thenReturn(List.of(productDto));
+    when(billWriter.write(any(Bill.class))).thenReturn(bill);
     when(modelMapper.map(billDto, Bill.class)).thenReturn(bill);
     when(modelMapper.map(bill, BillDto.class)).thenReturn(billDto);
 
@@ -104,28 +154,293 @@ class BillServiceTest {
     BillDto result = billService.generateBillByProductIds(billDto);
 
     // Assert
-    verify(productService, times(billDto.getProductIdList().size())).getProductById(anyString());
-    verify(userService, times(1)).findByUserName(anyString());
-    verify(billRepository, times(1)).save(any(Bill.class));
+    verify(productService, times(1)).getProductsByIds(List.of("product1"));
+    verify(billWriter, times(1)).write(any(Bill.class));
     verify(modelMapper, times(1)).map(billDto, Bill.class);
     verify(modelMapper, times(1)).map(bill, BillDto.class);
     assertEquals(billDto, result);
   }
 
   @Test
-  void whenGetAllBills_thenReturnListOfBillDto() {
+  void givenRepeatedProducts_whenGenerateBillByProductIds_thenMergeIntoOneLine() {
+    SecurityContext securityContext = mock(SecurityContext.class);
+    when(securityContext.getAuthentication()).thenReturn(authentication);
+    SecurityContextHolder.setContext(securityContext);
+    Mockito.when(authentication.getPrincipal()).thenReturn(user);
+
+    var requested = BillDto.builder().items(List.of(
+        BillItemDto.builder().productId("product1").quantity(2).build(),
+        BillItemDto.builder().productId("product1").quantity(3).build())).build();
+    when(productService.getProductsByIds(List.of("product1"))).thenReturn(List.of(productDto));
+    when(modelMapper.map(requested, Bill.class)).thenReturn(bill);
+    when(billWriter.write(bill)).thenReturn(bill);
+    when(modelMapper.map(bill, BillDto.class)).thenReturn(billDto);
+
+    billService.generateBillByProductIds(requested);
+
+    assertEquals(1, requested.getItems().size());
+    assertEquals(5, requested.getItems().get(0).getQuantity());
+    assertEquals(Money.ofMajor(500), requested.getTotalAmount());
+  }
+
+  @Test
+  void givenOverflowingQuantity_whenGenerateBillByProductIds_thenThrowException() {
+    SecurityContext securityContext = mock(SecurityContext.class);
+    when(securityContext.getAuthentication()).thenReturn(authentication);
+    SecurityContextHolder.setContext(securityContext);
+    Mockito.when(authentication.getPrincipal()).thenReturn(user);
+
+    var requested = BillDto.builder().items(List.of(
+        BillItemDto.builder().productId("product1").quantity(Integer.MAX_VALUE).build(),
+        BillItemDto.builder().productId("product1").quantity(1).build())).build();
+
+    var exception = assertThrows(RetailStoreException.class,
+        () -> billService.generateBillByProductIds(requested));
+
+    assertEquals(ErrorRegistry.INVALID_BILL_QUANTITY, exception.getErrorRegistry());
+    verify(productService, never()).getProductsByIds(anyList());
+  }
+
+  @Test
+  void givenCouponCode_whenGenerateBillByProductIds_thenRedeemCouponAndApplyItLast() {
+    SecurityContext securityContext = mock(SecurityContext.class);
+    when(securityContext.getAuthentication()).thenReturn(authentication);
+    SecurityContextHolder.setContext(securityContext);
+    Mockito.when(authentication.getPrincipal()).thenReturn(user);
+    billDto.setCouponCode("COUPON000001");
+    when(productService.getProductsByIds(List.of("product1"))).thenReturn(List.of(productDto));
+    when(couponService.redeem("COUPON000001", "user1"))
+        .thenReturn(Coupon.builder().code("COUPON000001").basisPoints(1000L).build());
+    when(modelMapper.map(billDto, Bill.class)).thenReturn(bill);
+    when(billWriter.write(bill)).thenReturn(bill);
+    when(modelMapper.map(bill, BillDto.class)).thenReturn(billDto);
+
+    billService.generateBillByProductIds(billDto);
+
+    verify(discountService).applyDiscount(eq(billDto),
+        Mockito.<List<DiscountStrategy>>argThat(discounts -> discounts.size() == 1
+            && discounts.get(0) instanceof CouponDiscountStrategy));
+    assertEquals("COUPON000001", bill.getCouponCode());
+    verify(couponService, never()).release(anyString(), anyString());
+  }
+
+  @Test
+  void givenRedeemedCouponAndFailingWriter_whenGenerateBillByProductIds_thenReleaseCoupon() {
+    SecurityContext securityContext = mock(SecurityContext.class);
+    when(securityContext.getAuthentication()).thenReturn(authentication);
+    SecurityContextHolder.setContext(securityContext);
+    Mockito.when(authentication.getPrincipal()).thenReturn(user);
+    billDto.setCouponCode("COUPON000001");
+    when(productService.getProductsByIds(List.of("product1"))).thenReturn(List.of(productDto));
+    when(couponService.redeem("COUPON000001", "user1"))
+        .thenReturn(Coupon.builder().code("COUPON000001").basisPoints(1000L).build());
+    when(modelMapper.map(billDto, Bill.class)).thenReturn(bill);
+    when(billWriter.write(bill))
+        .thenThrow(new RetailStoreException(ErrorRegistry.BILL_QUEUE_FULL));
+
+    assertThrows(RetailStoreException.class, () -> billService.generateBillByProductIds(billDto));
+
+    verify(couponService).release("COUPON000001", "user1");
+  }
+
+  @Test
+  void givenPricingFailureInBatch_whenGenerateBills_thenReleaseAllRedeemedCoupons() {
+    SecurityContext securityContext = mock(SecurityContext.class);
+    when(securityContext.getAuthentication()).thenReturn(authentication);
+    SecurityContextHolder.setContext(securityContext);
+    Mockito.when(authentication.getPrincipal()).thenReturn(user);
+    when(productService.findProductsByIds(Set.of("product1")))
+        .thenReturn(Map.of("product1", productDto));
+    when(couponService.redeem(anyString(), eq("user1"))).thenAnswer(invocation ->
+        Coupon.builder().code(invocation.getArgument(0)).basisPoints(1000L).build());
+    when(discountService.applyDiscount(any(BillDto.class), anyList()))
+        .thenAnswer(invocation -> invocation.getArgument(0))
+        .thenThrow(new IllegalStateException("pricing failed"));
+    when(modelMapper.map(any(BillDto.class), eq(Bill.class))).thenReturn(Bill.builder().build());
+
+    assertThrows(IllegalStateException.class, () -> billService.generateBills(List.of(
+        BillDto.builder().couponCode("COUPON000001").items(List.of(
+            BillItemDto.builder().productId("product1").quantity(1).build())).build(),
+        BillDto.builder().couponCode("COUPON000002").items(List.of(
+            BillItemDto.builder().productId("product1").quantity(1).build())).build())));
+
+    verify(couponService).release("COUPON000001", "user1");
+    verify(couponService).release("COUPON000002", "user1");
+    verify(mongoTemplate, never()).bulkOps(any(BulkMode.class), eq(Bill.class));
+  }
+
+  @Test
+  void givenSameBasketInAnyOrder_whenQuoteBill_thenPriceOnceAndNeverSave() {
+    SecurityContext securityContext = mock(SecurityContext.class);
+    when(securityContext.getAuthentication()).thenReturn(authentication);
+    SecurityContextHolder.setContext(securityContext);
+    Mockito.when(authentication.getPrincipal()).thenReturn(user);
+    var productDto2 = ProductDto.builder().id("product2")
+        .price(new BigDecimal("5.00")).type(ProductType.CLOTHING).build();
+    when(productService.getProductsByIds(List.of("product1", "product2")))
+        .thenReturn(List.of(productDto, productDto2));
+
+    BillDto first = billService.quoteBill(BillDto.builder().items(List.of(
+        BillItemDto.builder().productId("product1").quantity(1).build(),
+        BillItemDto.builder().productId("product2").quantity(2).build())).build());
+    BillDto second = billService.quoteBill(BillDto.builder().items(List.of(
+        BillItemDto.builder().productId("product2").quantity(2).build(),
+        BillItemDto.builder().productId("product1").quantity(1).build())).build());
+
+    assertEquals(Money.ofMajor(110), first.getTotalAmount());
+    assertEquals(first.getTotalAmount(), second.getTotalAmount());
+    assertEquals(userDto, second.getUser());
+    verify(productService, times(1)).getProductsByIds(anyList());
+    verify(discountService, times(1)).applyDiscount(any(BillDto.class));
+    verify(billWriter, never()).write(any(Bill.class));
+  }
+
+  @Test
+  void givenPromotionChangeDue_whenQuoteBill_thenDoNotReuseQuote() {
+    SecurityContext securityContext = mock(SecurityContext.class);
+    when(securityContext.getAuthentication()).thenReturn(authentication);
+    SecurityContextHolder.setContext(securityContext);
+    Mockito.when(authentication.getPrincipal()).thenReturn(user);
+    when(productService.getProductsByIds(List.of("product1"))).thenReturn(List.of(productDto));
+    when(promotionService.getNextChange(any(Instant.class)))
+        .thenAnswer(invocation -> invocation.getArgument(0));
+
+    billService.quoteBill(BillDto.builder().items(List.of(
+        BillItemDto.builder().productId("product1").quantity(1).build())).build());
+    billService.quoteBill(BillDto.builder().items(List.of(
+        BillItemDto.builder().productId("product1").quantity(1).build())).build());
+
+    verify(discountService, times(2)).applyDiscount(any(BillDto.class));
+  }
+
+  @Test
+  void givenUsersInDifferentSpendBands_whenQuoteBill_thenPriceEachBandSeparately() {
+    SecurityContext securityContext = mock(SecurityContext.class);
+    when(securityContext.getAuthentication()).thenReturn(authentication);
+    SecurityContextHolder.setContext(securityContext);
+    var lowSpender = new StoreUserDetails(UserDto.builder().id("user1").userName("low")
+        .userType(UserType.CUSTOMER).rollingSpend(1_000L).password("password").build(),
+        List.of());
+    var highSpender = new StoreUserDetails(UserDto.builder().id("user2").userName("high")
+        .userType(UserType.CUSTOMER).rollingSpend(100_000L).password("password").build(),
+        List.of());
+    Mockito.when(authentication.getPrincipal()).thenReturn(lowSpender, highSpender, lowSpender);
+    when(discountService.getSpendBand(any(UserDto.class))).thenAnswer(invocation ->
+        invocation.getArgument(0, UserDto.class).getRollingSpend() >= 50_000L ? 1 : 0);
+    when(productService.getProductsByIds(List.of("product1"))).thenReturn(List.of(productDto));
+    when(discountService.applyDiscount(any(BillDto.class))).thenAnswer(invocation -> {
+      BillDto priced = invocation.getArgument(0);
+      priced.setDiscount(priced.getUser().getRollingSpend() >= 50_000L
+          ? Money.ofMajor(5) : Money.ZERO);
+      return priced;
+    });
+
+    BillDto low = billService.quoteBill(BillDto.builder().items(List.of(
+        BillItemDto.builder().productId("product1").quantity(1).build())).build());
+    BillDto high = billService.quoteBill(BillDto.builder().items(List.of(
+        BillItemDto.builder().productId("product1").quantity(1).build())).build());
+    BillDto lowAgain = billService.quoteBill(BillDto.builder().items(List.of(
+        BillItemDto.builder().productId("product1").quantity(1).build())).build());
+
+    assertEquals(Money.ZERO, low.getDiscount());
+    assertEquals(Money.ofMajor(5), high.getDiscount());
+    assertEquals(Money.ZERO, lowAgain.getDiscount());
+    verify(discountService, times(2)).applyDiscount(any(BillDto.class));
+  }
+
+  @Test
+  void givenBatch_whenGenerateBills_thenLookupOnceAndReportPerBillOutcome() {
+    SecurityContext securityContext = mock(SecurityContext.class);
+    when(securityContext.getAuthentication()).thenReturn(authentication);
+    SecurityContextHolder.setContext(securityContext);
+    Mockito.when(authentication.getPrincipal()).thenReturn(user);
+    when(productService.findProductsByIds(Set.of("product1", "unknown")))
+        .thenReturn(Map.of("product1", productDto));
+    var bill2 = Bill.builder().build();
+    var bill3 = Bill.builder().build();
+    when(modelMapper.map(any(BillDto.class), eq(Bill.class))).thenReturn(bill2, bill3);
+    when(modelMapper.map(bill2, BillDto.class)).thenReturn(billDto);
+    when(mongoTemplate.bulkOps(BulkMode.UNORDERED, Bill.class)).thenReturn(bulkOperations);
+    when(bulkOperations.insert(List.of(bill2, bill3))).thenReturn(bulkOperations);
+    var bulkException = mock(BulkOperationException.class);
+    when(bulkException.getErrors()).thenReturn(
+        List.of(new BulkWriteError(11000, "duplicate key", new BsonDocument(), 1)));
+    when(bulkOperations.execute()).thenThrow(bulkException);
+
+    List<BillBatchResult> results = billService.generateBills(List.of(
+        BillDto.builder().items(List.of(
+            BillItemDto.builder().productId("product1").quantity(2).build())).build(),
+        BillDto.builder().items(List.of(
+            BillItemDto.builder().productId("unknown").quantity(1).build())).build(),
+        BillDto.builder().items(List.of(
+            BillItemDto.builder().productId("product1").quantity(1).build())).build()));
+
+    assertEquals(3, results.size());
+    assertTrue(results.get(0).isSuccess());
+    assertEquals(billDto, results.get(0).getBill());
+    assertEquals(ErrorRegistry.PRODUCT_NOT_FOUND, results.get(1).getError());
+    assertEquals("unknown", results.get(1).getDetail());
+    assertEquals(ErrorRegistry.BILL_NOT_SAVED, results.get(2).getError());
+    assertNotNull(bill2.getId());
+    verify(eventPublisher).publishEvent(new BillsWrittenEvent(List.of(bill2)));
+    verify(productService, times(1)).findProductsByIds(any());
+    verify(billWriter, never()).write(any(Bill.class));
+  }
+
+  @Test
+  void givenLegacyBill_whenGetBillById_thenProductsAreFoldedIntoItems() {
+    var product = Product.builder().id("product1").name("soda")
+        .price(new BigDecimal("2.50")).type(ProductType.GROCERY).build();
+    var legacyBill = Bill.builder().id("bill2").products(List.of(product, product, product))
+        .build();
+    when(billRepository.findById("bill2")).thenReturn(Optional.of(legacyBill));
+    when(modelMapper.map(legacyBill, BillDto.class)).thenReturn(billDto);
+
+    billService.getBillById("bill2");
+
+    assertEquals(1, legacyBill.getItems().size());
+    assertEquals(3, legacyBill.getItems().get(0).getQuantity());
+    assertEquals(new BigDecimal("2.50"), legacyBill.getItems().get(0).getUnitPrice());
+    assertNull(legacyBill.getProducts());
+  }
+
+  @Test
+  void givenNoCursor_whenGetBills_thenReturnFirstPageWithNextCursor() {
+    // Arrange
+    var nextBill = Bill.builder().id("bill2").build();
+    when(billRepository.findAllBy(CursorPage.pageRequest(1))).thenReturn(List.of(bill, nextBill));
+    when(modelMapper.map(List.of(bill), Mapper.BILL_DTO_LIST_TYPE)).thenReturn(List.of(billDto));
+
+    // Act
+    CursorPage<BillDto> result = billService.getBills(null, 1);
+
+    // Assert
+    assertEquals(List.of(billDto), result.items());
+    assertEquals(bill.getId(), result.nextCursor());
+  }
+
+  @Test
+  void givenCursor_whenGetBills_thenReturnLastPageWithoutNextCursor() {
     // Arrange
-    List<Bill> bills = List.of(bill);
-    when(billRepository.findAll()).thenReturn(bills);
-    when(modelMapper.map(bills, Mapper.BILL_DTO_LIST_TYPE)).thenReturn(List.of(billDto));
+    when(billRepository.findByIdGreaterThan("64a000000000000000000000", CursorPage.pageRequest(2)))
+        .thenReturn(List.of(bill));
+    when(modelMapper.map(List.of(bill), Mapper.BILL_DTO_LIST_TYPE)).thenReturn(List.of(billDto));
 
     // Act
-    List<BillDto> result = billService.getAllBills();
+    CursorPage<BillDto> result = billService.getBills("64a000000000000000000000", 2);
 
     // Assert
-    verify(billRepository, times(1)).findAll();
-    verify(modelMapper, times(1)).map(bills, Mapper.BILL_DTO_LIST_TYPE);
-    assertEquals(billDto, result.get(0));
+    assertEquals(List.of(billDto), result.items());
+    assertNull(result.nextCursor());
+  }
+
+  @Test
+  void givenTooLargeLimit_whenGetBills_thenThrowRetailStoreException() {
+    var exception = assertThrows(RetailStoreException.class,
+        () -> billService.getBills(null, CursorPage.MAX_LIMIT + 1));
+
+    assertEquals(ErrorRegistry.INVALID_PAGE_LIMIT, exception.getErrorRegistry());
+    verifyNoInteractions(billRepository);
   }
 
   @Test
@@ -143,10 +458,20 @@ class BillServiceTest {
     assertEquals(billDto, result);
   }
 
+  @Test
+  void givenIdOfPendingBill_whenGetBillById_thenReturnPendingBill() {
+    when(billRepository.findById("bill1")).thenReturn(Optional.empty());
+    when(billWriter.findPending("bill1")).thenReturn(Optional.of(bill));
+    when(modelMapper.map(bill, BillDto.class)).thenReturn(billDto);
+
+    assertEquals(billDto, billService.getBillById("bill1"));
+  }
+
   @Test
   void givenId_whenGetBillByIdAndBillNotFound_thenThrowRetailStoreException() {
     // Arrange
     when(billRepository.findById(anyString())).thenReturn(Optional.empty());
+    when(billWriter.findPending(anyString())).thenReturn(Optional.empty());
 
     // Act & Assert
     assertThrows(RetailStoreException.class, () -> billService.getBillById("id"));
@@ -0,0 +1,100 @@
+package com.ahmeric.store.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.ahmeric.store.entity.Counter;
+import com.ahmeric.store.entity.PendingVersion;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+
+@ExtendWith(MockitoExtension.class)
+class CatalogVersionServiceTest {
+
+  @Mock
+  private MongoTemplate mongoTemplate;
+
+  private CatalogVersionService catalogVersionService;
+
+  @BeforeEach
+  void setUp() {
+    catalogVersionService = new CatalogVersionService(mongoTemplate, Duration.ofMinutes(1));
+  }
+
+  @Test
+  void whenNext_thenIncrementCounterAtomicallyAndReturnNewValue() {
+    when(mongoTemplate.findAndModify(any(Query.class), any(UpdateDefinition.class),
+        any(FindAndModifyOptions.class), eq(Counter.class)))
+        .thenReturn(new Counter(CatalogVersionService.CATALOG, 5, null));
+
+    assertEquals(5, catalogVersionService.next());
+
+    var update = ArgumentCaptor.forClass(UpdateDefinition.class);
+    var options = ArgumentCaptor.forClass(FindAndModifyOptions.class);
+    verify(mongoTemplate).findAndModify(any(Query.class), update.capture(), options.capture(),
+        eq(Counter.class));
+    assertInstanceOf(AggregationUpdate.class, update.getValue());
+    assertEquals(true, options.getValue().isUpsert());
+    assertEquals(true, options.getValue().isReturnNew());
+  }
+
+  @Test
+  void whenComplete_thenPullPendingVersion() {
+    catalogVersionService.complete(5);
+
+    var update = ArgumentCaptor.forClass(Update.class);
+    verify(mongoTemplate).updateFirst(any(Query.class), update.capture(), eq(Counter.class));
+    assertEquals(new Document("pending", new Document("version", 5L)),
+        update.getValue().getUpdateObject().get("$pull"));
+  }
+
+  @Test
+  void givenNoCounter_whenCommitted_thenReturnZero() {
+    assertEquals(0, catalogVersionService.committed());
+  }
+
+  @Test
+  void givenNoPendingVersion_whenCommitted_thenReturnCounterValue() {
+    when(mongoTemplate.findById(CatalogVersionService.CATALOG, Counter.class))
+        .thenReturn(new Counter(CatalogVersionService.CATALOG, 7, List.of()));
+
+    assertEquals(7, catalogVersionService.committed());
+  }
+
+  @Test
+  void givenPendingVersions_whenCommitted_thenReturnVersionBelowLowestPending() {
+    when(mongoTemplate.findById(CatalogVersionService.CATALOG, Counter.class))
+        .thenReturn(new Counter(CatalogVersionService.CATALOG, 7, List.of(
+            new PendingVersion(7, Instant.now()), new PendingVersion(5, Instant.now()))));
+
+    assertEquals(4, catalogVersionService.committed());
+  }
+
+  @Test
+  void givenExpiredPendingVersion_whenCommitted_thenIgnoreIt() {
+    when(mongoTemplate.findById(CatalogVersionService.CATALOG, Counter.class))
+        .thenReturn(new Counter(CatalogVersionService.CATALOG, 7, List.of(
+            new PendingVersion(5, Instant.now().minus(Duration.ofMinutes(2))),
+            new PendingVersion(7, Instant.now()))));
+
+    assertEquals(6, catalogVersionService.committed());
+  }
+}
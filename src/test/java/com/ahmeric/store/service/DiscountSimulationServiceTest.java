@@ -0,0 +1,187 @@
+package com.ahmeric.store.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.ahmeric.store.entity.AppliedDiscount;
+import com.ahmeric.store.entity.Bill;
+import com.ahmeric.store.entity.BillItem;
+import com.ahmeric.store.entity.DiscountRule;
+import com.ahmeric.store.entity.DiscountRuleType;
+import com.ahmeric.store.entity.LoyaltyTier;
+import com.ahmeric.store.entity.ProductType;
+import com.ahmeric.store.entity.Promotion;
+import com.ahmeric.store.entity.User;
+import com.ahmeric.store.entity.UserType;
+import com.ahmeric.store.exception.ErrorRegistry;
+import com.ahmeric.store.exception.RetailStoreException;
+import com.ahmeric.store.service.discount.CouponDiscountStrategy;
+import com.ahmeric.store.service.discount.DefaultDiscountRules;
+import com.ahmeric.store.service.discount.DiscountService;
+import com.ahmeric.store.service.discount.DiscountStrategyFactory;
+import com.ahmeric.store.service.promotion.PromotionService;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+@ExtendWith(MockitoExtension.class)
+class DiscountSimulationServiceTest {
+
+  private static final LocalDate FROM = LocalDate.of(2023, 1, 1);
+  private static final LocalDate TO = LocalDate.of(2023, 4, 1);
+
+  @Mock
+  private MongoTemplate mongoTemplate;
+
+  @Mock
+  private DiscountStrategyFactory discountStrategyFactory;
+
+  @Mock
+  private PromotionService promotionService;
+
+  private DiscountSimulationService discountSimulationService;
+
+  @BeforeEach
+  void setUp() {
+    discountSimulationService = new DiscountSimulationService(mongoTemplate,
+        new DiscountService(discountStrategyFactory, promotionService, 8), 2, 2);
+  }
+
+  @Test
+  void givenBillsOfPeriod_whenSimulate_thenReturnDeltasPerUserTypeAndStrategy() {
+    var employeeBills = IntStream.range(0, 3)
+        .mapToObj(i -> bill("employee", UserType.EMPLOYEE, "30.00",
+            new AppliedDiscount("EmployeeDiscountStrategy", 3000L, new BigDecimal("30.00"))))
+        .toList();
+    var customerBill = bill("customer", UserType.CUSTOMER, "5.00",
+        new AppliedDiscount("FixedAmountDiscountStrategy", null, new BigDecimal("5.00")));
+    var orphanBill = bill("deleted", UserType.CUSTOMER, "0.00");
+    when(mongoTemplate.stream(any(Query.class), eq(Bill.class))).thenReturn(
+        Stream.concat(employeeBills.stream(),
+            Stream.of(customerBill, orphanBill)));
+    when(mongoTemplate.find(any(Query.class), eq(User.class))).thenAnswer(invocation -> List.of(
+        User.builder().id("employee").userType(UserType.EMPLOYEE)
+            .registrationDate(LocalDate.now()).build(),
+        User.builder().id("customer").userType(UserType.CUSTOMER)
+            .registrationDate(LocalDate.now()).build()));
+    when(mongoTemplate.find(any(Query.class), eq(Promotion.class))).thenReturn(List.of());
+    var employee = DefaultDiscountRules.employee();
+    employee.setBasisPoints(2000);
+
+    var response = discountSimulationService.simulate(
+        List.of(employee, DefaultDiscountRules.fixedAmount()), FROM, TO);
+
+    assertEquals(4, response.getTotal().getBillCount());
+    assertEquals(1, response.getSkippedBillCount());
+    assertEquals(new BigDecimal("95.00"), response.getTotal().getCurrentDiscount());
+    assertEquals(new BigDecimal("65.00"), response.getTotal().getSimulatedDiscount());
+    assertEquals(new BigDecimal("-30.00"), response.getTotal().getDelta());
+    var employees = response.getByUserType().get(UserType.EMPLOYEE);
+    assertEquals(3, employees.getBillCount());
+    assertEquals(new BigDecimal("-30.00"), employees.getDelta());
+    assertEquals(new BigDecimal("-30.00"),
+        response.getByStrategy().get("EmployeeDiscountStrategy").getDelta());
+    assertEquals(new BigDecimal("0.00"),
+        response.getByStrategy().get("FixedAmountDiscountStrategy").getDelta());
+    assertEquals(1, response.getByStrategy().get("FixedAmountDiscountStrategy").getBillCount());
+  }
+
+  @Test
+  void givenCustomerLoyalOnlyAfterBill_whenSimulate_thenPriceWithTierOnDayOfBill() {
+    var billId = DiscountSimulationService.toObjectId(LocalDate.of(2023, 2, 1)).toHexString();
+    var recentBill = bill("recent", UserType.CUSTOMER, "0.00");
+    recentBill.setId(billId);
+    var loyalBill = bill("loyal", UserType.CUSTOMER, "0.00");
+    loyalBill.setId(billId);
+    when(mongoTemplate.stream(any(Query.class), eq(Bill.class)))
+        .thenReturn(Stream.of(recentBill, loyalBill));
+    when(mongoTemplate.find(any(Query.class), eq(User.class))).thenReturn(List.of(
+        User.builder().id("recent").userType(UserType.CUSTOMER)
+            .registrationDate(LocalDate.of(2021, 1, 1)).loyaltyTier(LoyaltyTier.LOYAL).build(),
+        User.builder().id("loyal").userType(UserType.CUSTOMER)
+            .registrationDate(LocalDate.of(2019, 1, 1)).loyaltyTier(LoyaltyTier.LOYAL).build()));
+    when(mongoTemplate.find(any(Query.class), eq(Promotion.class))).thenReturn(List.of());
+
+    var response = discountSimulationService.simulate(
+        List.of(DefaultDiscountRules.loyalCustomer()), FROM, TO);
+
+    assertEquals(2, response.getTotal().getBillCount());
+    assertEquals(new BigDecimal("5.00"), response.getTotal().getSimulatedDiscount());
+    assertEquals(1,
+        response.getByStrategy().get("LoyalCustomerDiscountStrategy").getBillCount());
+  }
+
+  @Test
+  void givenBillWithPromotionAndCoupon_whenSimulateRulesInUse_thenReturnZeroDelta() {
+    var bill = bill("customer", UserType.CUSTOMER, "35.00",
+        new AppliedDiscount("Spring", 1000L, new BigDecimal("20.00")),
+        new AppliedDiscount("FixedAmountDiscountStrategy", null, new BigDecimal("5.00")),
+        new AppliedDiscount(CouponDiscountStrategy.CODE, null, new BigDecimal("10.00")));
+    bill.getItems().get(0).setQuantity(2);
+    when(mongoTemplate.stream(any(Query.class), eq(Bill.class))).thenReturn(Stream.of(bill));
+    when(mongoTemplate.find(any(Query.class), eq(User.class))).thenReturn(List.of(
+        User.builder().id("customer").userType(UserType.CUSTOMER)
+            .registrationDate(LocalDate.now()).build()));
+    when(mongoTemplate.find(any(Query.class), eq(Promotion.class))).thenReturn(List.of(
+        Promotion.builder().name("Spring").order(1).build()));
+
+    var response = discountSimulationService.simulate(DefaultDiscountRules.rules(), FROM, TO);
+
+    assertEquals(new BigDecimal("35.00"), response.getTotal().getSimulatedDiscount());
+    assertEquals(new BigDecimal("0.00"), response.getTotal().getDelta());
+    assertEquals(new BigDecimal("0.00"),
+        response.getByStrategy().get("FixedAmountDiscountStrategy").getDelta());
+    assertEquals(new BigDecimal("0.00"),
+        response.getByStrategy().get(CouponDiscountStrategy.CODE).getDelta());
+  }
+
+  @Test
+  void givenSpendTierRule_whenSimulate_thenThrowRetailStoreException() {
+    var rules = List.of(DiscountRule.builder().name("SpendTier")
+        .type(DiscountRuleType.SPEND_TIER).build());
+
+    var exception = assertThrows(RetailStoreException.class,
+        () -> discountSimulationService.simulate(rules, FROM, TO));
+
+    assertEquals(ErrorRegistry.SPEND_TIER_NOT_SIMULATED, exception.getErrorRegistry());
+    verify(mongoTemplate, never()).stream(any(Query.class), eq(Bill.class));
+  }
+
+  @Test
+  void givenEmptyPeriod_whenSimulate_thenThrowRetailStoreException() {
+    var rules = DefaultDiscountRules.rules();
+
+    var exception = assertThrows(RetailStoreException.class,
+        () -> discountSimulationService.simulate(rules, TO, FROM));
+
+    assertEquals(ErrorRegistry.INVALID_SIMULATION_PERIOD, exception.getErrorRegistry());
+    verify(mongoTemplate, never()).stream(any(Query.class), eq(Bill.class));
+  }
+
+  private static Bill bill(String userId, UserType userType, String discount,
+      AppliedDiscount... discounts) {
+    return Bill.builder()
+        .userId(userId)
+        .userType(userType)
+        .items(List.of(BillItem.builder().productId("p1").type(ProductType.ELECTRONICS)
+            .unitPrice(new BigDecimal("100.00")).quantity(1).build()))
+        .totalAmount(new BigDecimal("100.00"))
+        .discount(new BigDecimal(discount))
+        .discounts(List.of(discounts))
+        .build();
+  }
+}
@@ -0,0 +1,129 @@
+package com.ahmeric.store.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.ahmeric.store.entity.AppliedDiscount;
+import com.ahmeric.store.entity.Bill;
+import com.ahmeric.store.entity.BillItem;
+import com.ahmeric.store.entity.Product;
+import com.ahmeric.store.entity.ProductType;
+import com.ahmeric.store.entity.UserType;
+import com.ahmeric.store.exception.ErrorRegistry;
+import com.ahmeric.store.exception.RetailStoreException;
+import com.ahmeric.store.model.dto.BillDto;
+import com.ahmeric.store.model.response.BillResponse;
+import com.ahmeric.store.model.response.ProductResponse;
+import com.ahmeric.store.service.discount.DiscountDescriptionRenderer;
+import com.ahmeric.store.utils.Mapper;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+@ExtendWith(MockitoExtension.class)
+class ExportServiceTest {
+
+  @Mock
+  private MongoTemplate mongoTemplate;
+
+  @Mock
+  private DiscountDescriptionRenderer discountDescriptionRenderer;
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+
+  private ExportService exportService;
+
+  @BeforeEach
+  void setUp() {
+    exportService = new ExportService(mongoTemplate, objectMapper, new Mapper(),
+        discountDescriptionRenderer, 2);
+  }
+
+  @Test
+  void givenFilters_whenExportBills_thenWriteOneBillPerLineFromFilteredCursor()
+      throws IOException {
+    var bills = IntStream.range(0, 3)
+        .mapToObj(i -> Bill.builder().id("bill" + i).userId("user1").userType(UserType.EMPLOYEE)
+            .items(List.of(BillItem.builder().productId("product1").type(ProductType.GROCERY)
+                .unitPrice(new BigDecimal("2.50")).quantity(2).build()))
+            .totalAmount(new BigDecimal("5.00"))
+            .discount(new BigDecimal("1.50"))
+            .netAmount(new BigDecimal("3.50"))
+            .discounts(List.of(new AppliedDiscount("EmployeeDiscountStrategy", 3000L,
+                new BigDecimal("1.50"))))
+            .build())
+        .toList();
+    when(mongoTemplate.stream(any(Query.class), eq(Bill.class))).thenReturn(bills.stream());
+    when(discountDescriptionRenderer.render(any(BillDto.class), any(Locale.class)))
+        .thenReturn(List.of("30% employee discount"));
+    var out = new ByteArrayOutputStream();
+
+    exportService.exportBills(LocalDate.of(2023, 1, 1), LocalDate.of(2023, 2, 1),
+        UserType.EMPLOYEE).writeTo(out);
+
+    var lines = out.toString(StandardCharsets.UTF_8).split("\n");
+    assertEquals(3, lines.length);
+    var first = objectMapper.readValue(lines[0], BillResponse.class);
+    assertEquals("bill0", first.getId());
+    assertEquals(new BigDecimal("3.50"), first.getNetAmount());
+    assertEquals(List.of("30% employee discount"), first.getAppliedDiscounts());
+    assertEquals(2, first.getItems().get(0).getQuantity());
+    var query = ArgumentCaptor.forClass(Query.class);
+    verify(mongoTemplate).stream(query.capture(), eq(Bill.class));
+    Document filter = query.getValue().getQueryObject();
+    assertEquals(UserType.EMPLOYEE, filter.get("userType"));
+    assertEquals(DiscountSimulationService.toObjectId(LocalDate.of(2023, 1, 1)),
+        ((Document) filter.get("_id")).get("$gte"));
+    assertEquals(DiscountSimulationService.toObjectId(LocalDate.of(2023, 2, 1)),
+        ((Document) filter.get("_id")).get("$lt"));
+    assertEquals(2, query.getValue().getMeta().getCursorBatchSize());
+  }
+
+  @Test
+  void givenEmptyPeriod_whenExportBills_thenThrowBeforeReading() {
+    var day = LocalDate.of(2023, 1, 1);
+
+    var exception = assertThrows(RetailStoreException.class,
+        () -> exportService.exportBills(day, day, null));
+
+    assertEquals(ErrorRegistry.INVALID_EXPORT_PERIOD, exception.getErrorRegistry());
+    verifyNoInteractions(mongoTemplate);
+  }
+
+  @Test
+  void whenExportProducts_thenWriteOneProductPerLine() throws IOException {
+    when(mongoTemplate.stream(any(Query.class), eq(Product.class))).thenReturn(Stream.of(
+        Product.builder().id("1").name("soda").type(ProductType.GROCERY)
+            .price(new BigDecimal("1.20")).build()));
+    var out = new ByteArrayOutputStream();
+
+    exportService.exportProducts().writeTo(out);
+
+    var content = out.toString(StandardCharsets.UTF_8);
+    assertEquals('\n', content.charAt(content.length() - 1));
+    var product = objectMapper.readValue(content.trim(), ProductResponse.class);
+    assertEquals("soda", product.getName());
+    assertEquals(new BigDecimal("1.20"), product.getPrice());
+  }
+}
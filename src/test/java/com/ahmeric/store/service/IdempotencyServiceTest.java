@@ -0,0 +1,188 @@
+package com.ahmeric.store.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.ahmeric.store.entity.IdempotencyRecord;
+import com.ahmeric.store.exception.ErrorRegistry;
+import com.ahmeric.store.exception.RetailStoreException;
+import com.ahmeric.store.model.request.BillRequest;
+import com.ahmeric.store.model.response.BillResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.client.result.UpdateResult;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyServiceTest {
+
+  @Mock
+  private MongoTemplate mongoTemplate;
+
+  @Mock
+  private IndexOperations indexOperations;
+
+  @Mock
+  private Supplier<BillResponse> creator;
+
+  private IdempotencyService idempotencyService;
+  private BillRequest billRequest;
+  private BillResponse billResponse;
+
+  @BeforeEach
+  void setUp() {
+    idempotencyService = new IdempotencyService(mongoTemplate, new ObjectMapper(), 100,
+        Duration.ofHours(1), Duration.ofSeconds(30));
+    billRequest = new BillRequest();
+    billRequest.setProductIdLists(List.of("1", "2"));
+    billResponse = BillResponse.builder().id("bill1").build();
+
+    Authentication authentication = mock(Authentication.class);
+    SecurityContext securityContext = mock(SecurityContext.class);
+    when(securityContext.getAuthentication()).thenReturn(authentication);
+    when(authentication.getName()).thenReturn("userName");
+    SecurityContextHolder.setContext(securityContext);
+    when(mongoTemplate.indexOps(IdempotencyRecord.class)).thenReturn(indexOperations);
+  }
+
+  @Test
+  void givenRetriedKey_whenExecute_thenCreateOnceAndReturnStoredResponse() {
+    when(creator.get()).thenReturn(billResponse);
+
+    var first = idempotencyService.execute("key", billRequest, creator);
+    var retry = idempotencyService.execute("key", billRequest, creator);
+
+    assertEquals(billResponse, first);
+    assertEquals(billResponse, retry);
+    verify(creator, times(1)).get();
+    verify(mongoTemplate, times(1)).insert(any(IdempotencyRecord.class));
+    verify(mongoTemplate, times(1)).updateFirst(any(Query.class), any(Update.class),
+        eq(IdempotencyRecord.class));
+  }
+
+  @Test
+  void givenKeyCompletedOnAnotherInstance_whenExecute_thenReturnStoredResponse() {
+    ArgumentCaptor<IdempotencyRecord> captor = ArgumentCaptor.forClass(IdempotencyRecord.class);
+    idempotencyService.execute("key", billRequest, () -> billResponse);
+    verify(mongoTemplate).insert(captor.capture());
+    var completed = captor.getValue();
+    var otherInstance = new IdempotencyService(mongoTemplate, new ObjectMapper(), 100,
+        Duration.ofHours(1), Duration.ofSeconds(30));
+    when(mongoTemplate.insert(any(IdempotencyRecord.class)))
+        .thenThrow(new DuplicateKeyException("duplicate"));
+    when(mongoTemplate.findById("userName:key", IdempotencyRecord.class))
+        .thenReturn(completed);
+
+    assertEquals(billResponse, otherInstance.execute("key", billRequest, creator));
+    verify(creator, never()).get();
+  }
+
+  @Test
+  void givenKeyInProgress_whenExecute_thenThrowRetailStoreException() {
+    when(mongoTemplate.insert(any(IdempotencyRecord.class)))
+        .thenThrow(new DuplicateKeyException("duplicate"));
+    when(mongoTemplate.findById("userName:key", IdempotencyRecord.class))
+        .thenReturn(IdempotencyRecord.builder().id("userName:key")
+            .leaseExpiresAt(Instant.now().plusSeconds(10)).build());
+
+    var exception = assertThrows(RetailStoreException.class,
+        () -> idempotencyService.execute("key", billRequest, creator));
+
+    assertEquals(ErrorRegistry.IDEMPOTENCY_KEY_IN_PROGRESS, exception.getErrorRegistry());
+    verify(creator, never()).get();
+  }
+
+  @Test
+  void givenKeyWithExpiredLease_whenExecute_thenTakeOverAndCreateBill() {
+    var abandoned = abandonedRecord();
+    var otherInstance = new IdempotencyService(mongoTemplate, new ObjectMapper(), 100,
+        Duration.ofHours(1), Duration.ofSeconds(30));
+    when(mongoTemplate.insert(any(IdempotencyRecord.class)))
+        .thenThrow(new DuplicateKeyException("duplicate"));
+    when(mongoTemplate.findById("userName:key", IdempotencyRecord.class)).thenReturn(abandoned);
+    when(mongoTemplate.updateFirst(any(Query.class), any(Update.class),
+        eq(IdempotencyRecord.class))).thenReturn(UpdateResult.acknowledged(1, 1L, null));
+    when(creator.get()).thenReturn(billResponse);
+
+    assertEquals(billResponse, otherInstance.execute("key", billRequest, creator));
+    verify(creator, times(1)).get();
+  }
+
+  @Test
+  void givenExpiredLeaseTakenOverByAnotherRequest_whenExecute_thenThrowRetailStoreException() {
+    var abandoned = abandonedRecord();
+    var otherInstance = new IdempotencyService(mongoTemplate, new ObjectMapper(), 100,
+        Duration.ofHours(1), Duration.ofSeconds(30));
+    when(mongoTemplate.insert(any(IdempotencyRecord.class)))
+        .thenThrow(new DuplicateKeyException("duplicate"));
+    when(mongoTemplate.findById("userName:key", IdempotencyRecord.class)).thenReturn(abandoned);
+    when(mongoTemplate.updateFirst(any(Query.class), any(Update.class),
+        eq(IdempotencyRecord.class))).thenReturn(UpdateResult.acknowledged(0, 0L, null));
+
+    var exception = assertThrows(RetailStoreException.class,
+        () -> otherInstance.execute("key", billRequest, creator));
+
+    assertEquals(ErrorRegistry.IDEMPOTENCY_KEY_IN_PROGRESS, exception.getErrorRegistry());
+    verify(creator, never()).get();
+  }
+
+  @Test
+  void givenKeyReusedForAnotherRequest_whenExecute_thenThrowRetailStoreException() {
+    when(creator.get()).thenReturn(billResponse);
+    idempotencyService.execute("key", billRequest, creator);
+    var otherRequest = new BillRequest();
+    otherRequest.setProductIdLists(List.of("3"));
+
+    var exception = assertThrows(RetailStoreException.class,
+        () -> idempotencyService.execute("key", otherRequest, creator));
+
+    assertEquals(ErrorRegistry.IDEMPOTENCY_KEY_REUSED, exception.getErrorRegistry());
+  }
+
+  @Test
+  void givenFailingCreation_whenExecute_thenReleaseKeyAndRethrow() {
+    when(creator.get()).thenThrow(new RetailStoreException(ErrorRegistry.PRODUCT_NOT_FOUND));
+
+    assertThrows(RetailStoreException.class,
+        () -> idempotencyService.execute("key", billRequest, creator));
+
+    verify(mongoTemplate, times(1)).remove(any(Query.class), eq(IdempotencyRecord.class));
+    verify(mongoTemplate, never()).updateFirst(any(Query.class), any(Update.class),
+        eq(IdempotencyRecord.class));
+  }
+
+  private IdempotencyRecord abandonedRecord() {
+    ArgumentCaptor<IdempotencyRecord> captor = ArgumentCaptor.forClass(IdempotencyRecord.class);
+    idempotencyService.execute("key", billRequest, () -> billResponse);
+    verify(mongoTemplate).insert(captor.capture());
+    var abandoned = captor.getValue();
+    abandoned.setCompleted(false);
+    abandoned.setResponse(null);
+    abandoned.setLeaseExpiresAt(Instant.now().minusSeconds(1).truncatedTo(ChronoUnit.MILLIS));
+    return abandoned;
+  }
+}
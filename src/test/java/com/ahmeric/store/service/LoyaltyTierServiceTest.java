@@ -0,0 +1,90 @@
+package com.ahmeric.store.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.ahmeric.store.entity.LoyaltyTier;
+import com.ahmeric.store.entity.User;
+import com.ahmeric.store.entity.UserType;
+import com.mongodb.bulk.BulkWriteResult;
+import java.time.LocalDate;
+import java.util.List;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+@ExtendWith(MockitoExtension.class)
+class LoyaltyTierServiceTest {
+
+  @Mock
+  private MongoTemplate mongoTemplate;
+
+  @Mock
+  private BulkOperations bulkOperations;
+
+  @Mock
+  private BulkWriteResult bulkWriteResult;
+
+  @InjectMocks
+  private LoyaltyTierService loyaltyTierService;
+
+  @Test
+  void givenToday_whenUpdateTiers_thenPromoteCustomersWithOneBulkWrite() {
+    var today = LocalDate.of(2023, 6, 15);
+    when(mongoTemplate.bulkOps(BulkMode.ORDERED, User.class)).thenReturn(bulkOperations);
+    when(bulkOperations.execute()).thenReturn(bulkWriteResult);
+    when(bulkWriteResult.getModifiedCount()).thenReturn(3);
+    ArgumentCaptor<Query> queries = ArgumentCaptor.forClass(Query.class);
+    ArgumentCaptor<Update> updates = ArgumentCaptor.forClass(Update.class);
+
+    long promoted = loyaltyTierService.updateTiers(today);
+
+    assertEquals(3, promoted);
+    verify(bulkOperations, times(2)).updateMulti(queries.capture(), updates.capture());
+    verify(bulkOperations, times(1)).execute();
+    Document promotion = queries.getAllValues().get(0).getQueryObject();
+    assertEquals(UserType.CUSTOMER, promotion.get("userType"));
+    assertEquals(new Document("$lte", today.minusYears(3)), promotion.get("registrationDate"));
+    assertEquals(new Document("$nin", List.of("LOYAL")), promotion.get("loyaltyTier"));
+    assertEquals("LOYAL", updates.getAllValues().get(0).getUpdateObject()
+        .get("$set", Document.class).get("loyaltyTier"));
+    assertEquals("NONE", updates.getAllValues().get(1).getUpdateObject()
+        .get("$set", Document.class).get("loyaltyTier"));
+  }
+
+  @Test
+  void givenNoUsersToPromote_whenPromoteCustomers_thenExecuteBulkWrite() {
+    when(mongoTemplate.bulkOps(BulkMode.ORDERED, User.class)).thenReturn(bulkOperations);
+    when(bulkOperations.execute()).thenReturn(bulkWriteResult);
+
+    loyaltyTierService.promoteCustomers();
+
+    verify(bulkOperations, times(2)).updateMulti(any(Query.class), any(Update.class));
+  }
+
+  @ParameterizedTest
+  @CsvSource({
+      "CUSTOMER, 2020-06-16, NONE",
+      "CUSTOMER, 2020-06-15, LOYAL",
+      "CUSTOMER, 2010-01-01, LOYAL",
+      "EMPLOYEE, 2010-01-01, NONE"
+  })
+  void givenUser_whenComputeTier_thenReturnHighestTierReached(UserType userType,
+      LocalDate registrationDate, LoyaltyTier expected) {
+    assertEquals(expected, LoyaltyTier.of(userType, registrationDate, LocalDate.of(2023, 6, 15)));
+  }
+}
@@ -2,6 +2,7 @@ package com.ahmeric.store.service;
 
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -9,24 +10,29 @@ import static org.mockito.Mockito.when;
 
 import com.ahmeric.store.entity.Product;
 import com.ahmeric.store.entity.ProductType;
+import com.ahmeric.store.event.ProductChangedEvent;
+import com.ahmeric.store.exception.ErrorRegistry;
 import com.ahmeric.store.exception.RetailStoreException;
+import com.ahmeric.store.model.dto.CatalogChanges;
 import com.ahmeric.store.model.dto.ProductDto;
 import com.ahmeric.store.repository.ProductRepository;
 import com.ahmeric.store.utils.Mapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Optional;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 @ExtendWith(MockitoExtension.class)
 class ProductServiceTest {
 
-  @InjectMocks
   private ProductService productService;
 
   @Mock
@@ -35,11 +41,21 @@ class ProductServiceTest {
   @Mock
   private Mapper modelMapper;
 
+  @Mock
+  private ApplicationEventPublisher eventPublisher;
+
+  @Mock
+  private CatalogVersionService catalogVersionService;
+
+  private SimpleMeterRegistry meterRegistry;
   private Product product1;
   private ProductDto productDto1;
 
   @BeforeEach
   void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    productService = new ProductService(productRepository, modelMapper, eventPublisher,
+        new ProductCache(100, Duration.ofMinutes(10), meterRegistry), catalogVersionService);
     product1 = Product.builder().id("1").name("product1").price(BigDecimal.valueOf(100))
         .type(ProductType.ELECTRONICS).build();
     productDto1 = ProductDto.builder().id("1").name("product1").price(BigDecimal.valueOf(100))
@@ -58,6 +74,58 @@ class ProductServiceTest {
     assertEquals("product1", result.getName());
     assertEquals(BigDecimal.valueOf(100), result.getPrice());
     verify(productRepository, times(1)).save(product1);
+    verify(eventPublisher, times(1)).publishEvent(new ProductChangedEvent(productDto1));
+  }
+
+  @Test
+  void testCreateProduct_ShouldStoreProductWithNextCatalogVersion() {
+    when(modelMapper.map(productDto1, Product.class)).thenReturn(product1);
+    when(catalogVersionService.next()).thenReturn(42L);
+
+    productService.createProduct(productDto1);
+
+    assertEquals(42L, product1.getVersion());
+    verify(productRepository, times(1)).save(product1);
+    verify(catalogVersionService).complete(42L);
+  }
+
+  @Test
+  void testCreateProduct_WhenSaveFails_ShouldCompleteCatalogVersion() {
+    when(modelMapper.map(productDto1, Product.class)).thenReturn(product1);
+    when(catalogVersionService.next()).thenReturn(42L);
+    when(productRepository.save(product1)).thenThrow(new IllegalStateException("down"));
+
+    assertThrows(IllegalStateException.class, () -> productService.createProduct(productDto1));
+
+    verify(catalogVersionService).complete(42L);
+  }
+
+  @Test
+  void testGetProductsChangedSince_GivenWriteInFlight_ShouldReturnChangesAndCommittedVersion() {
+    var productDto2 = ProductDto.builder().id("2").version(9L).build();
+    productDto1.setVersion(8L);
+    when(catalogVersionService.committed()).thenReturn(7L);
+    when(productRepository.findByVersionGreaterThanOrderByVersionAsc(5)).thenReturn(
+        List.of(product1));
+    when(modelMapper.map(List.of(product1), Mapper.PRODUCT_DTO_LIST_TYPE))
+        .thenReturn(List.of(productDto1, productDto2));
+
+    CatalogChanges result = productService.getProductsChangedSince(5);
+
+    assertEquals(7L, result.version());
+    assertEquals(List.of(productDto1, productDto2), result.products());
+  }
+
+  @Test
+  void testGetProductsChangedSince_GivenNoVersion_ShouldReturnWholeCatalog() {
+    when(productRepository.findAll()).thenReturn(List.of(product1));
+    when(modelMapper.map(List.of(product1), Mapper.PRODUCT_DTO_LIST_TYPE))
+        .thenReturn(List.of(productDto1));
+
+    CatalogChanges result = productService.getProductsChangedSince(0);
+
+    assertEquals(0L, result.version());
+    assertEquals(List.of(productDto1), result.products());
   }
 
   @Test
@@ -96,6 +164,38 @@ class ProductServiceTest {
     verify(productRepository, times(1)).findById("unknown");
   }
 
+  @Test
+  void testGetProductsByIds_GivenDuplicateIds_ShouldReturnProductsInRequestOrder() {
+    var product2 = Product.builder().id("2").name("product2").price(BigDecimal.TEN)
+        .type(ProductType.GROCERY).build();
+    var productDto2 = ProductDto.builder().id("2").name("product2").price(BigDecimal.TEN)
+        .type(ProductType.GROCERY).build();
+    when(productRepository.findAllById(new LinkedHashSet<>(List.of("2", "1"))))
+        .thenReturn(List.of(product1, product2));
+    when(modelMapper.map(product1, ProductDto.class)).thenReturn(productDto1);
+    when(modelMapper.map(product2, ProductDto.class)).thenReturn(productDto2);
+
+    List<ProductDto> result = productService.getProductsByIds(List.of("2", "1", "2"));
+
+    assertEquals(List.of(productDto2, productDto1, productDto2), result);
+    assertSame(result.get(0), result.get(2));
+    verify(productRepository, times(1)).findAllById(new LinkedHashSet<>(List.of("2", "1")));
+  }
+
+  @Test
+  void testGetProductsByIds_GivenUnknownIds_ShouldReportAllMissingIds() {
+    when(productRepository.findAllById(new LinkedHashSet<>(List.of("1", "x", "y"))))
+        .thenReturn(List.of(product1));
+    when(modelMapper.map(product1, ProductDto.class)).thenReturn(productDto1);
+    var ids = List.of("1", "x", "y", "x");
+
+    var exception = assertThrows(RetailStoreException.class,
+        () -> productService.getProductsByIds(ids));
+
+    assertEquals(ErrorRegistry.PRODUCT_NOT_FOUND, exception.getErrorRegistry());
+    assertEquals("x, y", exception.getDetail());
+  }
+
   @Test
   void testUpdateProduct_GivenValidProductDTO_ShouldReturnUpdatedProductDTO() {
     when(productRepository.findById("1")).thenReturn(Optional.of(product1));
@@ -108,6 +208,7 @@ class ProductServiceTest {
     assertEquals("product1", result.getName());
     assertEquals(BigDecimal.valueOf(100), result.getPrice());
     verify(productRepository, times(1)).save(product1);
+    verify(eventPublisher, times(1)).publishEvent(new ProductChangedEvent(productDto1));
   }
 
   @Test
@@ -118,4 +219,58 @@ class ProductServiceTest {
         () -> productService.updateProduct(productDto));
     verify(productRepository, times(1)).findById("unknown");
   }
+
+  @Test
+  void givenCachedProduct_whenGetProductById_thenDoNotQueryAgainAndRecordHit() {
+    when(productRepository.findById("1")).thenReturn(Optional.of(product1));
+    when(modelMapper.map(product1, ProductDto.class)).thenReturn(productDto1);
+
+    productService.getProductById("1");
+    ProductDto result = productService.getProductById("1");
+
+    assertSame(productDto1, result);
+    verify(productRepository, times(1)).findById("1");
+    assertEquals(1.0, meterRegistry.get("cache.gets").tags("cache", "products", "result", "hit")
+        .functionCounter().count());
+    assertEquals(1.0, meterRegistry.get("cache.gets").tags("cache", "products", "result", "miss")
+        .functionCounter().count());
+  }
+
+  @Test
+  void givenPartlyCachedIds_whenGetProductsByIds_thenQueryOnlyMissingIds() {
+    var product2 = Product.builder().id("2").name("product2").price(BigDecimal.TEN)
+        .type(ProductType.GROCERY).build();
+    var productDto2 = ProductDto.builder().id("2").name("product2").price(BigDecimal.TEN)
+        .type(ProductType.GROCERY).build();
+    when(productRepository.findById("1")).thenReturn(Optional.of(product1));
+    when(modelMapper.map(product1, ProductDto.class)).thenReturn(productDto1);
+    when(productRepository.findAllById(new LinkedHashSet<>(List.of("2"))))
+        .thenReturn(List.of(product2));
+    when(modelMapper.map(product2, ProductDto.class)).thenReturn(productDto2);
+    productService.getProductById("1");
+
+    List<ProductDto> result = productService.getProductsByIds(List.of("1", "2"));
+
+    assertEquals(List.of(productDto1, productDto2), result);
+    verify(productRepository, times(1)).findAllById(new LinkedHashSet<>(List.of("2")));
+  }
+
+  @Test
+  void givenCachedProducts_whenUpdateProduct_thenReadUpdatedProduct() {
+    var updatedDto = ProductDto.builder().id("1").name("renamed").price(BigDecimal.ONE)
+        .type(ProductType.ELECTRONICS).build();
+    when(productRepository.findById("1")).thenReturn(Optional.of(product1));
+    when(productRepository.findAll()).thenReturn(List.of(product1));
+    when(modelMapper.map(product1, ProductDto.class)).thenReturn(productDto1, updatedDto);
+    when(modelMapper.map(List.of(product1), Mapper.PRODUCT_DTO_LIST_TYPE))
+        .thenReturn(List.of(productDto1), List.of(updatedDto));
+    productService.getProductById("1");
+    productService.getAllProducts();
+
+    productService.updateProduct(updatedDto);
+
+    assertEquals(updatedDto, productService.getProductById("1"));
+    assertEquals(List.of(updatedDto), productService.getAllProducts());
+    verify(productRepository, times(2)).findAll();
+  }
 }
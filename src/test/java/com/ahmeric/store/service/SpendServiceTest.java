@@ -0,0 +1,147 @@
+package com.ahmeric.store.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.ahmeric.store.entity.Bill;
+import com.ahmeric.store.entity.User;
+import com.ahmeric.store.entity.UserSpend;
+import com.ahmeric.store.event.BillsWrittenEvent;
+import com.mongodb.client.result.DeleteResult;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+@ExtendWith(MockitoExtension.class)
+class SpendServiceTest {
+
+  private static final LocalDate TODAY = LocalDate.of(2023, 6, 15);
+
+  @Mock
+  private MongoTemplate mongoTemplate;
+
+  @Mock
+  private BulkOperations bucketOperations;
+
+  @Mock
+  private BulkOperations userOperations;
+
+  private SpendService spendService;
+
+  @BeforeEach
+  void setUp() {
+    spendService = new SpendService(mongoTemplate, 30);
+  }
+
+  @Test
+  void givenBills_whenRecordSpend_thenIncrementDayBucketAndRollingSpendPerUser() {
+    when(mongoTemplate.bulkOps(BulkMode.UNORDERED, UserSpend.class)).thenReturn(bucketOperations);
+    when(mongoTemplate.bulkOps(BulkMode.UNORDERED, User.class)).thenReturn(userOperations);
+
+    spendService.recordSpend(List.of(bill("user1", "100.00"), bill("user2", "20.50"),
+        bill("user1", "5.25")), TODAY);
+
+    var bucketQuery = ArgumentCaptor.forClass(Query.class);
+    var bucketUpdate = ArgumentCaptor.forClass(Update.class);
+    verify(bucketOperations, times(2)).upsert(bucketQuery.capture(), bucketUpdate.capture());
+    assertEquals("user1:2023-06-15", bucketQuery.getAllValues().get(0).getQueryObject().get("_id"));
+    assertEquals(10_525L, bucketUpdate.getAllValues().get(0).getUpdateObject()
+        .get("$inc", Document.class).get("amount"));
+    var userUpdate = ArgumentCaptor.forClass(Update.class);
+    verify(userOperations, times(2)).updateOne(any(Query.class), userUpdate.capture());
+    assertEquals(2_050L, userUpdate.getAllValues().get(1).getUpdateObject()
+        .get("$inc", Document.class).get("rollingSpend"));
+    verify(bucketOperations).execute();
+    verify(userOperations).execute();
+  }
+
+  @Test
+  void givenBillsWithoutUser_whenRecordSpend_thenWriteNothing() {
+    spendService.recordSpend(List.of(bill(null, "10.00")), TODAY);
+
+    verify(mongoTemplate, never()).bulkOps(any(BulkMode.class), any(Class.class));
+  }
+
+  @Test
+  void givenFailingWrite_whenOnBillsWritten_thenDoNotPropagate() {
+    when(mongoTemplate.bulkOps(BulkMode.UNORDERED, UserSpend.class))
+        .thenThrow(new IllegalStateException("unavailable"));
+
+    spendService.onBillsWritten(new BillsWrittenEvent(List.of(bill("user1", "10.00"))));
+
+    verify(mongoTemplate, never()).bulkOps(BulkMode.UNORDERED, User.class);
+  }
+
+  @Test
+  void givenExpiredBuckets_whenExpireSpend_thenRecomputeRollingSpendBeforeRemovingThem() {
+    when(mongoTemplate.find(any(Query.class), eq(UserSpend.class))).thenReturn(
+        List.of(bucket("user1", TODAY.minusDays(30), 1_000),
+            bucket("user2", TODAY.minusDays(31), 250)),
+        List.of(bucket("user1", TODAY, 400), bucket("user1", TODAY.minusDays(29), 100)));
+    when(mongoTemplate.bulkOps(BulkMode.UNORDERED, User.class)).thenReturn(userOperations);
+    when(mongoTemplate.remove(any(Query.class), eq(UserSpend.class)))
+        .thenReturn(DeleteResult.acknowledged(2));
+
+    long expired = spendService.expireSpend(TODAY);
+
+    assertEquals(2, expired);
+    var query = ArgumentCaptor.forClass(Query.class);
+    verify(mongoTemplate, times(2)).find(query.capture(), eq(UserSpend.class));
+    assertEquals(TODAY.minusDays(29), query.getAllValues().get(0).getQueryObject()
+        .get("day", Document.class).get("$lt"));
+    assertEquals(TODAY.minusDays(29), query.getAllValues().get(1).getQueryObject()
+        .get("day", Document.class).get("$gte"));
+    var userQuery = ArgumentCaptor.forClass(Query.class);
+    var update = ArgumentCaptor.forClass(Update.class);
+    verify(userOperations, times(2)).updateOne(userQuery.capture(), update.capture());
+    Map<Object, Object> rollingSpends = new HashMap<>();
+    for (int i = 0; i < 2; i++) {
+      rollingSpends.put(userQuery.getAllValues().get(i).getQueryObject().get("_id"),
+          update.getAllValues().get(i).getUpdateObject().get("$set", Document.class)
+              .get("rollingSpend"));
+    }
+    assertEquals(Map.of("user1", 500L, "user2", 0L), rollingSpends);
+    var inOrder = inOrder(userOperations, mongoTemplate);
+    inOrder.verify(userOperations).execute();
+    inOrder.verify(mongoTemplate).remove(any(Query.class), eq(UserSpend.class));
+  }
+
+  @Test
+  void givenNoExpiredBuckets_whenExpireSpend_thenUpdateNoUser() {
+    when(mongoTemplate.find(any(Query.class), eq(UserSpend.class))).thenReturn(List.of());
+
+    assertEquals(0, spendService.expireSpend(TODAY));
+
+    verify(mongoTemplate, never()).bulkOps(BulkMode.UNORDERED, User.class);
+    verify(mongoTemplate, never()).remove(any(Query.class), eq(UserSpend.class));
+  }
+
+  private static UserSpend bucket(String userId, LocalDate day, long amount) {
+    return UserSpend.builder().id(UserSpend.id(userId, day)).userId(userId).day(day)
+        .amount(amount).build();
+  }
+
+  private static Bill bill(String userId, String netAmount) {
+    return Bill.builder().userId(userId).netAmount(new BigDecimal(netAmount)).build();
+  }
+}
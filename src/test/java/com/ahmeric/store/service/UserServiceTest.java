@@ -1,14 +1,20 @@
 package com.ahmeric.store.service;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.ahmeric.store.entity.User;
 import com.ahmeric.store.entity.UserType;
+import com.ahmeric.store.exception.ErrorRegistry;
 import com.ahmeric.store.exception.RetailStoreException;
+import com.ahmeric.store.model.dto.CursorPage;
 import com.ahmeric.store.model.dto.UserDto;
 import com.ahmeric.store.repository.UserRepository;
 import com.ahmeric.store.utils.Mapper;
@@ -21,6 +27,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
 
 @ExtendWith(MockitoExtension.class)
 class UserServiceTest {
@@ -81,19 +88,40 @@ class UserServiceTest {
   }
 
   @Test
-  void testGetAllUsers_WhenUsersExist_ShouldReturnListOfUserDTOs() {
-    when(userRepository.findAll()).thenReturn(List.of(user1, user2));
+  void testGetUsers_WhenUsersExist_ShouldReturnPageOfUserDTOs() {
+    when(userRepository.findAllBy(CursorPage.pageRequest(2))).thenReturn(List.of(user1, user2));
     when(modelMapper.map(List.of(user1, user2), Mapper.USER_DTO_LIST_TYPE))
         .thenReturn(List.of(userDto1, userDto2));
 
-    List<UserDto> result = userService.getAllUsers();
+    CursorPage<UserDto> result = userService.getUsers(null, 2);
 
-    assertEquals(2, result.size());
-    assertEquals("username1", result.get(0).getUserName());
-    assertEquals("password1", result.get(0).getPassword());
-    assertEquals("username2", result.get(1).getUserName());
-    assertEquals("password2", result.get(1).getPassword());
-    verify(userRepository, times(1)).findAll();
+    assertEquals(2, result.items().size());
+    assertEquals("username1", result.items().get(0).getUserName());
+    assertEquals("username2", result.items().get(1).getUserName());
+    assertNull(result.nextCursor());
+    verify(userRepository, times(1)).findAllBy(CursorPage.pageRequest(2));
   }
-}
 
+  @Test
+  void testGetUsers_GivenCursorAndMoreUsers_ShouldReturnNextCursor() {
+    user1.setId("id1");
+    when(userRepository.findByIdGreaterThan("64a000000000000000000000", CursorPage.pageRequest(1)))
+        .thenReturn(List.of(user1, user2));
+    when(modelMapper.map(List.of(user1), Mapper.USER_DTO_LIST_TYPE))
+        .thenReturn(List.of(userDto1));
+
+    CursorPage<UserDto> result = userService.getUsers("64a000000000000000000000", 1);
+
+    assertEquals(List.of(userDto1), result.items());
+    assertEquals("id1", result.nextCursor());
+  }
+
+  @Test
+  void testGetUsers_GivenMalformedCursor_ShouldThrowRetailStoreException() {
+    var exception = assertThrows(RetailStoreException.class,
+        () -> userService.getUsers("not-a-cursor", 1));
+
+    assertEquals(ErrorRegistry.INVALID_PAGE_CURSOR, exception.getErrorRegistry());
+    verify(userRepository, never()).findByIdGreaterThan(anyString(), any(Pageable.class));
+  }
+}
@@ -0,0 +1,156 @@
+package com.ahmeric.store.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.ahmeric.store.entity.Bill;
+import com.ahmeric.store.event.BillsWrittenEvent;
+import com.ahmeric.store.exception.ErrorRegistry;
+import com.ahmeric.store.exception.RetailStoreException;
+import com.ahmeric.store.service.coupon.CouponService;
+import com.mongodb.MongoException;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.InsertManyOptions;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+
+@ExtendWith(MockitoExtension.class)
+class WriteBehindBillWriterTest {
+
+  @Mock
+  private MongoTemplate mongoTemplate;
+
+  @Mock
+  private MongoCollection<Document> collection;
+
+  @Mock
+  private MongoConverter converter;
+
+  @Mock
+  private CouponService couponService;
+
+  @Mock
+  private ApplicationEventPublisher eventPublisher;
+
+  private WriteBehindBillWriter billWriter;
+
+  @BeforeEach
+  void setUp() {
+    billWriter = new WriteBehindBillWriter(mongoTemplate, couponService, eventPublisher, 1, 10,
+        Duration.ofMillis(10), Duration.ofSeconds(5), 3, Duration.ofMillis(50),
+        Duration.ofMillis(80), "MAJORITY");
+  }
+
+  @Test
+  void givenRunningWriter_whenWrite_thenAssignIdAndInsertBillBeforeStop() {
+    mockCollection();
+
+    billWriter.start();
+    var bill = billWriter.write(new Bill());
+    billWriter.stop();
+
+    assertNotNull(bill.getId());
+    assertTrue(billWriter.findPending(bill.getId()).isEmpty());
+    verify(collection).insertMany(anyList(), any(InsertManyOptions.class));
+    verify(eventPublisher).publishEvent(new BillsWrittenEvent(List.of(bill)));
+  }
+
+  @Test
+  void givenFailingInserts_whenWrite_thenRetryWithBoundedBackoff() {
+    mockCollection();
+    when(collection.insertMany(anyList(), any(InsertManyOptions.class)))
+        .thenThrow(new MongoException("down"))
+        .thenThrow(new MongoException("down"))
+        .thenReturn(null);
+
+    billWriter.start();
+    long start = System.nanoTime();
+    var bill = billWriter.write(new Bill());
+    billWriter.stop();
+
+    assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() >= 130);
+    verify(collection, times(3)).insertMany(anyList(), any(InsertManyOptions.class));
+    verify(eventPublisher).publishEvent(new BillsWrittenEvent(List.of(bill)));
+  }
+
+  @Test
+  void givenConcurrentWrites_whenStop_thenPersistEveryAcceptedBill() throws InterruptedException {
+    mockCollection();
+    List<Bill> accepted = new CopyOnWriteArrayList<>();
+    var stopped = new AtomicBoolean();
+    billWriter.start();
+    List<Thread> writers = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      var writer = new Thread(() -> {
+        while (!stopped.get()) {
+          try {
+            accepted.add(billWriter.write(new Bill()));
+          } catch (RetailStoreException e) {
+            Thread.onSpinWait();
+          }
+        }
+      });
+      writer.start();
+      writers.add(writer);
+    }
+
+    Thread.sleep(50);
+    billWriter.stop();
+    stopped.set(true);
+    for (Thread writer : writers) {
+      writer.join();
+    }
+
+    var events = ArgumentCaptor.forClass(BillsWrittenEvent.class);
+    verify(eventPublisher, atLeastOnce()).publishEvent(events.capture());
+    Set<Bill> written = events.getAllValues().stream()
+        .flatMap(event -> event.bills().stream())
+        .collect(Collectors.toSet());
+    assertFalse(accepted.isEmpty());
+    assertEquals(Set.copyOf(accepted), written);
+  }
+
+  @Test
+  void givenStoppedWriter_whenWrite_thenThrowRetailStoreException() {
+    var bill = new Bill();
+
+    var exception = assertThrows(RetailStoreException.class, () -> billWriter.write(bill));
+
+    assertEquals(ErrorRegistry.BILL_QUEUE_FULL, exception.getErrorRegistry());
+    assertTrue(billWriter.findPending(bill.getId()).isEmpty());
+    verify(mongoTemplate, never()).getCollection(anyString());
+  }
+
+  private void mockCollection() {
+    when(mongoTemplate.getCollectionName(Bill.class)).thenReturn("bills");
+    when(mongoTemplate.getCollection(anyString())).thenReturn(collection);
+    when(mongoTemplate.getConverter()).thenReturn(converter);
+    when(collection.withWriteConcern(any())).thenReturn(collection);
+  }
+}
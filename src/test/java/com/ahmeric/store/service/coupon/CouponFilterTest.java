@@ -0,0 +1,35 @@
+package com.ahmeric.store.service.coupon;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+class CouponFilterTest {
+
+  @Test
+  void givenAddedCodes_whenMightContain_thenNeverRejectThem() {
+    var filter = new CouponFilter(10_000, 0.01);
+    IntStream.range(0, 10_000).forEach(i -> filter.add("CODE" + i));
+
+    assertTrue(IntStream.range(0, 10_000).allMatch(i -> filter.mightContain("CODE" + i)));
+  }
+
+  @Test
+  void givenFullFilter_whenMightContainUnknownCodes_thenRejectAlmostAll() {
+    var filter = new CouponFilter(10_000, 0.01);
+    IntStream.range(0, 10_000).forEach(i -> filter.add("CODE" + i));
+
+    long falsePositives = IntStream.range(0, 100_000)
+        .filter(i -> filter.mightContain("GUESS" + i))
+        .count();
+
+    assertTrue(falsePositives < 2_000, "false positives: " + falsePositives);
+  }
+
+  @Test
+  void givenEmptyFilter_whenMightContain_thenReturnFalse() {
+    assertFalse(new CouponFilter(1_000, 0.01).mightContain("CODE"));
+  }
+}
@@ -0,0 +1,193 @@
+package com.ahmeric.store.service.coupon;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.ahmeric.store.entity.Coupon;
+import com.ahmeric.store.exception.ErrorRegistry;
+import com.ahmeric.store.exception.RetailStoreException;
+import com.ahmeric.store.model.dto.CouponDto;
+import com.mongodb.bulk.BulkWriteError;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Stream;
+import org.bson.BsonDocument;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+@ExtendWith(MockitoExtension.class)
+class CouponServiceTest {
+
+  @Mock
+  private MongoTemplate mongoTemplate;
+
+  @Mock
+  private BulkOperations bulkOperations;
+
+  private CouponService couponService;
+
+  @BeforeEach
+  void setUp() {
+    couponService = new CouponService(mongoTemplate, 1_000, 0.001);
+  }
+
+  @Test
+  void givenBuiltFilter_whenRedeemUnknownCode_thenRejectWithoutRedeeming() {
+    when(mongoTemplate.stream(any(Query.class), eq(Coupon.class)))
+        .thenAnswer(invocation -> Stream.of(Coupon.builder().code("VALIDCODE001").build()));
+    couponService.rebuildFilter();
+
+    var exception = assertThrows(RetailStoreException.class,
+        () -> couponService.redeem("GUESSEDCODE1", "user1"));
+
+    assertEquals(ErrorRegistry.COUPON_NOT_VALID, exception.getErrorRegistry());
+    verify(mongoTemplate).exists(any(Query.class), eq(Coupon.class));
+    verify(mongoTemplate, never()).findAndModify(any(Query.class), any(Update.class),
+        any(FindAndModifyOptions.class), eq(Coupon.class));
+  }
+
+  @Test
+  void givenCodeIssuedByOtherInstanceAfterRefresh_whenRedeem_thenLookUpRecentCodes() {
+    when(mongoTemplate.stream(any(Query.class), eq(Coupon.class)))
+        .thenAnswer(invocation -> Stream.empty());
+    couponService.rebuildFilter();
+    var lookup = ArgumentCaptor.forClass(Query.class);
+    when(mongoTemplate.exists(lookup.capture(), eq(Coupon.class))).thenReturn(true);
+    var coupon = Coupon.builder().code("OTHERNODE001").build();
+    when(mongoTemplate.findAndModify(any(Query.class), any(Update.class),
+        any(FindAndModifyOptions.class), eq(Coupon.class))).thenReturn(coupon);
+
+    assertSame(coupon, couponService.redeem("OTHERNODE001", "user1"));
+    couponService.redeem("OTHERNODE001", "user1");
+
+    var criteria = lookup.getValue().getQueryObject();
+    assertEquals("OTHERNODE001", criteria.get("_id"));
+    assertTrue(criteria.containsKey("issuedAt"));
+    verify(mongoTemplate).exists(any(Query.class), eq(Coupon.class));
+  }
+
+  @Test
+  void givenKnownCode_whenRedeem_thenRedeemAtomicallyWithFindAndModify() {
+    var coupon = Coupon.builder().code("VALIDCODE001").basisPoints(1000L).build();
+    when(mongoTemplate.stream(any(Query.class), eq(Coupon.class)))
+        .thenAnswer(invocation -> Stream.of(coupon));
+    couponService.rebuildFilter();
+    var query = ArgumentCaptor.forClass(Query.class);
+    when(mongoTemplate.findAndModify(query.capture(), any(Update.class),
+        any(FindAndModifyOptions.class), eq(Coupon.class))).thenReturn(coupon);
+
+    assertSame(coupon, couponService.redeem("VALIDCODE001", "user1"));
+
+    var criteria = query.getValue().getQueryObject();
+    assertEquals("VALIDCODE001", criteria.get("_id"));
+    assertTrue(criteria.containsKey("redeemedAt"));
+  }
+
+  @Test
+  void givenRedeemedCode_whenRedeem_thenThrowRetailStoreException() {
+    when(mongoTemplate.findAndModify(any(Query.class), any(Update.class),
+        any(FindAndModifyOptions.class), eq(Coupon.class))).thenReturn(null);
+
+    var exception = assertThrows(RetailStoreException.class,
+        () -> couponService.redeem("VALIDCODE001", "user1"));
+
+    assertEquals(ErrorRegistry.COUPON_NOT_VALID, exception.getErrorRegistry());
+  }
+
+  @Test
+  void givenIssuedCodes_whenRedeem_thenPassFilterWithoutRefresh() {
+    when(mongoTemplate.stream(any(Query.class), eq(Coupon.class)))
+        .thenAnswer(invocation -> Stream.empty());
+    couponService.rebuildFilter();
+    when(mongoTemplate.bulkOps(BulkMode.UNORDERED, Coupon.class)).thenReturn(bulkOperations);
+    when(bulkOperations.insert(anyList())).thenReturn(bulkOperations);
+    var codes = couponService.issueCoupons(CouponDto.builder()
+        .amount(new BigDecimal("5.00"))
+        .expiresAt(Instant.now().plusSeconds(3600))
+        .build(), 3).getCodes();
+    var coupon = Coupon.builder().code(codes.get(0)).build();
+    when(mongoTemplate.findAndModify(any(Query.class), any(Update.class),
+        any(FindAndModifyOptions.class), eq(Coupon.class))).thenReturn(coupon);
+
+    assertEquals(3, codes.stream().distinct().count());
+    assertSame(coupon, couponService.redeem(codes.get(0), "user1"));
+  }
+
+  @Test
+  void givenFilter_whenRefreshFilter_thenAddCodesIssuedSinceLastRefresh() {
+    when(mongoTemplate.stream(any(Query.class), eq(Coupon.class)))
+        .thenAnswer(invocation -> Stream.empty())
+        .thenAnswer(invocation -> Stream.empty())
+        .thenAnswer(invocation -> Stream.of(Coupon.builder().code("OTHERNODE001").build()));
+    couponService.refreshFilter();
+    assertThrows(RetailStoreException.class,
+        () -> couponService.getRedeemableCoupon("OTHERNODE001"));
+
+    couponService.refreshFilter();
+    var coupon = Coupon.builder().code("OTHERNODE001").build();
+    when(mongoTemplate.findOne(any(Query.class), eq(Coupon.class))).thenReturn(coupon);
+
+    assertSame(coupon, couponService.getRedeemableCoupon("OTHERNODE001"));
+  }
+
+  @Test
+  void givenCollidingCode_whenIssueCoupons_thenReportFailedCoupon() {
+    when(mongoTemplate.bulkOps(BulkMode.UNORDERED, Coupon.class)).thenReturn(bulkOperations);
+    when(bulkOperations.insert(anyList())).thenReturn(bulkOperations);
+    var bulkException = mock(BulkOperationException.class);
+    when(bulkException.getErrors()).thenReturn(
+        List.of(new BulkWriteError(11000, "duplicate key", new BsonDocument(), 1)));
+    when(bulkOperations.execute()).thenThrow(bulkException);
+
+    var result = couponService.issueCoupons(CouponDto.builder()
+        .basisPoints(1000L)
+        .expiresAt(Instant.now().plusSeconds(3600))
+        .build(), 3);
+
+    assertEquals(2, result.getCodes().size());
+    assertEquals(1, result.getFailed());
+  }
+
+  @Test
+  void givenCouponWithPercentageAndAmount_whenIssueCoupons_thenThrowRetailStoreException() {
+    var couponDto = CouponDto.builder().basisPoints(1000L).amount(BigDecimal.TEN)
+        .expiresAt(Instant.now().plusSeconds(3600)).build();
+
+    var exception = assertThrows(RetailStoreException.class,
+        () -> couponService.issueCoupons(couponDto, 1));
+
+    assertEquals(ErrorRegistry.INVALID_COUPON, exception.getErrorRegistry());
+    verifyNoInteractions(mongoTemplate);
+  }
+
+  @Test
+  void givenCode_whenRelease_thenUnsetRedemptionOfUser() {
+    couponService.release("VALIDCODE001", "user1");
+
+    var query = ArgumentCaptor.forClass(Query.class);
+    verify(mongoTemplate).updateFirst(query.capture(), any(Update.class), eq(Coupon.class));
+    assertEquals("user1", query.getValue().getQueryObject().get("redeemedBy"));
+  }
+}
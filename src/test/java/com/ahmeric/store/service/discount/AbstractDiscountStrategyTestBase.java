@@ -3,9 +3,11 @@ package com.ahmeric.store.service.discount;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 import com.ahmeric.store.entity.ProductType;
+import com.ahmeric.store.model.Money;
 import com.ahmeric.store.model.dto.BillDto;
 import com.ahmeric.store.model.dto.DiscountResult;
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -13,7 +15,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 @ExtendWith(MockitoExtension.class)
 public abstract class AbstractDiscountStrategyTestBase {
 
-  protected abstract DiscountStrategy getDiscountStrategy();
+  protected abstract PercentageDiscountStrategy getDiscountStrategy();
 
   protected abstract BigDecimal getDiscountPercentage();
 
@@ -24,13 +26,11 @@ public abstract class AbstractDiscountStrategyTestBase {
 
     DiscountResult discountResult = getDiscountStrategy().calculateDiscount(billDto);
 
-    assertEquals(expectedDiscount, discountResult.discountAmount());
-    String expectedDescription = String.format("%s - with percentage %s amount: %s",
-        getDiscountStrategy().getClass().getSimpleName(),
-        getDiscountPercentage().toPlainString(),
-        expectedDiscount.toPlainString());
-
-    assertEquals(expectedDescription, discountResult.discountDescription());
+    assertEquals(Money.of(expectedDiscount, RoundingMode.UNNECESSARY),
+        discountResult.discountAmount());
+    assertEquals(getDiscountStrategy().getName(), discountResult.code());
+    assertEquals(getDiscountPercentage().movePointRight(4).longValueExact(),
+        discountResult.basisPoints());
 
   }
 
@@ -42,13 +42,11 @@ public abstract class AbstractDiscountStrategyTestBase {
 
     DiscountResult discountResult = getDiscountStrategy().calculateDiscount(billDto);
 
-    assertEquals(expectedDiscount, discountResult.discountAmount());
-    String expectedDescription = String.format("%s - with percentage %s amount: %s",
-        getDiscountStrategy().getClass().getSimpleName(),
-        getDiscountPercentage().toPlainString(),
-        expectedDiscount.toPlainString());
-
-    assertEquals(expectedDescription, discountResult.discountDescription());
+    assertEquals(Money.of(expectedDiscount, RoundingMode.UNNECESSARY),
+        discountResult.discountAmount());
+    assertEquals(getDiscountStrategy().getName(), discountResult.code());
+    assertEquals(getDiscountPercentage().movePointRight(4).longValueExact(),
+        discountResult.basisPoints());
   }
 
   @Test
@@ -12,15 +12,15 @@ import org.mockito.junit.jupiter.MockitoExtension;
 @ExtendWith(MockitoExtension.class)
 class AffiliateDiscountStrategyTest extends AbstractDiscountStrategyTestBase {
 
-  private AffiliateDiscountStrategy affiliateDiscountStrategy;
+  private PercentageDiscountStrategy affiliateDiscountStrategy;
 
   @BeforeEach
   public void setup() {
-    affiliateDiscountStrategy = new AffiliateDiscountStrategy();
+    affiliateDiscountStrategy = new PercentageDiscountStrategy(DefaultDiscountRules.affiliate());
   }
 
   @Override
-  protected DiscountStrategy getDiscountStrategy() {
+  protected PercentageDiscountStrategy getDiscountStrategy() {
     return affiliateDiscountStrategy;
   }
 
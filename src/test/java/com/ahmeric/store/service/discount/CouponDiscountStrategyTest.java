@@ -0,0 +1,48 @@
+package com.ahmeric.store.service.discount;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.ahmeric.store.entity.Coupon;
+import com.ahmeric.store.model.Money;
+import com.ahmeric.store.model.dto.BillDto;
+import com.ahmeric.store.model.dto.DiscountResult;
+import java.math.BigDecimal;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.Ordered;
+
+class CouponDiscountStrategyTest {
+
+  @Test
+  void givenPercentageCoupon_whenCalculateDiscount_thenDiscountRemainingNetAmount() {
+    var strategy = new CouponDiscountStrategy(Coupon.builder().basisPoints(1000L).build());
+
+    var discountResult = strategy.calculateDiscount(createBill(200, 50));
+
+    assertEquals(new DiscountResult(Money.ofMajor(15), CouponDiscountStrategy.CODE, 1000L),
+        discountResult);
+  }
+
+  @Test
+  void givenFixedAmountCoupon_whenCalculateDiscount_thenDiscountAtMostNetAmount() {
+    var strategy = new CouponDiscountStrategy(
+        Coupon.builder().amount(new BigDecimal("25.00")).build());
+
+    assertEquals(Money.ofMajor(25), strategy.calculateDiscount(createBill(200, 50))
+        .discountAmount());
+    assertEquals(Money.ofMajor(10), strategy.calculateDiscount(createBill(60, 50))
+        .discountAmount());
+  }
+
+  @Test
+  void givenStrategy_whenGetOrder_thenApplyAfterOtherDiscounts() {
+    assertEquals(Ordered.LOWEST_PRECEDENCE,
+        new CouponDiscountStrategy(Coupon.builder().basisPoints(1000L).build()).getOrder());
+  }
+
+  private static BillDto createBill(long totalAmount, long discount) {
+    BillDto billDto = new BillDto();
+    billDto.setTotalAmount(Money.ofMajor(totalAmount));
+    billDto.setDiscount(Money.ofMajor(discount));
+    return billDto;
+  }
+}
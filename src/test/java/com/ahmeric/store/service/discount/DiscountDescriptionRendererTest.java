@@ -0,0 +1,66 @@
+package com.ahmeric.store.service.discount;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.ahmeric.store.model.Money;
+import com.ahmeric.store.model.dto.AppliedDiscountDto;
+import com.ahmeric.store.model.dto.BillDto;
+import com.ahmeric.store.utils.MessageUtils;
+import java.util.List;
+import java.util.Locale;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.context.support.ResourceBundleMessageSource;
+
+class DiscountDescriptionRendererTest {
+
+  private DiscountDescriptionRenderer renderer;
+
+  @BeforeEach
+  void setUp() {
+    var messageSource = new ResourceBundleMessageSource();
+    messageSource.setBasename("messages");
+    messageSource.setFallbackToSystemLocale(false);
+    renderer = new DiscountDescriptionRenderer(new MessageUtils(messageSource));
+    LocaleContextHolder.setLocale(Locale.US);
+  }
+
+  @AfterEach
+  void tearDown() {
+    LocaleContextHolder.resetLocaleContext();
+  }
+
+  @Test
+  void givenStructuredDiscounts_whenRender_thenFormatMessagesOfTheLocale() {
+    var billDto = BillDto.builder().discounts(List.of(
+        new AppliedDiscountDto("EmployeeDiscountStrategy", 3000L, Money.ofMinor(123_450)),
+        new AppliedDiscountDto("FixedAmountDiscountStrategy", null, Money.ofMajor(5)),
+        new AppliedDiscountDto("SummerSale", 250L, Money.ofMinor(99))))
+        .build();
+
+    assertEquals(List.of(
+        "Percentage discount - Employee discount policy with percentage 30% - amount: $1,234.50",
+        "Fixed amount discount - amount: $5.00",
+        "Percentage discount - SummerSale with percentage 2.5% - amount: $0.99"),
+        renderer.render(billDto));
+  }
+
+  @Test
+  void givenGermanLocale_whenRender_thenUseLocaleNumberFormat() {
+    LocaleContextHolder.setLocale(Locale.GERMANY);
+    var billDto = BillDto.builder().discounts(List.of(
+        new AppliedDiscountDto("FixedAmountDiscountStrategy", null, Money.ofMinor(123_450))))
+        .build();
+
+    assertEquals(List.of("Fixed amount discount - amount: $1.234,50"), renderer.render(billDto));
+  }
+
+  @Test
+  void givenLegacyBill_whenRender_thenReturnStoredDescriptions() {
+    var billDto = BillDto.builder().appliedDiscounts(List.of("Legacy discount")).build();
+
+    assertEquals(List.of("Legacy discount"), renderer.render(billDto));
+  }
+}
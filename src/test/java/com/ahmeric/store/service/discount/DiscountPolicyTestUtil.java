@@ -1,9 +1,11 @@
 package com.ahmeric.store.service.discount;
 
 import com.ahmeric.store.entity.ProductType;
+import com.ahmeric.store.model.Money;
 import com.ahmeric.store.model.dto.BillDto;
-import com.ahmeric.store.model.dto.ProductDto;
+import com.ahmeric.store.model.dto.BillItemDto;
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -12,11 +14,12 @@ public class DiscountPolicyTestUtil {
   public static BillDto createBillWithProductPriceAndType(BigDecimal productPrice,
       ProductType type) {
     BillDto billDto = new BillDto();
-    List<ProductDto> products = new ArrayList<>();
+    List<BillItemDto> items = new ArrayList<>();
 
-    products.add(ProductDto.builder().price(productPrice).type(type).build());
+    items.add(BillItemDto.builder().unitPrice(Money.of(productPrice, RoundingMode.HALF_UP))
+        .type(type).quantity(1).build());
 
-    billDto.setProducts(products);
+    billDto.setItems(items);
     return billDto;
   }
 
@@ -24,14 +27,14 @@ public class DiscountPolicyTestUtil {
       ProductType type1,
       ProductType type2) {
     BillDto billDto = new BillDto();
-    List<ProductDto> products = new ArrayList<>();
+    List<BillItemDto> items = new ArrayList<>();
     // Assuming each product has a price of 1 for simplicity
-    // Distribute the products evenly between the two types
-    for (int i = 0; i < totalProductCount / 2; i++) {
-      products.add(ProductDto.builder().price(BigDecimal.ONE).type(type1).build());
-      products.add(ProductDto.builder().price(BigDecimal.ONE).type(type2).build());
-    }
-    billDto.setProducts(products);
+    // Distribute the products evenly between two lines of the two types
+    items.add(BillItemDto.builder().unitPrice(Money.ofMajor(1)).type(type1)
+        .quantity(totalProductCount / 2).build());
+    items.add(BillItemDto.builder().unitPrice(Money.ofMajor(1)).type(type2)
+        .quantity(totalProductCount / 2).build());
+    billDto.setItems(items);
     return billDto;
   }
 }
@@ -2,16 +2,27 @@ package com.ahmeric.store.service.discount;
 
 import static org.junit.jupiter.api.Assertions.assertAll;
 import static org.junit.jupiter.api.Assertions.assertEquals;
-
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+import com.ahmeric.store.entity.ProductType;
+import com.ahmeric.store.entity.Promotion;
+import com.ahmeric.store.model.Money;
+import com.ahmeric.store.model.PricingContext;
+import com.ahmeric.store.model.dto.AppliedDiscountDto;
 import com.ahmeric.store.model.dto.BillDto;
+import com.ahmeric.store.model.dto.BillItemDto;
 import com.ahmeric.store.model.dto.DiscountResult;
-import java.math.BigDecimal;
+import com.ahmeric.store.service.promotion.PromotionService;
+import java.time.Instant;
 import java.util.Collections;
 import java.util.List;
+import java.util.stream.IntStream;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -22,9 +33,14 @@ class DiscountServiceTest {
   @Mock
   private DiscountStrategyFactory discountStrategyFactory;
 
-  @InjectMocks
+  @Mock
+  private PromotionService promotionService;
+
   private DiscountService discountService;
 
+  @Mock
+  private DiscountRuleSet ruleSet;
+
   private DiscountStrategy discountStrategy;
   private DiscountResult discountResult;
   private BillDto billDto;
@@ -32,74 +48,190 @@ class DiscountServiceTest {
   @BeforeEach
   public void setUp() {
     discountStrategy = Mockito.mock(DiscountStrategy.class);
-    discountResult = new DiscountResult(BigDecimal.TEN, "Test Discount");
+    discountResult = new DiscountResult(Money.ofMajor(10), "TestDiscount", 1000L);
     billDto = new BillDto();
+    billDto.setTotalAmount(Money.ofMajor(1000));
+    discountService = new DiscountService(discountStrategyFactory, promotionService, 2);
+    Mockito.lenient().when(discountStrategyFactory.getRuleSet()).thenReturn(ruleSet);
+    Mockito.when(ruleSet.getVersion()).thenReturn("v1");
   }
 
   @Test
   void shouldApplyApplicableDiscount_whenDiscountStrategyIsApplicable() {
-    Mockito.when(discountStrategyFactory.getApplicableDiscounts(billDto))
+    Mockito.when(ruleSet.getApplicableDiscounts(billDto))
         .thenReturn(Collections.singletonList(discountStrategy));
-    Mockito.when(discountStrategy.calculateDiscount(billDto)).thenReturn(discountResult);
+    Mockito.when(discountStrategy.calculateDiscount(any(PricingContext.class)))
+        .thenReturn(discountResult);
 
     BillDto resultBillDto = discountService.applyDiscount(billDto);
 
     assertAll(
-        () -> assertEquals(BigDecimal.TEN, resultBillDto.getDiscount()),
-        () -> assertEquals(Collections.singletonList("Test Discount"),
-            resultBillDto.getAppliedDiscounts())
+        () -> assertEquals(Money.ofMajor(10), resultBillDto.getDiscount()),
+        () -> assertEquals(Collections.singletonList(new AppliedDiscountDto("TestDiscount", 1000L,
+            Money.ofMajor(10))), resultBillDto.getDiscounts()),
+        () -> assertEquals("v1", resultBillDto.getRuleSetVersion())
     );
   }
 
   @Test
   void shouldNotApplyAnyDiscount_whenNoDiscountStrategyIsApplicable() {
-    Mockito.when(discountStrategyFactory.getApplicableDiscounts(billDto))
+    Mockito.when(ruleSet.getApplicableDiscounts(billDto))
         .thenReturn(Collections.emptyList());
 
     BillDto resultBillDto = discountService.applyDiscount(billDto);
 
     assertAll(
-        () -> assertEquals(BigDecimal.ZERO, resultBillDto.getDiscount()),
-        () -> assertEquals(Collections.emptyList(), resultBillDto.getAppliedDiscounts())
+        () -> assertEquals(Money.ZERO, resultBillDto.getDiscount()),
+        () -> assertEquals(Collections.emptyList(), resultBillDto.getDiscounts())
     );
   }
 
   @Test
   void shouldNotApplyDiscount_whenNoDiscountAmountIsZero() {
     DiscountStrategy discountStrategy2 = Mockito.mock(DiscountStrategy.class);
-    DiscountResult discountResult2 = new DiscountResult(BigDecimal.ZERO, "Test Discount 2");
+    DiscountResult discountResult2 = new DiscountResult(Money.ZERO, "TestDiscount2", null);
 
-    Mockito.when(discountStrategyFactory.getApplicableDiscounts(billDto))
+    Mockito.when(ruleSet.getApplicableDiscounts(billDto))
         .thenReturn(List.of(discountStrategy, discountStrategy2));
-    Mockito.when(discountStrategy.calculateDiscount(billDto)).thenReturn(discountResult);
-    Mockito.when(discountStrategy2.calculateDiscount(billDto)).thenReturn(discountResult2);
+    Mockito.when(discountStrategy.calculateDiscount(any(PricingContext.class)))
+        .thenReturn(discountResult);
+    Mockito.when(discountStrategy2.calculateDiscount(any(PricingContext.class)))
+        .thenReturn(discountResult2);
 
     BillDto resultBillDto = discountService.applyDiscount(billDto);
 
     assertAll(
-        () -> assertEquals(BigDecimal.valueOf(10), resultBillDto.getDiscount()),
-        () -> assertEquals(List.of("Test Discount"),
-            resultBillDto.getAppliedDiscounts())
+        () -> assertEquals(Money.ofMajor(10), resultBillDto.getDiscount()),
+        () -> assertEquals(List.of("TestDiscount"),
+            resultBillDto.getDiscounts().stream().map(AppliedDiscountDto::getCode).toList())
     );
   }
 
   @Test
   void shouldApplyMultipleDiscounts_whenMultipleDiscountStrategiesAreApplicable() {
     DiscountStrategy discountStrategy2 = Mockito.mock(DiscountStrategy.class);
-    DiscountResult discountResult2 = new DiscountResult(BigDecimal.valueOf(20), "Test Discount 2");
+    DiscountResult discountResult2 = new DiscountResult(Money.ofMajor(20), "TestDiscount2", null);
 
-    Mockito.when(discountStrategyFactory.getApplicableDiscounts(billDto))
+    Mockito.when(ruleSet.getApplicableDiscounts(billDto))
         .thenReturn(List.of(discountStrategy, discountStrategy2));
-    Mockito.when(discountStrategy.calculateDiscount(billDto)).thenReturn(discountResult);
-    Mockito.when(discountStrategy2.calculateDiscount(billDto)).thenReturn(discountResult2);
+    Mockito.when(discountStrategy.calculateDiscount(any(PricingContext.class)))
+        .thenReturn(discountResult);
+    Mockito.when(discountStrategy2.calculateDiscount(any(PricingContext.class)))
+        .thenReturn(discountResult2);
 
     BillDto resultBillDto = discountService.applyDiscount(billDto);
 
     assertAll(
-        () -> assertEquals(BigDecimal.valueOf(30), resultBillDto.getDiscount()),
-        () -> assertEquals(List.of("Test Discount", "Test Discount 2"),
-            resultBillDto.getAppliedDiscounts())
+        () -> assertEquals(Money.ofMajor(30), resultBillDto.getDiscount()),
+        () -> assertEquals(List.of("TestDiscount", "TestDiscount2"),
+            resultBillDto.getDiscounts().stream().map(AppliedDiscountDto::getCode).toList())
     );
   }
-}
 
+  @Test
+  void givenActivePromotions_whenApplyDiscount_thenApplyThemAmongRuleDiscountsByOrder() {
+    DiscountStrategy promotion = Mockito.mock(DiscountStrategy.class);
+    DiscountStrategy lastRule = Mockito.mock(DiscountStrategy.class);
+    Mockito.when(discountStrategy.getOrder()).thenReturn(1);
+    Mockito.when(promotion.getOrder()).thenReturn(1);
+    Mockito.when(lastRule.getOrder()).thenReturn(2);
+    Mockito.when(ruleSet.getApplicableDiscounts(billDto))
+        .thenReturn(List.of(discountStrategy, lastRule));
+    Mockito.when(promotionService.getApplicableDiscounts(any(BillDto.class), any(Instant.class)))
+        .thenReturn(List.of(promotion));
+    Mockito.when(discountStrategy.calculateDiscount(any(PricingContext.class)))
+        .thenReturn(discountResult);
+    Mockito.when(promotion.calculateDiscount(any(PricingContext.class))).thenReturn(
+        new DiscountResult(Money.ofMajor(5), "WeekendElectronics", 2000L));
+    Mockito.when(lastRule.calculateDiscount(any(PricingContext.class))).thenReturn(
+        new DiscountResult(Money.ofMajor(1), "LastRule", null));
+
+    BillDto resultBillDto = discountService.applyDiscount(billDto);
+
+    assertAll(
+        () -> assertEquals(Money.ofMajor(16), resultBillDto.getDiscount()),
+        () -> assertEquals(List.of("WeekendElectronics", "TestDiscount", "LastRule"),
+            resultBillDto.getDiscounts().stream().map(AppliedDiscountDto::getCode).toList())
+    );
+  }
+
+  @Test
+  void givenRuleSet_whenApplyDiscount_thenDoNotApplyPromotions() {
+    Mockito.when(ruleSet.getApplicableDiscounts(billDto))
+        .thenReturn(Collections.singletonList(discountStrategy));
+    Mockito.when(discountStrategy.calculateDiscount(any(PricingContext.class)))
+        .thenReturn(discountResult);
+
+    BillDto resultBillDto = discountService.applyDiscount(billDto, ruleSet);
+
+    assertEquals(Money.ofMajor(10), resultBillDto.getDiscount());
+    verifyNoInteractions(promotionService);
+  }
+
+  @Test
+  void givenManySubtotalDiscounts_whenApplyDiscount_thenApplyResultsInOrder() {
+    List<DiscountStrategy> strategies = IntStream.range(0, 16)
+        .mapToObj(i -> {
+          DiscountStrategy strategy = Mockito.mock(DiscountStrategy.class);
+          Mockito.when(strategy.getBasis()).thenReturn(DiscountBasis.SUBTOTAL);
+          Mockito.when(strategy.calculateDiscount(any(PricingContext.class))).thenReturn(
+              new DiscountResult(Money.ofMajor(i + 1L), "Discount" + i, null));
+          return strategy;
+        })
+        .toList();
+    Mockito.when(ruleSet.getApplicableDiscounts(billDto)).thenReturn(strategies);
+
+    BillDto resultBillDto = discountService.applyDiscount(billDto);
+
+    assertAll(
+        () -> assertEquals(Money.ofMajor(136), resultBillDto.getDiscount()),
+        () -> assertEquals(IntStream.range(0, 16).mapToObj(i -> "Discount" + i).toList(),
+            resultBillDto.getDiscounts().stream().map(AppliedDiscountDto::getCode).toList())
+    );
+  }
+
+  @Test
+  void givenNetDiscountAfterSubtotalDiscount_whenApplyDiscount_thenCalculateFromRemainingNet() {
+    DiscountStrategy netStrategy = Mockito.mock(DiscountStrategy.class);
+    Mockito.when(discountStrategy.getBasis()).thenReturn(DiscountBasis.SUBTOTAL);
+    Mockito.when(netStrategy.getBasis()).thenReturn(DiscountBasis.NET);
+    billDto.setTotalAmount(Money.ofMajor(100));
+    Mockito.when(ruleSet.getApplicableDiscounts(billDto))
+        .thenReturn(List.of(discountStrategy, netStrategy));
+    Mockito.when(discountStrategy.calculateDiscount(any(PricingContext.class)))
+        .thenReturn(discountResult);
+    Mockito.when(netStrategy.calculateDiscount(any(PricingContext.class)))
+        .thenReturn(new DiscountResult(Money.ofMajor(5), "NetDiscount", null));
+
+    BillDto resultBillDto = discountService.applyDiscount(billDto);
+
+    var context = ArgumentCaptor.forClass(PricingContext.class);
+    verify(netStrategy).calculateDiscount(context.capture());
+    assertAll(
+        () -> assertEquals(Money.ofMajor(90), context.getValue().getNetAmount()),
+        () -> assertEquals(Money.ofMajor(100), context.getValue().getTotalAmount()),
+        () -> assertEquals(Money.ofMajor(15), resultBillDto.getDiscount())
+    );
+  }
+
+  @Test
+  void givenPromotionStackedOnEmployeeDiscount_whenApplyDiscount_thenCapAtNetAmount() {
+    billDto.setItems(List.of(BillItemDto.builder().productId("tv").type(ProductType.ELECTRONICS)
+        .unitPrice(Money.ofMajor(100)).quantity(1).build()));
+    billDto.setTotalAmount(Money.ofMajor(100));
+    var employee = new PercentageDiscountStrategy(DefaultDiscountRules.employee());
+    Mockito.when(ruleSet.getApplicableDiscounts(billDto)).thenReturn(List.of(employee));
+    Mockito.when(promotionService.getApplicableDiscounts(any(BillDto.class), any(Instant.class)))
+        .thenReturn(List.of(new PromotionDiscountStrategy(Promotion.builder()
+            .name("ClearanceElectronics").productType(ProductType.ELECTRONICS).basisPoints(7500)
+            .order(0).build())));
+
+    BillDto resultBillDto = discountService.applyDiscount(billDto);
+
+    assertAll(
+        () -> assertEquals(Money.ofMajor(100), resultBillDto.getDiscount()),
+        () -> assertEquals(List.of(Money.ofMajor(75), Money.ofMajor(25)),
+            resultBillDto.getDiscounts().stream().map(AppliedDiscountDto::getAmount).toList())
+    );
+  }
+}
@@ -2,54 +2,169 @@ package com.ahmeric.store.service.discount;
 
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
+import com.ahmeric.store.entity.DiscountRule;
+import com.ahmeric.store.entity.LoyaltyTier;
+import com.ahmeric.store.entity.ProductType;
 import com.ahmeric.store.entity.UserType;
+import com.ahmeric.store.event.DiscountRulesReloadedEvent;
+import com.ahmeric.store.exception.ErrorRegistry;
+import com.ahmeric.store.exception.RetailStoreException;
+import com.ahmeric.store.model.Money;
 import com.ahmeric.store.model.dto.BillDto;
+import com.ahmeric.store.model.dto.BillItemDto;
 import com.ahmeric.store.model.dto.UserDto;
+import com.ahmeric.store.repository.DiscountRuleRepository;
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
+@ExtendWith(MockitoExtension.class)
 class DiscountStrategyFactoryTest {
 
-  private final DiscountStrategyFactory discountStrategyFactory = new DiscountStrategyFactory();
+  @Mock
+  private DiscountRuleRepository discountRuleRepository;
+
+  @Mock
+  private ApplicationEventPublisher eventPublisher;
+
+  private DiscountStrategyFactory discountStrategyFactory;
+
+  @BeforeEach
+  void setUp() {
+    discountStrategyFactory = new DiscountStrategyFactory(discountRuleRepository, eventPublisher);
+  }
 
   private static Stream<Arguments> provideParametersForDiscountStrategies() {
     return Stream.of(
         Arguments.of(UserType.EMPLOYEE, LocalDate.now(), BigDecimal.valueOf(200),
-            List.of(EmployeeDiscountStrategy.class, FixedAmountDiscountStrategy.class)),
+            List.of("EmployeeDiscountStrategy", "FixedAmountDiscountStrategy")),
         Arguments.of(UserType.AFFILIATE, LocalDate.now(), BigDecimal.valueOf(200),
-            List.of(AffiliateDiscountStrategy.class, FixedAmountDiscountStrategy.class)),
+            List.of("AffiliateDiscountStrategy", "FixedAmountDiscountStrategy")),
         Arguments.of(UserType.CUSTOMER, LocalDate.now().minusYears(3), BigDecimal.valueOf(200),
-            List.of(LoyalCustomerDiscountStrategy.class, FixedAmountDiscountStrategy.class)),
+            List.of("LoyalCustomerDiscountStrategy", "FixedAmountDiscountStrategy")),
         Arguments.of(UserType.CUSTOMER, LocalDate.now().minusYears(1), BigDecimal.valueOf(200),
-            List.of(FixedAmountDiscountStrategy.class)),
+            List.of("FixedAmountDiscountStrategy")),
         Arguments.of(UserType.CUSTOMER, LocalDate.now().minusYears(1), BigDecimal.valueOf(50),
             List.of())
     );
   }
 
+  @Test
+  void givenStoredLoyaltyTier_whenGetApplicableDiscounts_thenUseStoredTier() {
+    BillDto billDto = createBill(UserType.CUSTOMER, LocalDate.now(), BigDecimal.valueOf(50));
+    billDto.getUser().setLoyaltyTier(LoyaltyTier.LOYAL);
+
+    List<DiscountStrategy> discountStrategies = discountStrategyFactory.getApplicableDiscounts(
+        billDto);
+
+    assertEquals(List.of("LoyalCustomerDiscountStrategy"), discountStrategies.stream()
+        .map(strategy -> ((AbstractRuleDiscountStrategy) strategy).getName())
+        .toList());
+  }
+
   @ParameterizedTest
   @MethodSource("provideParametersForDiscountStrategies")
   void shouldReturnCorrectDiscountStrategies(UserType userType, LocalDate registrationDate,
-      BigDecimal netAmount, List<Class<?>> expectedStrategyClasses) {
+      BigDecimal netAmount, List<String> expectedStrategyNames) {
+    BillDto billDto = createBill(userType, registrationDate, netAmount);
+
+    List<DiscountStrategy> discountStrategies = discountStrategyFactory.getApplicableDiscounts(
+        billDto);
+    assertEquals(expectedStrategyNames, discountStrategies.stream()
+        .map(strategy -> ((AbstractRuleDiscountStrategy) strategy).getName())
+        .toList());
+    assertSame(discountStrategies, discountStrategyFactory.getApplicableDiscounts(billDto));
+    assertThrows(UnsupportedOperationException.class, discountStrategies::clear);
+  }
+
+  @Test
+  void givenRulesWithSameOrderForOneBill_whenCompile_thenThrowRetailStoreException() {
+    var rules = List.of(DefaultDiscountRules.employee(), DefaultDiscountRules.employee());
+
+    var exception = assertThrows(RetailStoreException.class,
+        () -> DiscountRuleSet.compile(rules));
+
+    assertEquals(ErrorRegistry.SAME_ORDER_MULTIPLE_STRATEGIES, exception.getErrorRegistry());
+  }
+
+  @Test
+  void givenChangedRules_whenReload_thenSwapRuleSetAndPublishEvent() {
+    var previous = discountStrategyFactory.getRuleSet();
+    var employee = DefaultDiscountRules.employee();
+    employee.setBasisPoints(2500);
+    employee.setExcludedProductTypes(List.of(ProductType.GROCERY, ProductType.CLOTHING));
+    when(discountRuleRepository.findAll()).thenReturn(List.of(employee));
+
+    var reloaded = discountStrategyFactory.reload();
+
+    assertSame(reloaded, discountStrategyFactory.getRuleSet());
+    assertNotEquals(previous.getVersion(), reloaded.getVersion());
+    verify(eventPublisher, times(1))
+        .publishEvent(new DiscountRulesReloadedEvent(reloaded.getVersion()));
+    var billDto = createBill(UserType.EMPLOYEE, LocalDate.now(), BigDecimal.valueOf(200));
+    billDto.setItems(List.of(
+        BillItemDto.builder().type(ProductType.ELECTRONICS).unitPrice(Money.ofMajor(100))
+            .quantity(1).build(),
+        BillItemDto.builder().type(ProductType.CLOTHING).unitPrice(Money.ofMajor(100))
+            .quantity(1).build()));
+    var discounts = discountStrategyFactory.getApplicableDiscounts(billDto);
+    assertEquals(1, discounts.size());
+    assertEquals(Money.ofMajor(25), discounts.get(0).calculateDiscount(billDto).discountAmount());
+    assertEquals(Money.ofMajor(60), previous.getApplicableDiscounts(billDto).get(0)
+        .calculateDiscount(billDto).discountAmount());
+  }
+
+  @Test
+  void givenEmptyCollection_whenReload_thenKeepDefaultRulesWithoutEvent() {
+    var previous = discountStrategyFactory.getRuleSet();
+    when(discountRuleRepository.findAll()).thenReturn(List.of());
+
+    var reloaded = discountStrategyFactory.reload();
+
+    assertEquals(previous.getVersion(), reloaded.getVersion());
+    verify(eventPublisher, never()).publishEvent(any());
+  }
+
+  @Test
+  void givenInvalidRule_whenReloadPeriodically_thenKeepCurrentRuleSet() {
+    var previous = discountStrategyFactory.getRuleSet();
+    when(discountRuleRepository.findAll()).thenReturn(List.of(
+        DiscountRule.builder().name("broken").build()));
+
+    discountStrategyFactory.reloadPeriodically();
+
+    assertSame(previous, discountStrategyFactory.getRuleSet());
+    verify(eventPublisher, never()).publishEvent(any());
+  }
+
+  private static BillDto createBill(UserType userType, LocalDate registrationDate,
+      BigDecimal netAmount) {
     UserDto user = new UserDto();
     user.setUserType(userType);
     user.setRegistrationDate(registrationDate);
     BillDto billDto = new BillDto();
     billDto.setUser(user);
-    billDto.setTotalAmount(netAmount);
-
-    List<DiscountStrategy> discountStrategies = discountStrategyFactory.getApplicableDiscounts(
-        billDto);
-    assertEquals(expectedStrategyClasses.size(), discountStrategies.size());
-    for (int i = 0; i < discountStrategies.size(); i++) {
-      assertEquals(expectedStrategyClasses.get(i), discountStrategies.get(i).getClass());
-    }
+    billDto.setTotalAmount(Money.of(netAmount, RoundingMode.UNNECESSARY));
+    return billDto;
   }
 }
-
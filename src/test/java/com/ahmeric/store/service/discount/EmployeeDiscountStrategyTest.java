@@ -11,15 +11,15 @@ import org.mockito.junit.jupiter.MockitoExtension;
 @ExtendWith(MockitoExtension.class)
 class EmployeeDiscountStrategyTest extends AbstractDiscountStrategyTestBase {
 
-  private EmployeeDiscountStrategy employeeDiscountStrategy;
+  private PercentageDiscountStrategy employeeDiscountStrategy;
 
   @BeforeEach
   void setUp() {
-    employeeDiscountStrategy = new EmployeeDiscountStrategy();
+    employeeDiscountStrategy = new PercentageDiscountStrategy(DefaultDiscountRules.employee());
   }
 
   @Override
-  protected DiscountStrategy getDiscountStrategy() {
+  protected PercentageDiscountStrategy getDiscountStrategy() {
     return employeeDiscountStrategy;
   }
 
@@ -2,10 +2,13 @@ package com.ahmeric.store.service.discount;
 
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 
+import com.ahmeric.store.model.Money;
 import com.ahmeric.store.model.dto.BillDto;
 import com.ahmeric.store.model.dto.DiscountResult;
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -20,7 +23,8 @@ class FixedAmountDiscountStrategyTest {
 
   @BeforeEach
   public void setup() {
-    fixedAmountDiscountStrategy = new FixedAmountDiscountStrategy();
+    fixedAmountDiscountStrategy = new FixedAmountDiscountStrategy(
+        DefaultDiscountRules.fixedAmount());
   }
 
   @ParameterizedTest
@@ -37,11 +41,10 @@ class FixedAmountDiscountStrategyTest {
     BillDto billDto = createBillWithTotalAmount(netAmount);
     DiscountResult discountResult = fixedAmountDiscountStrategy.calculateDiscount(billDto);
 
-    assertEquals(expectedDiscountAmount, discountResult.discountAmount());
-    String expectedDescription = String.format("%s -  amount: %s",
-        FixedAmountDiscountStrategy.class.getSimpleName(),
-        expectedDiscountAmount.toPlainString());
-    assertEquals(expectedDescription, discountResult.discountDescription());
+    assertEquals(Money.of(expectedDiscountAmount, RoundingMode.UNNECESSARY),
+        discountResult.discountAmount());
+    assertEquals(FixedAmountDiscountStrategy.class.getSimpleName(), discountResult.code());
+    assertNull(discountResult.basisPoints());
   }
 
   @Test
@@ -51,7 +54,7 @@ class FixedAmountDiscountStrategyTest {
 
   private BillDto createBillWithTotalAmount(BigDecimal netAmount) {
     BillDto billDto = new BillDto();
-    billDto.setTotalAmount(netAmount);
+    billDto.setTotalAmount(Money.of(netAmount, RoundingMode.UNNECESSARY));
     return billDto;
   }
 }
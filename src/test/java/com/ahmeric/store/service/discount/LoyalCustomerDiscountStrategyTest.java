@@ -14,16 +14,16 @@ import org.mockito.junit.jupiter.MockitoExtension;
 @ExtendWith(MockitoExtension.class)
 class LoyalCustomerDiscountStrategyTest extends AbstractDiscountStrategyTestBase {
 
-  private LoyalCustomerDiscountStrategy loyalCustomerDiscountStrategy;
+  private PercentageDiscountStrategy loyalCustomerDiscountStrategy;
 
 
   @BeforeEach
   void setUp() {
-    loyalCustomerDiscountStrategy = new LoyalCustomerDiscountStrategy();
+    loyalCustomerDiscountStrategy = new PercentageDiscountStrategy(DefaultDiscountRules.loyalCustomer());
   }
 
   @Override
-  protected DiscountStrategy getDiscountStrategy() {
+  protected PercentageDiscountStrategy getDiscountStrategy() {
     return loyalCustomerDiscountStrategy;
   }
 
@@ -0,0 +1,100 @@
+package com.ahmeric.store.service.discount;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.ahmeric.store.entity.DiscountRule;
+import com.ahmeric.store.entity.DiscountRuleType;
+import com.ahmeric.store.entity.ProductType;
+import com.ahmeric.store.entity.SpendTier;
+import com.ahmeric.store.entity.UserType;
+import com.ahmeric.store.exception.ErrorRegistry;
+import com.ahmeric.store.exception.RetailStoreException;
+import com.ahmeric.store.model.Money;
+import com.ahmeric.store.model.dto.BillDto;
+import com.ahmeric.store.model.dto.BillItemDto;
+import com.ahmeric.store.model.dto.DiscountResult;
+import com.ahmeric.store.model.dto.UserDto;
+import java.math.BigDecimal;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+class SpendTierDiscountStrategyTest {
+
+  private static DiscountRule spendTierRule(List<SpendTier> tiers) {
+    return DiscountRule.builder()
+        .name("SpendTierDiscountStrategy")
+        .type(DiscountRuleType.SPEND_TIER)
+        .userType(UserType.CUSTOMER)
+        .order(3)
+        .excludedProductTypes(List.of(ProductType.GROCERY))
+        .spendTiers(tiers)
+        .build();
+  }
+
+  @ParameterizedTest
+  @CsvSource(nullValues = "null", value = {
+      "null, 0, null",
+      "49999, 0, null",
+      "50000, 2, 200",
+      "99999, 2, 200",
+      "100000, 5, 500",
+      "900000, 5, 500"
+  })
+  void givenRollingSpend_whenCalculateDiscount_thenUseHighestTierReached(Long rollingSpend,
+      long expectedDiscount, Long expectedBasisPoints) {
+    var strategy = new SpendTierDiscountStrategy(spendTierRule(List.of(
+        new SpendTier(new BigDecimal("1000.00"), 500),
+        new SpendTier(new BigDecimal("500"), 200))));
+    var billDto = new BillDto();
+    billDto.setUser(UserDto.builder().userType(UserType.CUSTOMER).rollingSpend(rollingSpend)
+        .build());
+    billDto.setItems(List.of(
+        BillItemDto.builder().type(ProductType.ELECTRONICS).unitPrice(Money.ofMajor(100))
+            .quantity(1).build(),
+        BillItemDto.builder().type(ProductType.GROCERY).unitPrice(Money.ofMajor(50))
+            .quantity(1).build()));
+
+    assertEquals(new DiscountResult(Money.ofMajor(expectedDiscount),
+            "SpendTierDiscountStrategy", expectedBasisPoints),
+        strategy.calculateDiscount(billDto));
+  }
+
+  @ParameterizedTest
+  @CsvSource(nullValues = "null", value = {
+      "null, 0",
+      "49999, 0",
+      "50000, 1",
+      "75000, 2",
+      "99999, 2",
+      "100000, 3"
+  })
+  void givenRollingSpend_whenGetSpendBand_thenCountMinimumSpendsReachedByAllRules(
+      Long rollingSpend, int expectedBand) {
+    var affiliateRule = spendTierRule(List.of(new SpendTier(new BigDecimal("750"), 300),
+        new SpendTier(new BigDecimal("500"), 100)));
+    affiliateRule.setName("AffiliateSpendTierDiscountStrategy");
+    affiliateRule.setUserType(UserType.AFFILIATE);
+    var ruleSet = DiscountRuleSet.compile(List.of(
+        spendTierRule(List.of(new SpendTier(new BigDecimal("1000"), 500),
+            new SpendTier(new BigDecimal("500"), 200))), affiliateRule));
+
+    assertEquals(expectedBand, ruleSet.getSpendBand(UserDto.builder()
+        .userType(UserType.CUSTOMER).rollingSpend(rollingSpend).build()));
+    assertEquals(0, DiscountRuleSet.compile(DefaultDiscountRules.rules())
+        .getSpendBand(UserDto.builder().rollingSpend(rollingSpend).build()));
+  }
+
+  @Test
+  void givenDuplicateMinimumSpends_whenCompile_thenThrowRetailStoreException() {
+    var rule = spendTierRule(List.of(new SpendTier(new BigDecimal("500"), 200),
+        new SpendTier(new BigDecimal("500.00"), 300)));
+
+    var exception = assertThrows(RetailStoreException.class,
+        () -> DiscountRuleSet.compile(List.of(rule)));
+
+    assertEquals(ErrorRegistry.INVALID_DISCOUNT_RULE, exception.getErrorRegistry());
+  }
+}
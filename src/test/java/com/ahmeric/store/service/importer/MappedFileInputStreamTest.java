@@ -0,0 +1,43 @@
+package com.ahmeric.store.service.importer;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class MappedFileInputStreamTest {
+
+  @Test
+  void givenFileLargerThanWindow_whenRead_thenReadAllBytesAcrossWindows(@TempDir Path directory)
+      throws IOException {
+    byte[] content = new byte[1000];
+    for (int i = 0; i < content.length; i++) {
+      content[i] = (byte) i;
+    }
+    var file = Files.write(directory.resolve("products.csv"), content);
+
+    try (var in = new MappedFileInputStream(file, 64)) {
+      assertEquals(content.length, in.available());
+      assertEquals(0, in.read());
+      byte[] rest = in.readAllBytes();
+      assertEquals(content.length - 1, rest.length);
+      assertEquals((byte) 999, rest[rest.length - 1]);
+      assertEquals(-1, in.read());
+    }
+  }
+
+  @Test
+  void givenEmptyFile_whenRead_thenReturnEndOfStream(@TempDir Path directory)
+      throws IOException {
+    var file = Files.write(directory.resolve("products.csv"), new byte[0]);
+
+    try (var in = new MappedFileInputStream(file)) {
+      assertArrayEquals(new byte[0], in.readAllBytes());
+      assertEquals(-1, in.read());
+    }
+  }
+}
@@ -0,0 +1,288 @@
+package com.ahmeric.store.service.importer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.ahmeric.store.entity.Product;
+import com.ahmeric.store.entity.ProductType;
+import com.ahmeric.store.event.ProductsImportedEvent;
+import com.ahmeric.store.exception.ErrorRegistry;
+import com.ahmeric.store.exception.RetailStoreException;
+import com.ahmeric.store.model.dto.ProductImportError;
+import com.ahmeric.store.service.CatalogVersionService;
+import com.ahmeric.store.utils.MessageUtils;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.bulk.BulkWriteError;
+import jakarta.validation.Validation;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.bson.BsonDocument;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.support.ResourceBundleMessageSource;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+@ExtendWith(MockitoExtension.class)
+class ProductImportServiceTest {
+
+  private static final String PRODUCT_ID = "64b7f0c2a1b2c3d4e5f60718";
+
+  @Mock
+  private MongoTemplate mongoTemplate;
+
+  @Mock
+  private BulkOperations bulkOperations;
+
+  @Mock
+  private CatalogVersionService catalogVersionService;
+
+  @Mock
+  private ApplicationEventPublisher eventPublisher;
+
+  private MessageUtils messageUtils;
+
+  private ProductImportService productImportService;
+
+  @BeforeEach
+  void setUp() {
+    var messageSource = new ResourceBundleMessageSource();
+    messageSource.setBasename("messages");
+    messageSource.setFallbackToSystemLocale(false);
+    messageUtils = new MessageUtils(messageSource);
+    productImportService = new ProductImportService(mongoTemplate, new ObjectMapper(),
+        Validation.buildDefaultValidatorFactory().getValidator(), catalogVersionService,
+        eventPublisher, messageUtils, 2, 10);
+  }
+
+  @Test
+  void givenCsv_whenImportProducts_thenUpsertValidRowsInBatchesAndReportRejectedRows()
+      throws IOException {
+    when(mongoTemplate.bulkOps(BulkMode.UNORDERED, Product.class)).thenReturn(bulkOperations);
+    when(catalogVersionService.next()).thenReturn(7L, 8L);
+    var csv = """
+        \uFEFFType,Name,Price,id
+        grocery,"Milk, ""whole""\",1.25,
+        ELECTRONICS,"Kettle
+        2000W",30,%s
+
+        CLOTHING,Scarf,cheap,
+        FOOD,Bread,2,
+        GROCERY,,2,
+        GROCERY,Rice,3,not-an-id
+        GROCERY,Oats,4
+        """.formatted(PRODUCT_ID);
+
+    var result = productImportService.importProducts(stream(csv), ImportFormat.CSV);
+
+    assertEquals(7, result.getRows());
+    assertEquals(3, result.getImported());
+    assertEquals(4, result.getFailed());
+    assertEquals(List.of(
+        new ProductImportError(6, null, message(ProductImportService.INVALID_PRICE)),
+        new ProductImportError(7, null, message(ProductImportService.INVALID_TYPE)),
+        new ProductImportError(8, null, "{api.validation.not.null.product.name}"),
+        new ProductImportError(9, "not-an-id", message(ProductImportService.INVALID_ID))),
+        result.getErrors());
+    List<Product> products = captureProducts(3);
+    assertEquals("Milk, \"whole\"", products.get(0).getName());
+    assertEquals(ProductType.GROCERY, products.get(0).getType());
+    assertEquals(new BigDecimal("1.25"), products.get(0).getPrice());
+    assertEquals(7L, products.get(0).getVersion());
+    assertEquals(PRODUCT_ID, products.get(1).getId());
+    assertEquals("Kettle\n2000W", products.get(1).getName());
+    assertEquals("Oats", products.get(2).getName());
+    assertEquals(8L, products.get(2).getVersion());
+    verify(bulkOperations, times(2)).execute();
+    verify(catalogVersionService).complete(7L);
+    verify(catalogVersionService).complete(8L);
+    verify(eventPublisher).publishEvent(new ProductsImportedEvent(2));
+    verify(eventPublisher).publishEvent(new ProductsImportedEvent(1));
+  }
+
+  @Test
+  void givenNdjson_whenImportProducts_thenSkipBlankLinesAndRejectMalformedLines()
+      throws IOException {
+    when(mongoTemplate.bulkOps(BulkMode.UNORDERED, Product.class)).thenReturn(bulkOperations);
+    when(catalogVersionService.next()).thenReturn(3L);
+    var ndjson = """
+        {"id":"%s","name":"Milk","price":1.5,"type":"GROCERY"}
+
+        {"name":"Kettle","price":"30","type":"electronics"
+        [1,2]
+        {"name":"Scarf","price":12}
+        """.formatted(PRODUCT_ID);
+
+    var result = productImportService.importProducts(stream(ndjson), ImportFormat.NDJSON);
+
+    assertEquals(4, result.getRows());
+    assertEquals(1, result.getImported());
+    var malformed = message(NdjsonProductRowReader.MALFORMED_ROW);
+    assertEquals(List.of(
+        new ProductImportError(3, null, malformed),
+        new ProductImportError(4, null, malformed),
+        new ProductImportError(5, null, "{api.validation.not.null.product.type}")),
+        result.getErrors());
+    List<Product> products = captureProducts(1);
+    assertEquals(PRODUCT_ID, products.get(0).getId());
+    assertEquals(new BigDecimal("1.5"), products.get(0).getPrice());
+    verify(eventPublisher).publishEvent(new ProductsImportedEvent(1));
+  }
+
+  @Test
+  void givenFailedWriteOfOneRow_whenImportProducts_thenRejectOnlyThatRow() throws IOException {
+    when(mongoTemplate.bulkOps(BulkMode.UNORDERED, Product.class)).thenReturn(bulkOperations);
+    when(catalogVersionService.next()).thenReturn(1L);
+    var bulkException = mock(BulkOperationException.class);
+    when(bulkException.getErrors()).thenReturn(
+        List.of(new BulkWriteError(11000, "duplicate key", new BsonDocument(), 1)));
+    when(bulkOperations.execute()).thenThrow(bulkException);
+
+    var result = productImportService.importProducts(stream("""
+        name,price,type
+        Milk,1,GROCERY
+        Bread,2,GROCERY
+        """), ImportFormat.CSV);
+
+    assertEquals(1, result.getImported());
+    assertEquals(1, result.getFailed());
+    assertEquals(3, result.getErrors().get(0).getLine());
+    assertEquals(message(ProductImportService.NOT_SAVED) + " duplicate key",
+        result.getErrors().get(0).getMessage());
+    verify(catalogVersionService).complete(1L);
+    verify(eventPublisher).publishEvent(new ProductsImportedEvent(1));
+  }
+
+  @Test
+  void givenMoreRejectedRowsThanMaxErrors_whenImportProducts_thenCountAllAndReportMaxErrors()
+      throws IOException {
+    var csv = new StringBuilder("name,price,type\n");
+    for (int i = 0; i < 15; i++) {
+      csv.append("Milk,free,GROCERY\n");
+    }
+
+    var result = productImportService.importProducts(stream(csv.toString()), ImportFormat.CSV);
+
+    assertEquals(15, result.getFailed());
+    assertEquals(10, result.getErrors().size());
+    verify(mongoTemplate, never()).bulkOps(any(BulkMode.class), any(Class.class));
+    verify(eventPublisher, never()).publishEvent(any());
+  }
+
+  @Test
+  void givenCsvWithoutRequiredColumn_whenImportProducts_thenThrowRetailStoreException() {
+    var exception = assertThrows(RetailStoreException.class,
+        () -> productImportService.importProducts(stream("name,price\nMilk,1\n"),
+            ImportFormat.CSV));
+
+    assertEquals(ErrorRegistry.INVALID_IMPORT_FILE, exception.getErrorRegistry());
+  }
+
+  @Test
+  void givenUnterminatedQuote_whenImportProducts_thenRejectRowAndImportNextLines()
+      throws IOException {
+    when(mongoTemplate.bulkOps(BulkMode.UNORDERED, Product.class)).thenReturn(bulkOperations);
+
+    var result = productImportService.importProducts(stream("""
+        name,price,type
+        "Milk,1,GROCERY
+        Bread,2,GROCERY
+        """), ImportFormat.CSV);
+
+    assertEquals(2, result.getRows());
+    assertEquals(1, result.getImported());
+    assertEquals(List.of(new ProductImportError(2, null,
+        message(CsvProductRowReader.MALFORMED_ROW))), result.getErrors());
+    assertEquals("Bread", captureProducts(1).get(0).getName());
+  }
+
+  @Test
+  void givenTooLongRow_whenImportProducts_thenRejectRowAndImportNextLines() throws IOException {
+    when(mongoTemplate.bulkOps(BulkMode.UNORDERED, Product.class)).thenReturn(bulkOperations);
+    var csv = "name,price,type\n" + "x".repeat(CsvProductRowReader.MAX_RECORD_LENGTH)
+        + ",1,GROCERY\nBread,2,GROCERY\n";
+
+    var result = productImportService.importProducts(stream(csv), ImportFormat.CSV);
+
+    assertEquals(1, result.getImported());
+    assertEquals(List.of(new ProductImportError(2, null,
+        message(CsvProductRowReader.MALFORMED_ROW))), result.getErrors());
+    assertEquals("Bread", captureProducts(1).get(0).getName());
+  }
+
+  @Test
+  void givenLocalFile_whenImportFile_thenImportThroughMappedFile(@TempDir Path directory)
+      throws IOException {
+    when(mongoTemplate.bulkOps(BulkMode.UNORDERED, Product.class)).thenReturn(bulkOperations);
+    var file = Files.writeString(directory.resolve("products.jsonl"),
+        "{\"name\":\"Milk\",\"price\":1,\"type\":\"GROCERY\"}\n");
+
+    var result = productImportService.importFile(file);
+
+    assertEquals(1, result.getImported());
+    assertTrue(result.getErrors().isEmpty());
+  }
+
+  @Test
+  void givenUnknownExtension_whenImportFile_thenThrowRetailStoreException() {
+    var exception = assertThrows(RetailStoreException.class,
+        () -> productImportService.importFile(Path.of("products.xlsx")));
+
+    assertEquals(ErrorRegistry.INVALID_IMPORT_FILE, exception.getErrorRegistry());
+  }
+
+  @Test
+  void givenContentType_whenFromContentType_thenReturnFormat() {
+    assertEquals(ImportFormat.CSV, ImportFormat.fromContentType("text/csv; charset=UTF-8"));
+    assertEquals(ImportFormat.NDJSON, ImportFormat.fromContentType("application/x-ndjson"));
+    assertEquals(ImportFormat.CSV, ImportFormat.fromContentType("text/csv; charset=us-ascii"));
+    assertThrows(RetailStoreException.class,
+        () -> ImportFormat.fromContentType("application/json"));
+  }
+
+  @Test
+  void givenCharsetOtherThanUtf8_whenFromContentType_thenThrowRetailStoreException() {
+    var exception = assertThrows(RetailStoreException.class,
+        () -> ImportFormat.fromContentType("text/csv; charset=ISO-8859-1"));
+
+    assertEquals(ErrorRegistry.UNSUPPORTED_IMPORT_CHARSET, exception.getErrorRegistry());
+  }
+
+  private List<Product> captureProducts(int count) {
+    var captor = ArgumentCaptor.forClass(Object.class);
+    verify(bulkOperations, times(count)).replaceOne(any(Query.class), captor.capture(),
+        any(FindAndReplaceOptions.class));
+    return captor.getAllValues().stream().map(Product.class::cast).toList();
+  }
+
+  private String message(String messageKey) {
+    return messageUtils.getMessage(messageKey);
+  }
+
+  private static InputStream stream(String content) {
+    return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+  }
+}
@@ -0,0 +1,65 @@
+package com.ahmeric.store.service.promotion;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class IntervalTreeTest {
+
+  private record Interval(long start, long end) {
+
+  }
+
+  @Test
+  void givenIntervals_whenCollect_thenReturnIntervalsContainingPoint() {
+    var tree = new IntervalTree<>(List.of(new Interval(10, 20), new Interval(0, 5),
+        new Interval(15, 30), new Interval(20, 25)), Interval::start, Interval::end);
+
+    assertEquals(List.of(new Interval(0, 5)), collect(tree, 0));
+    assertEquals(List.of(), collect(tree, 5));
+    assertEquals(List.of(new Interval(10, 20), new Interval(15, 30)), collect(tree, 19));
+    assertEquals(List.of(new Interval(15, 30), new Interval(20, 25)), collect(tree, 20));
+    assertEquals(List.of(), collect(tree, 30));
+  }
+
+  @Test
+  void givenRandomIntervals_whenCollect_thenMatchLinearScan() {
+    var random = new Random(42);
+    List<Interval> intervals = new ArrayList<>();
+    for (int i = 0; i < 500; i++) {
+      long start = random.nextInt(1_000);
+      intervals.add(new Interval(start, start + 1 + random.nextInt(100)));
+    }
+    var tree = new IntervalTree<>(intervals, Interval::start, Interval::end);
+
+    for (long point = -1; point <= 1_101; point++) {
+      long current = point;
+      var expected = intervals.stream()
+          .filter(interval -> interval.start() <= current && current < interval.end())
+          .sorted(Comparator.comparingLong(Interval::start).thenComparingLong(Interval::end))
+          .toList();
+      var actual = collect(tree, point).stream()
+          .sorted(Comparator.comparingLong(Interval::start).thenComparingLong(Interval::end))
+          .toList();
+      assertEquals(expected, actual, "point " + point);
+    }
+  }
+
+  @Test
+  void givenNoIntervals_whenCollect_thenReturnNothing() {
+    var tree = new IntervalTree<Interval>(List.of(), Interval::start, Interval::end);
+
+    assertEquals(0, tree.size());
+    assertEquals(List.of(), collect(tree, 0));
+  }
+
+  private static List<Interval> collect(IntervalTree<Interval> tree, long point) {
+    List<Interval> result = new ArrayList<>();
+    tree.collect(point, result);
+    return result;
+  }
+}
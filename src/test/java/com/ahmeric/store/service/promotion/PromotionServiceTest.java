@@ -0,0 +1,156 @@
+package com.ahmeric.store.service.promotion;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.ahmeric.store.entity.ProductType;
+import com.ahmeric.store.entity.Promotion;
+import com.ahmeric.store.event.PromotionsReloadedEvent;
+import com.ahmeric.store.exception.ErrorRegistry;
+import com.ahmeric.store.exception.RetailStoreException;
+import com.ahmeric.store.model.Money;
+import com.ahmeric.store.model.dto.BillDto;
+import com.ahmeric.store.model.dto.BillItemDto;
+import com.ahmeric.store.model.dto.DiscountResult;
+import com.ahmeric.store.model.dto.PromotionDto;
+import com.ahmeric.store.repository.PromotionRepository;
+import com.ahmeric.store.utils.Mapper;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+@ExtendWith(MockitoExtension.class)
+class PromotionServiceTest {
+
+  private static final Instant NOW = Instant.now();
+
+  @Mock
+  private PromotionRepository promotionRepository;
+
+  @Mock
+  private ApplicationEventPublisher eventPublisher;
+
+  private PromotionService promotionService;
+
+  @BeforeEach
+  void setUp() {
+    promotionService = new PromotionService(promotionRepository, new Mapper(), eventPublisher);
+  }
+
+  @Test
+  void givenPromotions_whenGetApplicableDiscounts_thenReturnActivePromotionsOfBasketByOrder() {
+    when(promotionRepository.findByValidUntilAfter(any(Instant.class))).thenReturn(List.of(
+        promotion("weekend-electronics", null, ProductType.ELECTRONICS, 2000, 2, -1, 1),
+        promotion("half-price-tv", "tv", null, 5000, 1, -1, 1),
+        promotion("next-week-tv", "tv", null, 1000, 0, 7, 14),
+        promotion("grocery", null, ProductType.GROCERY, 1000, 0, -1, 1)));
+    promotionService.reload();
+    var billDto = bill(
+        BillItemDto.builder().productId("tv").type(ProductType.ELECTRONICS)
+            .unitPrice(Money.ofMajor(100)).quantity(2).build(),
+        BillItemDto.builder().productId("radio").type(ProductType.ELECTRONICS)
+            .unitPrice(Money.ofMajor(50)).quantity(1).build());
+
+    var discounts = promotionService.getApplicableDiscounts(billDto, NOW);
+
+    assertEquals(List.of(
+            new DiscountResult(Money.ofMajor(100), "half-price-tv", 5000L),
+            new DiscountResult(Money.ofMajor(50), "weekend-electronics", 2000L)),
+        discounts.stream().map(discount -> discount.calculateDiscount(billDto)).toList());
+    assertEquals(List.of(), promotionService.getApplicableDiscounts(billDto,
+        NOW.plus(2, ChronoUnit.DAYS)));
+  }
+
+  @Test
+  void givenPromotions_whenGetNextChange_thenReturnNextStartOrEnd() {
+    when(promotionRepository.findByValidUntilAfter(any(Instant.class))).thenReturn(List.of(
+        promotion("weekend-electronics", null, ProductType.ELECTRONICS, 2000, 2, -1, 3),
+        promotion("half-price-tv", "tv", null, 5000, 1, 1, 2)));
+    promotionService.reload();
+
+    var tomorrow = NOW.plus(1, ChronoUnit.DAYS);
+    assertEquals(tomorrow.truncatedTo(ChronoUnit.MILLIS), promotionService.getNextChange(NOW));
+    assertEquals(NOW.plus(2, ChronoUnit.DAYS).truncatedTo(ChronoUnit.MILLIS),
+        promotionService.getNextChange(tomorrow));
+    assertNull(promotionService.getNextChange(NOW.plus(3, ChronoUnit.DAYS)));
+  }
+
+  @Test
+  void givenUnchangedPromotions_whenReload_thenPublishEventOnlyOnce() {
+    var promotions = List.of(promotion("grocery", null, ProductType.GROCERY, 1000, 0, -1, 1));
+    when(promotionRepository.findByValidUntilAfter(any(Instant.class))).thenReturn(promotions);
+
+    promotionService.reload();
+    promotionService.reload();
+
+    verify(eventPublisher, times(1)).publishEvent(new PromotionsReloadedEvent(1));
+  }
+
+  @Test
+  void givenFailingRepository_whenReloadPeriodically_thenKeepCurrentPromotions() {
+    when(promotionRepository.findByValidUntilAfter(any(Instant.class)))
+        .thenReturn(List.of(promotion("grocery", null, ProductType.GROCERY, 1000, 0, -1, 1)))
+        .thenThrow(new IllegalStateException("unavailable"));
+    promotionService.reload();
+
+    promotionService.reloadPeriodically();
+
+    assertEquals(1, promotionService.getActivePromotions(NOW).size());
+  }
+
+  @Test
+  void givenPromotionWithBothTargets_whenCreatePromotion_thenThrowRetailStoreException() {
+    var promotionDto = PromotionDto.builder().name("both").productId("tv")
+        .productType(ProductType.ELECTRONICS).basisPoints(1000L)
+        .validFrom(NOW).validUntil(NOW.plusSeconds(60)).build();
+
+    var exception = assertThrows(RetailStoreException.class,
+        () -> promotionService.createPromotion(promotionDto));
+
+    assertEquals(ErrorRegistry.INVALID_PROMOTION, exception.getErrorRegistry());
+    verify(promotionRepository, never()).save(any());
+  }
+
+  @Test
+  void givenEmptyValidityWindow_whenCreatePromotion_thenThrowRetailStoreException() {
+    var promotionDto = PromotionDto.builder().name("empty").productId("tv").basisPoints(1000L)
+        .validFrom(NOW).validUntil(NOW).build();
+
+    var exception = assertThrows(RetailStoreException.class,
+        () -> promotionService.createPromotion(promotionDto));
+
+    assertEquals(ErrorRegistry.INVALID_PROMOTION, exception.getErrorRegistry());
+  }
+
+  private static Promotion promotion(String name, String productId, ProductType productType,
+      long basisPoints, int order, int fromDays, int untilDays) {
+    return Promotion.builder()
+        .id(name)
+        .name(name)
+        .productId(productId)
+        .productType(productType)
+        .basisPoints(basisPoints)
+        .order(order)
+        .validFrom(NOW.plus(fromDays, ChronoUnit.DAYS))
+        .validUntil(NOW.plus(untilDays, ChronoUnit.DAYS))
+        .build();
+  }
+
+  private static BillDto bill(BillItemDto... items) {
+    var billDto = new BillDto();
+    billDto.setItems(List.of(items));
+    return billDto;
+  }
+}
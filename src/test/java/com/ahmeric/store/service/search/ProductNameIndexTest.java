@@ -0,0 +1,71 @@
+package com.ahmeric.store.service.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.ahmeric.store.entity.ProductType;
+import com.ahmeric.store.model.dto.ProductDto;
+import java.math.BigDecimal;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ProductNameIndexTest {
+
+  private final ProductNameIndex index = new ProductNameIndex();
+
+  @BeforeEach
+  void setUp() {
+    index.put(product("1", "Milk Chocolate", ProductType.GROCERY, "2.50"));
+    index.put(product("2", "Dark chocolate 70%", ProductType.GROCERY, "3.10"));
+    index.put(product("3", "Chocolate-brown T-shirt", ProductType.CLOTHING, "15.00"));
+    index.put(product("4", "Milk frother", ProductType.ELECTRONICS, "29.90"));
+  }
+
+  @Test
+  void givenName_whenTokenize_thenReturnDistinctLowerCaseWords() {
+    assertEquals(List.of("chocolate", "brown", "t", "shirt"),
+        ProductNameIndex.tokenize("Chocolate-brown T-shirt, chocolate"));
+    assertEquals(List.of(), ProductNameIndex.tokenize(" -- "));
+  }
+
+  @Test
+  void givenPrefixes_whenSearch_thenReturnProductsMatchingAllPrefixesSortedByName() {
+    assertEquals(List.of("3", "2", "1"), ids(index.search("choc", null, null, null, 10)));
+    assertEquals(List.of("1"), ids(index.search("cho mi", null, null, null, 10)));
+    assertEquals(List.of("1", "4"), ids(index.search("MILK", null, null, null, 10)));
+    assertEquals(List.of(), ids(index.search("milk dark", null, null, null, 10)));
+    assertEquals(List.of(), ids(index.search("", null, null, null, 10)));
+  }
+
+  @Test
+  void givenFilters_whenSearch_thenReturnOnlyMatchingTypeAndPrice() {
+    assertEquals(List.of("2", "1"),
+        ids(index.search("chocolate", ProductType.GROCERY, null, null, 10)));
+    assertEquals(List.of("3", "2"),
+        ids(index.search("chocolate", null, new BigDecimal("3.10"), null, 10)));
+    assertEquals(List.of("1"),
+        ids(index.search("chocolate", null, null, new BigDecimal("3"), 10)));
+  }
+
+  @Test
+  void givenLimit_whenSearch_thenReturnFirstProductsByName() {
+    assertEquals(List.of("3", "2"), ids(index.search("c", null, null, null, 2)));
+  }
+
+  @Test
+  void givenRenamedProduct_whenPut_thenFindItOnlyByNewName() {
+    index.put(product("4", "Espresso machine", ProductType.ELECTRONICS, "199.00"));
+
+    assertEquals(List.of("1"), ids(index.search("milk", null, null, null, 10)));
+    assertEquals(List.of("4"), ids(index.search("espr", null, null, null, 10)));
+    assertEquals(4, index.size());
+  }
+
+  private static ProductDto product(String id, String name, ProductType type, String price) {
+    return ProductDto.builder().id(id).name(name).type(type).price(new BigDecimal(price)).build();
+  }
+
+  private static List<String> ids(List<ProductDto> products) {
+    return products.stream().map(ProductDto::getId).toList();
+  }
+}
@@ -0,0 +1,118 @@
+package com.ahmeric.store.service.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.ahmeric.store.entity.Product;
+import com.ahmeric.store.entity.ProductType;
+import com.ahmeric.store.event.ProductChangedEvent;
+import com.ahmeric.store.exception.ErrorRegistry;
+import com.ahmeric.store.exception.RetailStoreException;
+import com.ahmeric.store.model.dto.ProductDto;
+import com.ahmeric.store.repository.ProductRepository;
+import com.ahmeric.store.service.CatalogVersionService;
+import com.ahmeric.store.utils.Mapper;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class ProductSearchServiceTest {
+
+  @Mock
+  private ProductRepository productRepository;
+
+  @Mock
+  private CatalogVersionService catalogVersionService;
+
+  private ProductSearchService productSearchService;
+
+  @BeforeEach
+  void setUp() {
+    productSearchService = new ProductSearchService(productRepository, new Mapper(),
+        catalogVersionService);
+  }
+
+  @Test
+  void givenNoIndex_whenSearch_thenBuildIndexFromCollectionOnce() {
+    when(productRepository.streamAllBy()).thenReturn(Stream.of(
+        product("1", "Milk Chocolate", null), product("2", "Oat milk", 3L)));
+
+    assertEquals(List.of("1", "2"), ids(productSearchService.search("milk", null, null, null,
+        10)));
+    assertEquals(List.of("2"), ids(productSearchService.search("oat", null, null, null, 10)));
+    verify(productRepository, times(1)).streamAllBy();
+  }
+
+  @Test
+  void givenProductChangedEvent_whenSearch_thenFindChangedProduct() {
+    when(productRepository.streamAllBy()).thenReturn(Stream.of(product("1", "Milk", 1L)));
+    productSearchService.refresh();
+
+    productSearchService.onProductChanged(new ProductChangedEvent(ProductDto.builder().id("1")
+        .name("Almond milk").type(ProductType.GROCERY).price(BigDecimal.ONE).build()));
+
+    assertEquals(List.of("1"), ids(productSearchService.search("alm", null, null, null, 10)));
+  }
+
+  @Test
+  void givenBuiltIndex_whenRefresh_thenApplyProductsWrittenAfterIndexedVersion() {
+    when(catalogVersionService.committed()).thenReturn(4L, 6L, 6L);
+    when(productRepository.streamAllBy()).thenReturn(Stream.of(product("1", "Milk", 4L)));
+    productSearchService.refresh();
+    when(productRepository.findByVersionGreaterThanOrderByVersionAsc(4)).thenReturn(
+        List.of(product("2", "Goat milk", 6L)));
+    productSearchService.refresh();
+    when(productRepository.findByVersionGreaterThanOrderByVersionAsc(6)).thenReturn(List.of());
+
+    productSearchService.refresh();
+
+    assertEquals(List.of("2", "1"), ids(productSearchService.search("milk", null, null, null,
+        10)));
+    verify(productRepository, times(1)).streamAllBy();
+  }
+
+  @Test
+  void givenWriteStoredAfterLaterVersion_whenRefresh_thenApplyItOnNextRefresh() {
+    when(catalogVersionService.committed()).thenReturn(4L, 4L, 6L);
+    when(productRepository.streamAllBy()).thenReturn(Stream.of(product("1", "Milk", 4L)));
+    productSearchService.refresh();
+    when(productRepository.findByVersionGreaterThanOrderByVersionAsc(4)).thenReturn(
+        List.of(product("3", "Goat milk", 6L)),
+        List.of(product("2", "Almond milk", 5L), product("3", "Goat milk", 6L)));
+    productSearchService.refresh();
+
+    productSearchService.refresh();
+
+    assertEquals(List.of("2", "3", "1"), ids(productSearchService.search("milk", null, null,
+        null, 10)));
+    verify(productRepository, times(2)).findByVersionGreaterThanOrderByVersionAsc(4);
+  }
+
+  @Test
+  void givenInvalidLimit_whenSearch_thenThrowRetailStoreException() {
+    var exception = assertThrows(RetailStoreException.class,
+        () -> productSearchService.search("milk", null, null, null, 0));
+
+    assertEquals(ErrorRegistry.INVALID_PAGE_LIMIT, exception.getErrorRegistry());
+    verify(productRepository, never()).streamAllBy();
+  }
+
+  private static Product product(String id, String name, Long version) {
+    return Product.builder().id(id).name(name).type(ProductType.GROCERY).price(BigDecimal.ONE)
+        .version(version).build();
+  }
+
+  private static List<String> ids(List<ProductDto> products) {
+    return products.stream().map(ProductDto::getId).toList();
+  }
+}
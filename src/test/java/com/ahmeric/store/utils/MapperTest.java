@@ -4,8 +4,19 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
+import com.ahmeric.store.entity.AppliedDiscount;
+import com.ahmeric.store.entity.Bill;
+import com.ahmeric.store.entity.BillItem;
+import com.ahmeric.store.entity.ProductType;
+import com.ahmeric.store.entity.UserType;
+import com.ahmeric.store.model.Money;
+import com.ahmeric.store.model.dto.AppliedDiscountDto;
+import com.ahmeric.store.model.dto.BillDto;
+import com.ahmeric.store.model.dto.BillItemDto;
 import com.ahmeric.store.model.dto.UserDto;
+import com.ahmeric.store.model.response.BillResponse;
 import com.ahmeric.store.model.response.UserResponse;
+import java.math.BigDecimal;
 import java.util.List;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -90,5 +101,53 @@ class MapperTest {
     // When & Then
     assertThrows(IllegalArgumentException.class, () -> mapper.map(userDto, null));
   }
-}
 
+  @Test
+  void shouldMapBillItems_whenBillDtoMappedToResponseAndEntity() {
+    // Given
+    BillDto billDto = BillDto.builder()
+        .user(UserDto.builder().id("user1").userType(UserType.CUSTOMER).build())
+        .items(List.of(BillItemDto.builder().productId("p1").name("soda")
+            .type(ProductType.GROCERY).unitPrice(Money.ofMinor(250)).quantity(4).build()))
+        .totalAmount(Money.ofMajor(10))
+        .discount(Money.ZERO)
+        .discounts(List.of(new AppliedDiscountDto("EmployeeDiscountStrategy", 3000L,
+            Money.ofMinor(300))))
+        .build();
+
+    // When
+    BillResponse response = mapper.map(billDto, BillResponse.class);
+    Bill bill = mapper.map(billDto, Bill.class);
+
+    // Then
+    assertEquals("user1", response.getUserId());
+    assertEquals(1, response.getItems().size());
+    assertEquals(4, response.getItems().get(0).getQuantity());
+    assertEquals(new BigDecimal("10.00"), response.getItems().get(0).getLineTotal());
+    assertEquals("p1", bill.getItems().get(0).getProductId());
+    assertEquals(new BigDecimal("2.50"), bill.getItems().get(0).getUnitPrice());
+    assertEquals(new BigDecimal("10.00"), response.getNetAmount());
+    assertEquals(new AppliedDiscount("EmployeeDiscountStrategy", 3000L, new BigDecimal("3.00")),
+        bill.getDiscounts().get(0));
+    assertEquals(BigDecimal.ZERO.setScale(2), response.getDiscount());
+  }
+
+  @Test
+  void shouldRoundAmountsToMoney_whenBillMappedToDto() {
+    // Given
+    Bill bill = Bill.builder()
+        .items(List.of(BillItem.builder().productId("p1").unitPrice(new BigDecimal("2.5"))
+            .quantity(2).build()))
+        .totalAmount(new BigDecimal("5.00"))
+        .discount(new BigDecimal("0.125"))
+        .build();
+
+    // When
+    BillDto billDto = mapper.map(bill, BillDto.class);
+
+    // Then
+    assertEquals(Money.ofMinor(250), billDto.getItems().get(0).getUnitPrice());
+    assertEquals(Money.ofMinor(13), billDto.getDiscount());
+    assertEquals(Money.ofMinor(487), billDto.getNetAmount());
+  }
+}
@@ -1,6 +1,8 @@
 package com.ahmeric.store.utils;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.util.Locale;
@@ -51,5 +53,38 @@ class MessageUtilsTest {
     assertEquals(expectedMessage, actualMessage);
   }
 
-}
+  @Test
+  void shouldCompilePatternOnce_whenSameMessageFormattedAgain() {
+    // Given
+    String messageKey = "test.message.key";
+    when(messageSource.getMessage(messageKey, null, Locale.US)).thenReturn(
+        "{0} costs {1,number,#,##0.00}");
+
+    // When
+    String first = messageUtils.format(messageKey, Locale.US, "soda", 1234.5);
+    String second = messageUtils.format(messageKey, Locale.US, "milk", 2);
 
+    // Then
+    assertEquals("soda costs 1,234.50", first);
+    assertEquals("milk costs 2.00", second);
+    verify(messageSource, times(1)).getMessage(messageKey, null, Locale.US);
+  }
+
+  @Test
+  void shouldFormatWithPatternOfEachLocale_whenSameMessageFormattedForAnotherLocale() {
+    // Given
+    String messageKey = "test.message.key";
+    when(messageSource.getMessage(messageKey, null, Locale.US)).thenReturn("{0,number,#0.00}");
+    when(messageSource.getMessage(messageKey, null, Locale.GERMANY)).thenReturn(
+        "{0,number,#0.00}");
+
+    // When
+    String us = messageUtils.format(messageKey, Locale.US, 1.5);
+    String germany = messageUtils.format(messageKey, Locale.GERMANY, 1.5);
+
+    // Then
+    assertEquals("1.50", us);
+    assertEquals("1,50", germany);
+  }
+
+}